@@ -0,0 +1,72 @@
+package org.apache.cxf.cfgproto.spring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Runs the callbacks registered against an exchange once its response, or
+ * fault, has been sent. Used to release resources, such as concurrency
+ * permits, that are held for the duration of a request.
+ * <p>
+ * Features registering callbacks should {@link #install(InterceptorProvider)
+ * install} this interceptor; installing it more than once is harmless.
+ *
+ * @author pwilson
+ */
+public class ExchangeCompletionInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private static final String CALLBACKS = ExchangeCompletionInterceptor.class.getName() + ".CALLBACKS";
+
+	public ExchangeCompletionInterceptor() {
+		super(Phase.PREPARE_SEND_ENDING);
+	}
+
+	/**
+	 * Adds this interceptor to the out and out-fault chains of the provider.
+	 */
+	public static void install(InterceptorProvider provider) {
+		provider.getOutInterceptors().add(new ExchangeCompletionInterceptor());
+		provider.getOutFaultInterceptors().add(new ExchangeCompletionInterceptor());
+	}
+
+	/**
+	 * Registers a callback to run when the exchange completes.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void addCompletionCallback(Exchange exchange, Runnable callback) {
+		List<Runnable> callbacks = (List<Runnable>) exchange.get(CALLBACKS);
+		if (callbacks == null) {
+			callbacks = new ArrayList<Runnable>(2);
+			exchange.put(CALLBACKS, callbacks);
+		}
+		callbacks.add(callback);
+	}
+
+	/**
+	 * Runs, and forgets, the callbacks registered against the exchange. Safe
+	 * to call more than once; each callback runs at most once.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void complete(Exchange exchange) {
+		List<Runnable> callbacks = (List<Runnable>) exchange.remove(CALLBACKS);
+		if (callbacks == null) {
+			return;
+		}
+		for (Runnable callback: callbacks) {
+			callback.run();
+		}
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		complete(message.getExchange());
+	}
+
+}
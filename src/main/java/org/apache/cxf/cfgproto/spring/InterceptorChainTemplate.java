@@ -0,0 +1,73 @@
+package org.apache.cxf.cfgproto.spring;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+
+/**
+ * An interceptor chain sorted once into its phases, from which a chain is
+ * cloned for each message. Only the position of a message in the chain is
+ * per-message state, so cloning costs a copy of the chain's links; neither
+ * the phases nor the ordering constraints of the interceptors are looked at
+ * again.
+ * <p>
+ * Templates are immutable: a template is built for a fixed list of
+ * interceptors, and a new template is built when that list is replaced.
+ *
+ * @author pwilson
+ */
+public final class InterceptorChainTemplate {
+
+	private final SortedSet<Phase> phases;
+	private final List<Interceptor<? extends Message>> interceptors;
+	private final PhaseInterceptorChain template;
+
+	/**
+	 * @param phases the phases of the chain
+	 * @param interceptors the interceptors, which must not change once the
+	 * template is built
+	 */
+	public InterceptorChainTemplate(SortedSet<Phase> phases, List<Interceptor<? extends Message>> interceptors) {
+		this.phases = phases;
+		this.interceptors = interceptors;
+		this.template = new PhaseInterceptorChain(phases);
+		template.add(interceptors);
+	}
+
+	/**
+	 * Finds the template in the given holder built for the phases and
+	 * interceptors, building and storing one if it holds none or one built
+	 * for others.
+	 */
+	public static InterceptorChainTemplate get(AtomicReference<InterceptorChainTemplate> holder, 
+			SortedSet<Phase> phases, List<Interceptor<? extends Message>> interceptors) {
+		InterceptorChainTemplate template = holder.get();
+		if (template == null || !template.isFor(phases, interceptors)) {
+			template = new InterceptorChainTemplate(phases, interceptors);
+			holder.set(template);
+		}
+		return template;
+	}
+
+	/**
+	 * @return a new chain, ready to run a message
+	 */
+	public PhaseInterceptorChain newChain() {
+		return template.cloneChain();
+	}
+
+	/*
+	 * Phase sets and interceptor lists are compared by identity: both are
+	 * held for the life of a bus or an endpoint, and replaced, never
+	 * modified, when they change.
+	 */
+	private boolean isFor(SortedSet<Phase> otherPhases, List<Interceptor<? extends Message>> otherInterceptors) {
+		return phases == otherPhases && interceptors == otherInterceptors;
+	}
+
+}
@@ -5,7 +5,11 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.type.AnnotationMetadata;
@@ -130,6 +134,45 @@ public abstract class JaxRsComponentRegistrar {
 		}
 	}
 	
+	/**
+	 * Appends a value to a list-typed property, creating the list on first use
+	 * so that repeated registrations accumulate rather than replace each other.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void addToListProperty(BeanDefinition beanDefinition, String propertyName, Object value) {
+		PropertyValue propertyValue = beanDefinition.getPropertyValues().getPropertyValue(propertyName);
+		ManagedList<Object> values;
+		if (propertyValue != null && propertyValue.getValue() instanceof ManagedList) {
+			values = (ManagedList<Object>) propertyValue.getValue();
+		} else {
+			values = new ManagedList<Object>();
+			beanDefinition.getPropertyValues().add(propertyName, values);
+		}
+		values.add(value);
+	}
+
+	/**
+	 * Appends a value to the list held under a key of a map-of-lists property,
+	 * e.g. the policies of a named service.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void addToMapOfListsProperty(BeanDefinition beanDefinition, String propertyName, String key, Object value) {
+		PropertyValue propertyValue = beanDefinition.getPropertyValues().getPropertyValue(propertyName);
+		ManagedMap<String, ManagedList<Object>> map;
+		if (propertyValue != null && propertyValue.getValue() instanceof ManagedMap) {
+			map = (ManagedMap<String, ManagedList<Object>>) propertyValue.getValue();
+		} else {
+			map = new ManagedMap<String, ManagedList<Object>>();
+			beanDefinition.getPropertyValues().add(propertyName, map);
+		}
+		ManagedList<Object> values = map.get(key);
+		if (values == null) {
+			values = new ManagedList<Object>();
+			map.put(key, values);
+		}
+		values.add(value);
+	}
+
 	/*
 	 * Use the 'name' annotation attribute or fall back to the method name.
 	 */
@@ -0,0 +1,83 @@
+package org.apache.cxf.cfgproto.spring;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Server;
+
+/**
+ * Utilities for exposing server metrics over JMX.
+ *
+ * @author pwilson
+ */
+public final class JaxRsManagementUtils {
+
+	public static final String DOMAIN = "org.apache.cxf.cfgproto";
+
+	/**
+	 * Creates the name of a per-server MBean, e.g.
+	 * <code>org.apache.cxf.cfgproto:type=AccessLog,server="jaxRsServer"</code>.
+	 *
+	 * @param type the kind of MBean
+	 * @param serverName the name of the server bean
+	 */
+	public static ObjectName serverObjectName(String type, String serverName) {
+		try {
+			return new ObjectName(DOMAIN + ":type=" + type + ",server=" + ObjectName.quote(serverName));
+		} catch (MalformedObjectNameException e) {
+			throw new IllegalArgumentException("Invalid MBean name for server [" + serverName + "]", e);
+		}
+	}
+
+	/**
+	 * Registers an MBean with the platform MBean server for the lifetime of
+	 * the given server, replacing any MBean left registered under the name.
+	 * The MBean is unregistered when the server stops and registered again
+	 * when it is restarted.
+	 *
+	 * @param server the server the MBean reports on
+	 * @param bus the bus of the server
+	 * @param mbean the MBean
+	 * @param objectName the name to register under
+	 */
+	public static void registerForServer(Server server, Bus bus, final Object mbean, final ObjectName objectName) {
+		final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		register(mbeanServer, mbean, objectName);
+		ServerLifeCycleUtils.onServerRestart(server, bus, new Runnable() {
+			@Override
+			public void run() {
+				register(mbeanServer, mbean, objectName);
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (mbeanServer.isRegistered(objectName)) {
+						mbeanServer.unregisterMBean(objectName);
+					}
+				} catch (JMException e) {
+					// the MBean server no longer knows the name; nothing to clean up
+				}
+			}
+		});
+	}
+
+	private static void register(MBeanServer mbeanServer, Object mbean, ObjectName objectName) {
+		try {
+			if (mbeanServer.isRegistered(objectName)) {
+				mbeanServer.unregisterMBean(objectName);
+			}
+			mbeanServer.registerMBean(mbean, objectName);
+		} catch (JMException e) {
+			throw new IllegalStateException("Unable to register MBean [" + objectName + "]", e);
+		}
+	}
+
+	private JaxRsManagementUtils() {}
+
+}
@@ -0,0 +1,142 @@
+package org.apache.cxf.cfgproto.spring;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.interceptor.OutgoingChainInterceptor;
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageContentsList;
+
+/**
+ * Utilities for interceptors acting on server-side JAX-RS messages.
+ *
+ * @author pwilson
+ */
+public final class JaxRsMessageUtils {
+
+	private static final String TARGET_SERVICE_CLASS = JaxRsMessageUtils.class.getName() + ".TARGET_SERVICE_CLASS";
+	private static final String TARGET_OPERATION = JaxRsMessageUtils.class.getName() + ".TARGET_OPERATION";
+
+	/**
+	 * Stops processing of the inbound message and sends the given response
+	 * instead. Intended for admission-control interceptors running ahead of
+	 * the <code>UNMARSHAL</code> phase, in which case the request body is
+	 * never read.
+	 *
+	 * @param message the inbound message
+	 * @param response the response to send to the caller
+	 */
+	public static void abortWith(Message message, Response response) {
+		Exchange exchange = message.getExchange();
+		Endpoint endpoint = exchange.get(Endpoint.class);
+		Message outMessage = endpoint.getBinding().createMessage();
+		outMessage.setContent(List.class, new MessageContentsList(response));
+		outMessage.setExchange(exchange);
+		outMessage.setInterceptorChain(OutgoingChainInterceptor.getOutInterceptorChain(exchange));
+		exchange.setOutMessage(outMessage);
+		message.getInterceptorChain().doInterceptStartingAt(message, OutgoingChainInterceptor.class.getName());
+	}
+
+	/**
+	 * Determines the class of the root resource that will serve the message.
+	 * <p>
+	 * Once the JAX-RS in-interceptor has run the matched operation is used,
+	 * otherwise only the class-level path templates are matched so that
+	 * the decision can be made before the request body is read. The result
+	 * is cached on the message.
+	 *
+	 * @param message the inbound message
+	 * @return the service class, or <code>null</code> if no root resource matches
+	 */
+	public static Class<?> getTargetServiceClass(Message message) {
+		Class<?> serviceClass = (Class<?>) message.get(TARGET_SERVICE_CLASS);
+		if (serviceClass != null) {
+			return serviceClass;
+		}
+		serviceClass = resolveTargetServiceClass(message);
+		if (serviceClass != null) {
+			message.put(TARGET_SERVICE_CLASS, serviceClass);
+		}
+		return serviceClass;
+	}
+
+	private static Class<?> resolveTargetServiceClass(Message message) {
+		OperationResourceInfo operation = message.getExchange().get(OperationResourceInfo.class);
+		if (operation != null) {
+			return operation.getClassResourceInfo().getServiceClass();
+		}
+		List<ClassResourceInfo> resources = JAXRSUtils.getRootResources(message);
+		if (resources == null || resources.isEmpty()) {
+			return null;
+		}
+		String path = HttpUtils.getPathToMatch(message, true);
+		Map<ClassResourceInfo, MultivaluedMap<String, String>> matched = JAXRSUtils.selectResourceClass(resources, path, message);
+		if (matched == null || matched.isEmpty()) {
+			return null;
+		}
+		return matched.keySet().iterator().next().getServiceClass();
+	}
+
+	/**
+	 * Determines the resource method that will serve the message.
+	 * <p>
+	 * Once the JAX-RS in-interceptor has run the matched operation is used.
+	 * Otherwise the request is matched against the paths, HTTP methods and
+	 * media types of the resource methods, as the in-interceptor will do
+	 * again, so that method-level settings can be applied before the
+	 * request body is read. The result is cached on the message.
+	 *
+	 * @param message the inbound message
+	 * @return the operation, or <code>null</code> if no resource method matches
+	 */
+	public static OperationResourceInfo getTargetOperation(Message message) {
+		OperationResourceInfo operation = message.getExchange().get(OperationResourceInfo.class);
+		if (operation != null) {
+			return operation;
+		}
+		operation = (OperationResourceInfo) message.get(TARGET_OPERATION);
+		if (operation != null) {
+			return operation;
+		}
+		operation = resolveTargetOperation(message);
+		if (operation != null) {
+			message.put(TARGET_OPERATION, operation);
+		}
+		return operation;
+	}
+
+	private static OperationResourceInfo resolveTargetOperation(Message message) {
+		List<ClassResourceInfo> resources = JAXRSUtils.getRootResources(message);
+		if (resources == null || resources.isEmpty()) {
+			return null;
+		}
+		String path = HttpUtils.getPathToMatch(message, true);
+		Map<ClassResourceInfo, MultivaluedMap<String, String>> matched = JAXRSUtils.selectResourceClass(resources, path, message);
+		if (matched == null || matched.isEmpty()) {
+			return null;
+		}
+		String httpMethod = HttpUtils.getProtocolHeader(message, Message.HTTP_REQUEST_METHOD, "POST");
+		String contentType = HttpUtils.getProtocolHeader(message, Message.CONTENT_TYPE, "*/*");
+		String accept = HttpUtils.getProtocolHeader(message, Message.ACCEPT_CONTENT_TYPE, "*/*");
+		try {
+			return JAXRSUtils.findTargetMethod(matched, message, httpMethod, new MetadataMap<String, String>(), 
+											   contentType, JAXRSUtils.sortMediaTypes(accept, "q"), false);
+		} catch (RuntimeException e) {
+			// left to the in-interceptor to answer, such as a malformed Accept header
+			return null;
+		}
+	}
+
+	private JaxRsMessageUtils() {}
+
+}
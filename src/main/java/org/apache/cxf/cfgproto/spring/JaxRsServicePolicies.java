@@ -0,0 +1,73 @@
+package org.apache.cxf.cfgproto.spring;
+
+import static com.google.common.collect.Sets.newIdentityHashSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * The policies of a single type configured for a server: an optional
+ * server-wide default and zero or more overrides keyed by service class.
+ *
+ * @author pwilson
+ */
+public class JaxRsServicePolicies<T extends JaxRsServicePolicy> {
+
+	private final T defaultPolicy;
+	private final Map<Class<?>, T> servicePolicies;
+
+	public JaxRsServicePolicies(T defaultPolicy, Map<Class<?>, T> servicePolicies) {
+		this.defaultPolicy = defaultPolicy;
+		this.servicePolicies = ImmutableMap.copyOf(servicePolicies);
+	}
+
+	/**
+	 * Selects the policy for the given service class, falling back to the
+	 * server-wide default.
+	 *
+	 * @param serviceClass the service class, may be <code>null</code> if unknown
+	 * @return the policy, or <code>null</code> if none applies
+	 */
+	public T getPolicy(Class<?> serviceClass) {
+		if (serviceClass != null) {
+			T policy = servicePolicies.get(serviceClass);
+			if (policy != null) {
+				return policy;
+			}
+		}
+		return defaultPolicy;
+	}
+
+	public T getDefaultPolicy() {
+		return defaultPolicy;
+	}
+
+	/**
+	 * Whether any service declares its own policy, i.e. whether the target
+	 * service of a request must be known before a policy can be selected.
+	 */
+	public boolean hasServicePolicies() {
+		return !servicePolicies.isEmpty();
+	}
+
+	public boolean isEmpty() {
+		return defaultPolicy == null && servicePolicies.isEmpty();
+	}
+
+	/**
+	 * @return each distinct policy instance, default included
+	 */
+	public Collection<T> getPolicies() {
+		Set<T> policies = newIdentityHashSet();
+		if (defaultPolicy != null) {
+			policies.add(defaultPolicy);
+		}
+		policies.addAll(servicePolicies.values());
+		return Collections.unmodifiableSet(policies);
+	}
+
+}
@@ -0,0 +1,15 @@
+package org.apache.cxf.cfgproto.spring;
+
+/**
+ * Marker for configuration that may be applied either to a whole server or
+ * to an individual service registered with that server, such as a rate limit.
+ * <p>
+ * Server-wide policies act as the default for every service of the server; a
+ * policy registered against a service through
+ * {@link JaxRsServiceRegistry#addService(Object, JaxRsServicePolicy...)} takes
+ * precedence for that service.
+ *
+ * @see JaxRsServicePolicies
+ * @author pwilson
+ */
+public interface JaxRsServicePolicy {}
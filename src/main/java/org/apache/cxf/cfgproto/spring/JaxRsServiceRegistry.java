@@ -3,29 +3,106 @@ package org.apache.cxf.cfgproto.spring;
 import static java.util.Arrays.asList;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.common.util.ClassHelper;
 
 public final class JaxRsServiceRegistry {
-	
+
 	private List<Object> jaxRsServices = new ArrayList<Object>();
-	
+	private Map<Object, List<JaxRsServicePolicy>> servicePolicies = new IdentityHashMap<Object, List<JaxRsServicePolicy>>();
+
 	/**
 	 * Add a collection of services to the service list of this JAX-RS
 	 * Server.
-	 * 
+	 *
 	 * @param services the services to add to the service list
 	 */
 	public void addServices(Object... services) {
 		jaxRsServices.addAll(asList(services));
 	}
 
+	/**
+	 * Add a single service to the service list of this JAX-RS Server,
+	 * along with policies that apply to this service only.
+	 *
+	 * @param service the service to add to the service list
+	 * @param policies zero or more policies overriding those of the server
+	 */
+	public void addService(Object service, JaxRsServicePolicy... policies) {
+		jaxRsServices.add(service);
+		addPolicies(service, asList(policies));
+	}
+
+	/**
+	 * Remove services, and any policies associated with them, from the
+	 * service list of this JAX-RS Server. Services are matched by identity.
+	 *
+	 * @param services the services to remove from the service list
+	 */
+	public void removeServices(Object... services) {
+		for (Object service: services) {
+			for (Iterator<Object> registered = jaxRsServices.iterator(); registered.hasNext();) {
+				if (registered.next() == service) {
+					registered.remove();
+				}
+			}
+			servicePolicies.remove(service);
+		}
+	}
+
+	/**
+	 * Associate policies with a service, which may or may not have been
+	 * added to this registry yet.
+	 *
+	 * @param service the service to which the policies apply
+	 * @param policies the policies overriding those of the server
+	 */
+	public void addPolicies(Object service, List<? extends JaxRsServicePolicy> policies) {
+		List<JaxRsServicePolicy> existing = servicePolicies.get(service);
+		if (existing == null) {
+			existing = new ArrayList<JaxRsServicePolicy>();
+			servicePolicies.put(service, existing);
+		}
+		existing.addAll(policies);
+	}
+
 	/**
 	 * Get the collection of services registered to this registry.
-	 * 
+	 *
 	 * @return an iterable collection of services
 	 */
 	public List<Object> getServices() {
 		return jaxRsServices;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Get the service-specific policies of the given type, keyed by the
+	 * class of the service they apply to.
+	 *
+	 * @param policyType the type of policy to select
+	 * @return the policies by service class
+	 * @throws IllegalArgumentException when a service has more than one policy of the type
+	 */
+	public <T extends JaxRsServicePolicy> Map<Class<?>, T> getPolicies(Class<T> policyType) {
+		Map<Class<?>, T> policies = new LinkedHashMap<Class<?>, T>();
+		for (Map.Entry<Object, List<JaxRsServicePolicy>> entry: servicePolicies.entrySet()) {
+			for (JaxRsServicePolicy policy: entry.getValue()) {
+				if (!policyType.isInstance(policy)) {
+					continue;
+				}
+				Class<?> serviceClass = ClassHelper.getRealClass(entry.getKey());
+				if (policies.put(serviceClass, policyType.cast(policy)) != null) {
+					throw new IllegalArgumentException("Found more than one " + policyType.getSimpleName()
+													 + " configured for [" + serviceClass.getName() + "]");
+				}
+			}
+		}
+		return policies;
+	}
+
+}
@@ -0,0 +1,20 @@
+package org.apache.cxf.cfgproto.spring;
+
+import java.util.List;
+
+import org.apache.cxf.feature.Feature;
+
+/**
+ * A feature that contributes JAX-RS providers along with its interceptors.
+ * Servers register the providers alongside their own, rather than the
+ * feature registering them with the provider factory of the endpoint, so
+ * that they are kept when the services or providers of a running server are
+ * updated.
+ *
+ * @author pwilson
+ */
+public interface ProviderFeature extends Feature {
+
+	List<?> getProviders();
+
+}
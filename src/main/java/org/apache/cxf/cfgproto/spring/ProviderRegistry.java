@@ -2,6 +2,7 @@ package org.apache.cxf.cfgproto.spring;
 
 import static java.util.Arrays.asList;
 
+import java.util.Iterator;
 import java.util.List;
 
 import com.google.common.collect.Lists;
@@ -19,6 +20,19 @@ public class ProviderRegistry {
 		this.providers.addAll(asList(providers));
 	}
 	
+	/**
+	 * Removes providers, matched by identity.
+	 */
+	public void removeProvider(Object... providers) {
+		for (Object provider: providers) {
+			for (Iterator<Object> registered = this.providers.iterator(); registered.hasNext();) {
+				if (registered.next() == provider) {
+					registered.remove();
+				}
+			}
+		}
+	}
+	
 	public List<Object> getProviders() {
 		return providers;
 	}
@@ -0,0 +1,105 @@
+package org.apache.cxf.cfgproto.spring;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerLifeCycleListener;
+import org.apache.cxf.endpoint.ServerLifeCycleManager;
+import org.apache.cxf.endpoint.ServerRegistry;
+
+/**
+ * Utilities for tying resources created by features to the life of a server.
+ *
+ * @author pwilson
+ */
+public final class ServerLifeCycleUtils {
+
+	/**
+	 * Runs the callback when the given server is stopped or destroyed, then
+	 * unregisters the listener so that it does not outlive the server.
+	 *
+	 * @param server the server
+	 * @param bus the bus of the server
+	 * @param callback the callback, run at most once
+	 */
+	public static void onServerStop(final Server server, Bus bus, final Runnable callback) {
+		final ServerLifeCycleManager lifeCycleManager = bus.getExtension(ServerLifeCycleManager.class);
+		if (lifeCycleManager == null) {
+			return;
+		}
+		lifeCycleManager.registerListener(new ServerLifeCycleListener() {
+			private boolean stopped;
+
+			@Override
+			public void startServer(Server startedServer) {}
+
+			@Override
+			public synchronized void stopServer(Server stoppedServer) {
+				if (stoppedServer != server || stopped) {
+					return;
+				}
+				stopped = true;
+				lifeCycleManager.unRegisterListener(this);
+				callback.run();
+			}
+		});
+	}
+
+	/**
+	 * Runs the first callback each time the given server is started again,
+	 * and the second when it is stopped or destroyed. Unlike
+	 * {@link #onServerStop}, suits resources that can be reopened, such as
+	 * threads created anew on each start. The listener is unregistered on
+	 * the first event of any server on the bus once the given server has
+	 * been destroyed, as the bus announces no event of its own for that.
+	 *
+	 * @param server the server
+	 * @param bus the bus of the server
+	 * @param onStart the callback run on start, when the server was stopped
+	 * @param onStop the callback run on stop, when the server was started
+	 */
+	public static void onServerRestart(final Server server, Bus bus, final Runnable onStart, final Runnable onStop) {
+		final ServerLifeCycleManager lifeCycleManager = bus.getExtension(ServerLifeCycleManager.class);
+		if (lifeCycleManager == null) {
+			return;
+		}
+		final ServerRegistry serverRegistry = bus.getExtension(ServerRegistry.class);
+		lifeCycleManager.registerListener(new ServerLifeCycleListener() {
+			private boolean stopped;
+
+			@Override
+			public synchronized void startServer(Server startedServer) {
+				if (startedServer != server) {
+					unregisterIfDestroyed();
+					return;
+				}
+				if (!stopped) {
+					return;
+				}
+				stopped = false;
+				onStart.run();
+			}
+
+			@Override
+			public synchronized void stopServer(Server stoppedServer) {
+				if (stoppedServer != server) {
+					unregisterIfDestroyed();
+					return;
+				}
+				if (stopped) {
+					return;
+				}
+				stopped = true;
+				onStop.run();
+			}
+
+			private void unregisterIfDestroyed() {
+				if (stopped && serverRegistry != null && !serverRegistry.getServers().contains(server)) {
+					lifeCycleManager.unRegisterListener(this);
+				}
+			}
+		});
+	}
+
+	private ServerLifeCycleUtils() {}
+
+}
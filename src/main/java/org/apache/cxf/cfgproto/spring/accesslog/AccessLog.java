@@ -0,0 +1,314 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+/**
+ * The access log of a server. Request threads {@link #append append} to a
+ * ring of entries allocated up front, claiming a slot with a
+ * compare-and-set and never waiting: when the writer has fallen a full ring
+ * behind, the request is counted as dropped instead. A single daemon thread
+ * drains the ring, formats the entries in batches and writes them to the
+ * {@link AccessLogPolicy#getFile() file}, flushing whenever it catches up.
+ * The log can be stopped and started again, each start creating a new
+ * writer thread that appends to the file.
+ * <p>
+ * Lines follow the common log format, followed by the latency in
+ * microseconds and the values of the selected headers:
+ * <pre>
+ * 10.0.0.1 - - [19/Oct/2026:10:15:32 +0000] "GET /items?page=2" 200 1534 2874 "curl/8.4.0"
+ * </pre>
+ *
+ * @author pwilson
+ */
+public class AccessLog implements AccessLogMBean {
+
+	private static final Logger LOG = LogUtils.getLogger(AccessLog.class);
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long STOP_TIMEOUT_MILLIS = 5000;
+	private static final int MAX_BATCH = 1024;
+
+	private final String fileName;
+	private final String serverName;
+	private final String[] headers;
+	private final AccessLogEntry[] entries;
+	private final int mask;
+	private final AccessLogFile file;
+	private Thread writer;
+
+	// the sequence of the next entry to claim, and of the next to write
+	private final AtomicLong head = new AtomicLong();
+	private volatile long tail;
+
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong failedWrites = new AtomicLong();
+	private volatile boolean running;
+
+	public AccessLog(AccessLogPolicy policy, String serverName) {
+		if (policy.getFile() == null) {
+			throw new IllegalArgumentException("No access log file for server [" + serverName + "]");
+		}
+		this.fileName = policy.getFile();
+		this.serverName = serverName;
+		this.headers = policy.getHeaders().clone();
+		int capacity = Integer.highestOneBit(Math.max(1, policy.getCapacity()) * 2 - 1);
+		this.entries = new AccessLogEntry[capacity];
+		for (int i = 0; i < capacity; i++) {
+			entries[i] = new AccessLogEntry(headers.length);
+		}
+		this.mask = capacity - 1;
+		this.file = new AccessLogFile(new File(fileName), policy.getMaxFileSize(), policy.getMaxFiles());
+	}
+
+	/**
+	 * Starts a writer thread, unless one is running. The writer of a previous
+	 * start that outlived its {@link #stop()} is waited for first, so that a
+	 * single thread writes to the file.
+	 */
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		if (writer != null) {
+			join(writer, 0);
+		}
+		running = true;
+		writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "access-log-" + serverName);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Stops the writer thread once it has written the entries appended so
+	 * far, and closes the file.
+	 */
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(writer);
+		join(writer, STOP_TIMEOUT_MILLIS);
+	}
+
+	private static void join(Thread thread, long timeoutMillis) {
+		try {
+			thread.join(timeoutMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Appends a completed request to the log, without waiting.
+	 *
+	 * @param request the request message
+	 * @param status the status of the response
+	 * @param bytes the size of the response body, or -1 if unknown
+	 * @param latencyNanos the time from receipt of the request to the flushing
+	 * of the response
+	 * @return <code>false</code> if the request was dropped
+	 */
+	public boolean append(Message request, int status, long bytes, long latencyNanos) {
+		long sequence = claim();
+		if (sequence < 0) {
+			dropped.incrementAndGet();
+			return false;
+		}
+		AccessLogEntry entry = entries[(int) (sequence & mask)];
+		entry.timeMillis = System.currentTimeMillis();
+		entry.remoteAddress = remoteAddress(request);
+		entry.method = (String) request.get(Message.HTTP_REQUEST_METHOD);
+		entry.uri = uri(request);
+		entry.status = status;
+		entry.bytes = bytes;
+		entry.latencyNanos = latencyNanos;
+		if (headers.length > 0) {
+			Map<String, List<String>> requestHeaders = CastUtils.cast((Map<?, ?>) request.get(Message.PROTOCOL_HEADERS));
+			for (int i = 0; i < headers.length; i++) {
+				List<String> values = requestHeaders == null ? null : requestHeaders.get(headers[i]);
+				entry.headerValues[i] = values == null || values.isEmpty() ? null : values.get(0);
+			}
+		}
+		entry.publish(sequence);
+		return true;
+	}
+
+	private long claim() {
+		for (;;) {
+			long sequence = head.get();
+			if (sequence - tail >= entries.length) {
+				return -1;
+			}
+			if (head.compareAndSet(sequence, sequence + 1)) {
+				return sequence;
+			}
+		}
+	}
+
+	private void drain() {
+		StringBuilder batch = new StringBuilder(MAX_BATCH * 128);
+		SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MMM/yyyy:HH:mm:ss Z", Locale.US);
+		Date date = new Date();
+		boolean unflushed = false;
+		try {
+			for (;;) {
+				boolean stopping = !running;
+				int count = 0;
+				long next = tail;
+				while (count < MAX_BATCH) {
+					AccessLogEntry entry = entries[(int) (next & mask)];
+					if (!entry.isPublished(next)) {
+						break;
+					}
+					date.setTime(entry.timeMillis);
+					format(entry, dateFormat.format(date), batch);
+					next++;
+					// frees the slot for producers, now that it has been read
+					tail = next;
+					count++;
+				}
+				if (count > 0) {
+					unflushed |= write(batch, false);
+					written.addAndGet(count);
+					batch.setLength(0);
+					if (count == MAX_BATCH) {
+						continue;
+					}
+				}
+				if (unflushed) {
+					unflushed = write(batch, true);
+				}
+				if (stopping && tail == head.get()) {
+					return;
+				}
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			}
+		} finally {
+			try {
+				file.close();
+			} catch (IOException e) {
+				LOG.log(Level.WARNING, "Unable to close access log [" + fileName + "]", e);
+			}
+		}
+	}
+
+	/*
+	 * Returns whether written lines remain unflushed.
+	 */
+	private boolean write(StringBuilder batch, boolean flush) {
+		try {
+			if (flush) {
+				file.flush();
+				return false;
+			}
+			file.write(batch);
+			return true;
+		} catch (IOException e) {
+			if (failedWrites.getAndIncrement() == 0) {
+				LOG.log(Level.WARNING, "Unable to write access log [" + fileName + "]", e);
+			}
+			return !flush;
+		}
+	}
+
+	private void format(AccessLogEntry entry, String time, StringBuilder out) {
+		out.append(entry.remoteAddress).append(" - - [").append(time).append("] \"")
+		   .append(entry.method).append(' ').append(entry.uri).append("\" ")
+		   .append(entry.status).append(' ');
+		if (entry.bytes < 0) {
+			out.append('-');
+		} else {
+			out.append(entry.bytes);
+		}
+		out.append(' ').append(TimeUnit.NANOSECONDS.toMicros(entry.latencyNanos));
+		for (int i = 0; i < entry.headerValues.length; i++) {
+			String value = entry.headerValues[i];
+			out.append(' ');
+			if (value == null) {
+				out.append('-');
+			} else {
+				out.append('"').append(value.replace("\"", "\\\"")).append('"');
+			}
+			entry.headerValues[i] = null;
+		}
+		out.append('\n');
+		entry.remoteAddress = null;
+		entry.method = null;
+		entry.uri = null;
+	}
+
+	private static String remoteAddress(Message request) {
+		Object servletRequest = request.get(AbstractHTTPDestination.HTTP_REQUEST);
+		if (servletRequest instanceof HttpServletRequest) {
+			String remoteAddress = ((HttpServletRequest) servletRequest).getRemoteAddr();
+			if (remoteAddress != null) {
+				return remoteAddress;
+			}
+		}
+		return "-";
+	}
+
+	private static String uri(Message request) {
+		String uri = (String) request.get(Message.REQUEST_URI);
+		String query = (String) request.get(Message.QUERY_STRING);
+		// the local transport leaves the query on the URI, HTTP does not
+		return StringUtils.isEmpty(query) || uri == null || uri.indexOf('?') >= 0 ? uri : uri + "?" + query;
+	}
+
+	@Override
+	public String getFile() {
+		return fileName;
+	}
+
+	@Override
+	public int getCapacity() {
+		return entries.length;
+	}
+
+	@Override
+	public int getPending() {
+		return (int) (head.get() - tail);
+	}
+
+	@Override
+	public long getWrittenCount() {
+		return written.get();
+	}
+
+	@Override
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	@Override
+	public long getFailedWriteCount() {
+		return failedWrites.get();
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+/**
+ * A slot of the ring of an {@link AccessLog}, allocated once and refilled
+ * for each request it holds.
+ *
+ * @author pwilson
+ */
+final class AccessLogEntry {
+
+	long timeMillis;
+	String remoteAddress;
+	String method;
+	String uri;
+	int status;
+	long bytes;
+	long latencyNanos;
+	final String[] headerValues;
+
+	/*
+	 * The sequence of the request held, published once the other fields are
+	 * filled in; read by the writer before it reads them.
+	 */
+	private volatile long published = -1;
+
+	AccessLogEntry(int headers) {
+		this.headerValues = new String[headers];
+	}
+
+	void publish(long sequence) {
+		published = sequence;
+	}
+
+	boolean isPublished(long sequence) {
+		return published == sequence;
+	}
+
+}
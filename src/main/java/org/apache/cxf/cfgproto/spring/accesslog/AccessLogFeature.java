@@ -0,0 +1,71 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+import java.util.List;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.cfgproto.spring.ServerLifeCycleUtils;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Message;
+
+/**
+ * Writes each request of a server to its {@link AccessLog}, exposed as the
+ * MBean <code>org.apache.cxf.cfgproto:type=AccessLog,server="..."</code>.
+ * The writer thread starts with the server and stops with it, once it has
+ * written the requests completed before, and starts again if the server is
+ * restarted.
+ * <p>
+ * Unlike a logging interceptor writing through an appender, request threads
+ * never contend for a lock: they fill an entry of the log's ring and go on.
+ *
+ * @author pwilson
+ */
+public class AccessLogFeature extends AbstractFeature {
+
+	private final AccessLog accessLog;
+	private final String serverName;
+
+	public AccessLogFeature(AccessLogPolicy policy, String serverName) {
+		this.serverName = serverName;
+		this.accessLog = policy.createAccessLog(serverName);
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		JaxRsManagementUtils.registerForServer(server, bus, accessLog,
+				JaxRsManagementUtils.serverObjectName("AccessLog", serverName));
+		accessLog.start();
+		ServerLifeCycleUtils.onServerRestart(server, bus, new Runnable() {
+			@Override
+			public void run() {
+				accessLog.start();
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				accessLog.stop();
+			}
+		});
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new AccessLogInterceptor());
+		addResponseInterceptors(provider.getOutInterceptors());
+		addResponseInterceptors(provider.getOutFaultInterceptors());
+	}
+
+	private void addResponseInterceptors(List<Interceptor<? extends Message>> chain) {
+		chain.add(new AccessLogInterceptor.Counting());
+		chain.add(new AccessLogInterceptor.Completed(accessLog));
+	}
+
+	public AccessLog getAccessLog() {
+		return accessLog;
+	}
+
+}
@@ -0,0 +1,93 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import com.google.common.base.Charsets;
+
+/**
+ * The log file of an {@link AccessLog}, rotated once it reaches its maximum
+ * size. Used by the writer thread only.
+ *
+ * @author pwilson
+ */
+final class AccessLogFile implements Closeable {
+
+	private final File file;
+	private final long maxFileSize;
+	private final int maxFiles;
+	private Writer writer;
+	private long size;
+
+	AccessLogFile(File file, long maxFileSize, int maxFiles) {
+		this.file = file;
+		this.maxFileSize = maxFileSize;
+		this.maxFiles = maxFiles;
+	}
+
+	/**
+	 * Appends lines to the file, rotating it first if they would take it
+	 * over its maximum size. Lines are taken to be mostly ASCII.
+	 */
+	void write(CharSequence lines) throws IOException {
+		if (writer == null) {
+			open();
+		}
+		if (size > 0 && size + lines.length() > maxFileSize) {
+			rotate();
+		}
+		writer.append(lines);
+		size += lines.length();
+	}
+
+	void flush() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	private void open() throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Unable to create directory [" + directory + "]");
+		}
+		size = file.length();
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), Charsets.UTF_8), 64 * 1024);
+	}
+
+	private void rotate() throws IOException {
+		close();
+		File oldest = rotated(maxFiles);
+		if (oldest.exists() && !oldest.delete()) {
+			throw new IOException("Unable to delete [" + oldest + "]");
+		}
+		for (int i = maxFiles - 1; i >= 1; i--) {
+			File rotated = rotated(i);
+			if (rotated.exists() && !rotated.renameTo(rotated(i + 1))) {
+				throw new IOException("Unable to rename [" + rotated + "]");
+			}
+		}
+		if (maxFiles > 0 ? !file.renameTo(rotated(1)) : !file.delete()) {
+			throw new IOException("Unable to rotate [" + file + "]");
+		}
+		open();
+	}
+
+	private File rotated(int index) {
+		return new File(file.getPath() + "." + index);
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+import java.io.OutputStream;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.MessageSenderInterceptor.MessageSenderEndingInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import com.google.common.io.CountingOutputStream;
+
+/**
+ * Notes when a request is received, and appends it to the {@link AccessLog}
+ * once its response has been flushed.
+ *
+ * @author pwilson
+ */
+public class AccessLogInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	static final String RECEIVED = AccessLogInterceptor.class.getName() + ".RECEIVED";
+
+	public AccessLogInterceptor() {
+		super(Phase.RECEIVE);
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		message.getExchange().put(RECEIVED, System.nanoTime());
+	}
+
+	/**
+	 * Counts the bytes of the response body as they are written.
+	 */
+	static class Counting extends AbstractPhaseInterceptor<Message> {
+
+		Counting() {
+			super(Phase.PRE_STREAM);
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			OutputStream out = message.getContent(OutputStream.class);
+			if (out != null && message.getExchange().get(RECEIVED) != null) {
+				CountingOutputStream counting = new CountingOutputStream(out);
+				message.setContent(OutputStream.class, counting);
+				message.getExchange().put(CountingOutputStream.class, counting);
+			}
+		}
+
+	}
+
+	/**
+	 * Appends the request to the log once the transport has closed its
+	 * response.
+	 */
+	static class Completed extends AbstractPhaseInterceptor<Message> {
+
+		private final AccessLog accessLog;
+
+		Completed(AccessLog accessLog) {
+			super(Phase.PREPARE_SEND_ENDING);
+			addAfter(MessageSenderEndingInterceptor.class.getName());
+			this.accessLog = accessLog;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			Exchange exchange = message.getExchange();
+			Long received = (Long) exchange.remove(RECEIVED);
+			if (received == null) {
+				return;
+			}
+			CountingOutputStream counting = (CountingOutputStream) exchange.remove(CountingOutputStream.class.getName());
+			Integer status = (Integer) message.get(Message.RESPONSE_CODE);
+			accessLog.append(exchange.getInMessage(), 
+							 status == null ? 0 : status, 
+							 counting == null ? -1 : counting.getCount(), 
+							 System.nanoTime() - received);
+		}
+
+	}
+
+}
@@ -0,0 +1,35 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+/**
+ * Management interface of the {@link AccessLog} of a server.
+ *
+ * @author pwilson
+ */
+public interface AccessLogMBean {
+
+	String getFile();
+
+	int getCapacity();
+
+	/**
+	 * The number of requests awaiting the writer.
+	 */
+	int getPending();
+
+	/**
+	 * The number of requests written to the log since the server started.
+	 */
+	long getWrittenCount();
+
+	/**
+	 * The number of requests left out of the log because the writer had
+	 * fallen {@link #getCapacity() capacity} requests behind.
+	 */
+	long getDroppedCount();
+
+	/**
+	 * The number of batches the writer failed to write.
+	 */
+	long getFailedWriteCount();
+
+}
@@ -0,0 +1,79 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+/**
+ * Where the {@link AccessLog} of a server is written, what it holds and how
+ * much of it is kept.
+ *
+ * @see JaxRsAccessLog
+ * @author pwilson
+ */
+public class AccessLogPolicy {
+
+	private String file;
+	private String[] headers = new String[0];
+	private int capacity = 8192;
+	private long maxFileSize = 100L * 1024 * 1024;
+	private int maxFiles = 10;
+
+	public AccessLog createAccessLog(String serverName) {
+		return new AccessLog(this, serverName);
+	}
+
+	/**
+	 * The path of the log file.
+	 */
+	public String getFile() {
+		return file;
+	}
+
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	/**
+	 * The request headers logged after the fixed fields, in order.
+	 */
+	public String[] getHeaders() {
+		return headers;
+	}
+
+	public void setHeaders(String[] headers) {
+		this.headers = headers;
+	}
+
+	/**
+	 * The number of requests held awaiting the writer, rounded up to a
+	 * power of two. Requests completing while it is full are dropped.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * The size at which the log file is rotated.
+	 */
+	public long getMaxFileSize() {
+		return maxFileSize;
+	}
+
+	public void setMaxFileSize(long maxFileSize) {
+		this.maxFileSize = maxFileSize;
+	}
+
+	/**
+	 * The number of rotated files kept, as <code>file.1</code> (the most
+	 * recent) to <code>file.N</code>.
+	 */
+	public int getMaxFiles() {
+		return maxFiles;
+	}
+
+	public void setMaxFiles(int maxFiles) {
+		this.maxFiles = maxFiles;
+	}
+
+}
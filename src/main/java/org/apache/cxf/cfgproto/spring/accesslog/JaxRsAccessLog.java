@@ -0,0 +1,45 @@
+package org.apache.cxf.cfgproto.spring.accesslog;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Writes an access log of the server declared by a
+ * {@link JaxRsServer @JaxRsServer} configuration class.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsAccessLog(file = "/var/log/app/access.log", headers = {"User-Agent"})
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ *
+ * @see AccessLog
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsAccessLog {
+
+	String file();
+
+	/**
+	 * The request headers logged after the fixed fields.
+	 */
+	String[] headers() default {};
+
+	/**
+	 * The number of requests held awaiting the writer.
+	 */
+	int capacity() default 8192;
+
+	long maxFileSize() default 100L * 1024 * 1024;
+
+	int maxFiles() default 10;
+
+}
@@ -0,0 +1,55 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+/**
+ * The resources used by the requests of one resource method.
+ *
+ * @author pwilson
+ */
+public class EndpointUsage {
+
+	private final String endpoint;
+	private final Histogram cpuNanos = new Histogram();
+	private final Histogram allocatedBytes = new Histogram();
+
+	EndpointUsage(String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	void record(long cpu, long allocated) {
+		cpuNanos.record(cpu);
+		allocatedBytes.record(allocated);
+	}
+
+	/**
+	 * @return the HTTP method and resource method, e.g. <code>GET OrderService.getOrder</code>
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public long getCalls() {
+		return cpuNanos.getCount();
+	}
+
+	/**
+	 * @return the CPU time of each request, in nanoseconds
+	 */
+	public Histogram getCpuNanos() {
+		return cpuNanos;
+	}
+
+	/**
+	 * @return the bytes allocated by each request
+	 */
+	public Histogram getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d calls, %d bytes allocated (mean %.0f, p99 %d), %.3f ms CPU (mean %.3f, p99 %.3f)",
+				endpoint, getCalls(), allocatedBytes.getSum(), allocatedBytes.getMean(), allocatedBytes.getPercentile(99),
+				cpuNanos.getSum() / 1e6, cpuNanos.getMean() / 1e6, cpuNanos.getPercentile(99) / 1e6);
+	}
+
+}
@@ -0,0 +1,81 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative values in power-of-two buckets, cheap enough
+ * to record into on every request. Percentiles are the upper bound of their
+ * bucket, and so within a factor of two of the true value.
+ *
+ * @author pwilson
+ */
+public class Histogram {
+
+	private static final int BUCKETS = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long value) {
+		long recorded = Math.max(0, value);
+		buckets.incrementAndGet(bucketOf(recorded));
+		count.incrementAndGet();
+		sum.addAndGet(recorded);
+		for (;;) {
+			long current = max.get();
+			if (recorded <= current || max.compareAndSet(current, recorded)) {
+				return;
+			}
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getSum() {
+		return sum.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) sum.get() / n;
+	}
+
+	/**
+	 * @param percentile between <code>0</code> and <code>100</code>
+	 * @return the upper bound of the bucket holding the percentile, capped
+	 * at the largest value recorded, or <code>0</code> if none was
+	 */
+	public long getPercentile(double percentile) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	private static int bucketOf(long value) {
+		return value == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+	}
+
+	private static long upperBoundOf(int bucket) {
+		return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+
+}
@@ -0,0 +1,45 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Measures the CPU time and allocated bytes of each request to the server
+ * declared by a {@link JaxRsServer @JaxRsServer} configuration class, and
+ * attributes them to the resource method handling it.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsResourceAccounting(topEndpoints = 5)
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ * The most expensive endpoints are exposed over JMX.
+ *
+ * @see ResourceAccounting
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsResourceAccounting {
+
+	boolean cpuTime() default true;
+
+	boolean allocatedBytes() default true;
+
+	/**
+	 * The number of endpoints in the most expensive lists.
+	 */
+	int topEndpoints() default 10;
+
+	/**
+	 * The most endpoints tracked separately; others are tracked together.
+	 */
+	int maxEndpoints() default 500;
+
+}
@@ -0,0 +1,34 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.service.invoker.Invoker;
+
+/**
+ * Takes checkpoints of the meter of a request around the invocation of its
+ * resource method, which may run on a thread of the server's executor.
+ *
+ * @author pwilson
+ */
+class MeteringInvoker implements Invoker {
+
+	private final Invoker delegate;
+
+	MeteringInvoker(Invoker delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object invoke(Exchange exchange, Object o) {
+		RequestMeter meter = exchange.get(RequestMeter.class);
+		if (meter == null) {
+			return delegate.invoke(exchange, o);
+		}
+		meter.checkpoint();
+		try {
+			return delegate.invoke(exchange, o);
+		} finally {
+			meter.checkpoint();
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+/**
+ * Accumulates the CPU time and allocated bytes of the threads handling a
+ * request. Each {@link #checkpoint()} adds what the current thread used
+ * since the previous checkpoint, when that was taken on the same thread;
+ * after a hand-off to another thread, measurement resumes from the first
+ * checkpoint on that thread.
+ *
+ * @author pwilson
+ */
+final class RequestMeter {
+
+	private final boolean cpuTime;
+	private final boolean allocation;
+
+	private Thread thread;
+	private long cpuMark;
+	private long allocationMark;
+	private long cpuNanos;
+	private long allocatedBytes;
+
+	RequestMeter(boolean cpuTime, boolean allocation) {
+		this.cpuTime = cpuTime;
+		this.allocation = allocation;
+		checkpoint();
+	}
+
+	synchronized void checkpoint() {
+		Thread current = Thread.currentThread();
+		long cpu = cpuTime ? ThreadUsage.cpuTimeNanos() : 0;
+		long allocated = allocation ? ThreadUsage.allocatedBytes() : 0;
+		if (current == thread) {
+			cpuNanos += Math.max(0, cpu - cpuMark);
+			allocatedBytes += Math.max(0, allocated - allocationMark);
+		}
+		thread = current;
+		cpuMark = cpu;
+		allocationMark = allocated;
+	}
+
+	synchronized long getCpuNanos() {
+		return cpuNanos;
+	}
+
+	synchronized long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+}
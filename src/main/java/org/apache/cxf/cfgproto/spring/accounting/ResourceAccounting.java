@@ -0,0 +1,136 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Ordering;
+import com.google.common.primitives.Longs;
+
+/**
+ * The CPU time and allocated bytes of the requests of a server, attributed
+ * to the resource methods they were dispatched to. Requests matching no
+ * resource method are attributed to {@link #UNMATCHED}; endpoints beyond the
+ * {@link ResourceAccountingPolicy#getMaxEndpoints() maximum} to
+ * {@link #OTHER}.
+ *
+ * @author pwilson
+ */
+public class ResourceAccounting implements ResourceAccountingMBean {
+
+	public static final String UNMATCHED = "(unmatched)";
+	public static final String OTHER = "(other)";
+
+	private static final Ordering<EndpointUsage> BY_ALLOCATED_BYTES = Ordering.from(new Comparator<EndpointUsage>() {
+		@Override
+		public int compare(EndpointUsage left, EndpointUsage right) {
+			return Longs.compare(right.getAllocatedBytes().getSum(), left.getAllocatedBytes().getSum());
+		}
+	});
+	private static final Ordering<EndpointUsage> BY_CPU_TIME = Ordering.from(new Comparator<EndpointUsage>() {
+		@Override
+		public int compare(EndpointUsage left, EndpointUsage right) {
+			return Longs.compare(right.getCpuNanos().getSum(), left.getCpuNanos().getSum());
+		}
+	});
+
+	private final int topEndpoints;
+	private final int maxEndpoints;
+	private final boolean cpuTime;
+	private final boolean allocation;
+	private final ConcurrentMap<String, EndpointUsage> usages = new ConcurrentHashMap<String, EndpointUsage>();
+
+	public ResourceAccounting(ResourceAccountingPolicy policy) {
+		this.topEndpoints = policy.getTopEndpoints();
+		this.maxEndpoints = policy.getMaxEndpoints();
+		this.cpuTime = policy.isCpuTime() && ThreadUsage.enableCpuTime();
+		this.allocation = policy.isAllocatedBytes() && ThreadUsage.isAllocationSupported();
+	}
+
+	/**
+	 * Records the resources used by a request.
+	 *
+	 * @param endpoint the endpoint the request was dispatched to
+	 */
+	public void record(String endpoint, long cpuNanos, long allocatedBytes) {
+		EndpointUsage usage = usages.get(endpoint);
+		if (usage == null) {
+			String name = usages.size() >= maxEndpoints ? OTHER : endpoint;
+			EndpointUsage created = new EndpointUsage(name);
+			usage = usages.putIfAbsent(name, created);
+			if (usage == null) {
+				usage = created;
+			}
+		}
+		usage.record(cpuNanos, allocatedBytes);
+	}
+
+	/**
+	 * @return the usage of the endpoint, or <code>null</code> if none was recorded
+	 */
+	public EndpointUsage getUsage(String endpoint) {
+		return usages.get(endpoint);
+	}
+
+	/**
+	 * @return the endpoints that allocated the most in total, most first
+	 */
+	public List<EndpointUsage> getTopByAllocatedBytes(int count) {
+		return BY_ALLOCATED_BYTES.leastOf(usages.values(), count);
+	}
+
+	/**
+	 * @return the endpoints that used the most CPU time in total, most first
+	 */
+	public List<EndpointUsage> getTopByCpuTime(int count) {
+		return BY_CPU_TIME.leastOf(usages.values(), count);
+	}
+
+	RequestMeter newMeter() {
+		return cpuTime || allocation ? new RequestMeter(cpuTime, allocation) : null;
+	}
+
+	@Override
+	public String[] getTopEndpointsByAllocatedBytes() {
+		return describe(getTopByAllocatedBytes(topEndpoints));
+	}
+
+	@Override
+	public String[] getTopEndpointsByCpuTime() {
+		return describe(getTopByCpuTime(topEndpoints));
+	}
+
+	@Override
+	public String[] getEndpoints() {
+		List<String> endpoints = new ArrayList<String>(usages.keySet());
+		Collections.sort(endpoints);
+		return endpoints.toArray(new String[endpoints.size()]);
+	}
+
+	@Override
+	public boolean isCpuTimeMeasured() {
+		return cpuTime;
+	}
+
+	@Override
+	public boolean isAllocationMeasured() {
+		return allocation;
+	}
+
+	@Override
+	public void reset() {
+		usages.clear();
+	}
+
+	private static String[] describe(List<EndpointUsage> usages) {
+		String[] descriptions = new String[usages.size()];
+		for (int i = 0; i < descriptions.length; i++) {
+			descriptions[i] = usages.get(i).toString();
+		}
+		return descriptions;
+	}
+
+}
@@ -0,0 +1,57 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.Service;
+
+/**
+ * Meters the CPU time and allocated bytes of the requests of a server, and
+ * exposes the {@link ResourceAccounting} as the MBean
+ * <code>org.apache.cxf.cfgproto:type=ResourceAccounting,server="..."</code>.
+ * <p>
+ * Requests are metered on the threads of the transport and of the server's
+ * executor; checkpoints are taken where the request may change thread, on
+ * either side of the invocation of the resource method.
+ *
+ * @author pwilson
+ */
+public class ResourceAccountingFeature extends AbstractFeature {
+
+	private final String serverName;
+	private final ResourceAccounting accounting;
+
+	public ResourceAccountingFeature(ResourceAccountingPolicy policy, String serverName) {
+		this.serverName = serverName;
+		this.accounting = policy.createAccounting();
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		Service service = server.getEndpoint().getService();
+		if (!(service.getInvoker() instanceof MeteringInvoker)) {
+			service.setInvoker(new MeteringInvoker(service.getInvoker()));
+		}
+		JaxRsManagementUtils.registerForServer(server, bus, accounting,
+				JaxRsManagementUtils.serverObjectName("ResourceAccounting", serverName));
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new ResourceAccountingInterceptor(accounting));
+		provider.getInInterceptors().add(new ResourceAccountingInterceptor.Checkpoint(Phase.PRE_INVOKE));
+		provider.getOutInterceptors().add(new ResourceAccountingInterceptor.Checkpoint(Phase.SETUP));
+		provider.getOutFaultInterceptors().add(new ResourceAccountingInterceptor.Checkpoint(Phase.SETUP));
+		ExchangeCompletionInterceptor.install(provider);
+	}
+
+	public ResourceAccounting getAccounting() {
+		return accounting;
+	}
+
+}
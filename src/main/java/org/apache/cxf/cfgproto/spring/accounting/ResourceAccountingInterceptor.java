@@ -0,0 +1,75 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+import java.lang.reflect.Method;
+
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Starts metering a request as it is received, and records what it used
+ * against its resource method once its response has been sent.
+ *
+ * @author pwilson
+ */
+public class ResourceAccountingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final ResourceAccounting accounting;
+
+	public ResourceAccountingInterceptor(ResourceAccounting accounting) {
+		super(Phase.RECEIVE);
+		this.accounting = accounting;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		final RequestMeter meter = accounting.newMeter();
+		if (meter == null) {
+			return;
+		}
+		final Exchange exchange = message.getExchange();
+		exchange.put(RequestMeter.class, meter);
+		ExchangeCompletionInterceptor.addCompletionCallback(exchange, new Runnable() {
+			@Override
+			public void run() {
+				meter.checkpoint();
+				accounting.record(endpointOf(exchange), meter.getCpuNanos(), meter.getAllocatedBytes());
+			}
+		});
+	}
+
+	static String endpointOf(Exchange exchange) {
+		OperationResourceInfo operation = exchange.get(OperationResourceInfo.class);
+		if (operation == null) {
+			return ResourceAccounting.UNMATCHED;
+		}
+		Method method = operation.getAnnotatedMethod() != null ? operation.getAnnotatedMethod() : operation.getMethodToInvoke();
+		return operation.getHttpMethod() + " " 
+			 + operation.getClassResourceInfo().getServiceClass().getSimpleName() + "." + method.getName();
+	}
+
+	/**
+	 * Takes a checkpoint of the meter of a request wherever the request may
+	 * be handed to, or back from, another thread.
+	 */
+	static class Checkpoint extends AbstractPhaseInterceptor<Message> {
+
+		Checkpoint(String phase) {
+			super(phase);
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			RequestMeter meter = message.getExchange().get(RequestMeter.class);
+			if (meter != null) {
+				meter.checkpoint();
+			}
+		}
+
+	}
+
+}
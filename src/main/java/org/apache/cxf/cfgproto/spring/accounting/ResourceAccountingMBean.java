@@ -0,0 +1,28 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+/**
+ * Management interface of the {@link ResourceAccounting} of a server.
+ *
+ * @author pwilson
+ */
+public interface ResourceAccountingMBean {
+
+	/**
+	 * The endpoints that allocated the most in total, most first.
+	 */
+	String[] getTopEndpointsByAllocatedBytes();
+
+	/**
+	 * The endpoints that used the most CPU time in total, most first.
+	 */
+	String[] getTopEndpointsByCpuTime();
+
+	String[] getEndpoints();
+
+	boolean isCpuTimeMeasured();
+
+	boolean isAllocationMeasured();
+
+	void reset();
+
+}
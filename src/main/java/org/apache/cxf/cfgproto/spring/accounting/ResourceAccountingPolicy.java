@@ -0,0 +1,65 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+/**
+ * What the {@link ResourceAccounting} of a server measures, and how much of
+ * it is reported.
+ *
+ * @see JaxRsResourceAccounting
+ * @author pwilson
+ */
+public class ResourceAccountingPolicy {
+
+	private boolean cpuTime = true;
+	private boolean allocatedBytes = true;
+	private int topEndpoints = 10;
+	private int maxEndpoints = 500;
+
+	public ResourceAccounting createAccounting() {
+		return new ResourceAccounting(this);
+	}
+
+	/**
+	 * Whether to measure the CPU time of requests.
+	 */
+	public boolean isCpuTime() {
+		return cpuTime;
+	}
+
+	public void setCpuTime(boolean cpuTime) {
+		this.cpuTime = cpuTime;
+	}
+
+	/**
+	 * Whether to measure the bytes allocated by requests.
+	 */
+	public boolean isAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public void setAllocatedBytes(boolean allocatedBytes) {
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 * The number of endpoints in the most expensive lists exposed over JMX.
+	 */
+	public int getTopEndpoints() {
+		return topEndpoints;
+	}
+
+	public void setTopEndpoints(int topEndpoints) {
+		this.topEndpoints = topEndpoints;
+	}
+
+	/**
+	 * The most endpoints tracked separately.
+	 */
+	public int getMaxEndpoints() {
+		return maxEndpoints;
+	}
+
+	public void setMaxEndpoints(int maxEndpoints) {
+		this.maxEndpoints = maxEndpoints;
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.apache.cxf.cfgproto.spring.accounting;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reads the CPU time and allocated bytes of the current thread, where the
+ * JVM measures them.
+ *
+ * @author pwilson
+ */
+final class ThreadUsage {
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean ALLOCATION_SUPPORTED = 
+			ClassUtils.isPresent("com.sun.management.ThreadMXBean", ThreadUsage.class.getClassLoader()) 
+			&& AllocationCounter.isSupported();
+
+	/**
+	 * Turns on the measurement of CPU time, unless the JVM cannot measure it.
+	 *
+	 * @return whether CPU time is measured
+	 */
+	static boolean enableCpuTime() {
+		if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+			return false;
+		}
+		if (!THREADS.isThreadCpuTimeEnabled()) {
+			THREADS.setThreadCpuTimeEnabled(true);
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether allocated bytes are measured
+	 */
+	static boolean isAllocationSupported() {
+		return ALLOCATION_SUPPORTED;
+	}
+
+	static long cpuTimeNanos() {
+		return THREADS.getCurrentThreadCpuTime();
+	}
+
+	static long allocatedBytes() {
+		return AllocationCounter.allocatedBytes();
+	}
+
+	/*
+	 * Loaded only on JVMs with the HotSpot extensions of ThreadMXBean.
+	 */
+	private static final class AllocationCounter {
+
+		static boolean isSupported() {
+			if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+				return false;
+			}
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+				threads.setThreadAllocatedMemoryEnabled(true);
+			}
+			return threads.isThreadAllocatedMemorySupported();
+		}
+
+		static long allocatedBytes() {
+			return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+
+	}
+
+	private ThreadUsage() {}
+
+}
@@ -0,0 +1,44 @@
+package org.apache.cxf.cfgproto.spring.adaptive;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+
+/**
+ * Sheds load beyond the adaptive concurrency limit of a server, and exposes
+ * the limiter as the MBean
+ * <code>org.apache.cxf.cfgproto:type=AdaptiveConcurrencyLimiter,server="..."</code>.
+ *
+ * @author pwilson
+ */
+public class AdaptiveConcurrencyLimitFeature extends AbstractFeature {
+
+	private final String serverName;
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	public AdaptiveConcurrencyLimitFeature(AdaptiveConcurrencyLimitPolicy policy, String serverName) {
+		this.serverName = serverName;
+		this.limiter = policy.createLimiter();
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		JaxRsManagementUtils.registerForServer(server, bus, limiter,
+				JaxRsManagementUtils.serverObjectName("AdaptiveConcurrencyLimiter", serverName));
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new AdaptiveConcurrencyLimitInterceptor(limiter));
+		ExchangeCompletionInterceptor.install(provider);
+	}
+
+	public AdaptiveConcurrencyLimiter getLimiter() {
+		return limiter;
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.apache.cxf.cfgproto.spring.adaptive;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.cfgproto.spring.bulkhead.BulkheadInterceptor;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitingInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Admits requests through an {@link AdaptiveConcurrencyLimiter} before their
+ * body is read, shedding those beyond the limit with <code>503</code>. The
+ * round-trip time of each admitted request is fed back to the limiter once
+ * its response has been sent.
+ * <p>
+ * Runs after per-client rate limiting, so that a noisy client's refused
+ * requests do not count as load, and before any service bulkhead, so that
+ * shed requests never wait.
+ *
+ * @author pwilson
+ */
+public class AdaptiveConcurrencyLimitInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	public AdaptiveConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter) {
+		super(Phase.PRE_UNMARSHAL);
+		addAfter(RateLimitingInterceptor.class.getName());
+		addBefore(BulkheadInterceptor.class.getName());
+		this.limiter = limiter;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		if (!limiter.tryAcquire()) {
+			JaxRsMessageUtils.abortWith(message, Response.status(Status.SERVICE_UNAVAILABLE)
+														 .header(HttpHeaders.RETRY_AFTER, 1)
+														 .build());
+			return;
+		}
+		final long admitted = System.nanoTime();
+		ExchangeCompletionInterceptor.addCompletionCallback(message.getExchange(), new Runnable() {
+			@Override
+			public void run() {
+				limiter.release(System.nanoTime() - admitted);
+			}
+		});
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		ExchangeCompletionInterceptor.complete(message.getExchange());
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.apache.cxf.cfgproto.spring.adaptive;
+
+/**
+ * The bounds and tuning of an {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @see JaxRsAdaptiveConcurrencyLimit
+ * @author pwilson
+ */
+public class AdaptiveConcurrencyLimitPolicy {
+
+	private int initialLimit = 20;
+	private int minLimit = 1;
+	private int maxLimit = 1000;
+	private long windowMillis = 1000;
+	private int minWindowSamples = 10;
+	private double smoothing = 0.2;
+
+	public AdaptiveConcurrencyLimiter createLimiter() {
+		return new AdaptiveConcurrencyLimiter(this);
+	}
+
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	public void setInitialLimit(int initialLimit) {
+		this.initialLimit = initialLimit;
+	}
+
+	public int getMinLimit() {
+		return minLimit;
+	}
+
+	public void setMinLimit(int minLimit) {
+		this.minLimit = minLimit;
+	}
+
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+
+	public void setMaxLimit(int maxLimit) {
+		this.maxLimit = maxLimit;
+	}
+
+	public long getWindowMillis() {
+		return windowMillis;
+	}
+
+	public void setWindowMillis(long windowMillis) {
+		this.windowMillis = windowMillis;
+	}
+
+	public int getMinWindowSamples() {
+		return minWindowSamples;
+	}
+
+	public void setMinWindowSamples(int minWindowSamples) {
+		this.minWindowSamples = minWindowSamples;
+	}
+
+	public double getSmoothing() {
+		return smoothing;
+	}
+
+	public void setSmoothing(double smoothing) {
+		if (smoothing <= 0 || smoothing > 1) {
+			throw new IllegalArgumentException("smoothing must be in (0, 1]: " + smoothing);
+		}
+		this.smoothing = smoothing;
+	}
+
+}
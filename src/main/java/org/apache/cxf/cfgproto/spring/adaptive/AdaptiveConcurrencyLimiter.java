@@ -0,0 +1,180 @@
+package org.apache.cxf.cfgproto.spring.adaptive;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+
+/**
+ * A concurrency limit that adapts to the latency of the server, in the style
+ * of the gradient algorithm used for TCP congestion control.
+ * <p>
+ * Completed requests are sampled into windows. At the end of each window the
+ * average round-trip time of the window (the short-term RTT) is compared with
+ * an exponentially smoothed long-term RTT. While latency holds steady the
+ * gradient between the two is 1 and the limit grows by a small allowance for
+ * queueing; as queueing sets in latency rises, the gradient falls below 1 and
+ * the limit shrinks with it, shedding load before queues build up.
+ * <p>
+ * Admission never blocks. Estimation happens on whichever thread completes a
+ * window, guarded so that only one thread estimates at a time.
+ *
+ * @author pwilson
+ */
+public class AdaptiveConcurrencyLimiter implements AdaptiveConcurrencyLimiterMBean {
+
+	private static final double MIN_GRADIENT = 0.5;
+	private static final double LONG_TERM_WINDOWS = 20.0;
+	private static final double RTT_TOLERANCE = 1.5;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long windowNanos;
+	private final int minWindowSamples;
+	private final double smoothing;
+	private final Ticker ticker;
+
+	private volatile int limit;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong shed = new AtomicLong();
+
+	private final AtomicLong windowStart;
+	private final AtomicLong windowRttSum = new AtomicLong();
+	private final AtomicInteger windowSamples = new AtomicInteger();
+	private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+	private final AtomicBoolean estimating = new AtomicBoolean();
+
+	// guarded by estimating
+	private volatile double longTermRtt;
+	private volatile double shortTermRtt;
+
+	public AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimitPolicy policy) {
+		this(policy, Ticker.systemTicker());
+	}
+
+	public AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimitPolicy policy, Ticker ticker) {
+		this.minLimit = Math.max(1, policy.getMinLimit());
+		this.maxLimit = Math.max(minLimit, policy.getMaxLimit());
+		this.windowNanos = MILLISECONDS.toNanos(policy.getWindowMillis());
+		this.minWindowSamples = policy.getMinWindowSamples();
+		this.smoothing = policy.getSmoothing();
+		this.ticker = ticker;
+		this.limit = clamp(policy.getInitialLimit());
+		this.windowStart = new AtomicLong(ticker.read());
+	}
+
+	/**
+	 * Admits a request if fewer than {@link #getLimit()} are in flight.
+	 * Admitted requests must be {@link #release(long) released}.
+	 *
+	 * @return <code>true</code> if the request was admitted
+	 */
+	public boolean tryAcquire() {
+		for (;;) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				shed.incrementAndGet();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				recordInFlight(current + 1);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Releases an admitted request, sampling its round-trip time.
+	 *
+	 * @param rttNanos the time from admission to completion
+	 */
+	public void release(long rttNanos) {
+		inFlight.decrementAndGet();
+		windowRttSum.addAndGet(rttNanos);
+		windowSamples.incrementAndGet();
+		long now = ticker.read();
+		if (now - windowStart.get() >= windowNanos && windowSamples.get() >= minWindowSamples) {
+			estimate(now);
+		}
+	}
+
+	private void recordInFlight(int current) {
+		for (;;) {
+			int max = windowMaxInFlight.get();
+			if (current <= max || windowMaxInFlight.compareAndSet(max, current)) {
+				return;
+			}
+		}
+	}
+
+	private void estimate(long now) {
+		if (!estimating.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			int samples = windowSamples.getAndSet(0);
+			long rttSum = windowRttSum.getAndSet(0);
+			int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+			windowStart.set(now);
+			if (samples == 0) {
+				return;
+			}
+			double rtt = (double) rttSum / samples;
+			shortTermRtt = rtt;
+			if (longTermRtt == 0) {
+				longTermRtt = rtt;
+			} else {
+				longTermRtt += (rtt - longTermRtt) / LONG_TERM_WINDOWS;
+			}
+			if (longTermRtt > rtt * 2) {
+				// latency has fallen well below the long-term average, e.g.
+				// after a slow dependency recovered; converge faster
+				longTermRtt = (longTermRtt + rtt) / 2;
+			}
+			int current = limit;
+			if (maxInFlight < current / 2) {
+				// demand does not reach the limit so latency says nothing about it
+				return;
+			}
+			double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longTermRtt / rtt));
+			double estimate = current * gradient + Math.sqrt(current);
+			double smoothed = current * (1 - smoothing) + estimate * smoothing;
+			limit = clamp((int) Math.round(smoothed));
+		} finally {
+			estimating.set(false);
+		}
+	}
+
+	private int clamp(int candidate) {
+		return Math.max(minLimit, Math.min(maxLimit, candidate));
+	}
+
+	@Override
+	public int getLimit() {
+		return limit;
+	}
+
+	@Override
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	@Override
+	public long getShedCount() {
+		return shed.get();
+	}
+
+	@Override
+	public double getLongTermRttMillis() {
+		return longTermRtt / MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public double getShortTermRttMillis() {
+		return shortTermRtt / MILLISECONDS.toNanos(1);
+	}
+
+}
@@ -0,0 +1,20 @@
+package org.apache.cxf.cfgproto.spring.adaptive;
+
+/**
+ * Management interface of an {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @author pwilson
+ */
+public interface AdaptiveConcurrencyLimiterMBean {
+
+	int getLimit();
+
+	int getInFlight();
+
+	long getShedCount();
+
+	double getLongTermRttMillis();
+
+	double getShortTermRttMillis();
+
+}
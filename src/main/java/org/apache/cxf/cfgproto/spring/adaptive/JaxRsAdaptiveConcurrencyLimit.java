@@ -0,0 +1,56 @@
+package org.apache.cxf.cfgproto.spring.adaptive;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Turns on adaptive concurrency limiting for the server declared by a
+ * {@link JaxRsServer @JaxRsServer} configuration class. The limit is
+ * continuously re-estimated from observed latency, and requests beyond it
+ * are shed with <code>503 Service Unavailable</code> before their body is
+ * read.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsAdaptiveConcurrencyLimit(initialLimit = 50, maxLimit = 400)
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ * The current limit and number of shed requests are exposed over JMX.
+ *
+ * @see AdaptiveConcurrencyLimiter
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsAdaptiveConcurrencyLimit {
+
+	int initialLimit() default 20;
+
+	int minLimit() default 1;
+
+	int maxLimit() default 1000;
+
+	/**
+	 * The minimum length of a sampling window, after which the limit is
+	 * re-estimated.
+	 */
+	long windowMillis() default 1000;
+
+	/**
+	 * The minimum number of completed requests in a sampling window.
+	 */
+	int minWindowSamples() default 10;
+
+	/**
+	 * How much of each new estimate is applied to the limit, between
+	 * <code>0</code> and <code>1</code>.
+	 */
+	double smoothing() default 0.2;
+
+}
@@ -0,0 +1,243 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+
+/**
+ * A pool of reusable heap buffers, in power-of-two size classes, so that the
+ * buffers of short-lived streams stop reaching the garbage collector.
+ * <p>
+ * The pool is striped by thread so that threads rarely contend: a thread
+ * acquires from, and releases to, its own stripe. Each stripe keeps a
+ * bounded stack of free buffers per size class; buffers released to a full
+ * stack, or larger than the largest size class, are dropped.
+ * <p>
+ * Providers find the pool of the server or client handling the current
+ * message with {@link #current()}.
+ *
+ * @author pwilson
+ */
+public class BufferPool implements BufferPoolMBean {
+
+	private static final Logger LOG = LogUtils.getLogger(BufferPool.class);
+	private static final BufferPool SHARED = new BufferPool(new BufferPoolPolicy());
+
+	private final int bufferSize;
+	private final int minShift;
+	private final int maxPooledSize;
+	private final Stripe[] stripes;
+	private final boolean leakDetection;
+	private final ReferenceQueue<PooledBuffer> collected = new ReferenceQueue<PooledBuffer>();
+	private final Set<LeakTracker> trackers = Collections.newSetFromMap(new ConcurrentHashMap<LeakTracker, Boolean>());
+
+	private final AtomicLong acquired = new AtomicLong();
+	private final AtomicLong released = new AtomicLong();
+	private final AtomicLong allocations = new AtomicLong();
+	private final AtomicLong allocatedBytes = new AtomicLong();
+	private final AtomicLong leaks = new AtomicLong();
+
+	public BufferPool(BufferPoolPolicy policy) {
+		this.bufferSize = policy.getBufferSize();
+		this.minShift = shiftFor(Math.max(1, policy.getMinPooledSize()));
+		this.maxPooledSize = Math.max(1 << minShift, Integer.highestOneBit(Math.max(1, policy.getMaxPooledSize())));
+		int sizeClasses = shiftFor(maxPooledSize) - minShift + 1;
+		int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+		this.stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new Stripe(sizeClasses, Math.max(0, policy.getMaxPooledPerSizeClass()));
+		}
+		this.leakDetection = policy.isLeakDetection();
+	}
+
+	/**
+	 * Finds the pool of the server or client handling the current message,
+	 * or a pool shared by the JVM outside of one.
+	 */
+	public static BufferPool current() {
+		Message message = PhaseInterceptorChain.getCurrentMessage();
+		Exchange exchange = message == null ? null : message.getExchange();
+		BufferPool pool = exchange == null ? null : exchange.get(BufferPool.class);
+		return pool != null ? pool : SHARED;
+	}
+
+	/**
+	 * Acquires a buffer of the default {@link BufferPoolPolicy#getBufferSize() size}.
+	 */
+	public PooledBuffer acquire() {
+		return acquire(bufferSize);
+	}
+
+	/**
+	 * Acquires a buffer of at least the given size, which must be
+	 * {@link PooledBuffer#release() released} once no longer used.
+	 */
+	public PooledBuffer acquire(int minSize) {
+		acquired.incrementAndGet();
+		if (leakDetection) {
+			reportLeaks();
+		}
+		byte[] array = null;
+		int sizeClass = sizeClassOf(minSize);
+		if (sizeClass >= 0) {
+			array = stripe().pop(sizeClass);
+		}
+		if (array == null) {
+			array = new byte[sizeClass >= 0 ? 1 << (sizeClass + minShift) : minSize];
+			allocations.incrementAndGet();
+			allocatedBytes.addAndGet(array.length);
+		}
+		PooledBuffer buffer = new PooledBuffer(this, array);
+		if (leakDetection) {
+			LeakTracker tracker = new LeakTracker(buffer, collected);
+			buffer.setTracker(tracker);
+			trackers.add(tracker);
+		}
+		return buffer;
+	}
+
+	void release(PooledBuffer buffer) {
+		released.incrementAndGet();
+		LeakTracker tracker = buffer.getTracker();
+		if (tracker != null) {
+			trackers.remove(tracker);
+			tracker.clear();
+		}
+		byte[] array = buffer.array();
+		if (array.length <= maxPooledSize && Integer.bitCount(array.length) == 1) {
+			stripe().push(shiftFor(array.length) - minShift, array);
+		}
+	}
+
+	/**
+	 * @return the default size of buffers
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	private int sizeClassOf(int size) {
+		if (size > maxPooledSize) {
+			return -1;
+		}
+		return Math.max(0, shiftFor(size) - minShift);
+	}
+
+	/*
+	 * The power of two at or above the size.
+	 */
+	private static int shiftFor(int size) {
+		return 32 - Integer.numberOfLeadingZeros(Math.max(1, size) - 1);
+	}
+
+	private Stripe stripe() {
+		return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+	}
+
+	private void reportLeaks() {
+		for (;;) {
+			LeakTracker tracker = (LeakTracker) collected.poll();
+			if (tracker == null) {
+				return;
+			}
+			if (trackers.remove(tracker)) {
+				leaks.incrementAndGet();
+				LOG.log(Level.WARNING, "Pooled buffer garbage collected without being released", tracker.acquiredAt);
+			}
+		}
+	}
+
+	@Override
+	public long getAcquireCount() {
+		return acquired.get();
+	}
+
+	@Override
+	public long getReleaseCount() {
+		return released.get();
+	}
+
+	@Override
+	public long getOutstandingCount() {
+		return acquired.get() - released.get();
+	}
+
+	@Override
+	public long getAllocationCount() {
+		return allocations.get();
+	}
+
+	@Override
+	public long getAllocatedBytes() {
+		return allocatedBytes.get();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long acquisitions = acquired.get();
+		return acquisitions == 0 ? 0 : 1 - (double) allocations.get() / acquisitions;
+	}
+
+	@Override
+	public long getLeakCount() {
+		if (leakDetection) {
+			reportLeaks();
+		}
+		return leaks.get();
+	}
+
+	/*
+	 * Bounded stacks of free buffers, one per size class.
+	 */
+	private static final class Stripe {
+
+		private final byte[][][] free;
+		private final int[] counts;
+
+		Stripe(int sizeClasses, int capacity) {
+			this.free = new byte[sizeClasses][capacity][];
+			this.counts = new int[sizeClasses];
+		}
+
+		synchronized byte[] pop(int sizeClass) {
+			int count = counts[sizeClass];
+			if (count == 0) {
+				return null;
+			}
+			byte[] array = free[sizeClass][--count];
+			free[sizeClass][count] = null;
+			counts[sizeClass] = count;
+			return array;
+		}
+
+		synchronized void push(int sizeClass, byte[] array) {
+			int count = counts[sizeClass];
+			if (count < free[sizeClass].length) {
+				free[sizeClass][count] = array;
+				counts[sizeClass] = count + 1;
+			}
+		}
+
+	}
+
+	static final class LeakTracker extends WeakReference<PooledBuffer> {
+
+		private final Throwable acquiredAt = new Throwable("Acquired here");
+
+		LeakTracker(PooledBuffer buffer, ReferenceQueue<PooledBuffer> queue) {
+			super(buffer, queue);
+		}
+
+	}
+
+}
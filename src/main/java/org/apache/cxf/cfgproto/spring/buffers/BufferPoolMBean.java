@@ -0,0 +1,25 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+/**
+ * Management interface of a {@link BufferPool}. The allocation rate of a
+ * server under load is the growth of {@link #getAllocatedBytes()} over time.
+ *
+ * @author pwilson
+ */
+public interface BufferPoolMBean {
+
+	long getAcquireCount();
+
+	long getReleaseCount();
+
+	long getOutstandingCount();
+
+	long getAllocationCount();
+
+	long getAllocatedBytes();
+
+	double getHitRatio();
+
+	long getLeakCount();
+
+}
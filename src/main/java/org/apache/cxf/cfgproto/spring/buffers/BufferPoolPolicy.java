@@ -0,0 +1,79 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+/**
+ * The size classes and bounds of a {@link BufferPool}.
+ *
+ * @see JaxRsPooledBuffers
+ * @author pwilson
+ */
+public class BufferPoolPolicy {
+
+	private int bufferSize = 8192;
+	private int minPooledSize = 512;
+	private int maxPooledSize = 65536;
+	private int maxPooledPerSizeClass = 32;
+	private boolean leakDetection;
+
+	public BufferPool createBufferPool() {
+		return new BufferPool(this);
+	}
+
+	/**
+	 * The size of the buffers placed in front of message output streams.
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * The smallest size class; rounded up to a power of two.
+	 */
+	public int getMinPooledSize() {
+		return minPooledSize;
+	}
+
+	public void setMinPooledSize(int minPooledSize) {
+		this.minPooledSize = minPooledSize;
+	}
+
+	/**
+	 * The largest size class; larger buffers are allocated and dropped as
+	 * they would be without a pool.
+	 */
+	public int getMaxPooledSize() {
+		return maxPooledSize;
+	}
+
+	public void setMaxPooledSize(int maxPooledSize) {
+		this.maxPooledSize = maxPooledSize;
+	}
+
+	/**
+	 * The most free buffers kept per size class, in each stripe of the pool.
+	 */
+	public int getMaxPooledPerSizeClass() {
+		return maxPooledPerSizeClass;
+	}
+
+	public void setMaxPooledPerSizeClass(int maxPooledPerSizeClass) {
+		this.maxPooledPerSizeClass = maxPooledPerSizeClass;
+	}
+
+	/**
+	 * Whether to report buffers that are garbage collected without having
+	 * been released, along with where they were acquired. Costs a stack
+	 * trace per acquisition.
+	 */
+	public boolean isLeakDetection() {
+		return leakDetection;
+	}
+
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+}
@@ -0,0 +1,51 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Writes the responses of the server declared by a
+ * {@link JaxRsServer @JaxRsServer} configuration class through pooled
+ * buffers, and offers the pool to its providers through
+ * {@link BufferPool#current()}.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsPooledBuffers(bufferSize = 16384)
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ * Allocations, reuse and leaks are exposed over JMX.
+ *
+ * @see BufferPoolPolicy
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsPooledBuffers {
+
+	/**
+	 * The size of the buffer in front of each response stream.
+	 */
+	int bufferSize() default 8192;
+
+	int minPooledSize() default 512;
+
+	int maxPooledSize() default 65536;
+
+	/**
+	 * The most free buffers kept per size class and stripe of the pool.
+	 */
+	int maxPooledPerSizeClass() default 32;
+
+	/**
+	 * Whether to report buffers never released, with where they were acquired.
+	 */
+	boolean leakDetection() default false;
+
+}
@@ -0,0 +1,47 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+/**
+ * A buffer {@link BufferPool#acquire(int) acquired} from a pool. Its array
+ * must not be used once the buffer is {@link #release() released}.
+ *
+ * @author pwilson
+ */
+public final class PooledBuffer {
+
+	private final BufferPool pool;
+	private final byte[] array;
+	private BufferPool.LeakTracker tracker;
+	private boolean released;
+
+	PooledBuffer(BufferPool pool, byte[] array) {
+		this.pool = pool;
+		this.array = array;
+	}
+
+	/**
+	 * @return the array, at least as long as requested
+	 */
+	public byte[] array() {
+		return array;
+	}
+
+	/**
+	 * Returns the buffer to its pool. Releasing more than once has no
+	 * further effect.
+	 */
+	public void release() {
+		if (!released) {
+			released = true;
+			pool.release(this);
+		}
+	}
+
+	BufferPool.LeakTracker getTracker() {
+		return tracker;
+	}
+
+	void setTracker(BufferPool.LeakTracker tracker) {
+		this.tracker = tracker;
+	}
+
+}
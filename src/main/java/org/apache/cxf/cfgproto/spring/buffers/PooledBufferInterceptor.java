@@ -0,0 +1,52 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+import java.io.OutputStream;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Places a pooled buffer in front of the output stream of outgoing messages,
+ * released when the message is sent or when the chain sending it faults,
+ * and makes the pool
+ * {@link BufferPool#current() available} to the providers writing the
+ * message.
+ * <p>
+ * The streams of most transports buffer as well, so small writes are
+ * copied twice: into the pooled buffer, then into the buffer of the
+ * transport. Writes at least the size of the pooled buffer pass straight
+ * through. Allocations are saved only by the providers that take their
+ * own buffers from the pool, as {@link PooledOutputStream} does; the
+ * providers built into CXF allocate theirs as before.
+ *
+ * @author pwilson
+ */
+public class PooledBufferInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final BufferPool pool;
+
+	public PooledBufferInterceptor(BufferPool pool) {
+		super(Phase.PRE_STREAM);
+		this.pool = pool;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		message.getExchange().put(BufferPool.class, pool);
+		OutputStream out = message.getContent(OutputStream.class);
+		if (out != null && !(out instanceof PooledBufferedOutputStream)) {
+			message.setContent(OutputStream.class, new PooledBufferedOutputStream(out, pool.acquire()));
+		}
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		OutputStream out = message.getContent(OutputStream.class);
+		if (out instanceof PooledBufferedOutputStream) {
+			((PooledBufferedOutputStream) out).release();
+		}
+	}
+
+}
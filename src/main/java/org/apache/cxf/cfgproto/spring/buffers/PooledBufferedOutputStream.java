@@ -0,0 +1,96 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffers writes to a stream in a pooled buffer, released when the stream
+ * is closed, or {@link #release() released} early if the message fails.
+ *
+ * @author pwilson
+ */
+class PooledBufferedOutputStream extends OutputStream {
+
+	private final OutputStream out;
+	private PooledBuffer buffer;
+	private int count;
+	private boolean closed;
+
+	PooledBufferedOutputStream(OutputStream out, PooledBuffer buffer) {
+		this.out = out;
+		this.buffer = buffer;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		byte[] array = array();
+		if (count == array.length) {
+			flushBuffer();
+		}
+		array[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		byte[] array = array();
+		if (len >= array.length) {
+			flushBuffer();
+			out.write(b, off, len);
+			return;
+		}
+		if (len > array.length - count) {
+			flushBuffer();
+		}
+		System.arraycopy(b, off, array, count, len);
+		count += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (buffer != null) {
+				flushBuffer();
+			}
+		} finally {
+			release();
+			out.close();
+		}
+	}
+
+	/**
+	 * Discards buffered bytes and releases the buffer without closing the
+	 * underlying stream. The stream may not be written to afterwards.
+	 */
+	void release() {
+		if (buffer != null) {
+			buffer.release();
+			buffer = null;
+			count = 0;
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (count > 0) {
+			out.write(array(), 0, count);
+			count = 0;
+		}
+	}
+
+	private byte[] array() throws IOException {
+		if (buffer == null) {
+			throw new IOException("Stream closed");
+		}
+		return buffer.array();
+	}
+
+}
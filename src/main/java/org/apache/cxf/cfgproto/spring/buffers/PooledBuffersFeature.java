@@ -0,0 +1,43 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+
+/**
+ * Writes the responses and faults of a server through the buffers of a
+ * {@link BufferPool}, and exposes the pool as the MBean
+ * <code>org.apache.cxf.cfgproto:type=BufferPool,server="..."</code>.
+ *
+ * @author pwilson
+ */
+public class PooledBuffersFeature extends AbstractFeature {
+
+	private final String serverName;
+	private final BufferPool pool;
+
+	public PooledBuffersFeature(BufferPoolPolicy policy, String serverName) {
+		this.serverName = serverName;
+		this.pool = policy.createBufferPool();
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		JaxRsManagementUtils.registerForServer(server, bus, pool,
+				JaxRsManagementUtils.serverObjectName("BufferPool", serverName));
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getOutInterceptors().add(new PooledBufferInterceptor(pool));
+		provider.getOutFaultInterceptors().add(new PooledBufferInterceptor(pool));
+	}
+
+	public BufferPool getBufferPool() {
+		return pool;
+	}
+
+}
@@ -0,0 +1,124 @@
+package org.apache.cxf.cfgproto.spring.buffers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects bytes in pooled buffers, in place of a
+ * {@link java.io.ByteArrayOutputStream}, for providers that must know the
+ * length of an entity before writing it:
+ * <pre class="code">
+ * PooledOutputStream buffered = new PooledOutputStream(BufferPool.current());
+ * try {
+ *     serialize(entity, buffered);
+ *     httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, buffered.size());
+ *     buffered.writeTo(entityStream);
+ * } finally {
+ *     buffered.close();
+ * }
+ * </pre>
+ * Closing the stream releases its buffers; it cannot be used afterwards.
+ *
+ * @author pwilson
+ */
+public class PooledOutputStream extends OutputStream {
+
+	private final BufferPool pool;
+	private final List<PooledBuffer> buffers = new ArrayList<PooledBuffer>(4);
+	private byte[] current;
+	private int count;
+	private long size;
+	private boolean closed;
+
+	public PooledOutputStream(BufferPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (current == null || count == current.length) {
+			nextBuffer();
+		}
+		current[count++] = (byte) b;
+		size++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (current == null || count == current.length) {
+				nextBuffer();
+			}
+			int chunk = Math.min(len, current.length - count);
+			System.arraycopy(b, off, current, count, chunk);
+			count += chunk;
+			size += chunk;
+			off += chunk;
+			len -= chunk;
+		}
+	}
+
+	/**
+	 * @return the number of bytes written
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Writes the bytes collected so far to another stream.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		checkOpen();
+		for (int i = 0; i < buffers.size(); i++) {
+			byte[] array = buffers.get(i).array();
+			out.write(array, 0, i == buffers.size() - 1 ? count : array.length);
+		}
+	}
+
+	/**
+	 * Copies the bytes collected so far into a new array.
+	 */
+	public byte[] toByteArray() throws IOException {
+		checkOpen();
+		byte[] bytes = new byte[(int) size];
+		int position = 0;
+		for (int i = 0; i < buffers.size(); i++) {
+			byte[] array = buffers.get(i).array();
+			int length = i == buffers.size() - 1 ? count : array.length;
+			System.arraycopy(array, 0, bytes, position, length);
+			position += length;
+		}
+		return bytes;
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		for (PooledBuffer buffer: buffers) {
+			buffer.release();
+		}
+		buffers.clear();
+		current = null;
+	}
+
+	private void nextBuffer() throws IOException {
+		checkOpen();
+		PooledBuffer buffer = pool.acquire();
+		buffers.add(buffer);
+		current = buffer.array();
+		count = 0;
+	}
+
+	private void checkOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+}
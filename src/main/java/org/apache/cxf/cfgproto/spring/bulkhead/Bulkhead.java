@@ -0,0 +1,80 @@
+package org.apache.cxf.cfgproto.spring.bulkhead;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrency limit with a bounded number of waiters. Calls that can
+ * neither execute nor wait are refused immediately, and waiters give up after
+ * a bounded time, so a caller's thread is never held indefinitely.
+ *
+ * @author pwilson
+ */
+public class Bulkhead {
+
+	private final int maxConcurrentCalls;
+	private final int maxWaitingCalls;
+	private final long maxWaitMillis;
+	private final Semaphore permits;
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final AtomicLong rejected = new AtomicLong();
+
+	public Bulkhead(int maxConcurrentCalls, int maxWaitingCalls, long maxWaitMillis) {
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitingCalls = maxWaitingCalls;
+		this.maxWaitMillis = maxWaitMillis;
+		this.permits = new Semaphore(maxConcurrentCalls);
+	}
+
+	/**
+	 * Attempts to enter the bulkhead, waiting if permitted by the limits.
+	 * Callers that enter must call {@link #exit()} when the call completes.
+	 *
+	 * @return <code>true</code> if the call may proceed
+	 */
+	public boolean tryEnter() {
+		if (permits.tryAcquire()) {
+			return true;
+		}
+		if (maxWaitingCalls <= 0 || maxWaitMillis <= 0) {
+			return reject();
+		}
+		if (waiting.incrementAndGet() > maxWaitingCalls) {
+			waiting.decrementAndGet();
+			return reject();
+		}
+		try {
+			return permits.tryAcquire(maxWaitMillis, MILLISECONDS) || reject();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return reject();
+		} finally {
+			waiting.decrementAndGet();
+		}
+	}
+
+	public void exit() {
+		permits.release();
+	}
+
+	private boolean reject() {
+		rejected.incrementAndGet();
+		return false;
+	}
+
+	public int getActiveCalls() {
+		return maxConcurrentCalls - permits.availablePermits();
+	}
+
+	public int getWaitingCalls() {
+		return waiting.get();
+	}
+
+	public long getRejectedCalls() {
+		return rejected.get();
+	}
+
+}
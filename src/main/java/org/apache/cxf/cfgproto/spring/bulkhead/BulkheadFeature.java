@@ -0,0 +1,37 @@
+package org.apache.cxf.cfgproto.spring.bulkhead;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+
+/**
+ * Isolates the services of a server from one another with the
+ * {@link BulkheadPolicy bulkheads} configured for them.
+ *
+ * @author pwilson
+ */
+public class BulkheadFeature extends AbstractFeature {
+
+	private final BulkheadInterceptor interceptor;
+
+	public BulkheadFeature(JaxRsServicePolicies<BulkheadPolicy> policies) {
+		this.interceptor = new BulkheadInterceptor(policies);
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(interceptor);
+		ExchangeCompletionInterceptor.install(provider);
+	}
+
+	/**
+	 * @return the bulkhead of the service class, or <code>null</code> if the
+	 *         service has not been called or has no bulkhead
+	 */
+	public Bulkhead getBulkhead(Class<?> serviceClass) {
+		return interceptor.getBulkhead(serviceClass);
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.apache.cxf.cfgproto.spring.bulkhead;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitingInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Enters the bulkhead of the target service before the request body is read,
+ * refusing the request with <code>503</code> if the bulkhead is full. The
+ * bulkhead is exited once the response has been sent.
+ *
+ * @author pwilson
+ */
+public class BulkheadInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final JaxRsServicePolicies<BulkheadPolicy> policies;
+	private final ConcurrentMap<Class<?>, Bulkhead> bulkheads = new ConcurrentHashMap<Class<?>, Bulkhead>();
+
+	public BulkheadInterceptor(JaxRsServicePolicies<BulkheadPolicy> policies) {
+		super(Phase.PRE_UNMARSHAL);
+		addAfter(RateLimitingInterceptor.class.getName());
+		this.policies = policies;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		Class<?> serviceClass = JaxRsMessageUtils.getTargetServiceClass(message);
+		BulkheadPolicy policy = policies.getPolicy(serviceClass);
+		if (serviceClass == null || policy == null) {
+			return;
+		}
+		final Bulkhead bulkhead = bulkheadFor(serviceClass, policy);
+		if (!bulkhead.tryEnter()) {
+			JaxRsMessageUtils.abortWith(message, serviceUnavailable(policy));
+			return;
+		}
+		ExchangeCompletionInterceptor.addCompletionCallback(message.getExchange(), new Runnable() {
+			@Override
+			public void run() {
+				bulkhead.exit();
+			}
+		});
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		ExchangeCompletionInterceptor.complete(message.getExchange());
+	}
+
+	Bulkhead getBulkhead(Class<?> serviceClass) {
+		return bulkheads.get(serviceClass);
+	}
+
+	private Bulkhead bulkheadFor(Class<?> serviceClass, BulkheadPolicy policy) {
+		Bulkhead bulkhead = bulkheads.get(serviceClass);
+		if (bulkhead != null) {
+			return bulkhead;
+		}
+		Bulkhead created = policy.createBulkhead();
+		bulkhead = bulkheads.putIfAbsent(serviceClass, created);
+		return bulkhead == null ? created : bulkhead;
+	}
+
+	private Response serviceUnavailable(BulkheadPolicy policy) {
+		return Response.status(Status.SERVICE_UNAVAILABLE)
+					   .header(HttpHeaders.RETRY_AFTER, policy.getRetryAfterSeconds())
+					   .build();
+	}
+
+}
@@ -0,0 +1,66 @@
+package org.apache.cxf.cfgproto.spring.bulkhead;
+
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicy;
+
+/**
+ * The limits of a service's bulkhead. A server-wide policy gives each service
+ * its own {@link Bulkhead}, rather than one shared between services.
+ *
+ * @see JaxRsBulkhead
+ * @author pwilson
+ */
+public class BulkheadPolicy implements JaxRsServicePolicy {
+
+	private int maxConcurrentCalls;
+	private int maxWaitingCalls;
+	private long maxWaitMillis;
+	private int retryAfterSeconds = 1;
+
+	public BulkheadPolicy() {}
+
+	public BulkheadPolicy(int maxConcurrentCalls, int maxWaitingCalls, long maxWaitMillis) {
+		setMaxConcurrentCalls(maxConcurrentCalls);
+		setMaxWaitingCalls(maxWaitingCalls);
+		setMaxWaitMillis(maxWaitMillis);
+	}
+
+	public Bulkhead createBulkhead() {
+		return new Bulkhead(maxConcurrentCalls, maxWaitingCalls, maxWaitMillis);
+	}
+
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+		if (maxConcurrentCalls < 1) {
+			throw new IllegalArgumentException("maxConcurrentCalls must be at least 1: " + maxConcurrentCalls);
+		}
+		this.maxConcurrentCalls = maxConcurrentCalls;
+	}
+
+	public int getMaxWaitingCalls() {
+		return maxWaitingCalls;
+	}
+
+	public void setMaxWaitingCalls(int maxWaitingCalls) {
+		this.maxWaitingCalls = maxWaitingCalls;
+	}
+
+	public long getMaxWaitMillis() {
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(long maxWaitMillis) {
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public int getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+	public void setRetryAfterSeconds(int retryAfterSeconds) {
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+}
@@ -0,0 +1,57 @@
+package org.apache.cxf.cfgproto.spring.bulkhead;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.JaxRsService;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Bounds the number of concurrent calls to a service, so that a slow service
+ * cannot take every container thread from the other services of its server.
+ * Placed alongside {@link JaxRsService @JaxRsService} on a factory method it
+ * applies to that service; placed on a {@link JaxRsServer @JaxRsServer}
+ * configuration class it gives each service of the server a bulkhead of its
+ * own with these limits.
+ * <pre class="code">
+ * &#064;JaxRsService
+ * &#064;JaxRsBulkhead(maxConcurrentCalls = 20, maxWaitingCalls = 10, maxWaitMillis = 50)
+ * public Object reportService() {
+ *     return new ReportService();
+ * }
+ * </pre>
+ * Calls beyond both limits fail fast with <code>503 Service Unavailable</code>
+ * and a <code>Retry-After</code> header.
+ *
+ * @see BulkheadPolicy
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface JaxRsBulkhead {
+
+	/**
+	 * The number of calls that may execute at once.
+	 */
+	int maxConcurrentCalls();
+
+	/**
+	 * The number of calls that may wait for an executing call to finish.
+	 */
+	int maxWaitingCalls() default 0;
+
+	/**
+	 * How long a waiting call waits before it is refused.
+	 */
+	long maxWaitMillis() default 0;
+
+	/**
+	 * The value of the <code>Retry-After</code> header sent with refusals.
+	 */
+	int retryAfterSeconds() default 1;
+
+}
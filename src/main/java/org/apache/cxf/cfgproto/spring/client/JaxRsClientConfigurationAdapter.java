@@ -5,9 +5,15 @@ import java.util.List;
 import javax.ws.rs.core.Feature;
 
 import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancerPolicy;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingPolicy;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResiliencePolicy;
+import org.apache.cxf.cfgproto.spring.local.CoLocationPolicy;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLoggingPolicy;
 import org.apache.cxf.jaxrs.client.ClientConfiguration;
 
-public class JaxRsClientConfigurationAdapter implements JaxRsClientConfigurer {
+public class JaxRsClientConfigurationAdapter implements JaxRsClientPolicyConfigurer {
 	
 	@Override
 	public Class<?> serviceType() {
@@ -44,4 +50,34 @@ public class JaxRsClientConfigurationAdapter implements JaxRsClientConfigurer {
 	public void configureClient(ClientConfiguration clientConfiguration) {
 	}
 
+	@Override
+	public ClientResiliencePolicy resiliencePolicy() {
+		return null;
+	}
+
+	@Override
+	public LoadBalancerPolicy loadBalancerPolicy() {
+		return null;
+	}
+
+	@Override
+	public HedgingPolicy hedgingPolicy() {
+		return null;
+	}
+
+	@Override
+	public CoLocationPolicy coLocationPolicy() {
+		return null;
+	}
+
+	@Override
+	public BufferPoolPolicy bufferPoolPolicy() {
+		return null;
+	}
+
+	@Override
+	public PayloadLoggingPolicy payloadLoggingPolicy() {
+		return null;
+	}
+
 }
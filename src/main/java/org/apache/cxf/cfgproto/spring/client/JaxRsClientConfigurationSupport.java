@@ -7,7 +7,20 @@ import java.util.List;
 import javax.ws.rs.core.Feature;
 
 import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.buffers.PooledBufferInterceptor;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancerPolicy;
 import org.apache.cxf.cfgproto.spring.client.enable.EnableJaxRsClient;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingInvocationHandler;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingPolicy;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResilience;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResiliencePolicy;
+import org.apache.cxf.cfgproto.spring.local.CoLocatedInvocationHandler;
+import org.apache.cxf.cfgproto.spring.local.CoLocationPolicy;
+import org.apache.cxf.cfgproto.spring.local.LocalBindingInterceptor;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLoggingPolicy;
+import org.apache.cxf.cfgproto.spring.tracing.Tracer;
 import org.apache.cxf.jaxrs.client.ClientConfiguration;
 import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
 import org.apache.cxf.jaxrs.client.WebClient;
@@ -38,7 +51,25 @@ public abstract class JaxRsClientConfigurationSupport {
 		addCollaborators();
 		Object clientProxy = createClient();
 		performConfiguration(clientProxy);
-		return clientProxy;
+		return decorateClient(clientProxy);
+	}
+
+	/**
+	 * Wraps the configured client proxy, e.g. to hedge its calls or to make
+	 * them directly on a co-located service.
+	 */
+	protected Object decorateClient(Object clientProxy) {
+		Object decorated = clientProxy;
+		HedgingPolicy hedgingPolicy = hedgingPolicy();
+		if (hedgingPolicy != null) {
+			decorated = HedgingInvocationHandler.newProxy(decorated, hedgingPolicy);
+		}
+		CoLocationPolicy coLocationPolicy = coLocationPolicy();
+		if (coLocationPolicy != null && isLocalBindingEnabled() && serviceType().isInterface()) {
+			decorated = CoLocatedInvocationHandler.newProxy(serviceType(), decorated, coLocationPolicy, 
+					outInterceptors.getInterceptors(), inInterceptors.getInterceptors());
+		}
+		return decorated;
 	}
 
 	protected void addCollaborators() {
@@ -46,6 +77,55 @@ public abstract class JaxRsClientConfigurationSupport {
 		addInInterceptors(inInterceptors);
 		addProviders(providers);
 		addFeatures(features);
+		addLocalBindingInterceptor();
+		addTracingInterceptors();
+		addLoadBalancingInterceptors();
+		addResilienceInterceptors();
+		addPooledBufferInterceptor();
+		addPayloadLoggingInterceptors();
+	}
+
+	private void addLocalBindingInterceptor() {
+		if (isLocalBindingEnabled() 
+				&& LocalEndpointRegistry.isLocalTransportAvailable()
+				&& !LocalEndpointRegistry.LOCAL_TRANSPORT_ID.equals(transportFactory())) {
+			outInterceptors.addInterceptors(new LocalBindingInterceptor(serviceType(), address()));
+		}
+	}
+
+	private void addTracingInterceptors() {
+		Tracer tracer = tracer();
+		if (tracer != null) {
+			tracer.addClientInterceptors(outInterceptors, inInterceptors);
+		}
+	}
+
+	private void addLoadBalancingInterceptors() {
+		LoadBalancerPolicy loadBalancerPolicy = loadBalancerPolicy();
+		if (loadBalancerPolicy != null) {
+			loadBalancerPolicy.createLoadBalancer().addInterceptors(address(), outInterceptors, inInterceptors);
+		}
+	}
+
+	private void addResilienceInterceptors() {
+		ClientResiliencePolicy resiliencePolicy = resiliencePolicy();
+		if (resiliencePolicy != null) {
+			new ClientResilience(resiliencePolicy).addInterceptors(outInterceptors, inInterceptors);
+		}
+	}
+
+	private void addPooledBufferInterceptor() {
+		BufferPoolPolicy bufferPoolPolicy = bufferPoolPolicy();
+		if (bufferPoolPolicy != null) {
+			outInterceptors.addInterceptors(new PooledBufferInterceptor(bufferPoolPolicy.createBufferPool()));
+		}
+	}
+
+	private void addPayloadLoggingInterceptors() {
+		PayloadLoggingPolicy payloadLoggingPolicy = payloadLoggingPolicy();
+		if (payloadLoggingPolicy != null) {
+			payloadLoggingPolicy.createPayloadLogger().addClientInterceptors(outInterceptors, inInterceptors);
+		}
 	}
 
 	protected void performConfiguration(Object clientProxy) {
@@ -94,4 +174,70 @@ public abstract class JaxRsClientConfigurationSupport {
 
 	public abstract String transportFactory();
 
+	/**
+	 * Whether calls may be sent over the local transport to a server in the
+	 * same JVM serving the {@link #serviceType()}, in place of the
+	 * {@link #address()}. Enabled by default.
+	 */
+	protected boolean isLocalBindingEnabled() {
+		return true;
+	}
+
+	/**
+	 * Provides circuit breakers and call timeouts for the client. None by
+	 * default.
+	 */
+	public ClientResiliencePolicy resiliencePolicy() {
+		return null;
+	}
+
+	/**
+	 * Provides the addresses over which to balance the calls of the client,
+	 * in place of the single {@link #address()}. None by default.
+	 */
+	public LoadBalancerPolicy loadBalancerPolicy() {
+		return null;
+	}
+
+	/**
+	 * Provides the hedging of the client's idempotent calls. None by default.
+	 */
+	public HedgingPolicy hedgingPolicy() {
+		return null;
+	}
+
+	/**
+	 * Provides the configuration of calls made directly on the service bean
+	 * of a server in the same JVM, skipping serialization altogether. None
+	 * by default, in which case such a server is called over the local
+	 * transport.
+	 */
+	public CoLocationPolicy coLocationPolicy() {
+		return null;
+	}
+
+	/**
+	 * Provides the pool of the buffers through which requests are written.
+	 * None by default.
+	 */
+	public BufferPoolPolicy bufferPoolPolicy() {
+		return null;
+	}
+
+	/**
+	 * Provides the sampling and filtering of the request and response
+	 * bodies logged. None by default.
+	 */
+	public PayloadLoggingPolicy payloadLoggingPolicy() {
+		return null;
+	}
+
+	/**
+	 * Provides the tracer passing traces on to the calls of the client and
+	 * recording their spans. None by default.
+	 */
+	public Tracer tracer() {
+		return null;
+	}
+
 }
@@ -0,0 +1,59 @@
+package org.apache.cxf.cfgproto.spring.client;
+
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancerPolicy;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingPolicy;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResiliencePolicy;
+import org.apache.cxf.cfgproto.spring.local.CoLocationPolicy;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLoggingPolicy;
+
+/**
+ * A {@link JaxRsClientConfigurer} that also provides the optional policies of the client proxy,
+ * such as circuit breakers or load balancing. Configurers that do not implement this interface
+ * provide none of them; {@link JaxRsClientConfigurationAdapter} implements it.
+ * <p>
+ * Implementations may provide <code>null</code> if they do not wish to provide a specific
+ * policy.
+ * 
+ * @author pwilson
+ */
+public interface JaxRsClientPolicyConfigurer extends JaxRsClientConfigurer {
+
+    /**
+     * Provides the circuit breaker and timeout configuration of the client or <code>null</code>
+     * if this configurer wishes not to provide it.
+     */
+    ClientResiliencePolicy resiliencePolicy();
+
+    /**
+     * Provides the addresses and load balancing strategy of the client or <code>null</code>
+     * if this configurer wishes not to provide them. The client then need not be given an
+     * {@link #address()}.
+     */
+    LoadBalancerPolicy loadBalancerPolicy();
+
+    /**
+     * Provides the hedging configuration of the client's idempotent calls or <code>null</code>
+     * if this configurer wishes not to provide it.
+     */
+    HedgingPolicy hedgingPolicy();
+
+    /**
+     * Provides the configuration of calls made directly on a service bean in the same JVM or
+     * <code>null</code> if this configurer wishes not to provide it.
+     */
+    CoLocationPolicy coLocationPolicy();
+
+    /**
+     * Provides the buffer pool configuration of the client's requests or <code>null</code> if
+     * this configurer wishes not to provide it.
+     */
+    BufferPoolPolicy bufferPoolPolicy();
+
+    /**
+     * Provides the configuration of the logging of the client's request and response bodies or
+     * <code>null</code> if this configurer wishes not to provide it.
+     */
+    PayloadLoggingPolicy payloadLoggingPolicy();
+
+}
@@ -0,0 +1,20 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import java.util.List;
+
+/**
+ * Supplies the addresses a load-balanced client may send calls to. Called
+ * for every call, so implementations that discover addresses should cache
+ * them and return the same list instance until it changes. Calls fail with
+ * an {@link IllegalStateException} while the list is empty.
+ *
+ * @author pwilson
+ */
+public interface AddressSupplier {
+
+	/**
+	 * @return the base addresses of the service, e.g. <code>http://host:8080/api</code>
+	 */
+	List<String> getAddresses();
+
+}
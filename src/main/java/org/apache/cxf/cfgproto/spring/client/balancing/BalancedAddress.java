@@ -0,0 +1,42 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An address of a {@link LoadBalancer} and what is known of its health.
+ *
+ * @author pwilson
+ */
+public class BalancedAddress {
+
+	private final String address;
+	final AtomicInteger outstanding = new AtomicInteger();
+	final AtomicInteger consecutiveFailures = new AtomicInteger();
+	volatile boolean ejected;
+	volatile long ejectedUntil;
+
+	BalancedAddress(String address) {
+		this.address = address;
+	}
+
+	boolean isEjected(long now) {
+		return ejected && now - ejectedUntil < 0;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	/**
+	 * @return the number of calls in progress to the address
+	 */
+	public int getOutstanding() {
+		return outstanding.get();
+	}
+
+	@Override
+	public String toString() {
+		return address;
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+
+/**
+ * Supplies the addresses listed in a file, one per line. Blank lines and
+ * lines starting with <code>#</code> are ignored.
+ * <p>
+ * The file is checked for changes at most once per refresh interval, by the
+ * calling thread. If a changed file cannot be read, or lists no addresses,
+ * the previous addresses are kept.
+ *
+ * @author pwilson
+ */
+public class FileAddressSupplier implements AddressSupplier {
+
+	private final File file;
+	private final long refreshNanos;
+	private final Ticker ticker;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	private volatile List<String> addresses;
+	private volatile long checkedAt;
+	private volatile long lastModified;
+
+	public FileAddressSupplier(File file, long refreshMillis) {
+		this(file, refreshMillis, Ticker.systemTicker());
+	}
+
+	public FileAddressSupplier(File file, long refreshMillis, Ticker ticker) {
+		this.file = file;
+		this.refreshNanos = MILLISECONDS.toNanos(refreshMillis);
+		this.ticker = ticker;
+		this.lastModified = file.lastModified();
+		this.checkedAt = ticker.read();
+		try {
+			this.addresses = read();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read addresses from [" + file + "]", e);
+		}
+		if (addresses.isEmpty()) {
+			throw new IllegalArgumentException("No addresses listed in [" + file + "]");
+		}
+	}
+
+	@Override
+	public List<String> getAddresses() {
+		long now = ticker.read();
+		if (now - checkedAt >= refreshNanos && refreshing.compareAndSet(false, true)) {
+			try {
+				checkedAt = now;
+				refresh();
+			} finally {
+				refreshing.set(false);
+			}
+		}
+		return addresses;
+	}
+
+	private void refresh() {
+		long modified = file.lastModified();
+		if (modified == lastModified) {
+			return;
+		}
+		try {
+			List<String> read = read();
+			if (!read.isEmpty()) {
+				addresses = read;
+			}
+			lastModified = modified;
+		} catch (IOException e) {
+			// keep the addresses we have and try again on the next refresh
+		}
+	}
+
+	private List<String> read() throws IOException {
+		ImmutableList.Builder<String> read = ImmutableList.builder();
+		for (String line: Files.readLines(file, Charsets.UTF_8)) {
+			String address = line.trim();
+			if (!address.isEmpty() && !address.startsWith("#")) {
+				read.add(address);
+			}
+		}
+		return read.build();
+	}
+
+}
@@ -0,0 +1,33 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A call sent to an address chosen by a {@link LoadBalancer}, released at
+ * most once however many interceptors observe its outcome.
+ *
+ * @author pwilson
+ */
+class LoadBalancedCall {
+
+	private final LoadBalancer loadBalancer;
+	private final BalancedAddress address;
+	private final AtomicBoolean completed = new AtomicBoolean();
+
+	LoadBalancedCall(LoadBalancer loadBalancer, BalancedAddress address) {
+		this.loadBalancer = loadBalancer;
+		this.address = address;
+	}
+
+	void complete(boolean success) {
+		if (!completed.compareAndSet(false, true)) {
+			return;
+		}
+		if (success) {
+			loadBalancer.onSuccess(address);
+		} else {
+			loadBalancer.onFailure(address);
+		}
+	}
+
+}
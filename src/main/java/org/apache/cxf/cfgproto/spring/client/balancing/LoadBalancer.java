@@ -0,0 +1,226 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Sets;
+
+/**
+ * Chooses the address of each call from those of an {@link AddressSupplier},
+ * skipping addresses that have been ejected after failing repeatedly.
+ * <p>
+ * Every chosen address must be released through
+ * {@link #onSuccess(BalancedAddress)} or {@link #onFailure(BalancedAddress)}
+ * so that its outstanding calls are counted correctly. Choosing never locks;
+ * only ejection does.
+ *
+ * @author pwilson
+ */
+public class LoadBalancer {
+
+	private final AddressSupplier addressSupplier;
+	private final LoadBalancingStrategy strategy;
+	private final int consecutiveFailures;
+	private final long ejectionNanos;
+	private final int maxEjectionPercent;
+	private final Ticker ticker;
+
+	private final ConcurrentMap<String, BalancedAddress> balancedAddresses = new ConcurrentHashMap<String, BalancedAddress>();
+	private final AtomicInteger next = new AtomicInteger();
+	private final Random random = new Random();
+	private volatile Snapshot snapshot;
+
+	public LoadBalancer(LoadBalancerPolicy policy) {
+		this(policy, Ticker.systemTicker());
+	}
+
+	public LoadBalancer(LoadBalancerPolicy policy, Ticker ticker) {
+		if (policy.getAddressSupplier() == null) {
+			throw new IllegalArgumentException("Load balancing requires an address supplier");
+		}
+		this.addressSupplier = policy.getAddressSupplier();
+		this.strategy = policy.getStrategy();
+		this.consecutiveFailures = policy.getConsecutiveFailures();
+		this.ejectionNanos = MILLISECONDS.toNanos(policy.getEjectionMillis());
+		this.maxEjectionPercent = policy.getMaxEjectionPercent();
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Adds the interceptors sending the calls of a client through this load
+	 * balancer.
+	 *
+	 * @param baseAddress the address the client was created with
+	 */
+	public void addInterceptors(String baseAddress, InterceptorRegistry outInterceptors, InterceptorRegistry inInterceptors) {
+		outInterceptors.addInterceptors(new LoadBalancingOutInterceptor(this, baseAddress));
+		inInterceptors.addInterceptors(new LoadBalancingInInterceptor());
+	}
+
+	/**
+	 * Chooses the address of a call and counts the call as outstanding.
+	 *
+	 * @throws IllegalStateException if the supplier has no addresses
+	 */
+	public BalancedAddress choose() {
+		BalancedAddress[] addresses = currentAddresses();
+		if (addresses.length == 0) {
+			throw new IllegalStateException("No addresses to balance calls over; the address supplier returned none");
+		}
+		long now = ticker.read();
+		BalancedAddress chosen;
+		switch (strategy) {
+		case ROUND_ROBIN:
+			chosen = roundRobin(addresses, now);
+			break;
+		case POWER_OF_TWO_CHOICES:
+			chosen = powerOfTwoChoices(addresses, now);
+			break;
+		default:
+			chosen = leastOutstanding(addresses, now);
+		}
+		chosen.outstanding.incrementAndGet();
+		return chosen;
+	}
+
+	public void onSuccess(BalancedAddress address) {
+		address.outstanding.decrementAndGet();
+		address.consecutiveFailures.set(0);
+	}
+
+	public void onFailure(BalancedAddress address) {
+		address.outstanding.decrementAndGet();
+		if (consecutiveFailures > 0 && address.consecutiveFailures.incrementAndGet() >= consecutiveFailures) {
+			eject(address);
+		}
+	}
+
+	/**
+	 * @return the addresses currently supplied
+	 */
+	public BalancedAddress[] getAddresses() {
+		return currentAddresses().clone();
+	}
+
+	private BalancedAddress roundRobin(BalancedAddress[] addresses, long now) {
+		int start = next.getAndIncrement() & Integer.MAX_VALUE;
+		for (int i = 0; i < addresses.length; i++) {
+			BalancedAddress candidate = addresses[(start + i) % addresses.length];
+			if (!candidate.isEjected(now)) {
+				return candidate;
+			}
+		}
+		return addresses[start % addresses.length];
+	}
+
+	private BalancedAddress leastOutstanding(BalancedAddress[] addresses, long now) {
+		// start from a rotating position so that ties are spread
+		int start = next.getAndIncrement() & Integer.MAX_VALUE;
+		BalancedAddress chosen = null;
+		for (int i = 0; i < addresses.length; i++) {
+			BalancedAddress candidate = addresses[(start + i) % addresses.length];
+			if (!candidate.isEjected(now) && (chosen == null || candidate.outstanding.get() < chosen.outstanding.get())) {
+				chosen = candidate;
+			}
+		}
+		return chosen != null ? chosen : addresses[start % addresses.length];
+	}
+
+	private BalancedAddress powerOfTwoChoices(BalancedAddress[] addresses, long now) {
+		if (addresses.length == 1) {
+			return addresses[0];
+		}
+		int first = random.nextInt(addresses.length);
+		int second = random.nextInt(addresses.length - 1);
+		if (second >= first) {
+			second++;
+		}
+		BalancedAddress a = addresses[first];
+		BalancedAddress b = addresses[second];
+		if (a.isEjected(now) || b.isEjected(now)) {
+			if (a.isEjected(now) && b.isEjected(now)) {
+				return roundRobin(addresses, now);
+			}
+			return a.isEjected(now) ? b : a;
+		}
+		return a.outstanding.get() <= b.outstanding.get() ? a : b;
+	}
+
+	private synchronized void eject(BalancedAddress address) {
+		long now = ticker.read();
+		if (address.isEjected(now)) {
+			return;
+		}
+		BalancedAddress[] addresses = currentAddresses();
+		int ejected = 0;
+		for (BalancedAddress candidate: addresses) {
+			if (candidate.isEjected(now)) {
+				ejected++;
+			}
+		}
+		if ((ejected + 1) * 100 > maxEjectionPercent * addresses.length) {
+			return;
+		}
+		address.ejectedUntil = now + ejectionNanos;
+		address.ejected = true;
+		address.consecutiveFailures.set(0);
+	}
+
+	private BalancedAddress[] currentAddresses() {
+		List<String> supplied = addressSupplier.getAddresses();
+		Snapshot current = snapshot;
+		if (current != null && current.supplied == supplied) {
+			return current.addresses;
+		}
+		BalancedAddress[] addresses = new BalancedAddress[supplied.size()];
+		for (int i = 0; i < addresses.length; i++) {
+			String address = normalize(supplied.get(i));
+			BalancedAddress balancedAddress = balancedAddresses.get(address);
+			if (balancedAddress == null) {
+				BalancedAddress created = new BalancedAddress(address);
+				balancedAddress = balancedAddresses.putIfAbsent(address, created);
+				if (balancedAddress == null) {
+					balancedAddress = created;
+				}
+			}
+			addresses[i] = balancedAddress;
+		}
+		balancedAddresses.keySet().retainAll(Sets.newHashSet(normalizeAll(supplied)));
+		snapshot = new Snapshot(supplied, addresses);
+		return addresses;
+	}
+
+	private static String[] normalizeAll(List<String> addresses) {
+		String[] normalized = new String[addresses.size()];
+		for (int i = 0; i < normalized.length; i++) {
+			normalized[i] = normalize(addresses.get(i));
+		}
+		return normalized;
+	}
+
+	/**
+	 * Removes any trailing slash, so that addresses can be joined with paths.
+	 */
+	static String normalize(String address) {
+		return address.endsWith("/") ? address.substring(0, address.length() - 1) : address;
+	}
+
+	private static final class Snapshot {
+		final List<String> supplied;
+		final BalancedAddress[] addresses;
+
+		Snapshot(List<String> supplied, BalancedAddress[] addresses) {
+			this.supplied = supplied;
+			this.addresses = addresses;
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientPolicyConfigurer;
+
+/**
+ * Configures the load balancing of a client's calls over several addresses.
+ * <p>
+ * Addresses failing several calls in a row are ejected for a while, up to a
+ * share of all addresses, after which they are tried again.
+ *
+ * @see JaxRsClientPolicyConfigurer#loadBalancerPolicy()
+ * @author pwilson
+ */
+public class LoadBalancerPolicy {
+
+	private AddressSupplier addressSupplier;
+	private LoadBalancingStrategy strategy = LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS;
+	private int consecutiveFailures = 5;
+	private long ejectionMillis = 30000;
+	private int maxEjectionPercent = 50;
+
+	public LoadBalancerPolicy() {}
+
+	public LoadBalancerPolicy(AddressSupplier addressSupplier, LoadBalancingStrategy strategy) {
+		setAddressSupplier(addressSupplier);
+		setStrategy(strategy);
+	}
+
+	public LoadBalancer createLoadBalancer() {
+		return new LoadBalancer(this);
+	}
+
+	public AddressSupplier getAddressSupplier() {
+		return addressSupplier;
+	}
+
+	public void setAddressSupplier(AddressSupplier addressSupplier) {
+		this.addressSupplier = addressSupplier;
+	}
+
+	public LoadBalancingStrategy getStrategy() {
+		return strategy;
+	}
+
+	public void setStrategy(LoadBalancingStrategy strategy) {
+		this.strategy = strategy;
+	}
+
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	/**
+	 * The number of failed calls in a row after which an address is ejected,
+	 * or <code>0</code> never to eject addresses.
+	 */
+	public void setConsecutiveFailures(int consecutiveFailures) {
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	public long getEjectionMillis() {
+		return ejectionMillis;
+	}
+
+	public void setEjectionMillis(long ejectionMillis) {
+		this.ejectionMillis = ejectionMillis;
+	}
+
+	public int getMaxEjectionPercent() {
+		return maxEjectionPercent;
+	}
+
+	/**
+	 * The largest share of the addresses that may be ejected at once.
+	 */
+	public void setMaxEjectionPercent(int maxEjectionPercent) {
+		this.maxEjectionPercent = maxEjectionPercent;
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Releases the address of a call as soon as its response arrives. Server
+ * errors count towards ejecting the address.
+ *
+ * @author pwilson
+ */
+public class LoadBalancingInInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	LoadBalancingInInterceptor() {
+		super(Phase.RECEIVE);
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		LoadBalancedCall call = message.getExchange().get(LoadBalancedCall.class);
+		if (call != null) {
+			Integer responseCode = (Integer) message.get(Message.RESPONSE_CODE);
+			call.complete(responseCode == null || responseCode < 500);
+		}
+	}
+
+}
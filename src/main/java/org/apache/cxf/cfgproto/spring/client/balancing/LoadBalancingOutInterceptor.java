@@ -0,0 +1,61 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import org.apache.cxf.cfgproto.spring.client.resilience.CircuitBreakerOutInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Sends each call to an address chosen by a {@link LoadBalancer}, by
+ * replacing the base address the client was created with. Calls to
+ * addresses outside the base address are left alone.
+ *
+ * @author pwilson
+ */
+public class LoadBalancingOutInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private static final String REQUEST_URI = "org.apache.cxf.request.uri";
+
+	private final LoadBalancer loadBalancer;
+	private final String baseAddress;
+
+	LoadBalancingOutInterceptor(LoadBalancer loadBalancer, String baseAddress) {
+		super(Phase.SETUP);
+		addBefore(CircuitBreakerOutInterceptor.class.getName());
+		this.loadBalancer = loadBalancer;
+		this.baseAddress = LoadBalancer.normalize(baseAddress);
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		String address = (String) message.get(Message.ENDPOINT_ADDRESS);
+		if (address == null || !address.startsWith(baseAddress)) {
+			return;
+		}
+		BalancedAddress chosen = loadBalancer.choose();
+		String balancedAddress = chosen.getAddress() + address.substring(baseAddress.length());
+		message.put(Message.ENDPOINT_ADDRESS, balancedAddress);
+		if (address.equals(message.get(REQUEST_URI))) {
+			message.put(REQUEST_URI, balancedAddress);
+		}
+		Exchange exchange = message.getExchange();
+		LoadBalancedCall call = new LoadBalancedCall(loadBalancer, chosen);
+		if (exchange.isOneWay()) {
+			// no response will tell us how the call went
+			call.complete(true);
+		} else {
+			exchange.put(LoadBalancedCall.class, call);
+		}
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		LoadBalancedCall call = message.getExchange().get(LoadBalancedCall.class);
+		if (call != null) {
+			call.complete(false);
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+/**
+ * How a {@link LoadBalancer} chooses between available addresses.
+ *
+ * @author pwilson
+ */
+public enum LoadBalancingStrategy {
+
+	/**
+	 * Each address in turn.
+	 */
+	ROUND_ROBIN,
+
+	/**
+	 * The address with the fewest calls in progress from this client.
+	 */
+	LEAST_OUTSTANDING_REQUESTS,
+
+	/**
+	 * The less busy of two addresses picked at random, which avoids every
+	 * client herding onto the same least busy address.
+	 */
+	POWER_OF_TWO_CHOICES
+
+}
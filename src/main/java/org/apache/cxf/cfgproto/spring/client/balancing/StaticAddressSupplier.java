@@ -0,0 +1,32 @@
+package org.apache.cxf.cfgproto.spring.client.balancing;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Supplies a fixed list of addresses.
+ *
+ * @author pwilson
+ */
+public class StaticAddressSupplier implements AddressSupplier {
+
+	private final List<String> addresses;
+
+	public StaticAddressSupplier(String... addresses) {
+		this(ImmutableList.copyOf(addresses));
+	}
+
+	public StaticAddressSupplier(List<String> addresses) {
+		if (addresses.isEmpty()) {
+			throw new IllegalArgumentException("At least one address is required");
+		}
+		this.addresses = ImmutableList.copyOf(addresses);
+	}
+
+	@Override
+	public List<String> getAddresses() {
+		return addresses;
+	}
+
+}
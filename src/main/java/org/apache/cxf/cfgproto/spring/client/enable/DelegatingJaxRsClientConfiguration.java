@@ -5,8 +5,15 @@ import java.util.List;
 import javax.ws.rs.core.Feature;
 
 import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
 import org.apache.cxf.cfgproto.spring.client.JaxRsClientConfigurationSupport;
 import org.apache.cxf.cfgproto.spring.client.JaxRsClientConfigurer;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancerPolicy;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingPolicy;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResiliencePolicy;
+import org.apache.cxf.cfgproto.spring.local.CoLocationPolicy;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLoggingPolicy;
+import org.apache.cxf.cfgproto.spring.tracing.Tracer;
 import org.apache.cxf.jaxrs.client.ClientConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +30,7 @@ import org.springframework.context.annotation.Configuration;
 public class DelegatingJaxRsClientConfiguration extends JaxRsClientConfigurationSupport {
 	
 	private final JaxRsClientConfigurationComposite configurers = new JaxRsClientConfigurationComposite();
+	private Tracer tracer;
 	
 	@Autowired(required = false)
 	public void setJaxRsClientConfigurers(List<JaxRsClientConfigurer> configurers) {
@@ -32,6 +40,15 @@ public class DelegatingJaxRsClientConfiguration extends JaxRsClientConfiguration
 		this.configurers.setJaxRsClientConfigurers(configurers);
 	}
 
+	/**
+	 * Traces the calls of the client. Any tracer registered with the
+	 * context is used.
+	 */
+	@Autowired(required = false)
+	public void setTracer(Tracer tracer) {
+		this.tracer = tracer;
+	}
+
 	@Override
 	public Class<?> serviceType() {
 		return configurers.serviceType();
@@ -72,4 +89,39 @@ public class DelegatingJaxRsClientConfiguration extends JaxRsClientConfiguration
 		return configurers.transportFactory();
 	}
 
+	@Override
+	public ClientResiliencePolicy resiliencePolicy() {
+		return configurers.resiliencePolicy();
+	}
+
+	@Override
+	public LoadBalancerPolicy loadBalancerPolicy() {
+		return configurers.loadBalancerPolicy();
+	}
+
+	@Override
+	public HedgingPolicy hedgingPolicy() {
+		return configurers.hedgingPolicy();
+	}
+
+	@Override
+	public CoLocationPolicy coLocationPolicy() {
+		return configurers.coLocationPolicy();
+	}
+
+	@Override
+	public BufferPoolPolicy bufferPoolPolicy() {
+		return configurers.bufferPoolPolicy();
+	}
+
+	@Override
+	public PayloadLoggingPolicy payloadLoggingPolicy() {
+		return configurers.payloadLoggingPolicy();
+	}
+
+	@Override
+	public Tracer tracer() {
+		return tracer;
+	}
+
 }
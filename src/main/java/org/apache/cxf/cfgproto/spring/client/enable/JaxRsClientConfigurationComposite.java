@@ -2,6 +2,7 @@ package org.apache.cxf.cfgproto.spring.client.enable;
 
 import static com.google.common.base.Predicates.notNull;
 import static com.google.common.collect.FluentIterable.from;
+import static com.google.common.collect.Iterables.getFirst;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.apache.cxf.cfgproto.spring.JaxRsComponentConfigurationUtils.selectFirstAndOnlyItem;
 import static org.apache.cxf.cfgproto.spring.JaxRsComponentConfigurationUtils.selectFirstMandatory;
@@ -12,7 +13,14 @@ import java.util.Set;
 import javax.ws.rs.core.Feature;
 
 import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
 import org.apache.cxf.cfgproto.spring.client.JaxRsClientConfigurer;
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientPolicyConfigurer;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancerPolicy;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingPolicy;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResiliencePolicy;
+import org.apache.cxf.cfgproto.spring.local.CoLocationPolicy;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLoggingPolicy;
 import org.apache.cxf.jaxrs.client.ClientConfiguration;
 
 import com.google.common.base.Function;
@@ -28,6 +36,9 @@ import com.google.common.base.Function;
  * the JaxRs client <code>address</code>, then it will assert that only a single 
  * such registration has been made (i.e. conflict detection) or return 
  * <code>null</code>.
+ * <p>
+ * Optional policies, such as the {@link #resiliencePolicy()}, are taken from
+ * those configurers implementing {@link JaxRsClientPolicyConfigurer} only.
  * 
  * @author pwilson
  */
@@ -46,10 +57,17 @@ public class JaxRsClientConfigurationComposite {
 			    "serviceType");
 	}
 
+	/**
+	 * Selects the configured address or, failing that, the first address of
+	 * the load balancer.
+	 */
 	public String address() {
-		return selectFirstMandatory(
-				listOfValuesFor(getAddresses()),
-			    "address");
+		Set<String> addresses = listOfValuesFor(getAddresses());
+		LoadBalancerPolicy loadBalancerPolicy = loadBalancerPolicy();
+		if (addresses.isEmpty() && loadBalancerPolicy != null && loadBalancerPolicy.getAddressSupplier() != null) {
+			return getFirst(loadBalancerPolicy.getAddressSupplier().getAddresses(), null);
+		}
+		return selectFirstMandatory(addresses, "address");
 	}
 
 	public void configureClient(ClientConfiguration clientConfiguration) {
@@ -88,12 +106,56 @@ public class JaxRsClientConfigurationComposite {
 			    "transportFactory");
 	}
 	
+	public ClientResiliencePolicy resiliencePolicy() {
+		return selectFirstAndOnlyItem(
+				policyValuesFor(getResiliencePolicy()),
+			    "resiliencePolicy");
+	}
+	
+	public LoadBalancerPolicy loadBalancerPolicy() {
+		return selectFirstAndOnlyItem(
+				policyValuesFor(getLoadBalancerPolicy()),
+			    "loadBalancerPolicy");
+	}
+	
+	public HedgingPolicy hedgingPolicy() {
+		return selectFirstAndOnlyItem(
+				policyValuesFor(getHedgingPolicy()),
+			    "hedgingPolicy");
+	}
+	
+	public CoLocationPolicy coLocationPolicy() {
+		return selectFirstAndOnlyItem(
+				policyValuesFor(getCoLocationPolicy()),
+			    "coLocationPolicy");
+	}
+	
+	public BufferPoolPolicy bufferPoolPolicy() {
+		return selectFirstAndOnlyItem(
+				policyValuesFor(getBufferPoolPolicy()),
+			    "bufferPoolPolicy");
+	}
+	
+	public PayloadLoggingPolicy payloadLoggingPolicy() {
+		return selectFirstAndOnlyItem(
+				policyValuesFor(getPayloadLoggingPolicy()),
+			    "payloadLoggingPolicy");
+	}
+	
 	private <T> Set<T> listOfValuesFor(Function<JaxRsClientConfigurer, T> function) {
 		return from(configurers)
 					.transform(function)
 					.filter(notNull())
 					.toSet();
 	}
+
+	private <T> Set<T> policyValuesFor(Function<JaxRsClientPolicyConfigurer, T> function) {
+		return from(configurers)
+					.filter(JaxRsClientPolicyConfigurer.class)
+					.transform(function)
+					.filter(notNull())
+					.toSet();
+	}
 	
 	private Function<JaxRsClientConfigurer, String> getTransportFactory() {
 		return new Function<JaxRsClientConfigurer, String>() {
@@ -104,6 +166,60 @@ public class JaxRsClientConfigurationComposite {
 		};
 	}
 
+	private Function<JaxRsClientPolicyConfigurer, PayloadLoggingPolicy> getPayloadLoggingPolicy() {
+		return new Function<JaxRsClientPolicyConfigurer, PayloadLoggingPolicy>() {
+			@Override
+			public PayloadLoggingPolicy apply(JaxRsClientPolicyConfigurer configurer) {
+				return configurer.payloadLoggingPolicy();
+			}
+		};
+	}
+
+	private Function<JaxRsClientPolicyConfigurer, BufferPoolPolicy> getBufferPoolPolicy() {
+		return new Function<JaxRsClientPolicyConfigurer, BufferPoolPolicy>() {
+			@Override
+			public BufferPoolPolicy apply(JaxRsClientPolicyConfigurer configurer) {
+				return configurer.bufferPoolPolicy();
+			}
+		};
+	}
+
+	private Function<JaxRsClientPolicyConfigurer, CoLocationPolicy> getCoLocationPolicy() {
+		return new Function<JaxRsClientPolicyConfigurer, CoLocationPolicy>() {
+			@Override
+			public CoLocationPolicy apply(JaxRsClientPolicyConfigurer configurer) {
+				return configurer.coLocationPolicy();
+			}
+		};
+	}
+
+	private Function<JaxRsClientPolicyConfigurer, HedgingPolicy> getHedgingPolicy() {
+		return new Function<JaxRsClientPolicyConfigurer, HedgingPolicy>() {
+			@Override
+			public HedgingPolicy apply(JaxRsClientPolicyConfigurer configurer) {
+				return configurer.hedgingPolicy();
+			}
+		};
+	}
+
+	private Function<JaxRsClientPolicyConfigurer, LoadBalancerPolicy> getLoadBalancerPolicy() {
+		return new Function<JaxRsClientPolicyConfigurer, LoadBalancerPolicy>() {
+			@Override
+			public LoadBalancerPolicy apply(JaxRsClientPolicyConfigurer configurer) {
+				return configurer.loadBalancerPolicy();
+			}
+		};
+	}
+
+	private Function<JaxRsClientPolicyConfigurer, ClientResiliencePolicy> getResiliencePolicy() {
+		return new Function<JaxRsClientPolicyConfigurer, ClientResiliencePolicy>() {
+			@Override
+			public ClientResiliencePolicy apply(JaxRsClientPolicyConfigurer configurer) {
+				return configurer.resiliencePolicy();
+			}
+		};
+	}
+
 	private Function<JaxRsClientConfigurer, String> getAddresses() {
 		return new Function<JaxRsClientConfigurer, String>() {
 			@Override
@@ -0,0 +1,46 @@
+package org.apache.cxf.cfgproto.spring.client.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds hedges to a percentage of calls. Every call earns a fraction of a
+ * hedge, and every hedge spends a whole one, so hedging stops when a
+ * downstream is slow for every call rather than for a few.
+ *
+ * @author pwilson
+ */
+class HedgeBudget {
+
+	private static final long HEDGE_COST = 100;
+	private static final long MAX_SAVED_HEDGES = 10;
+
+	private final long earnedPerCall;
+	private final AtomicLong balance = new AtomicLong();
+
+	HedgeBudget(int budgetPercent) {
+		this.earnedPerCall = Math.max(0, budgetPercent);
+	}
+
+	void onCall() {
+		for (;;) {
+			long current = balance.get();
+			long next = Math.min(current + earnedPerCall, MAX_SAVED_HEDGES * HEDGE_COST);
+			if (current == next || balance.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+
+	boolean tryHedge() {
+		for (;;) {
+			long current = balance.get();
+			if (current < HEDGE_COST) {
+				return false;
+			}
+			if (balance.compareAndSet(current, current - HEDGE_COST)) {
+				return true;
+			}
+		}
+	}
+
+}
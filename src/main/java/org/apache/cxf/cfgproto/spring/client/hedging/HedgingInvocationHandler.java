@@ -0,0 +1,202 @@
+package org.apache.cxf.cfgproto.spring.client.hedging;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
+import javax.ws.rs.OPTIONS;
+
+import org.apache.cxf.cfgproto.spring.tracing.TraceContext;
+import org.apache.cxf.cfgproto.spring.tracing.Tracer;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Hedges the idempotent calls of a client proxy. Such calls are made from a
+ * pool; if no response has arrived after the configured percentile of the
+ * method's recent latencies, and the {@link HedgeBudget budget} allows, the
+ * call is sent again and the first response to arrive is returned.
+ * <p>
+ * The losing call is cancelled, which stops the caller waiting on it but
+ * cannot always stop the transport: a blocked HTTP read runs to its timeout.
+ * When the client is load balanced, the outstanding original steers the
+ * hedge to another address. Both calls continue the
+ * {@link Tracer#currentContext() trace} of the caller.
+ * <p>
+ * The proxy created by {@link #newProxy(Object, HedgingPolicy)} implements
+ * the same interfaces as the client proxy it wraps, so it can still be
+ * passed to <code>WebClient.client</code> and <code>WebClient.getConfig</code>.
+ *
+ * @author pwilson
+ */
+public class HedgingInvocationHandler implements InvocationHandler {
+
+	private static final LatencyTracker NOT_HEDGED = new LatencyTracker(50, 1);
+
+	private final Object delegate;
+	private final HedgingPolicy policy;
+	private final HedgeBudget budget;
+	private final ThreadPoolExecutor executor;
+	private final ConcurrentMap<Method, LatencyTracker> trackers = new ConcurrentHashMap<Method, LatencyTracker>();
+	private final AtomicLong hedges = new AtomicLong();
+
+	public HedgingInvocationHandler(Object delegate, HedgingPolicy policy) {
+		this.delegate = delegate;
+		this.policy = policy;
+		this.budget = new HedgeBudget(policy.getBudgetPercent());
+		this.executor = new ThreadPoolExecutor(0, policy.getMaxConcurrentCalls(), 60, SECONDS, new SynchronousQueue<Runnable>(),
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("jaxrs-client-hedging-%d").build());
+	}
+
+	/**
+	 * Wraps a client proxy so that its idempotent calls are hedged.
+	 */
+	public static Object newProxy(Object clientProxy, HedgingPolicy policy) {
+		return Proxy.newProxyInstance(clientProxy.getClass().getClassLoader(),
+									  clientProxy.getClass().getInterfaces(),
+									  new HedgingInvocationHandler(clientProxy, policy));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		LatencyTracker tracker = trackerFor(method);
+		if (tracker == NOT_HEDGED) {
+			return invokeDelegate(method, args);
+		}
+		CompletionService<Object> completion = new ExecutorCompletionService<Object>(executor);
+		List<Future<Object>> calls = new ArrayList<Future<Object>>(2);
+		TraceContext traceContext = Tracer.currentContext();
+		try {
+			calls.add(completion.submit(timedCall(tracker, traceContext, method, args)));
+		} catch (RejectedExecutionException e) {
+			return invokeDelegate(method, args);
+		}
+		budget.onCall();
+		try {
+			Future<Object> done = completion.poll(hedgeDelayNanos(tracker), NANOSECONDS);
+			if (done == null && budget.tryHedge()) {
+				try {
+					calls.add(completion.submit(timedCall(tracker, traceContext, method, args)));
+					hedges.incrementAndGet();
+				} catch (RejectedExecutionException e) {
+					// no capacity to hedge; keep waiting on the original
+				}
+			}
+			int pending = calls.size();
+			for (;;) {
+				if (done == null) {
+					done = completion.take();
+				}
+				pending--;
+				try {
+					return done.get();
+				} catch (ExecutionException e) {
+					if (pending == 0) {
+						throw unwrap(e.getCause());
+					}
+					done = null;
+				}
+			}
+		} finally {
+			for (Future<Object> call: calls) {
+				call.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of hedges sent
+	 */
+	public long getHedgeCount() {
+		return hedges.get();
+	}
+
+	private LatencyTracker trackerFor(Method method) {
+		LatencyTracker tracker = trackers.get(method);
+		if (tracker == null) {
+			tracker = isHedged(method) ? new LatencyTracker(policy.getDelayPercentile(), policy.getMinSamples()) : NOT_HEDGED;
+			LatencyTracker existing = trackers.putIfAbsent(method, tracker);
+			if (existing != null) {
+				tracker = existing;
+			}
+		}
+		return tracker;
+	}
+
+	private static boolean isHedged(Method method) {
+		JaxRsHedged hedged = AnnotationUtils.findAnnotation(method, JaxRsHedged.class);
+		if (hedged != null) {
+			return hedged.value();
+		}
+		return AnnotationUtils.findAnnotation(method, GET.class) != null
+			|| AnnotationUtils.findAnnotation(method, HEAD.class) != null
+			|| AnnotationUtils.findAnnotation(method, OPTIONS.class) != null;
+	}
+
+	private long hedgeDelayNanos(LatencyTracker tracker) {
+		long percentile = tracker.getPercentileNanos();
+		if (percentile < 0) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(percentile, MILLISECONDS.toNanos(policy.getMinDelayMillis()));
+	}
+
+	/*
+	 * Calls run on pooled threads, so the trace of the caller is carried
+	 * over to them.
+	 */
+	private Callable<Object> timedCall(final LatencyTracker tracker, final TraceContext traceContext, 
+			final Method method, final Object[] args) {
+		return new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				TraceContext previous = Tracer.setCurrentContext(traceContext);
+				try {
+					long start = System.nanoTime();
+					Object result = method.invoke(delegate, args);
+					tracker.record(System.nanoTime() - start);
+					return result;
+				} finally {
+					Tracer.setCurrentContext(previous);
+				}
+			}
+		};
+	}
+
+	private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(delegate, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static Throwable unwrap(Throwable failure) {
+		if (failure instanceof InvocationTargetException) {
+			return ((InvocationTargetException) failure).getTargetException();
+		}
+		return failure;
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.apache.cxf.cfgproto.spring.client.hedging;
+
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientPolicyConfigurer;
+
+/**
+ * Configures the hedging of a client's idempotent calls: a call still
+ * waiting for its response after the given percentile of recent latencies
+ * is sent again, and the first response wins.
+ *
+ * @see JaxRsClientPolicyConfigurer#hedgingPolicy()
+ * @see JaxRsHedged
+ * @author pwilson
+ */
+public class HedgingPolicy {
+
+	private double delayPercentile = 95.0;
+	private long minDelayMillis = 5;
+	private int budgetPercent = 10;
+	private int minSamples = 100;
+	private int maxConcurrentCalls = 64;
+
+	public double getDelayPercentile() {
+		return delayPercentile;
+	}
+
+	/**
+	 * The percentile of recent latencies of a method after which its calls
+	 * are hedged.
+	 */
+	public void setDelayPercentile(double delayPercentile) {
+		if (delayPercentile <= 0 || delayPercentile >= 100) {
+			throw new IllegalArgumentException("delayPercentile must be between 0 and 100: " + delayPercentile);
+		}
+		this.delayPercentile = delayPercentile;
+	}
+
+	public long getMinDelayMillis() {
+		return minDelayMillis;
+	}
+
+	/**
+	 * The least time to wait before hedging, however fast the method.
+	 */
+	public void setMinDelayMillis(long minDelayMillis) {
+		this.minDelayMillis = minDelayMillis;
+	}
+
+	public int getBudgetPercent() {
+		return budgetPercent;
+	}
+
+	/**
+	 * The extra calls hedging may add, as a percentage of all calls.
+	 */
+	public void setBudgetPercent(int budgetPercent) {
+		this.budgetPercent = budgetPercent;
+	}
+
+	public int getMinSamples() {
+		return minSamples;
+	}
+
+	/**
+	 * The number of calls to a method that are timed before its calls are
+	 * hedged.
+	 */
+	public void setMinSamples(int minSamples) {
+		this.minSamples = minSamples;
+	}
+
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	/**
+	 * The number of hedgeable calls, hedges included, that may be in flight
+	 * at once. Calls beyond it are made directly, without hedging.
+	 */
+	public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+		this.maxConcurrentCalls = maxConcurrentCalls;
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.apache.cxf.cfgproto.spring.client.hedging;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks whether calls to a method of a service interface may be hedged by a
+ * client with a {@link HedgingPolicy}. Without it, only methods with a safe
+ * HTTP method (<code>GET</code>, <code>HEAD</code> or <code>OPTIONS</code>)
+ * are hedged.
+ * <pre class="code">
+ * &#064;PUT
+ * &#064;Path("/{id}")
+ * &#064;JaxRsHedged
+ * void store(&#064;PathParam("id") String id, Document document);
+ * </pre>
+ * Only idempotent methods should be hedged, as a hedged call may reach the
+ * service twice.
+ *
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface JaxRsHedged {
+
+	boolean value() default true;
+
+}
@@ -0,0 +1,55 @@
+package org.apache.cxf.cfgproto.spring.client.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks a percentile of the most recent latencies of a method. The
+ * percentile is recomputed every so many samples rather than on every call.
+ *
+ * @author pwilson
+ */
+class LatencyTracker {
+
+	private static final int WINDOW = 1024;
+	private static final int RECOMPUTE_EVERY = 64;
+
+	private final double percentile;
+	private final int minSamples;
+	private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+	private final AtomicLong count = new AtomicLong();
+	private volatile long percentileNanos = -1;
+
+	LatencyTracker(double percentile, int minSamples) {
+		this.percentile = percentile;
+		this.minSamples = Math.min(WINDOW, Math.max(1, minSamples));
+	}
+
+	void record(long nanos) {
+		long n = count.getAndIncrement();
+		samples.set((int) (n % WINDOW), nanos);
+		long recorded = n + 1;
+		if (recorded >= minSamples && (recorded == minSamples || recorded % RECOMPUTE_EVERY == 0)) {
+			recompute((int) Math.min(recorded, WINDOW));
+		}
+	}
+
+	/**
+	 * @return the percentile in nanoseconds, or <code>-1</code> until enough samples are recorded
+	 */
+	long getPercentileNanos() {
+		return percentileNanos;
+	}
+
+	private void recompute(int size) {
+		long[] sorted = new long[size];
+		for (int i = 0; i < size; i++) {
+			sorted[i] = samples.get(i);
+		}
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(percentile / 100 * size) - 1;
+		percentileNanos = sorted[Math.max(0, Math.min(size - 1, index))];
+	}
+
+}
@@ -0,0 +1,151 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.base.Ticker;
+
+/**
+ * A circuit breaker over the failure rate of the most recent calls to a
+ * downstream.
+ * <p>
+ * While {@link CircuitState#CLOSED closed} the outcome of each call is
+ * recorded in a sliding window. Once the window holds enough calls and the
+ * share of failures reaches the threshold, the circuit
+ * {@link CircuitState#OPEN opens} and calls are refused without locking or
+ * touching the network. After a while a few trial calls are let through
+ * ({@link CircuitState#HALF_OPEN half-open}): if all succeed the circuit
+ * closes, if any fails it opens again.
+ *
+ * @author pwilson
+ */
+public class CircuitBreaker {
+
+	private final int failureRateThreshold;
+	private final int minimumCalls;
+	private final long openNanos;
+	private final int halfOpenCalls;
+	private final Ticker ticker;
+
+	private volatile CircuitState state = CircuitState.CLOSED;
+	private volatile long stateChangedAt;
+
+	// guarded by this
+	private final boolean[] outcomes;
+	private int position;
+	private int recorded;
+	private int failures;
+	private int trialPermits;
+	private int trialSuccesses;
+
+	public CircuitBreaker(ClientResiliencePolicy policy) {
+		this(policy, Ticker.systemTicker());
+	}
+
+	public CircuitBreaker(ClientResiliencePolicy policy, Ticker ticker) {
+		this.failureRateThreshold = policy.getFailureRateThreshold();
+		this.minimumCalls = Math.max(1, policy.getMinimumCalls());
+		this.openNanos = MILLISECONDS.toNanos(policy.getOpenMillis());
+		this.halfOpenCalls = policy.getHalfOpenCalls();
+		this.outcomes = new boolean[policy.getSlidingWindowSize()];
+		this.ticker = ticker;
+		this.stateChangedAt = ticker.read();
+	}
+
+	/**
+	 * Decides whether a call may proceed. The outcome of a permitted call must
+	 * be reported through {@link #onSuccess()} or {@link #onFailure()}.
+	 */
+	public boolean tryAcquire() {
+		CircuitState current = state;
+		if (current == CircuitState.CLOSED) {
+			return true;
+		}
+		if (current == CircuitState.OPEN && ticker.read() - stateChangedAt < openNanos) {
+			return false;
+		}
+		synchronized (this) {
+			long now = ticker.read();
+			switch (state) {
+			case OPEN:
+				if (now - stateChangedAt < openNanos) {
+					return false;
+				}
+				transitionTo(CircuitState.HALF_OPEN, now);
+				break;
+			case HALF_OPEN:
+				if (trialPermits == 0 && now - stateChangedAt >= openNanos) {
+					// the outcomes of earlier trials were never reported
+					transitionTo(CircuitState.HALF_OPEN, now);
+				}
+				break;
+			default:
+				return true;
+			}
+			if (trialPermits == 0) {
+				return false;
+			}
+			trialPermits--;
+			return true;
+		}
+	}
+
+	public synchronized void onSuccess() {
+		if (state == CircuitState.HALF_OPEN) {
+			if (++trialSuccesses >= halfOpenCalls) {
+				transitionTo(CircuitState.CLOSED, ticker.read());
+			}
+		} else if (state == CircuitState.CLOSED) {
+			record(false);
+		}
+	}
+
+	public synchronized void onFailure() {
+		if (state == CircuitState.HALF_OPEN) {
+			transitionTo(CircuitState.OPEN, ticker.read());
+		} else if (state == CircuitState.CLOSED) {
+			record(true);
+			if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+				transitionTo(CircuitState.OPEN, ticker.read());
+			}
+		}
+	}
+
+	private void record(boolean failure) {
+		if (recorded == outcomes.length) {
+			if (outcomes[position]) {
+				failures--;
+			}
+		} else {
+			recorded++;
+		}
+		outcomes[position] = failure;
+		if (failure) {
+			failures++;
+		}
+		position = (position + 1) % outcomes.length;
+	}
+
+	private void transitionTo(CircuitState next, long now) {
+		if (next == CircuitState.CLOSED) {
+			position = 0;
+			recorded = 0;
+			failures = 0;
+		}
+		trialPermits = halfOpenCalls;
+		trialSuccesses = 0;
+		stateChangedAt = now;
+		state = next;
+	}
+
+	public CircuitState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the failure rate of the calls in the window, as a percentage
+	 */
+	public synchronized int getFailureRate() {
+		return recorded == 0 ? 0 : failures * 100 / recorded;
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A call permitted by a {@link CircuitBreaker}, whose outcome is reported at
+ * most once however many interceptors observe it.
+ *
+ * @author pwilson
+ */
+class CircuitBreakerCall {
+
+	private final CircuitBreaker circuitBreaker;
+	private final AtomicBoolean completed = new AtomicBoolean();
+
+	CircuitBreakerCall(CircuitBreaker circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	void complete(boolean success) {
+		if (!completed.compareAndSet(false, true)) {
+			return;
+		}
+		if (success) {
+			circuitBreaker.onSuccess();
+		} else {
+			circuitBreaker.onFailure();
+		}
+	}
+
+}
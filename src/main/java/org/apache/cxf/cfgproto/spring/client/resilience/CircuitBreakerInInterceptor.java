@@ -0,0 +1,29 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Reports the outcome of a call to its circuit breaker as soon as the
+ * response arrives. Server errors count as failures.
+ *
+ * @author pwilson
+ */
+public class CircuitBreakerInInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	CircuitBreakerInInterceptor() {
+		super(Phase.RECEIVE);
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		CircuitBreakerCall call = message.getExchange().get(CircuitBreakerCall.class);
+		if (call != null) {
+			Integer responseCode = (Integer) message.get(Message.RESPONSE_CODE);
+			call.complete(responseCode == null || responseCode < 500);
+		}
+	}
+
+}
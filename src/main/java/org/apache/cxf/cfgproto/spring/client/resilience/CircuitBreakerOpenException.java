@@ -0,0 +1,22 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+/**
+ * Raised in place of a call to a downstream whose circuit is open. Carries no
+ * stack trace, as it is expected and frequent while a downstream is failing.
+ *
+ * @author pwilson
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public CircuitBreakerOpenException(String downstream) {
+		super("Circuit to [" + downstream + "] is open");
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
+}
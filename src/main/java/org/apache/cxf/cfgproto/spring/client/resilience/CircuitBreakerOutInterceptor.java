@@ -0,0 +1,55 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+import java.lang.reflect.Method;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Applies the timeout of an outgoing call and refuses it if the circuit to
+ * its downstream is open, before a connection is taken. Failures of the
+ * call, including timeouts, are reported to the circuit breaker as the chain
+ * unwinds.
+ *
+ * @author pwilson
+ */
+public class CircuitBreakerOutInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final ClientResilience resilience;
+
+	CircuitBreakerOutInterceptor(ClientResilience resilience) {
+		super(Phase.SETUP);
+		this.resilience = resilience;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		Exchange exchange = message.getExchange();
+		long timeout = resilience.getTimeoutMillis(exchange.get(Method.class));
+		if (timeout > 0) {
+			message.put(Message.RECEIVE_TIMEOUT, timeout);
+		}
+		long connectTimeout = resilience.getConnectTimeoutMillis(timeout);
+		if (connectTimeout > 0) {
+			message.put(Message.CONNECTION_TIMEOUT, connectTimeout);
+		}
+		String address = (String) message.get(Message.ENDPOINT_ADDRESS);
+		CircuitBreaker circuitBreaker = resilience.getCircuitBreaker(address);
+		if (!circuitBreaker.tryAcquire()) {
+			throw new Fault(new CircuitBreakerOpenException(ClientResilience.downstreamOf(address)));
+		}
+		exchange.put(CircuitBreakerCall.class, new CircuitBreakerCall(circuitBreaker));
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		CircuitBreakerCall call = message.getExchange().get(CircuitBreakerCall.class);
+		if (call != null) {
+			call.complete(false);
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+/**
+ * The states of a {@link CircuitBreaker}.
+ *
+ * @author pwilson
+ */
+public enum CircuitState {
+
+	/**
+	 * Calls flow, and their outcomes are recorded.
+	 */
+	CLOSED,
+
+	/**
+	 * Calls fail fast without reaching the downstream.
+	 */
+	OPEN,
+
+	/**
+	 * A few trial calls are let through to decide whether to close again.
+	 */
+	HALF_OPEN
+
+}
@@ -0,0 +1,86 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.springframework.core.annotation.AnnotationUtils;
+
+/**
+ * The circuit breakers, one per downstream address, and call timeouts of a
+ * client, along with the interceptors applying them.
+ *
+ * @author pwilson
+ */
+public class ClientResilience {
+
+	private final ClientResiliencePolicy policy;
+	private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+	private final ConcurrentMap<Method, Long> timeouts = new ConcurrentHashMap<Method, Long>();
+
+	public ClientResilience(ClientResiliencePolicy policy) {
+		this.policy = policy;
+	}
+
+	public void addInterceptors(InterceptorRegistry outInterceptors, InterceptorRegistry inInterceptors) {
+		outInterceptors.addInterceptors(new CircuitBreakerOutInterceptor(this));
+		inInterceptors.addInterceptors(new CircuitBreakerInInterceptor());
+	}
+
+	/**
+	 * @param address the address of a call, of which only the scheme and authority are significant
+	 */
+	public CircuitBreaker getCircuitBreaker(String address) {
+		String downstream = downstreamOf(address);
+		CircuitBreaker circuitBreaker = circuitBreakers.get(downstream);
+		if (circuitBreaker == null) {
+			CircuitBreaker created = policy.createCircuitBreaker();
+			circuitBreaker = circuitBreakers.putIfAbsent(downstream, created);
+			if (circuitBreaker == null) {
+				circuitBreaker = created;
+			}
+		}
+		return circuitBreaker;
+	}
+
+	/**
+	 * @return the timeout of calls to the method in milliseconds, or <code>0</code> for none
+	 */
+	long getTimeoutMillis(Method method) {
+		if (method == null) {
+			return policy.getTimeoutMillis();
+		}
+		Long timeout = timeouts.get(method);
+		if (timeout == null) {
+			JaxRsClientTimeout annotation = AnnotationUtils.findAnnotation(method, JaxRsClientTimeout.class);
+			if (annotation == null) {
+				annotation = AnnotationUtils.findAnnotation(method.getDeclaringClass(), JaxRsClientTimeout.class);
+			}
+			timeout = annotation != null ? annotation.value() : policy.getTimeoutMillis();
+			timeouts.put(method, timeout);
+		}
+		return timeout;
+	}
+
+	long getConnectTimeoutMillis(long timeoutMillis) {
+		long connectTimeout = policy.getConnectTimeoutMillis();
+		if (connectTimeout <= 0) {
+			return timeoutMillis;
+		}
+		return timeoutMillis <= 0 ? connectTimeout : Math.min(connectTimeout, timeoutMillis);
+	}
+
+	static String downstreamOf(String address) {
+		if (address == null) {
+			return "";
+		}
+		int authority = address.indexOf("://");
+		if (authority < 0) {
+			return address;
+		}
+		int path = address.indexOf('/', authority + 3);
+		return path < 0 ? address : address.substring(0, path);
+	}
+
+}
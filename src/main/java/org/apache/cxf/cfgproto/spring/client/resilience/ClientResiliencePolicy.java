@@ -0,0 +1,113 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientPolicyConfigurer;
+
+/**
+ * Configures the circuit breakers and call timeouts of a client.
+ *
+ * @see JaxRsClientPolicyConfigurer#resiliencePolicy()
+ * @author pwilson
+ */
+public class ClientResiliencePolicy {
+
+	private int failureRateThreshold = 50;
+	private int slidingWindowSize = 20;
+	private int minimumCalls = 10;
+	private long openMillis = 30000;
+	private int halfOpenCalls = 3;
+	private long timeoutMillis;
+	private long connectTimeoutMillis;
+
+	public CircuitBreaker createCircuitBreaker() {
+		return new CircuitBreaker(this);
+	}
+
+	public int getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	/**
+	 * The percentage of failed calls in the sliding window at or above which
+	 * the circuit opens.
+	 */
+	public void setFailureRateThreshold(int failureRateThreshold) {
+		if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+			throw new IllegalArgumentException("failureRateThreshold must be a percentage: " + failureRateThreshold);
+		}
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	public int getSlidingWindowSize() {
+		return slidingWindowSize;
+	}
+
+	/**
+	 * The number of most recent calls over which the failure rate is taken.
+	 */
+	public void setSlidingWindowSize(int slidingWindowSize) {
+		if (slidingWindowSize < 1) {
+			throw new IllegalArgumentException("slidingWindowSize must be at least 1: " + slidingWindowSize);
+		}
+		this.slidingWindowSize = slidingWindowSize;
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	/**
+	 * The number of calls recorded before the failure rate is acted on.
+	 */
+	public void setMinimumCalls(int minimumCalls) {
+		this.minimumCalls = minimumCalls;
+	}
+
+	public long getOpenMillis() {
+		return openMillis;
+	}
+
+	/**
+	 * How long the circuit stays open before trial calls are let through.
+	 */
+	public void setOpenMillis(long openMillis) {
+		this.openMillis = openMillis;
+	}
+
+	public int getHalfOpenCalls() {
+		return halfOpenCalls;
+	}
+
+	/**
+	 * The number of trial calls that must succeed to close the circuit.
+	 */
+	public void setHalfOpenCalls(int halfOpenCalls) {
+		if (halfOpenCalls < 1) {
+			throw new IllegalArgumentException("halfOpenCalls must be at least 1: " + halfOpenCalls);
+		}
+		this.halfOpenCalls = halfOpenCalls;
+	}
+
+	public long getTimeoutMillis() {
+		return timeoutMillis;
+	}
+
+	/**
+	 * The time allowed for calls without a {@link JaxRsClientTimeout} of
+	 * their own, or <code>0</code> to leave the conduit's timeouts alone.
+	 */
+	public void setTimeoutMillis(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	public long getConnectTimeoutMillis() {
+		return connectTimeoutMillis;
+	}
+
+	/**
+	 * The time allowed to connect, if shorter than the call's timeout.
+	 */
+	public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+		this.connectTimeoutMillis = connectTimeoutMillis;
+	}
+
+}
@@ -0,0 +1,34 @@
+package org.apache.cxf.cfgproto.spring.client.resilience;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Bounds the time a client waits on calls to a method of a service
+ * interface, or on all methods of the interface. Requires the client to have
+ * a {@link ClientResiliencePolicy}; takes precedence over its
+ * {@link ClientResiliencePolicy#getTimeoutMillis() timeout}.
+ * <pre class="code">
+ * &#064;GET
+ * &#064;Path("/quote")
+ * &#064;JaxRsClientTimeout(250)
+ * Quote quote(&#064;QueryParam("symbol") String symbol);
+ * </pre>
+ * The time bounds both connecting and waiting for the response.
+ *
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface JaxRsClientTimeout {
+
+	/**
+	 * The time allowed, in milliseconds.
+	 */
+	long value();
+
+}
@@ -0,0 +1,116 @@
+package org.apache.cxf.cfgproto.spring.embedded;
+
+/**
+ * The listener, threads and limits of an embedded HTTP server.
+ *
+ * @see JaxRsEmbeddedHttp
+ * @author pwilson
+ */
+public class EmbeddedHttpPolicy {
+
+	private static final int MAX_DEFAULT_SELECTORS = 4;
+
+	private String host = "";
+	private int port = 8080;
+	private int acceptors = -1;
+	private int selectors = -1;
+	private int minWorkerThreads = 8;
+	private int maxWorkerThreads = 200;
+	private int idleTimeoutMillis = 30000;
+	private int maxHeaderSize = 8192;
+
+	/**
+	 * Resolves the address of a server against the embedded server, e.g.
+	 * <code>/orders</code> to <code>http://0.0.0.0:8080/orders</code>.
+	 */
+	public String resolveAddress(String address) {
+		String path = address == null || address.length() == 0 ? "/" : address;
+		if (path.contains("://")) {
+			throw new IllegalArgumentException("Address [" + address + "] of an embedded server must be a path");
+		}
+		return "http://" + (host.length() == 0 ? "0.0.0.0" : host) + ":" + port + (path.startsWith("/") ? path : "/" + path);
+	}
+
+	/**
+	 * The number of acceptor threads, defaulted if unset.
+	 */
+	public int getEffectiveAcceptors() {
+		return acceptors > 0 ? acceptors : 1;
+	}
+
+	/**
+	 * The number of selector threads, defaulted if unset to half the number
+	 * of processors, between one and four.
+	 */
+	public int getEffectiveSelectors() {
+		if (selectors > 0) {
+			return selectors;
+		}
+		return Math.max(1, Math.min(MAX_DEFAULT_SELECTORS, Runtime.getRuntime().availableProcessors() / 2));
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public void setHost(String host) {
+		this.host = host == null ? "" : host;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public void setPort(int port) {
+		this.port = port;
+	}
+
+	public int getAcceptors() {
+		return acceptors;
+	}
+
+	public void setAcceptors(int acceptors) {
+		this.acceptors = acceptors;
+	}
+
+	public int getSelectors() {
+		return selectors;
+	}
+
+	public void setSelectors(int selectors) {
+		this.selectors = selectors;
+	}
+
+	public int getMinWorkerThreads() {
+		return minWorkerThreads;
+	}
+
+	public void setMinWorkerThreads(int minWorkerThreads) {
+		this.minWorkerThreads = minWorkerThreads;
+	}
+
+	public int getMaxWorkerThreads() {
+		return maxWorkerThreads;
+	}
+
+	public void setMaxWorkerThreads(int maxWorkerThreads) {
+		this.maxWorkerThreads = maxWorkerThreads;
+	}
+
+	public int getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+
+	public void setIdleTimeoutMillis(int idleTimeoutMillis) {
+		this.idleTimeoutMillis = idleTimeoutMillis;
+	}
+
+	public int getMaxHeaderSize() {
+		return maxHeaderSize;
+	}
+
+	public void setMaxHeaderSize(int maxHeaderSize) {
+		this.maxHeaderSize = maxHeaderSize;
+	}
+
+}
@@ -0,0 +1,91 @@
+package org.apache.cxf.cfgproto.spring.embedded;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.transport.http_jetty.JettyHTTPServerEngine;
+import org.apache.cxf.transport.http_jetty.JettyHTTPServerEngineFactory;
+import org.apache.cxf.transport.http_jetty.ThreadingParameters;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Configures the embedded Jetty server of the HTTP transport from an
+ * {@link EmbeddedHttpPolicy}, before the destination of a server starts
+ * it. Requires <code>cxf-rt-transports-http-jetty</code> on the classpath.
+ * <p>
+ * The NIO connector of Jetty 8 selects on its acceptor threads, one
+ * selector each, so it is given as many of them as the larger of the
+ * acceptors and selectors asked for.
+ *
+ * @author pwilson
+ */
+public final class EmbeddedHttpTransport {
+
+	public static final String HTTP_TRANSPORT_ID = "http://cxf.apache.org/transports/http";
+
+	private static final boolean AVAILABLE = ClassUtils.isPresent(
+			"org.apache.cxf.transport.http_jetty.JettyHTTPServerEngineFactory", EmbeddedHttpTransport.class.getClassLoader());
+
+	/**
+	 * @return whether the embedded HTTP transport is on the classpath
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	/**
+	 * Configures the embedded server listening on the port of the policy,
+	 * unless another server of the bus already did.
+	 *
+	 * @param bus the bus of the server
+	 * @param policy the configuration of the embedded server
+	 */
+	public static synchronized void configureEngine(Bus bus, EmbeddedHttpPolicy policy) {
+		if (!AVAILABLE) {
+			throw new IllegalStateException("Embedded HTTP requires cxf-rt-transports-http-jetty on the classpath");
+		}
+		JettyHTTPServerEngineFactory engineFactory = bus.getExtension(JettyHTTPServerEngineFactory.class);
+		if (engineFactory == null) {
+			engineFactory = new JettyHTTPServerEngineFactory(bus);
+		}
+		if (engineFactory.retrieveJettyHTTPServerEngine(policy.getPort()) != null) {
+			return;
+		}
+		String host = policy.getHost().length() == 0 ? null : policy.getHost();
+		JettyHTTPServerEngine engine;
+		try {
+			engine = engineFactory.createJettyHTTPServerEngine(host, policy.getPort(), "http");
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to create embedded server on port " + policy.getPort(), e);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to create embedded server on port " + policy.getPort(), e);
+		}
+		ThreadingParameters threading = new ThreadingParameters();
+		threading.setMinThreads(policy.getMinWorkerThreads());
+		threading.setMaxThreads(policy.getMaxWorkerThreads());
+		engine.setThreadingParameters(threading);
+		engine.setMaxIdleTime(policy.getIdleTimeoutMillis());
+		engine.setConnector(createConnector(host, policy));
+	}
+
+	private static SelectChannelConnector createConnector(String host, EmbeddedHttpPolicy policy) {
+		SelectChannelConnector connector = new SelectChannelConnector();
+		connector.setHost(host);
+		connector.setPort(policy.getPort());
+		connector.setAcceptors(Math.max(policy.getEffectiveAcceptors(), policy.getEffectiveSelectors()));
+		connector.setMaxIdleTime(policy.getIdleTimeoutMillis());
+		connector.setRequestHeaderSize(policy.getMaxHeaderSize());
+		QueuedThreadPool workers = new QueuedThreadPool(policy.getMaxWorkerThreads());
+		workers.setMinThreads(policy.getMinWorkerThreads());
+		workers.setName("jaxrs-http-" + policy.getPort());
+		connector.setThreadPool(workers);
+		connector.setReuseAddress(true);
+		return connector;
+	}
+
+	private EmbeddedHttpTransport() {}
+
+}
@@ -0,0 +1,68 @@
+package org.apache.cxf.cfgproto.spring.embedded;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Serves the server declared by a {@link JaxRsServer @JaxRsServer}
+ * configuration class from an embedded non-blocking HTTP server, so that
+ * no servlet container is needed. The {@link JaxRsServer#address() address}
+ * of the server is then the path under which it is served.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer(address = "/orders")
+ * &#064;JaxRsEmbeddedHttp(port = 8080, selectors = 4, maxWorkerThreads = 64)
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ * Servers on the same port share the embedded server, configured by the
+ * first of them to start.
+ *
+ * @see EmbeddedHttpPolicy
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsEmbeddedHttp {
+
+	/**
+	 * The interface to listen on. The default, an empty string, listens on
+	 * all interfaces.
+	 */
+	String host() default "";
+
+	int port() default 8080;
+
+	/**
+	 * The number of threads accepting connections. The default,
+	 * <code>-1</code>, is one.
+	 */
+	int acceptors() default -1;
+
+	/**
+	 * The number of threads selecting on connections. The default,
+	 * <code>-1</code>, is half the number of processors, between one and
+	 * four.
+	 */
+	int selectors() default -1;
+
+	int minWorkerThreads() default 8;
+
+	int maxWorkerThreads() default 200;
+
+	/**
+	 * The time after which idle connections are closed.
+	 */
+	int idleTimeoutMillis() default 30000;
+
+	/**
+	 * The largest request line and headers accepted, in bytes.
+	 */
+	int maxHeaderSize() default 8192;
+
+}
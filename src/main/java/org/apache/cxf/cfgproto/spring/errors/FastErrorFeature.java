@@ -0,0 +1,31 @@
+package org.apache.cxf.cfgproto.spring.errors;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+
+/**
+ * Refuses requests matching no resource of a server with its pre-serialized
+ * <code>404</code>, if the {@link FastErrorPolicy policy} says so, and the
+ * status takes the fast path. Other errors take the fast path through the
+ * {@link FastErrorMapper} registered with the providers of the server.
+ *
+ * @author pwilson
+ */
+public class FastErrorFeature extends AbstractFeature {
+
+	private final FastErrorPolicy policy;
+
+	public FastErrorFeature(FastErrorPolicy policy) {
+		this.policy = policy;
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		FastErrorResponses responses = new FastErrorResponses(policy);
+		if (policy.isRejectUnmatched() && responses.isFast(404)) {
+			provider.getInInterceptors().add(new UnmatchedRequestInterceptor(responses));
+		}
+	}
+
+}
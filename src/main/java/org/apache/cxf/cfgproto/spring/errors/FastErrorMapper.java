@@ -0,0 +1,35 @@
+package org.apache.cxf.cfgproto.spring.errors;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+
+import org.apache.cxf.jaxrs.impl.WebApplicationExceptionMapper;
+
+/**
+ * Maps exceptions of the statuses taking the fast path to their responses
+ * directly, adding the pre-serialized body of the status to those without
+ * one, and skipping the logging and message building of the default mapper.
+ * Exceptions of other statuses are mapped by the default mapper.
+ *
+ * @author pwilson
+ */
+public class FastErrorMapper implements ExceptionMapper<WebApplicationException> {
+
+	private final FastErrorResponses responses;
+	private final WebApplicationExceptionMapper defaultMapper = new WebApplicationExceptionMapper();
+
+	public FastErrorMapper(FastErrorPolicy policy) {
+		this.responses = new FastErrorResponses(policy);
+	}
+
+	@Override
+	public Response toResponse(WebApplicationException exception) {
+		Response response = exception.getResponse();
+		if (response == null || !responses.isFast(response.getStatus())) {
+			return defaultMapper.toResponse(exception);
+		}
+		return response.hasEntity() ? response : responses.newResponse(response);
+	}
+
+}
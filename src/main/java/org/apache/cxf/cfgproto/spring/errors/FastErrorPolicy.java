@@ -0,0 +1,77 @@
+package org.apache.cxf.cfgproto.spring.errors;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.MediaType;
+
+import com.google.common.primitives.Ints;
+
+/**
+ * Which error responses of a server take the fast path, and the bodies they
+ * are sent with.
+ *
+ * @see JaxRsFastErrors
+ * @author pwilson
+ */
+public class FastErrorPolicy {
+
+	private final Set<Integer> statuses = new LinkedHashSet<Integer>(Ints.asList(400, 401, 404, 429));
+	private final Map<Integer, String> bodies = new LinkedHashMap<Integer, String>();
+	private String mediaType = MediaType.TEXT_PLAIN;
+	private boolean rejectUnmatched = true;
+
+	/**
+	 * The statuses of the error responses taking the fast path, by default
+	 * <code>400</code>, <code>401</code>, <code>404</code> and
+	 * <code>429</code>.
+	 */
+	public Set<Integer> getStatuses() {
+		return statuses;
+	}
+
+	public void setStatuses(int[] statuses) {
+		this.statuses.clear();
+		this.statuses.addAll(Ints.asList(statuses));
+	}
+
+	/**
+	 * The bodies of the error responses, keyed by status. Statuses without
+	 * one are sent their reason phrase.
+	 */
+	public Map<Integer, String> getBodies() {
+		return bodies;
+	}
+
+	public void setBodies(Map<Integer, String> bodies) {
+		this.bodies.putAll(bodies);
+	}
+
+	/**
+	 * The media type of the bodies.
+	 */
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	public void setMediaType(String mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	/**
+	 * Whether requests matching no root resource are refused with
+	 * <code>404</code> before the JAX-RS in-interceptor runs. Matching is
+	 * left to the JAX-RS runtime for servers with pre-matching request
+	 * filters; servers with extension mappings should turn it off.
+	 */
+	public boolean isRejectUnmatched() {
+		return rejectUnmatched;
+	}
+
+	public void setRejectUnmatched(boolean rejectUnmatched) {
+		this.rejectUnmatched = rejectUnmatched;
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.apache.cxf.cfgproto.spring.errors;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.Response;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Builds the error responses of the fast path around bodies serialized once.
+ * The same body is shared by every response of a status, and must not be
+ * modified by writers or filters.
+ *
+ * @author pwilson
+ */
+class FastErrorResponses {
+
+	private final Set<Integer> statuses;
+	private final Map<Integer, byte[]> bodies = new HashMap<Integer, byte[]>();
+	private final String mediaType;
+
+	FastErrorResponses(FastErrorPolicy policy) {
+		this.statuses = ImmutableSet.copyOf(policy.getStatuses());
+		this.mediaType = policy.getMediaType();
+		for (Integer status: statuses) {
+			String body = policy.getBodies().get(status);
+			bodies.put(status, (body != null ? body : reasonPhrase(status)).getBytes(Charsets.UTF_8));
+		}
+	}
+
+	boolean isFast(int status) {
+		return statuses.contains(status);
+	}
+
+	/**
+	 * @param status a status taking the fast path
+	 */
+	Response newResponse(int status) {
+		return Response.status(status).entity(bodies.get(status)).type(mediaType).build();
+	}
+
+	/**
+	 * Adds the body of its status to a response without one, keeping its
+	 * headers, e.g. <code>WWW-Authenticate</code> or <code>Retry-After</code>.
+	 */
+	Response newResponse(Response response) {
+		Response.ResponseBuilder builder = Response.status(response.getStatus());
+		for (Map.Entry<String, List<Object>> header: response.getMetadata().entrySet()) {
+			for (Object value: header.getValue()) {
+				builder.header(header.getKey(), value);
+			}
+		}
+		return builder.entity(bodies.get(response.getStatus())).type(mediaType).build();
+	}
+
+	private static String reasonPhrase(int status) {
+		if (status == FastErrors.TOO_MANY_REQUESTS) {
+			// not known to JAX-RS 2.0
+			return "Too Many Requests";
+		}
+		Response.Status known = Response.Status.fromStatusCode(status);
+		return known != null ? known.getReasonPhrase() : String.valueOf(status);
+	}
+
+}
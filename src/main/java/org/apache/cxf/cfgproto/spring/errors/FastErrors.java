@@ -0,0 +1,143 @@
+package org.apache.cxf.cfgproto.spring.errors;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.NotAuthorizedException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * Creates the exceptions of common client errors without filling in their
+ * stack traces, which for services answering many such errors, e.g. to
+ * scanners probing for unknown resources, costs more than the request.
+ * <p>
+ * The exceptions carry a response without a body; on servers with
+ * {@link JaxRsFastErrors fast errors} the body is added by
+ * {@link FastErrorMapper}, otherwise the response is sent as is. Being
+ * mapped to responses, they never reach the fault chain of the server.
+ *
+ * @author pwilson
+ */
+public final class FastErrors {
+
+	static final int TOO_MANY_REQUESTS = 429;
+
+	/**
+	 * @return a <code>400 Bad Request</code> without a stack trace
+	 */
+	public static BadRequestException badRequest() {
+		return new StacklessBadRequestException(Response.status(Response.Status.BAD_REQUEST).build());
+	}
+
+	/**
+	 * @param challenge the <code>WWW-Authenticate</code> challenge
+	 * @return a <code>401 Unauthorized</code> without a stack trace
+	 */
+	public static NotAuthorizedException notAuthorized(String challenge) {
+		return new StacklessNotAuthorizedException(
+				Response.status(Response.Status.UNAUTHORIZED).header(HttpHeaders.WWW_AUTHENTICATE, challenge).build());
+	}
+
+	/**
+	 * @return a <code>404 Not Found</code> without a stack trace
+	 */
+	public static NotFoundException notFound() {
+		return new StacklessNotFoundException(Response.status(Response.Status.NOT_FOUND).build());
+	}
+
+	/**
+	 * @param retryAfterSeconds the seconds after which to try again
+	 * @return a <code>429 Too Many Requests</code> without a stack trace
+	 */
+	public static ClientErrorException tooManyRequests(long retryAfterSeconds) {
+		return new StacklessClientErrorException(
+				Response.status(TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, retryAfterSeconds).build());
+	}
+
+	/**
+	 * @return an exception of the given status without a stack trace
+	 */
+	public static WebApplicationException status(int status) {
+		return new StacklessWebApplicationException(Response.status(status).build());
+	}
+
+	private static final class StacklessBadRequestException extends BadRequestException {
+
+		private static final long serialVersionUID = 1L;
+
+		StacklessBadRequestException(Response response) {
+			super(response);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+	}
+
+	private static final class StacklessNotAuthorizedException extends NotAuthorizedException {
+
+		private static final long serialVersionUID = 1L;
+
+		StacklessNotAuthorizedException(Response response) {
+			super(response);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+	}
+
+	private static final class StacklessNotFoundException extends NotFoundException {
+
+		private static final long serialVersionUID = 1L;
+
+		StacklessNotFoundException(Response response) {
+			super(response);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+	}
+
+	private static final class StacklessClientErrorException extends ClientErrorException {
+
+		private static final long serialVersionUID = 1L;
+
+		StacklessClientErrorException(Response response) {
+			super(response);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+	}
+
+	private static final class StacklessWebApplicationException extends WebApplicationException {
+
+		private static final long serialVersionUID = 1L;
+
+		StacklessWebApplicationException(Response response) {
+			super(response);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+	}
+
+	private FastErrors() {}
+
+}
@@ -0,0 +1,46 @@
+package org.apache.cxf.cfgproto.spring.errors;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Sends the common client errors of the server declared by a
+ * {@link JaxRsServer @JaxRsServer} configuration class through a fast path:
+ * requests matching no resource are refused before the JAX-RS runtime
+ * matches them, and errors are mapped straight to responses with bodies
+ * serialized once.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsFastErrors(statuses = {404, 429})
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ * Services throwing the exceptions of {@link FastErrors} avoid filling in
+ * stack traces as well.
+ *
+ * @see FastErrorPolicy
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsFastErrors {
+
+	int[] statuses() default {400, 401, 404, 429};
+
+	String mediaType() default MediaType.TEXT_PLAIN;
+
+	/**
+	 * Whether requests matching no root resource are refused before the
+	 * JAX-RS runtime matches them.
+	 */
+	boolean rejectUnmatched() default true;
+
+}
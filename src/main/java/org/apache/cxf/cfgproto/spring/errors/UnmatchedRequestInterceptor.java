@@ -0,0 +1,40 @@
+package org.apache.cxf.cfgproto.spring.errors;
+
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Refuses requests matching no root resource with the pre-serialized
+ * <code>404</code> of the server, ahead of the JAX-RS in-interceptor, which
+ * would log a warning and create and map a <code>NotFoundException</code>
+ * for each.
+ * <p>
+ * Pre-matching request filters may change the request URI, so requests to
+ * servers with any are left to the JAX-RS runtime.
+ *
+ * @author pwilson
+ */
+class UnmatchedRequestInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final FastErrorResponses responses;
+
+	UnmatchedRequestInterceptor(FastErrorResponses responses) {
+		super(Phase.PRE_UNMARSHAL);
+		this.responses = responses;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		if (!ServerProviderFactory.getInstance(message).getPreMatchContainerRequestFilters().isEmpty()) {
+			return;
+		}
+		if (JaxRsMessageUtils.getTargetServiceClass(message) == null) {
+			JaxRsMessageUtils.abortWith(message, responses.newResponse(404));
+		}
+	}
+
+}
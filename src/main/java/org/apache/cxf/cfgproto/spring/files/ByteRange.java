@@ -0,0 +1,117 @@
+package org.apache.cxf.cfgproto.spring.files;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A range of bytes of a representation, as requested by a <code>Range</code>
+ * header and resolved against the length of the representation.
+ *
+ * @author pwilson
+ */
+public final class ByteRange {
+
+	private static final String BYTES_UNIT = "bytes=";
+
+	private final long first;
+	private final long last;
+
+	/**
+	 * @param first the offset of the first byte
+	 * @param last the offset of the last byte, inclusive
+	 */
+	public ByteRange(long first, long last) {
+		if (first < 0 || last < first) {
+			throw new IllegalArgumentException("Invalid byte range " + first + "-" + last);
+		}
+		this.first = first;
+		this.last = last;
+	}
+
+	/**
+	 * Resolves a <code>Range</code> header against the length of the
+	 * representation. Ranges that cannot be satisfied are dropped.
+	 *
+	 * @param header the value of the header
+	 * @param length the length of the representation
+	 * @return the ranges, empty if none can be satisfied, or <code>null</code>
+	 * if the header is malformed or not in bytes, and so to be ignored
+	 */
+	public static List<ByteRange> parse(String header, long length) {
+		if (header == null || !header.trim().startsWith(BYTES_UNIT)) {
+			return null;
+		}
+		List<ByteRange> ranges = new ArrayList<ByteRange>();
+		for (String spec: header.trim().substring(BYTES_UNIT.length()).split(",")) {
+			String range = spec.trim();
+			int dash = range.indexOf('-');
+			if (dash < 0) {
+				return null;
+			}
+			try {
+				String start = range.substring(0, dash).trim();
+				String end = range.substring(dash + 1).trim();
+				if (start.length() == 0) {
+					// a suffix: the last bytes of the representation
+					long suffix = Long.parseLong(end);
+					if (suffix > 0 && length > 0) {
+						ranges.add(new ByteRange(Math.max(0, length - suffix), length - 1));
+					}
+					continue;
+				}
+				long first = Long.parseLong(start);
+				long last = end.length() == 0 ? length - 1 : Math.min(Long.parseLong(end), length - 1);
+				if (end.length() > 0 && Long.parseLong(end) < first) {
+					return null;
+				}
+				if (first < length) {
+					ranges.add(new ByteRange(first, last));
+				}
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+		return Collections.unmodifiableList(ranges);
+	}
+
+	public long getFirst() {
+		return first;
+	}
+
+	public long getLast() {
+		return last;
+	}
+
+	public long getLength() {
+		return last - first + 1;
+	}
+
+	/**
+	 * @return the value of the <code>Content-Range</code> header of this
+	 * range of a representation of the given length
+	 */
+	public String toContentRange(long length) {
+		return "bytes " + first + "-" + last + "/" + length;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof ByteRange)) {
+			return false;
+		}
+		ByteRange other = (ByteRange) obj;
+		return first == other.first && last == other.last;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (first ^ (first >>> 32)) * 31 + (int) (last ^ (last >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return first + "-" + last;
+	}
+
+}
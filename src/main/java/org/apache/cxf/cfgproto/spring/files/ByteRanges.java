@@ -0,0 +1,55 @@
+package org.apache.cxf.cfgproto.spring.files;
+
+import java.util.List;
+
+/**
+ * The entity of a <code>206 Partial Content</code> response: ranges of a
+ * file, or of a file channel, to be written by {@link FileRangeProvider}.
+ *
+ * @author pwilson
+ */
+final class ByteRanges {
+
+	private final Object file;
+	private final long length;
+	private final List<ByteRange> ranges;
+	private final String partType;
+	private final String boundary;
+
+	/**
+	 * @param file the {@link java.io.File} or {@link java.nio.channels.FileChannel}
+	 * @param length its length
+	 * @param ranges the ranges to write
+	 * @param partType the media type of the file, given to each part of a
+	 * multi-range response
+	 * @param boundary the multipart boundary, or <code>null</code> for a single range
+	 */
+	ByteRanges(Object file, long length, List<ByteRange> ranges, String partType, String boundary) {
+		this.file = file;
+		this.length = length;
+		this.ranges = ranges;
+		this.partType = partType;
+		this.boundary = boundary;
+	}
+
+	Object getFile() {
+		return file;
+	}
+
+	long getLength() {
+		return length;
+	}
+
+	List<ByteRange> getRanges() {
+		return ranges;
+	}
+
+	String getPartType() {
+		return partType;
+	}
+
+	String getBoundary() {
+		return boundary;
+	}
+
+}
@@ -0,0 +1,222 @@
+package org.apache.cxf.cfgproto.spring.files;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.apache.cxf.cfgproto.spring.buffers.BufferPool;
+import org.apache.cxf.cfgproto.spring.buffers.PooledBuffer;
+
+/**
+ * Writes {@link File} and {@link FileChannel} entities, and serves
+ * <code>Range</code> requests for them with <code>206 Partial Content</code>,
+ * in a <code>multipart/byteranges</code> body when more than one range is
+ * requested.
+ * <p>
+ * Bytes are moved with {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+ * which the JDK may carry out without copying them through the heap, only
+ * when the stream handed to the writer is a {@link FileOutputStream} or is
+ * itself a {@link WritableByteChannel}. The servlet, Jetty and local
+ * transports hand writers streams of their own, so with them bytes are
+ * copied through a buffer of the {@link BufferPool#current() current pool},
+ * a buffer at a time rather than the whole file. File channels returned by
+ * services are closed once written.
+ * <p>
+ * Register a single instance as both the writer and the response filter:
+ * <pre class="code">
+ * &#064;JaxRsProvider
+ * public FileRangeProvider fileRangeProvider() {
+ *     return new FileRangeProvider();
+ * }
+ * </pre>
+ *
+ * @author pwilson
+ */
+@Produces(MediaType.WILDCARD)
+public class FileRangeProvider implements MessageBodyWriter<Object>, ContainerResponseFilter {
+
+	private static final String ACCEPT_RANGES = "Accept-Ranges";
+	private static final String CONTENT_RANGE = "Content-Range";
+	private static final String CRLF = "\r\n";
+
+	private final Random boundaries = new SecureRandom();
+	private int maxRanges = 16;
+
+	/**
+	 * The most ranges served in a single response. Requests for more are
+	 * served the whole representation.
+	 */
+	public void setMaxRanges(int maxRanges) {
+		this.maxRanges = maxRanges;
+	}
+
+	@Override
+	public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+		Object entity = response.getEntity();
+		if (!isFile(entity)) {
+			return;
+		}
+		response.getHeaders().putSingle(ACCEPT_RANGES, "bytes");
+		String range = request.getHeaderString("Range");
+		if (range == null || response.getStatus() != Status.OK.getStatusCode() 
+				|| !HttpMethod.GET.equals(request.getMethod())) {
+			return;
+		}
+		long length = lengthOf(entity);
+		List<ByteRange> ranges = ByteRange.parse(range, length);
+		if (ranges == null || ranges.size() > maxRanges) {
+			return;
+		}
+		if (ranges.isEmpty()) {
+			close(entity);
+			response.setStatus(Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode());
+			response.getHeaders().putSingle(CONTENT_RANGE, "bytes */" + length);
+			response.setEntity(null);
+			return;
+		}
+		MediaType fileType = response.getMediaType() == null || response.getMediaType().isWildcardType() 
+						   ? MediaType.APPLICATION_OCTET_STREAM_TYPE 
+						   : response.getMediaType();
+		response.setStatus(Status.PARTIAL_CONTENT.getStatusCode());
+		if (ranges.size() == 1) {
+			response.getHeaders().putSingle(CONTENT_RANGE, ranges.get(0).toContentRange(length));
+			response.setEntity(new ByteRanges(entity, length, ranges, null, null), response.getEntityAnnotations(), fileType);
+			return;
+		}
+		String boundary = Long.toHexString(boundaries.nextLong()) + Long.toHexString(boundaries.nextLong());
+		MediaType multipart = new MediaType("multipart", "byteranges", Collections.singletonMap("boundary", boundary));
+		response.setEntity(new ByteRanges(entity, length, ranges, fileType.toString(), boundary), 
+						   response.getEntityAnnotations(), multipart);
+	}
+
+	@Override
+	public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+		return File.class.isAssignableFrom(type) || FileChannel.class.isAssignableFrom(type) || ByteRanges.class == type;
+	}
+
+	@Override
+	public long getSize(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+		if (entity instanceof ByteRanges) {
+			ByteRanges ranges = (ByteRanges) entity;
+			return ranges.getBoundary() == null ? ranges.getRanges().get(0).getLength() : -1;
+		}
+		try {
+			return lengthOf(entity);
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	@Override
+	public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+			MultivaluedMap<String, Object> httpHeaders, OutputStream out) throws IOException, WebApplicationException {
+		ByteRanges ranges = entity instanceof ByteRanges ? (ByteRanges) entity : null;
+		Object file = ranges == null ? entity : ranges.getFile();
+		FileChannel channel = file instanceof File ? new FileInputStream((File) file).getChannel() : (FileChannel) file;
+		try {
+			if (ranges == null) {
+				transfer(channel, 0, channel.size(), out);
+			} else if (ranges.getBoundary() == null) {
+				ByteRange range = ranges.getRanges().get(0);
+				transfer(channel, range.getFirst(), range.getLength(), out);
+			} else {
+				writeMultipart(channel, ranges, out);
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	private static void writeMultipart(FileChannel channel, ByteRanges ranges, OutputStream out) throws IOException {
+		for (ByteRange range: ranges.getRanges()) {
+			String partHeaders = CRLF + "--" + ranges.getBoundary() + CRLF 
+							   + HttpHeaders.CONTENT_TYPE + ": " + ranges.getPartType() + CRLF
+							   + CONTENT_RANGE + ": " + range.toContentRange(ranges.getLength()) + CRLF + CRLF;
+			out.write(partHeaders.getBytes("ISO-8859-1"));
+			transfer(channel, range.getFirst(), range.getLength(), out);
+		}
+		out.write((CRLF + "--" + ranges.getBoundary() + "--" + CRLF).getBytes("ISO-8859-1"));
+	}
+
+	/*
+	 * Transfers to the channel of the stream when it has one, and otherwise
+	 * copies through a pooled buffer.
+	 */
+	private static void transfer(FileChannel channel, long position, long count, OutputStream out) throws IOException {
+		long end = position + count;
+		WritableByteChannel target = channelOf(out);
+		if (target != null) {
+			out.flush();
+			while (position < end) {
+				long transferred = channel.transferTo(position, end - position, target);
+				if (transferred <= 0) {
+					throw new EOFException("File truncated at " + position + " of " + end);
+				}
+				position += transferred;
+			}
+			return;
+		}
+		PooledBuffer buffer = BufferPool.current().acquire();
+		try {
+			ByteBuffer bytes = ByteBuffer.wrap(buffer.array());
+			while (position < end) {
+				bytes.clear();
+				bytes.limit((int) Math.min(bytes.capacity(), end - position));
+				int read = channel.read(bytes, position);
+				if (read <= 0) {
+					throw new EOFException("File truncated at " + position + " of " + end);
+				}
+				out.write(buffer.array(), 0, read);
+				position += read;
+			}
+		} finally {
+			buffer.release();
+		}
+	}
+
+	private static WritableByteChannel channelOf(OutputStream out) {
+		if (out instanceof FileOutputStream) {
+			return ((FileOutputStream) out).getChannel();
+		}
+		return out instanceof WritableByteChannel ? (WritableByteChannel) out : null;
+	}
+
+	private static boolean isFile(Object entity) {
+		return entity instanceof File || entity instanceof FileChannel;
+	}
+
+	private static long lengthOf(Object entity) throws IOException {
+		return entity instanceof File ? ((File) entity).length() : ((FileChannel) entity).size();
+	}
+
+	private static void close(Object entity) throws IOException {
+		if (entity instanceof FileChannel) {
+			((FileChannel) entity).close();
+		}
+	}
+
+}
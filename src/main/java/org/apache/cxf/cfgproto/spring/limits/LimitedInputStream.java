@@ -0,0 +1,62 @@
+package org.apache.cxf.cfgproto.spring.limits;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.Status;
+
+/**
+ * Refuses to read more than a given number of bytes, failing with
+ * <code>413 Request Entity Too Large</code>.
+ *
+ * @author pwilson
+ */
+class LimitedInputStream extends FilterInputStream {
+
+	private long remaining;
+
+	LimitedInputStream(InputStream in, long limit) {
+		super(in);
+		this.remaining = limit;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int read = super.read();
+		if (read != -1) {
+			consumed(1);
+		}
+		return read;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		int read = super.read(buffer, offset, length);
+		if (read > 0) {
+			consumed(read);
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long count) throws IOException {
+		long skipped = super.skip(count);
+		consumed(skipped);
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	private void consumed(long count) {
+		remaining -= count;
+		if (remaining < 0) {
+			throw new WebApplicationException(Status.REQUEST_ENTITY_TOO_LARGE);
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+package org.apache.cxf.cfgproto.spring.limits;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.attachment.AttachmentDeserializer;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+
+/**
+ * Applies the {@link RequestLimitsPolicy} of a server to its request bodies
+ * and, through the attachment settings of its endpoint, to the parts of
+ * multipart requests.
+ *
+ * @author pwilson
+ */
+public class RequestLimitsFeature extends AbstractFeature {
+
+	private final RequestLimitsPolicy policy;
+
+	public RequestLimitsFeature(RequestLimitsPolicy policy) {
+		this.policy = policy;
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		Endpoint endpoint = server.getEndpoint();
+		if (policy.isLimited()) {
+			endpoint.put(AttachmentDeserializer.ATTACHMENT_MAX_SIZE, String.valueOf(policy.getMaxRequestSize()));
+		}
+		if (policy.isBuffered()) {
+			endpoint.put(AttachmentDeserializer.ATTACHMENT_MEMORY_THRESHOLD, String.valueOf(policy.getBufferThreshold()));
+		}
+		if (policy.getSpillDirectory() != null) {
+			endpoint.put(AttachmentDeserializer.ATTACHMENT_DIRECTORY, policy.getSpillDirectory());
+		}
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new RequestLimitsInterceptor(policy));
+	}
+
+}
@@ -0,0 +1,138 @@
+package org.apache.cxf.cfgproto.spring.limits;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Refuses request bodies larger than the limit of the server with
+ * <code>413</code> before they are read, when their length is declared, and
+ * otherwise as soon as the limit is passed while reading them.
+ * <p>
+ * When buffering is configured, bodies are read in full into a
+ * {@link CachedOutputStream} configured for the server, spilling to disk
+ * beyond the threshold, before the service is invoked. Spilled bodies are
+ * encrypted, when so configured, under a key generated for each request.
+ *
+ * @author pwilson
+ */
+public class RequestLimitsInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final RequestLimitsPolicy policy;
+
+	public RequestLimitsInterceptor(RequestLimitsPolicy policy) {
+		super(Phase.PRE_UNMARSHAL);
+		this.policy = policy;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		InputStream in = message.getContent(InputStream.class);
+		if (in == null) {
+			return;
+		}
+		if (policy.isLimited()) {
+			long declaredLength = getDeclaredLength(message);
+			if (declaredLength > policy.getMaxRequestSize()) {
+				JaxRsMessageUtils.abortWith(message, Response.status(Status.REQUEST_ENTITY_TOO_LARGE).build());
+				return;
+			}
+			in = new LimitedInputStream(in, policy.getMaxRequestSize());
+			message.setContent(InputStream.class, in);
+		}
+		if (policy.isBuffered()) {
+			try {
+				message.setContent(InputStream.class, buffer(in));
+			} catch (WebApplicationException e) {
+				JaxRsMessageUtils.abortWith(message, e.getResponse());
+			} catch (IOException e) {
+				throw new Fault(e);
+			}
+		}
+	}
+
+	private InputStream buffer(InputStream in) throws IOException {
+		CachedOutputStream cached = new CachedOutputStream();
+		cached.setThreshold(policy.getBufferThreshold());
+		if (policy.getSpillDirectory() != null) {
+			cached.setOutputDir(new File(policy.getSpillDirectory()));
+		}
+		try {
+			if (policy.getSpillCipherTransformation() == null) {
+				IOUtils.copy(in, cached);
+				cached.flush();
+				return cached.getInputStream();
+			}
+			return bufferEncrypted(in, cached, policy.getSpillCipherTransformation());
+		} finally {
+			in.close();
+			cached.close();
+		}
+	}
+
+	/*
+	 * Encrypts around the cached stream, rather than through its own cipher
+	 * transformation, which fails to decrypt what it wrote in this version
+	 * of CXF as its encryptor is initialized with a fresh IV.
+	 */
+	private static InputStream bufferEncrypted(InputStream in, CachedOutputStream cached, String transformation) throws IOException {
+		try {
+			String algorithm = transformation.split("/")[0];
+			SecretKey key = KeyGenerator.getInstance(algorithm).generateKey();
+			Cipher encryptor = Cipher.getInstance(transformation);
+			encryptor.init(Cipher.ENCRYPT_MODE, key);
+			OutputStream out = new CipherOutputStream(new FilterOutputStream(cached) {
+				@Override
+				public void close() throws IOException {
+					// the cached stream is only read once closed by the cipher
+					flush();
+				}
+			}, encryptor);
+			IOUtils.copy(in, out);
+			out.close();
+			Cipher decryptor = Cipher.getInstance(transformation);
+			decryptor.init(Cipher.DECRYPT_MODE, key, encryptor.getParameters());
+			return new CipherInputStream(cached.getInputStream(), decryptor);
+		} catch (GeneralSecurityException e) {
+			throw new IOException("Unable to encrypt request body with [" + transformation + "]", e);
+		}
+	}
+
+	private static long getDeclaredLength(Message message) {
+		Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) message.get(Message.PROTOCOL_HEADERS));
+		List<String> values = headers == null ? null : headers.get(HttpHeaders.CONTENT_LENGTH);
+		if (values == null || values.isEmpty()) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(values.get(0).trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package org.apache.cxf.cfgproto.spring.limits;
+
+/**
+ * Bounds the size of request bodies accepted by a server, and how much of
+ * each is held in memory.
+ *
+ * @see RequestLimitsFeature
+ * @author pwilson
+ */
+public class RequestLimitsPolicy {
+
+	public static final long UNLIMITED = -1;
+
+	private long maxRequestSize = UNLIMITED;
+	private long bufferThreshold = UNLIMITED;
+	private String spillDirectory;
+	private String spillCipherTransformation;
+
+	/**
+	 * The largest request body accepted, in bytes; larger ones are refused
+	 * with <code>413 Request Entity Too Large</code>.
+	 */
+	public long getMaxRequestSize() {
+		return maxRequestSize;
+	}
+
+	public void setMaxRequestSize(long maxRequestSize) {
+		this.maxRequestSize = maxRequestSize;
+	}
+
+	/**
+	 * When set, request bodies are read in full before dispatch, and spilled
+	 * to a temporary file beyond this many bytes.
+	 */
+	public long getBufferThreshold() {
+		return bufferThreshold;
+	}
+
+	public void setBufferThreshold(long bufferThreshold) {
+		this.bufferThreshold = bufferThreshold;
+	}
+
+	/**
+	 * The directory of spilled request bodies and attachments; by default
+	 * that of temporary files.
+	 */
+	public String getSpillDirectory() {
+		return spillDirectory;
+	}
+
+	public void setSpillDirectory(String spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
+	/**
+	 * The cipher transformation, e.g. <code>AES/CTR/NoPadding</code>, with
+	 * which spilled request bodies are encrypted under a key held in memory
+	 * only. Not encrypted by default.
+	 */
+	public String getSpillCipherTransformation() {
+		return spillCipherTransformation;
+	}
+
+	public void setSpillCipherTransformation(String spillCipherTransformation) {
+		this.spillCipherTransformation = spillCipherTransformation;
+	}
+
+	public boolean isLimited() {
+		return maxRequestSize != UNLIMITED;
+	}
+
+	public boolean isBuffered() {
+		return bufferThreshold != UNLIMITED;
+	}
+
+}
@@ -0,0 +1,212 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.InterceptorChainTemplate;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorChain;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageContentsList;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.apache.cxf.phase.PhaseManager;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Makes the calls of a client proxy directly on the service bean of a server
+ * in the same JVM, whenever one {@link LocalEndpointRegistry serves} the
+ * client's service type, skipping the transport and the message body
+ * readers and writers altogether. Otherwise calls go to the client proxy.
+ * <p>
+ * A co-located call runs, in order, the client's out-interceptors, the
+ * server's in-interceptors, the service method, the server's
+ * out-interceptors and the client's in-interceptors; of each, only those
+ * marked {@link CoLocationSafe} run, and each chain is cloned from a
+ * {@link InterceptorChainTemplate template} sorted once. A fault in
+ * any chain is thrown to the caller, as is an exception thrown by the
+ * service, which exception mappers of the server do not see.
+ * <p>
+ * The proxy created by {@link #newProxy(Class, Object, CoLocationPolicy, List, List)}
+ * implements the same interfaces as the client proxy it wraps; methods other
+ * than those of the service type are passed to the client proxy.
+ *
+ * @author pwilson
+ */
+public class CoLocatedInvocationHandler implements InvocationHandler {
+
+	/**
+	 * Set on the exchange of co-located calls.
+	 */
+	public static final String CO_LOCATED = CoLocatedInvocationHandler.class.getName() + ".CO_LOCATED";
+
+	private final Class<?> serviceType;
+	private final Object delegate;
+	private final CoLocationPolicy policy;
+	private final List<Interceptor<? extends Message>> outInterceptors;
+	private final List<Interceptor<? extends Message>> inInterceptors;
+	private final AtomicReference<InterceptorChainTemplate> outChain = new AtomicReference<InterceptorChainTemplate>();
+	private final AtomicReference<InterceptorChainTemplate> inChain = new AtomicReference<InterceptorChainTemplate>();
+
+	/**
+	 * @param serviceType the service type of the client
+	 * @param delegate the client proxy, used when no server is co-located
+	 * @param policy the co-location configuration
+	 * @param outInterceptors the out-interceptors of the client
+	 * @param inInterceptors the in-interceptors of the client
+	 */
+	public CoLocatedInvocationHandler(Class<?> serviceType, Object delegate, CoLocationPolicy policy,
+			List<? extends Interceptor<?>> outInterceptors, List<? extends Interceptor<?>> inInterceptors) {
+		this.serviceType = serviceType;
+		this.delegate = delegate;
+		this.policy = policy;
+		this.outInterceptors = coLocationSafe(outInterceptors);
+		this.inInterceptors = coLocationSafe(inInterceptors);
+	}
+
+	/**
+	 * Wraps a client proxy so that its calls are made directly on a
+	 * co-located service.
+	 */
+	public static Object newProxy(Class<?> serviceType, Object clientProxy, CoLocationPolicy policy,
+			List<? extends Interceptor<?>> outInterceptors, List<? extends Interceptor<?>> inInterceptors) {
+		return Proxy.newProxyInstance(clientProxy.getClass().getClassLoader(),
+									  clientProxy.getClass().getInterfaces(),
+									  new CoLocatedInvocationHandler(serviceType, clientProxy, policy, outInterceptors, inInterceptors));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() != Object.class && method.getDeclaringClass().isAssignableFrom(serviceType)) {
+			LocalEndpoint endpoint = LocalEndpointRegistry.find(serviceType);
+			Object service = endpoint == null ? null : endpoint.getService(serviceType);
+			if (service != null) {
+				return invokeCoLocated(endpoint, service, method, args);
+			}
+		}
+		try {
+			return method.invoke(delegate, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private Object invokeCoLocated(LocalEndpoint endpoint, Object service, Method method, Object[] args) throws Throwable {
+		if (outInterceptors.isEmpty() && inInterceptors.isEmpty() 
+				&& endpoint.getCoLocatedInInterceptors().isEmpty() && endpoint.getCoLocatedOutInterceptors().isEmpty()) {
+			return copyResult(invokeService(service, method, copyAll(args, policy.isCopyArguments())));
+		}
+		PhaseManager phaseManager = endpoint.getBus().getExtension(PhaseManager.class);
+		SortedSet<Phase> outPhases = phaseManager.getOutPhases();
+		SortedSet<Phase> inPhases = phaseManager.getInPhases();
+
+		Exchange exchange = new ExchangeImpl();
+		exchange.put(CO_LOCATED, Boolean.TRUE);
+		exchange.put(Method.class, method);
+		Message request = newMessage(exchange, copyAll(args, policy.isCopyArguments()));
+		request.put(Message.REQUESTOR_ROLE, Boolean.TRUE);
+		exchange.setOutMessage(request);
+		intercept(outChain, outPhases, outInterceptors, request);
+		request.remove(Message.REQUESTOR_ROLE);
+		exchange.setOutMessage(null);
+		exchange.setInMessage(request);
+		intercept(endpoint.getInChainTemplate(), inPhases, endpoint.getCoLocatedInInterceptors(), request);
+
+		Object result = invokeService(service, method, request.getContent(List.class).toArray());
+
+		Message response = newMessage(exchange, new Object[] {result});
+		exchange.setOutMessage(response);
+		intercept(endpoint.getOutChainTemplate(), outPhases, endpoint.getCoLocatedOutInterceptors(), response);
+		response.put(Message.REQUESTOR_ROLE, Boolean.TRUE);
+		exchange.setInMessage(response);
+		intercept(inChain, inPhases, inInterceptors, response);
+		List<?> contents = response.getContent(List.class);
+		Object returned = contents == null || contents.isEmpty() ? null : contents.get(0);
+		return copyResult(returned);
+	}
+
+	private static Object invokeService(Object service, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(service, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private Object copyResult(Object result) {
+		return policy.isCopyResults() ? policy.getValueCopier().copy(result) : result;
+	}
+
+	private Object[] copyAll(Object[] args, boolean copy) {
+		if (args == null) {
+			return new Object[0];
+		}
+		if (!copy) {
+			return args;
+		}
+		Object[] copies = new Object[args.length];
+		for (int i = 0; i < args.length; i++) {
+			copies[i] = policy.getValueCopier().copy(args[i]);
+		}
+		return copies;
+	}
+
+	private static Message newMessage(Exchange exchange, Object[] contents) {
+		Message message = new MessageImpl();
+		message.setExchange(exchange);
+		message.setContent(List.class, new MessageContentsList(contents));
+		return message;
+	}
+
+	private static void intercept(AtomicReference<InterceptorChainTemplate> template, SortedSet<Phase> phases,
+			List<Interceptor<? extends Message>> interceptors, Message message) throws Throwable {
+		if (interceptors.isEmpty()) {
+			return;
+		}
+		PhaseInterceptorChain chain = InterceptorChainTemplate.get(template, phases, interceptors).newChain();
+		message.setInterceptorChain(chain);
+		try {
+			chain.doIntercept(message);
+		} catch (Fault e) {
+			message.setContent(Exception.class, e);
+		}
+		Exception failure = message.getContent(Exception.class);
+		if (failure != null) {
+			throw failure instanceof Fault && failure.getCause() != null ? failure.getCause() : failure;
+		}
+		if (chain.getState() == InterceptorChain.State.ABORTED) {
+			Response response = message.getExchange().get(Response.class);
+			throw response != null ? new WebApplicationException(response) : new WebApplicationException();
+		}
+	}
+
+	static List<Interceptor<? extends Message>> coLocationSafe(Iterable<? extends Interceptor<?>> interceptors) {
+		ImmutableList.Builder<Interceptor<? extends Message>> safe = ImmutableList.builder();
+		for (Interceptor<?> interceptor: interceptors) {
+			if (AnnotationUtils.findAnnotation(interceptor.getClass(), CoLocationSafe.class) != null) {
+				safe.add(asMessageInterceptor(interceptor));
+			}
+		}
+		return safe.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Interceptor<? extends Message> asMessageInterceptor(Interceptor<?> interceptor) {
+		return (Interceptor<? extends Message>) interceptor;
+	}
+
+}
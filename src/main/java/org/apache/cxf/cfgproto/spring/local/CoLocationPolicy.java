@@ -0,0 +1,57 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientPolicyConfigurer;
+
+/**
+ * Configures co-located calls: calls of a client made directly on the
+ * service bean of a server in the same JVM, without serializing their
+ * arguments or results. Only interceptors marked {@link CoLocationSafe} run
+ * on such calls.
+ * <p>
+ * Arguments and results are shared between client and service unless they
+ * are copied, which callers that change them after the call should ask for.
+ *
+ * @see JaxRsClientPolicyConfigurer#coLocationPolicy()
+ * @see CoLocatedInvocationHandler
+ * @author pwilson
+ */
+public class CoLocationPolicy {
+
+	private boolean copyArguments;
+	private boolean copyResults;
+	private ValueCopier valueCopier = new SerializingValueCopier();
+
+	public boolean isCopyArguments() {
+		return copyArguments;
+	}
+
+	/**
+	 * Whether the service is given copies of the arguments.
+	 */
+	public void setCopyArguments(boolean copyArguments) {
+		this.copyArguments = copyArguments;
+	}
+
+	public boolean isCopyResults() {
+		return copyResults;
+	}
+
+	/**
+	 * Whether the client is given a copy of the result.
+	 */
+	public void setCopyResults(boolean copyResults) {
+		this.copyResults = copyResults;
+	}
+
+	public ValueCopier getValueCopier() {
+		return valueCopier;
+	}
+
+	/**
+	 * How values are copied. Serialization by default.
+	 */
+	public void setValueCopier(ValueCopier valueCopier) {
+		this.valueCopier = valueCopier;
+	}
+
+}
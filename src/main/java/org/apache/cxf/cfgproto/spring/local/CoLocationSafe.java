@@ -0,0 +1,31 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interceptor as safe to run on co-located calls, which are made
+ * on the service bean directly and so have no transport, no HTTP headers
+ * and no message body. The messages of such calls hold the method on the
+ * exchange and the arguments, or the result, as their
+ * <code>MessageContentsList</code>, and are flagged with
+ * {@link CoLocatedInvocationHandler#CO_LOCATED}.
+ * <p>
+ * Interceptors of the client, of the server and of the server's bus that
+ * are not marked are skipped on co-located calls.
+ *
+ * @see CoLocationPolicy
+ * @author pwilson
+ */
+@Documented
+@Inherited
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface CoLocationSafe {
+
+}
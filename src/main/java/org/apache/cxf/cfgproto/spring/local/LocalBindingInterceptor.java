@@ -0,0 +1,80 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancingOutInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.cxf.transport.local.LocalConduit;
+
+/**
+ * Sends the calls of a client over the local transport, by direct dispatch,
+ * whenever a server in the JVM is {@link LocalEndpointRegistry published}
+ * for its service type. Otherwise calls go to the client's own address.
+ *
+ * @author pwilson
+ */
+public class LocalBindingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private static final String REQUEST_URI = "org.apache.cxf.request.uri";
+
+	private final Class<?> serviceType;
+	private final String baseAddress;
+	private final ConcurrentMap<LocalEndpoint, Conduit> conduits = new ConcurrentHashMap<LocalEndpoint, Conduit>();
+
+	public LocalBindingInterceptor(Class<?> serviceType, String baseAddress) {
+		super(Phase.SETUP);
+		addBefore(LoadBalancingOutInterceptor.class.getName());
+		this.serviceType = serviceType;
+		this.baseAddress = withoutTrailingSlash(baseAddress);
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		LocalEndpoint endpoint = LocalEndpointRegistry.find(serviceType);
+		if (endpoint == null || endpoint.getAddress() == null) {
+			return;
+		}
+		String address = (String) message.get(Message.ENDPOINT_ADDRESS);
+		if (address == null || !address.startsWith(baseAddress)) {
+			return;
+		}
+		String localAddress = withoutTrailingSlash(endpoint.getAddress()) + address.substring(baseAddress.length());
+		message.put(Message.ENDPOINT_ADDRESS, localAddress);
+		if (address.equals(message.get(REQUEST_URI))) {
+			message.put(REQUEST_URI, localAddress);
+		}
+		message.put(Conduit.class, conduitFor(endpoint, message));
+		message.put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+	}
+
+	private Conduit conduitFor(LocalEndpoint endpoint, Message message) {
+		Conduit conduit = conduits.get(endpoint);
+		if (conduit != null) {
+			return conduit;
+		}
+		try {
+			conduit = endpoint.createConduit();
+		} catch (IOException e) {
+			throw new Fault(e);
+		}
+		conduit.setMessageObserver(message.getExchange().get(MessageObserver.class));
+		Conduit existing = conduits.putIfAbsent(endpoint, conduit);
+		if (existing != null) {
+			conduit.close();
+			return existing;
+		}
+		return conduit;
+	}
+
+	private static String withoutTrailingSlash(String address) {
+		return address.endsWith("/") ? address.substring(0, address.length() - 1) : address;
+	}
+
+}
@@ -0,0 +1,141 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusException;
+import org.apache.cxf.cfgproto.spring.InterceptorChainTemplate;
+import org.apache.cxf.common.util.ClassHelper;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.ConduitInitiator;
+import org.apache.cxf.transport.ConduitInitiatorManager;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+/**
+ * A server of the JVM that clients may reach without the network: over the
+ * local transport, through a conduit created against the server's bus, or
+ * by {@link CoLocatedInvocationHandler calling its services directly}.
+ *
+ * @author pwilson
+ */
+public final class LocalEndpoint {
+
+	private static final Object NO_SERVICE = new Object();
+
+	private final String address;
+	private final Bus bus;
+	private final List<Object> services;
+	private final List<Interceptor<? extends Message>> coLocatedInInterceptors;
+	private final List<Interceptor<? extends Message>> coLocatedOutInterceptors;
+	private final AtomicReference<InterceptorChainTemplate> inChainTemplate = new AtomicReference<InterceptorChainTemplate>();
+	private final AtomicReference<InterceptorChainTemplate> outChainTemplate = new AtomicReference<InterceptorChainTemplate>();
+	private final ConcurrentMap<Class<?>, Object> servicesByType = new ConcurrentHashMap<Class<?>, Object>();
+
+	public LocalEndpoint(String address, Bus bus) {
+		this(address, bus, Collections.emptyList(), null);
+	}
+
+	/**
+	 * @param address the local address of the server, or <code>null</code> if
+	 * it is not published over the local transport
+	 * @param bus the bus of the server
+	 * @param services the service beans of the server
+	 * @param interceptors the interceptors of the server, from which those
+	 * {@link CoLocationSafe safe} for co-located calls are taken
+	 */
+	public LocalEndpoint(String address, Bus bus, List<?> services, InterceptorProvider interceptors) {
+		this.address = address;
+		this.bus = bus;
+		this.services = ImmutableList.copyOf(services);
+		if (interceptors == null) {
+			this.coLocatedInInterceptors = Collections.emptyList();
+			this.coLocatedOutInterceptors = Collections.emptyList();
+		} else {
+			this.coLocatedInInterceptors = CoLocatedInvocationHandler.coLocationSafe(
+					Iterables.concat(bus.getInInterceptors(), interceptors.getInInterceptors()));
+			this.coLocatedOutInterceptors = CoLocatedInvocationHandler.coLocationSafe(
+					Iterables.concat(bus.getOutInterceptors(), interceptors.getOutInterceptors()));
+		}
+	}
+
+	/**
+	 * Creates a conduit to the endpoint. Conduits may be reused for any
+	 * number of calls from the same client.
+	 */
+	public Conduit createConduit() throws IOException {
+		try {
+			ConduitInitiator initiator = bus.getExtension(ConduitInitiatorManager.class)
+											.getConduitInitiator(LocalEndpointRegistry.LOCAL_TRANSPORT_ID);
+			EndpointInfo endpointInfo = new EndpointInfo();
+			endpointInfo.setAddress(address);
+			return initiator.getConduit(endpointInfo, bus);
+		} catch (BusException e) {
+			throw new IOException("Local transport unavailable on the bus of [" + address + "]", e);
+		}
+	}
+
+	/**
+	 * Finds the service bean of the server implementing the given type.
+	 *
+	 * @return the service, or <code>null</code> if none implements the type
+	 */
+	public Object getService(Class<?> serviceType) {
+		Object service = servicesByType.get(serviceType);
+		if (service == null) {
+			service = NO_SERVICE;
+			for (Object candidate: services) {
+				if (serviceType.isAssignableFrom(ClassHelper.getRealClass(candidate))) {
+					service = candidate;
+					break;
+				}
+			}
+			servicesByType.put(serviceType, service);
+		}
+		return service == NO_SERVICE ? null : service;
+	}
+
+	/**
+	 * @return the address on the local transport, or <code>null</code> if the
+	 * server is not published over it
+	 */
+	public String getAddress() {
+		return address;
+	}
+
+	public Bus getBus() {
+		return bus;
+	}
+
+	List<Interceptor<? extends Message>> getCoLocatedInInterceptors() {
+		return coLocatedInInterceptors;
+	}
+
+	List<Interceptor<? extends Message>> getCoLocatedOutInterceptors() {
+		return coLocatedOutInterceptors;
+	}
+
+	AtomicReference<InterceptorChainTemplate> getInChainTemplate() {
+		return inChainTemplate;
+	}
+
+	AtomicReference<InterceptorChainTemplate> getOutChainTemplate() {
+		return outChainTemplate;
+	}
+
+	@Override
+	public String toString() {
+		return address != null ? address : "co-located endpoint of " + services;
+	}
+
+}
@@ -0,0 +1,95 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.ClassUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+/**
+ * The servers of the JVM that are published over the local transport, by the
+ * types they serve: the classes of their services and every superclass and
+ * interface of those.
+ * <p>
+ * Lookups never lock and are cheap enough to make on every call, so that a
+ * client finds a server created after it. A type served by more than one
+ * local endpoint is ambiguous, and is not found.
+ *
+ * @author pwilson
+ */
+public final class LocalEndpointRegistry {
+
+	public static final String LOCAL_TRANSPORT_ID = "http://cxf.apache.org/transports/local";
+
+	private static final boolean LOCAL_TRANSPORT_AVAILABLE = ClassUtils.isPresent(
+			"org.apache.cxf.transport.local.LocalTransportFactory", LocalEndpointRegistry.class.getClassLoader());
+
+	private static final ConcurrentMap<Class<?>, List<LocalEndpoint>> ENDPOINTS = new ConcurrentHashMap<Class<?>, List<LocalEndpoint>>();
+
+	/**
+	 * @return whether the local transport is on the classpath
+	 */
+	public static boolean isLocalTransportAvailable() {
+		return LOCAL_TRANSPORT_AVAILABLE;
+	}
+
+	/**
+	 * Finds the local endpoint serving the given type.
+	 *
+	 * @return the endpoint, or <code>null</code> if none, or more than one, serves the type
+	 */
+	public static LocalEndpoint find(Class<?> serviceType) {
+		List<LocalEndpoint> endpoints = ENDPOINTS.get(serviceType);
+		return endpoints != null && endpoints.size() == 1 ? endpoints.get(0) : null;
+	}
+
+	public static synchronized void register(LocalEndpoint endpoint, Iterable<Class<?>> serviceClasses) {
+		for (Class<?> servedType: servedTypes(serviceClasses)) {
+			List<LocalEndpoint> endpoints = ENDPOINTS.get(servedType);
+			if (endpoints == null) {
+				ENDPOINTS.put(servedType, ImmutableList.of(endpoint));
+			} else if (!endpoints.contains(endpoint)) {
+				ENDPOINTS.put(servedType, ImmutableList.<LocalEndpoint>builder().addAll(endpoints).add(endpoint).build());
+			}
+		}
+	}
+
+	public static synchronized void unregister(LocalEndpoint endpoint) {
+		for (Map.Entry<Class<?>, List<LocalEndpoint>> entry: ENDPOINTS.entrySet()) {
+			if (!entry.getValue().contains(endpoint)) {
+				continue;
+			}
+			ImmutableList.Builder<LocalEndpoint> remaining = ImmutableList.builder();
+			for (LocalEndpoint candidate: entry.getValue()) {
+				if (candidate != endpoint) {
+					remaining.add(candidate);
+				}
+			}
+			List<LocalEndpoint> endpoints = remaining.build();
+			if (endpoints.isEmpty()) {
+				ENDPOINTS.remove(entry.getKey());
+			} else {
+				entry.setValue(endpoints);
+			}
+		}
+	}
+
+	private static Set<Class<?>> servedTypes(Iterable<Class<?>> serviceClasses) {
+		Set<Class<?>> servedTypes = Sets.newLinkedHashSet();
+		for (Class<?> serviceClass: serviceClasses) {
+			for (Class<?> type = serviceClass; type != null && type != Object.class; type = type.getSuperclass()) {
+				servedTypes.add(type);
+			}
+			servedTypes.addAll(ClassUtils.getAllInterfacesForClassAsSet(serviceClass));
+		}
+		return servedTypes;
+	}
+
+	private LocalEndpointRegistry() {}
+
+}
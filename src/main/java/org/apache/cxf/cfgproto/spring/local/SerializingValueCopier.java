@@ -0,0 +1,78 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Copies values by Java serialization, passing strings, primitive wrappers,
+ * big numbers and enums through as they are immutable. Values that are not
+ * {@link Serializable} cannot be copied.
+ *
+ * @author pwilson
+ */
+public class SerializingValueCopier implements ValueCopier {
+
+	@Override
+	public Object copy(Object value) {
+		if (value == null || isImmutable(value.getClass())) {
+			return value;
+		}
+		if (!(value instanceof Serializable)) {
+			throw new IllegalArgumentException("Cannot copy value of non-serializable " + value.getClass().getName());
+		}
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(value);
+			out.close();
+			ObjectInputStream in = new ClassLoaderObjectInputStream(
+					new ByteArrayInputStream(bytes.toByteArray()), value.getClass().getClassLoader());
+			return in.readObject();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to copy value of " + value.getClass().getName(), e);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalArgumentException("Unable to copy value of " + value.getClass().getName(), e);
+		}
+	}
+
+	private static boolean isImmutable(Class<?> type) {
+		return type == String.class
+			|| type.isEnum()
+			|| ClassUtils.isPrimitiveWrapper(type)
+			|| type == BigDecimal.class
+			|| type == BigInteger.class;
+	}
+
+	private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+
+		private final ClassLoader classLoader;
+
+		ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+			super(in);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+			if (classLoader == null) {
+				return super.resolveClass(descriptor);
+			}
+			try {
+				return ClassUtils.forName(descriptor.getName(), classLoader);
+			} catch (ClassNotFoundException e) {
+				return super.resolveClass(descriptor);
+			}
+		}
+	}
+
+}
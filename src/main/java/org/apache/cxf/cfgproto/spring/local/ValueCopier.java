@@ -0,0 +1,19 @@
+package org.apache.cxf.cfgproto.spring.local;
+
+/**
+ * Copies the arguments and results of co-located calls, so that neither the
+ * client nor the service sees the other's later changes to them.
+ *
+ * @see CoLocationPolicy
+ * @author pwilson
+ */
+public interface ValueCopier {
+
+	/**
+	 * @param value the value to copy, possibly <code>null</code>
+	 * @return an independent copy of the value, or the value itself if it is
+	 * immutable
+	 */
+	Object copy(Object value);
+
+}
@@ -0,0 +1,319 @@
+package org.apache.cxf.cfgproto.spring.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.MediaType;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.Parameter;
+import org.apache.cxf.jaxrs.model.UserResource;
+import org.apache.cxf.jaxrs.utils.ResourceUtils;
+import org.apache.cxf.version.Version;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import com.google.common.base.Joiner;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+
+/**
+ * Caches the resource model of a server in a local file between starts, so
+ * that the annotations of its resource classes are only evaluated when the
+ * classes have changed.
+ * <p>
+ * The model is written in CXF's own user model format, from which CXF
+ * builds resources without evaluating annotations, along with a hash of the
+ * byte code of every class involved: the resource and sub-resource classes
+ * and their supertypes. A cached model is only used when the hash of the
+ * classes now loaded matches, and the CXF version with it.
+ * <p>
+ * Name bindings and class-level <code>@Encoded</code> or
+ * <code>@DefaultValue</code> are not expressible in the user model; servers
+ * using them are not cached. A cache that cannot be read or written is
+ * ignored, and the model reflected as usual.
+ *
+ * @author pwilson
+ */
+public class ResourceModelCache {
+
+	private static final Logger LOG = LogUtils.getLogger(ResourceModelCache.class);
+
+	private static final String FORMAT_VERSION = "1";
+	private static final String NAMESPACE = "http://cxf.apache.org/jaxrs";
+	private static final String HASH_ATTRIBUTE = "classesHash";
+
+	private final File directory;
+
+	public ResourceModelCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Loads the cached model of the given server.
+	 *
+	 * @param serverName the name of the server
+	 * @param serviceClasses the classes of its services
+	 * @return the model, or <code>null</code> if none is cached for the
+	 * classes as they are now
+	 */
+	public List<UserResource> load(String serverName, List<Class<?>> serviceClasses) {
+		File file = fileOf(serverName);
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+			documentBuilderFactory.setNamespaceAware(true);
+			Element root = documentBuilderFactory.newDocumentBuilder()
+												 .parse(new ByteArrayInputStream(Files.toByteArray(file)))
+												 .getDocumentElement();
+			List<UserResource> model = ResourceUtils.getResourcesFromElement(root);
+			if (!coversExactly(model, serviceClasses, root)) {
+				return null;
+			}
+			return model;
+		} catch (Exception e) {
+			LOG.log(Level.WARNING, "Ignoring unreadable resource model cache [" + file + "]", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Caches the model of the given server, if it can be expressed in the
+	 * user model format.
+	 *
+	 * @param serverName the name of the server
+	 * @param resources the root resources reflected for the server
+	 */
+	public void store(String serverName, List<ClassResourceInfo> resources) {
+		Set<ClassResourceInfo> all = new LinkedHashSet<ClassResourceInfo>();
+		collect(resources, all);
+		if (!isCacheable(all)) {
+			return;
+		}
+		File file = fileOf(serverName);
+		try {
+			Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+			Element root = document.createElementNS(NAMESPACE, "model");
+			document.appendChild(root);
+			Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+			for (ClassResourceInfo resource: all) {
+				root.appendChild(toElement(document, resource));
+				classes.add(resource.getServiceClass());
+			}
+			root.setAttribute(HASH_ATTRIBUTE, hash(classes));
+			write(document, file);
+		} catch (IOException e) {
+			LOG.log(Level.WARNING, "Unable to write resource model cache [" + file + "]", e);
+		} catch (ParserConfigurationException e) {
+			LOG.log(Level.WARNING, "Unable to write resource model cache [" + file + "]", e);
+		} catch (TransformerException e) {
+			LOG.log(Level.WARNING, "Unable to write resource model cache [" + file + "]", e);
+		}
+	}
+
+	private File fileOf(String serverName) {
+		return new File(directory, serverName.replaceAll("[^A-Za-z0-9._-]", "_") + ".jaxrs-model.xml");
+	}
+
+	/*
+	 * A cached model is only good for the same services, of the same classes.
+	 */
+	private static boolean coversExactly(List<UserResource> model, List<Class<?>> serviceClasses, Element root) throws IOException {
+		Set<String> modelled = new TreeSet<String>();
+		Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+		for (UserResource resource: model) {
+			modelled.add(resource.getName());
+		}
+		for (Class<?> serviceClass: serviceClasses) {
+			if (!modelled.contains(serviceClass.getName())) {
+				return false;
+			}
+		}
+		ClassLoader classLoader = serviceClasses.isEmpty() ? null : serviceClasses.get(0).getClassLoader();
+		for (String className: modelled) {
+			try {
+				classes.add(Class.forName(className, false, classLoader));
+			} catch (ClassNotFoundException e) {
+				return false;
+			}
+		}
+		return hash(classes).equals(root.getAttribute(HASH_ATTRIBUTE));
+	}
+
+	private static void collect(Collection<ClassResourceInfo> resources, Set<ClassResourceInfo> all) {
+		for (ClassResourceInfo resource: resources) {
+			if (all.add(resource)) {
+				collect(resource.getSubResources(), all);
+			}
+		}
+	}
+
+	private static boolean isCacheable(Collection<ClassResourceInfo> resources) {
+		for (ClassResourceInfo resource: resources) {
+			if (!resource.getNameBindings().isEmpty()) {
+				return false;
+			}
+			Set<String> names = new LinkedHashSet<String>();
+			for (OperationResourceInfo operation: resource.getMethodDispatcher().getOperationResourceInfos()) {
+				if (!operation.getNameBindings().isEmpty() || operation.isEncodedEnabled()
+						|| operation.getDefaultParameterValue() != null) {
+					return false;
+				}
+				// operations are bound by name alone
+				if (!names.add(operation.getMethodToInvoke().getName())
+						|| isOverloaded(resource.getServiceClass(), operation.getMethodToInvoke())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isOverloaded(Class<?> serviceClass, Method method) {
+		for (Method candidate: serviceClass.getMethods()) {
+			if (candidate.getName().equals(method.getName()) && !candidate.equals(method) && !candidate.isBridge()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Element toElement(Document document, ClassResourceInfo resource) {
+		Element element = document.createElementNS(NAMESPACE, "resource");
+		element.setAttribute("name", resource.getServiceClass().getName());
+		if (resource.getURITemplate() != null) {
+			element.setAttribute("path", resource.getURITemplate().getValue());
+		}
+		for (OperationResourceInfo operation: resource.getMethodDispatcher().getOperationResourceInfos()) {
+			Element operationElement = document.createElementNS(NAMESPACE, "operation");
+			operationElement.setAttribute("name", operation.getMethodToInvoke().getName());
+			if (operation.getHttpMethod() != null) {
+				operationElement.setAttribute("verb", operation.getHttpMethod());
+			}
+			if (operation.getURITemplate() != null) {
+				operationElement.setAttribute("path", operation.getURITemplate().getValue());
+			}
+			operationElement.setAttribute("produces", mediaTypes(operation.getProduceTypes()));
+			operationElement.setAttribute("consumes", mediaTypes(operation.getConsumeTypes()));
+			if (operation.isOneway()) {
+				operationElement.setAttribute("oneway", "true");
+			}
+			for (Parameter parameter: operation.getParameters()) {
+				Element parameterElement = document.createElementNS(NAMESPACE, "param");
+				parameterElement.setAttribute("type", parameter.getType().name());
+				if (parameter.getName() != null) {
+					parameterElement.setAttribute("name", parameter.getName());
+				}
+				if (parameter.getDefaultValue() != null) {
+					parameterElement.setAttribute("defaultValue", parameter.getDefaultValue());
+				}
+				if (parameter.isEncoded()) {
+					parameterElement.setAttribute("encoded", "true");
+				}
+				operationElement.appendChild(parameterElement);
+			}
+			element.appendChild(operationElement);
+		}
+		return element;
+	}
+
+	private static String mediaTypes(List<MediaType> mediaTypes) {
+		return Joiner.on(',').join(mediaTypes);
+	}
+
+	/*
+	 * Hashes the byte code of the classes and of their supertypes, other
+	 * than those of the JDK.
+	 */
+	private static String hash(Collection<Class<?>> classes) throws IOException {
+		SortedMap<String, Class<?>> hierarchy = new TreeMap<String, Class<?>>();
+		for (Class<?> type: classes) {
+			addHierarchy(type, hierarchy);
+		}
+		Hasher hasher = Hashing.sha1().newHasher()
+									  .putUnencodedChars(FORMAT_VERSION)
+									  .putUnencodedChars(String.valueOf(Version.getCurrentVersion()));
+		for (Map.Entry<String, Class<?>> entry: hierarchy.entrySet()) {
+			String className = entry.getKey();
+			Class<?> type = entry.getValue();
+			hasher.putUnencodedChars(className);
+			InputStream in = type.getResourceAsStream('/' + className.replace('.', '/') + ".class");
+			if (in == null) {
+				throw new IOException("No byte code found for [" + className + "]");
+			}
+			try {
+				hasher.putBytes(ByteStreams.toByteArray(in));
+			} finally {
+				Closeables.close(in, true);
+			}
+		}
+		return hasher.hash().toString();
+	}
+
+	private static void addHierarchy(Class<?> type, Map<String, Class<?>> hierarchy) {
+		if (type == null || type.getName().startsWith("java.") || hierarchy.put(type.getName(), type) != null) {
+			return;
+		}
+		addHierarchy(type.getSuperclass(), hierarchy);
+		for (Class<?> implemented: type.getInterfaces()) {
+			addHierarchy(implemented, hierarchy);
+		}
+	}
+
+	/*
+	 * Writes aside and renames, so that a concurrent start never reads a
+	 * partial model.
+	 */
+	private static void write(Document document, File file) throws IOException, TransformerException {
+		if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+			throw new IOException("Unable to create directory [" + file.getParentFile() + "]");
+		}
+		File temporary = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+		Transformer transformer = TransformerFactory.newInstance().newTransformer();
+		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+		OutputStream out = new FileOutputStream(temporary);
+		try {
+			transformer.transform(new DOMSource(document), new StreamResult(out));
+		} finally {
+			Closeables.close(out, true);
+		}
+		if (!temporary.renameTo(file)) {
+			file.delete();
+			if (!temporary.renameTo(file)) {
+				temporary.delete();
+				throw new IOException("Unable to replace [" + file + "]");
+			}
+		}
+	}
+
+}
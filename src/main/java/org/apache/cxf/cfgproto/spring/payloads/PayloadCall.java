@@ -0,0 +1,36 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The bodies of a call captured by a {@link PayloadLogger}, held by its
+ * exchange until the call completes.
+ *
+ * @author pwilson
+ */
+final class PayloadCall {
+
+	final boolean sampled;
+	final String method;
+	final String uri;
+	final PayloadCapture request;
+	final PayloadCapture response;
+	private final AtomicBoolean completed = new AtomicBoolean();
+
+	PayloadCall(boolean sampled, String method, String uri, int maxBytes) {
+		this.sampled = sampled;
+		this.method = method;
+		this.uri = uri;
+		this.request = new PayloadCapture(maxBytes);
+		this.response = new PayloadCapture(maxBytes);
+	}
+
+	/**
+	 * Whether this is the first completion of the call; a call may be
+	 * completed both by its stream and by its interceptors.
+	 */
+	boolean complete() {
+		return completed.compareAndSet(false, true);
+	}
+
+}
@@ -0,0 +1,62 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+import java.util.Arrays;
+
+import com.google.common.base.Charsets;
+
+/**
+ * The first bytes of a body, as it streams past, and the count of the rest.
+ *
+ * @author pwilson
+ */
+final class PayloadCapture {
+
+	private final int maxBytes;
+	private byte[] bytes = new byte[0];
+	private int captured;
+	private long total;
+
+	PayloadCapture(int maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	void capture(int b) {
+		if (captured < maxBytes) {
+			ensureCapacity(captured + 1);
+			bytes[captured++] = (byte) b;
+		}
+		total++;
+	}
+
+	void capture(byte[] b, int off, int len) {
+		int copied = Math.min(len, maxBytes - captured);
+		if (copied > 0) {
+			ensureCapacity(captured + copied);
+			System.arraycopy(b, off, bytes, captured, copied);
+			captured += copied;
+		}
+		total += len;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Math.min(maxBytes, Math.max(capacity, Math.max(256, bytes.length * 2))));
+		}
+	}
+
+	long getTotal() {
+		return total;
+	}
+
+	boolean isTruncated() {
+		return total > captured;
+	}
+
+	/**
+	 * The captured bytes, decoded as UTF-8.
+	 */
+	String getText() {
+		return new String(bytes, 0, captured, Charsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,116 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+
+/**
+ * Logs the bodies of a fraction of calls, and of calls ending in an error or
+ * with one of a set of statuses, up to a maximum size.
+ * <p>
+ * Bodies are captured as they stream through, never buffered whole: the
+ * first {@link PayloadLoggingPolicy#getMaxBytes() maxBytes} bytes of each
+ * are copied aside and the rest only counted. Whether a call is sampled is
+ * decided as it starts; calls that are not cost nothing unless a status
+ * filter is set, in which case their bodies are captured until the status
+ * is known and dropped if it does not match.
+ *
+ * @see PayloadLoggingFeature
+ * @author pwilson
+ */
+public class PayloadLogger {
+
+	private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
+	private final double sampleRate;
+	private final boolean errors;
+	private final int[] statuses;
+	private final int maxBytes;
+	private final Logger logger;
+
+	public PayloadLogger(PayloadLoggingPolicy policy) {
+		this.sampleRate = policy.getSampleRate();
+		this.errors = policy.isErrors();
+		this.statuses = policy.getStatuses().clone();
+		Arrays.sort(statuses);
+		this.maxBytes = Math.max(0, policy.getMaxBytes());
+		this.logger = Logger.getLogger(policy.getLoggerName());
+	}
+
+	/**
+	 * Adds the interceptors logging the bodies of the calls of a client.
+	 */
+	public void addClientInterceptors(InterceptorRegistry outInterceptors, InterceptorRegistry inInterceptors) {
+		outInterceptors.addInterceptors(new PayloadLoggingInterceptor.ClientRequest(this));
+		inInterceptors.addInterceptors(new PayloadLoggingInterceptor.ClientResponse(this));
+	}
+
+	/**
+	 * Starts capturing the bodies of a call, if it may be logged.
+	 *
+	 * @return the call, or <code>null</code> if it will not be logged
+	 */
+	PayloadCall startCall(String method, String uri) {
+		if (!logger.isLoggable(Level.INFO)) {
+			return null;
+		}
+		boolean sampled = sampleRate > 0 && RANDOM.get().nextDouble() < sampleRate;
+		if (!sampled && !errors && statuses.length == 0) {
+			return null;
+		}
+		return new PayloadCall(sampled, method, uri, maxBytes);
+	}
+
+	/**
+	 * Logs the bodies of a completed call if it was sampled or its outcome
+	 * matches the filter. Calls are logged once, however often completed.
+	 *
+	 * @param status the status of the response, or 0 if none was received
+	 * @param fault the failure of the call, if any
+	 */
+	void completeCall(PayloadCall call, int status, Exception fault) {
+		if (!call.complete()) {
+			return;
+		}
+		boolean error = fault != null || status >= 400;
+		if (call.sampled || (errors && error) || Arrays.binarySearch(statuses, status) >= 0) {
+			logger.info(format(call, status, fault));
+		}
+	}
+
+	private static String format(PayloadCall call, int status, Exception fault) {
+		StringBuilder message = new StringBuilder(256);
+		message.append(call.method).append(' ').append(call.uri).append(' ');
+		if (status > 0) {
+			message.append(status);
+		} else {
+			message.append("failed");
+		}
+		if (fault != null) {
+			message.append(" (").append(fault).append(')');
+		}
+		if (call.sampled) {
+			message.append(" [sampled]");
+		}
+		appendBody(message, "request", call.request);
+		appendBody(message, "response", call.response);
+		return message.toString();
+	}
+
+	private static void appendBody(StringBuilder message, String name, PayloadCapture capture) {
+		message.append('\n').append(name).append(" body (");
+		if (capture.isTruncated()) {
+			message.append("truncated, ");
+		}
+		message.append(capture.getTotal()).append(" bytes): ").append(capture.getText());
+	}
+
+}
@@ -0,0 +1,55 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+import java.util.List;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsFeature;
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientPolicyConfigurer;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Message;
+
+/**
+ * Logs request and response bodies of a server through a
+ * {@link PayloadLogger}. Declared like any other feature of a server:
+ * <pre class="code">
+ * &#064;JaxRsFeature
+ * public PayloadLoggingFeature payloadLogging() {
+ *     PayloadLoggingPolicy policy = new PayloadLoggingPolicy();
+ *     policy.setSampleRate(0.001);
+ *     policy.setStatuses(new int[] {409});
+ *     return new PayloadLoggingFeature(policy);
+ * }
+ * </pre>
+ * Clients take the policy from a
+ * {@link JaxRsClientPolicyConfigurer#payloadLoggingPolicy() configurer} instead.
+ *
+ * @see JaxRsFeature
+ * @author pwilson
+ */
+public class PayloadLoggingFeature extends AbstractFeature {
+
+	private final PayloadLogger payloadLogger;
+
+	public PayloadLoggingFeature(PayloadLoggingPolicy policy) {
+		this.payloadLogger = policy.createPayloadLogger();
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new PayloadLoggingInterceptor(payloadLogger));
+		addResponseInterceptors(provider.getOutInterceptors());
+		addResponseInterceptors(provider.getOutFaultInterceptors());
+	}
+
+	private void addResponseInterceptors(List<Interceptor<? extends Message>> chain) {
+		chain.add(new PayloadLoggingInterceptor.Outgoing());
+		chain.add(new PayloadLoggingInterceptor.Sent(payloadLogger));
+	}
+
+	public PayloadLogger getPayloadLogger() {
+		return payloadLogger;
+	}
+
+}
@@ -0,0 +1,164 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.MessageSenderInterceptor.MessageSenderEndingInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Starts capturing the body of a request as it is received by a server. Its
+ * nested interceptors capture the response of the server and log the call
+ * once the response has been sent, and do the same for the calls of a
+ * client.
+ *
+ * @author pwilson
+ */
+public class PayloadLoggingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final PayloadLogger payloadLogger;
+
+	public PayloadLoggingInterceptor(PayloadLogger payloadLogger) {
+		super(Phase.RECEIVE);
+		this.payloadLogger = payloadLogger;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		PayloadCall call = payloadLogger.startCall((String) message.get(Message.HTTP_REQUEST_METHOD), 
+												   (String) message.get(Message.REQUEST_URI));
+		if (call == null) {
+			return;
+		}
+		message.getExchange().put(PayloadCall.class, call);
+		InputStream in = message.getContent(InputStream.class);
+		if (in != null) {
+			message.setContent(InputStream.class, new TeeInputStream(in, call.request, null));
+		}
+	}
+
+	/**
+	 * Captures the body of the response, or of the request of a client, as
+	 * it is written.
+	 */
+	static class Outgoing extends AbstractPhaseInterceptor<Message> {
+
+		Outgoing() {
+			super(Phase.PRE_STREAM);
+		}
+
+		Outgoing(String id) {
+			super(id, Phase.PRE_STREAM);
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			PayloadCall call = message.getExchange().get(PayloadCall.class);
+			OutputStream out = message.getContent(OutputStream.class);
+			if (call != null && out != null) {
+				boolean request = Boolean.TRUE.equals(message.get(Message.REQUESTOR_ROLE));
+				message.setContent(OutputStream.class, new TeeOutputStream(out, request ? call.request : call.response));
+			}
+		}
+
+	}
+
+	/**
+	 * Logs the call of a server once the transport has closed its response.
+	 */
+	static class Sent extends AbstractPhaseInterceptor<Message> {
+
+		private final PayloadLogger payloadLogger;
+
+		Sent(PayloadLogger payloadLogger) {
+			super(Phase.PREPARE_SEND_ENDING);
+			addAfter(MessageSenderEndingInterceptor.class.getName());
+			this.payloadLogger = payloadLogger;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			PayloadCall call = (PayloadCall) message.getExchange().remove(PayloadCall.class.getName());
+			if (call != null) {
+				Integer status = (Integer) message.get(Message.RESPONSE_CODE);
+				payloadLogger.completeCall(call, status == null ? 0 : status, message.getContent(Exception.class));
+			}
+		}
+
+	}
+
+	/**
+	 * Starts capturing the calls of a client as their requests are written,
+	 * and logs those failing before a response is received.
+	 */
+	static class ClientRequest extends Outgoing {
+
+		private final PayloadLogger payloadLogger;
+
+		ClientRequest(PayloadLogger payloadLogger) {
+			super(ClientRequest.class.getName());
+			this.payloadLogger = payloadLogger;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			PayloadCall call = payloadLogger.startCall((String) message.get(Message.HTTP_REQUEST_METHOD), 
+													   (String) message.get(Message.REQUEST_URI));
+			if (call != null) {
+				message.getExchange().put(PayloadCall.class, call);
+				super.handleMessage(message);
+			}
+		}
+
+		@Override
+		public void handleFault(Message message) {
+			PayloadCall call = (PayloadCall) message.getExchange().remove(PayloadCall.class.getName());
+			if (call != null) {
+				payloadLogger.completeCall(call, 0, message.getContent(Exception.class));
+			}
+		}
+
+	}
+
+	/**
+	 * Captures the body of the response of a client call as it is read, and
+	 * logs the call once the body has been read or closed.
+	 */
+	static class ClientResponse extends AbstractPhaseInterceptor<Message> {
+
+		private final PayloadLogger payloadLogger;
+
+		ClientResponse(PayloadLogger payloadLogger) {
+			super(Phase.RECEIVE);
+			this.payloadLogger = payloadLogger;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			Exchange exchange = message.getExchange();
+			final PayloadCall call = (PayloadCall) exchange.remove(PayloadCall.class.getName());
+			if (call == null) {
+				return;
+			}
+			Integer responseCode = (Integer) message.get(Message.RESPONSE_CODE);
+			final int status = responseCode == null ? 0 : responseCode;
+			InputStream in = message.getContent(InputStream.class);
+			if (in == null) {
+				payloadLogger.completeCall(call, status, null);
+				return;
+			}
+			message.setContent(InputStream.class, new TeeInputStream(in, call.response, new Runnable() {
+				@Override
+				public void run() {
+					payloadLogger.completeCall(call, status, null);
+				}
+			}));
+		}
+
+	}
+
+}
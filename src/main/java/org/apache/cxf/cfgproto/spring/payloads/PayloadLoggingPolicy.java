@@ -0,0 +1,77 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+/**
+ * Which calls a {@link PayloadLogger} logs the bodies of, and how much of
+ * them.
+ *
+ * @author pwilson
+ */
+public class PayloadLoggingPolicy {
+
+	private double sampleRate = 0.01;
+	private boolean errors = true;
+	private int[] statuses = new int[0];
+	private int maxBytes = 4096;
+	private String loggerName = PayloadLogger.class.getName();
+
+	public PayloadLogger createPayloadLogger() {
+		return new PayloadLogger(this);
+	}
+
+	/**
+	 * The fraction of calls logged regardless of their outcome.
+	 */
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * Whether calls failing, or answered with a status of 400 or more, are
+	 * logged whether sampled or not.
+	 */
+	public boolean isErrors() {
+		return errors;
+	}
+
+	public void setErrors(boolean errors) {
+		this.errors = errors;
+	}
+
+	/**
+	 * Statuses of the calls logged whether sampled or not.
+	 */
+	public int[] getStatuses() {
+		return statuses;
+	}
+
+	public void setStatuses(int[] statuses) {
+		this.statuses = statuses;
+	}
+
+	/**
+	 * The number of bytes of each body logged; the rest is counted only.
+	 */
+	public int getMaxBytes() {
+		return maxBytes;
+	}
+
+	public void setMaxBytes(int maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * The name of the logger the bodies are logged to, at <code>INFO</code>.
+	 */
+	public String getLoggerName() {
+		return loggerName;
+	}
+
+	public void setLoggerName(String loggerName) {
+		this.loggerName = loggerName;
+	}
+
+}
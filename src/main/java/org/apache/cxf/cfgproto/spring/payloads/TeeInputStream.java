@@ -0,0 +1,70 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Captures the bytes read from a stream, running a callback once the stream
+ * is exhausted or closed.
+ *
+ * @author pwilson
+ */
+class TeeInputStream extends FilterInputStream {
+
+	private final PayloadCapture capture;
+	private final Runnable onEnd;
+	private boolean ended;
+
+	TeeInputStream(InputStream in, PayloadCapture capture, Runnable onEnd) {
+		super(in);
+		this.capture = capture;
+		this.onEnd = onEnd;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b < 0) {
+			end();
+		} else {
+			capture.capture(b);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int read = super.read(b, off, len);
+		if (read < 0) {
+			end();
+		} else {
+			capture.capture(b, off, read);
+		}
+		return read;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			end();
+		}
+	}
+
+	private void end() {
+		if (!ended) {
+			ended = true;
+			if (onEnd != null) {
+				onEnd.run();
+			}
+		}
+	}
+
+}
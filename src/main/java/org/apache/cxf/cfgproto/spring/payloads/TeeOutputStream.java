@@ -0,0 +1,33 @@
+package org.apache.cxf.cfgproto.spring.payloads;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Captures the bytes written to a stream.
+ *
+ * @author pwilson
+ */
+class TeeOutputStream extends FilterOutputStream {
+
+	private final PayloadCapture capture;
+
+	TeeOutputStream(OutputStream out, PayloadCapture capture) {
+		super(out);
+		this.capture = capture;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		capture.capture(b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		capture.capture(b, off, len);
+	}
+
+}
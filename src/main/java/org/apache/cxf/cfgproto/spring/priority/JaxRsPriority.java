@@ -0,0 +1,39 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.JaxRsService;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Declares the priority class of work on a server with
+ * {@link JaxRsPriorityScheduling priority scheduling}. May be placed:
+ * <ul>
+ *   <li>alongside {@link JaxRsService @JaxRsService}, for all calls to the service;
+ *   <li>on a {@link JaxRsServer @JaxRsServer} configuration class, as the
+ *       default for the services of the server;
+ *   <li>on a resource class or resource method, which takes precedence over
+ *       the above.
+ * </ul>
+ * <pre class="code">
+ * &#064;JaxRsService
+ * &#064;JaxRsPriority(PriorityClass.BATCH)
+ * public Object exportService() {
+ *     return new ExportService();
+ * }
+ * </pre>
+ *
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface JaxRsPriority {
+
+	PriorityClass value();
+
+}
@@ -0,0 +1,50 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Dispatches the service invocations of the server declared by a
+ * {@link JaxRsServer @JaxRsServer} configuration class on a dedicated pool,
+ * taking queued work in order of {@link JaxRsPriority priority class}.
+ * Under saturation lower classes are shed first, with
+ * <code>503 Service Unavailable</code>, before their body is read.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsPriorityScheduling(threads = 32, queueCapacity = 256)
+ * public class SharedServerConfiguration {
+ * }
+ * </pre>
+ *
+ * @see PriorityDispatchExecutor
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsPriorityScheduling {
+
+	/**
+	 * The number of threads invoking services.
+	 */
+	int threads();
+
+	/**
+	 * The number of invocations that may queue for a thread.
+	 */
+	int queueCapacity() default 100;
+
+	SchedulingMode mode() default SchedulingMode.WEIGHTED;
+
+	int criticalWeight() default 8;
+
+	int defaultWeight() default 4;
+
+	int batchWeight() default 1;
+
+}
@@ -0,0 +1,47 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimitInterceptor;
+import org.apache.cxf.cfgproto.spring.bulkhead.BulkheadInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Sheds requests whose priority class may no longer join the dispatch
+ * queue, with <code>503</code> and before their body is read.
+ *
+ * @author pwilson
+ */
+public class PriorityAdmissionInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final PriorityDispatchExecutor executor;
+	private final PriorityResolver resolver;
+
+	PriorityAdmissionInterceptor(PriorityDispatchExecutor executor, PriorityResolver resolver) {
+		super(Phase.PRE_UNMARSHAL);
+		addAfter(AdaptiveConcurrencyLimitInterceptor.class.getName());
+		addBefore(BulkheadInterceptor.class.getName());
+		this.executor = executor;
+		this.resolver = resolver;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		if (!executor.tryAdmit(resolver.resolve(message))) {
+			JaxRsMessageUtils.abortWith(message, serviceUnavailable());
+		}
+	}
+
+	static Response serviceUnavailable() {
+		return Response.status(Status.SERVICE_UNAVAILABLE)
+					   .header(HttpHeaders.RETRY_AFTER, 1)
+					   .build();
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+/**
+ * The priority classes of work dispatched by a server.
+ *
+ * @see JaxRsPriority
+ * @author pwilson
+ */
+public enum PriorityClass {
+
+	/**
+	 * Interactive work that must not wait behind other work; shed only once
+	 * the dispatch queue is full.
+	 */
+	CRITICAL(1.0),
+
+	DEFAULT(0.8),
+
+	/**
+	 * Bulk work, such as exports; the first to be shed under saturation.
+	 */
+	BATCH(0.5);
+
+	private final double queueShare;
+
+	private PriorityClass(double queueShare) {
+		this.queueShare = queueShare;
+	}
+
+	/**
+	 * The fraction of the dispatch queue that may be occupied before work of
+	 * this class is shed.
+	 */
+	public double getQueueShare() {
+		return queueShare;
+	}
+
+}
@@ -0,0 +1,249 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+
+/**
+ * The dispatch executor of a server with priority scheduling. Service
+ * invocations are queued by {@link PriorityClass} and taken by a fixed pool
+ * of threads according to the {@link SchedulingMode}.
+ * <p>
+ * The priority of an invocation is resolved from the message being
+ * processed by the submitting thread, so the executor can be installed as
+ * the executor of a CXF service as is. An invocation that can no longer be
+ * queued, because the queue filled after its request was admitted, is
+ * answered with <code>503</code> like a request shed on admission.
+ *
+ * @author pwilson
+ */
+public class PriorityDispatchExecutor implements Executor {
+
+	private static final Logger LOG = LogUtils.getLogger(PriorityDispatchExecutor.class);
+	private static final PriorityClass[] PRIORITY_ORDER = PriorityClass.values();
+
+	static final String SHED_ON_DISPATCH = PriorityDispatchExecutor.class.getName() + ".SHED_ON_DISPATCH";
+
+	private final PrioritySchedulingPolicy policy;
+	private final PriorityResolver resolver;
+	private final String name;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Map<PriorityClass, ArrayDeque<Runnable>> queues = new EnumMap<PriorityClass, ArrayDeque<Runnable>>(PriorityClass.class);
+	private final int[] currentWeights = new int[PRIORITY_ORDER.length];
+	private final AtomicInteger queued = new AtomicInteger();
+	private final Map<PriorityClass, AtomicLong> shed = new EnumMap<PriorityClass, AtomicLong>(PriorityClass.class);
+	private final List<Thread> workers = new ArrayList<Thread>();
+	private volatile boolean shutdown;
+	private int generation;
+
+	PriorityDispatchExecutor(PrioritySchedulingPolicy policy, PriorityResolver resolver, String name) {
+		this.policy = policy;
+		this.resolver = resolver;
+		this.name = name;
+		for (PriorityClass priorityClass: PRIORITY_ORDER) {
+			queues.put(priorityClass, new ArrayDeque<Runnable>());
+			shed.put(priorityClass, new AtomicLong());
+		}
+	}
+
+	/**
+	 * Starts the dispatch threads, or replaces them once the executor has
+	 * been shut down. Threads of an earlier start finish the task they are
+	 * running and exit, leaving queued work to their replacements.
+	 */
+	public synchronized void start() {
+		if (!workers.isEmpty() && !shutdown) {
+			return;
+		}
+		int workerGeneration;
+		lock.lock();
+		try {
+			shutdown = false;
+			workerGeneration = ++generation;
+			notEmpty.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		workers.clear();
+		for (int i = 0; i < policy.getThreads(); i++) {
+			Thread worker = new Thread(new Worker(workerGeneration), name + "-dispatch-" + i);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Stops taking new work. Queued work is still run, and the executor can
+	 * be {@link #start() started} again.
+	 */
+	public void shutdown() {
+		lock.lock();
+		try {
+			shutdown = true;
+			notEmpty.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		Message message = PhaseInterceptorChain.getCurrentMessage();
+		try {
+			execute(task, resolver.resolve(message));
+		} catch (RejectedExecutionException e) {
+			if (message == null) {
+				throw e;
+			}
+			shedOnDispatch(message, task);
+		}
+	}
+
+	/*
+	 * The service invoker waits for the task it submitted to complete, so
+	 * the task is run on the submitting thread after the 503 is sent, with
+	 * the exchange marked for the SheddingInvoker to skip the invocation.
+	 */
+	private void shedOnDispatch(Message message, Runnable task) {
+		LOG.fine("Shedding request on dispatch to [" + name + "]");
+		JaxRsMessageUtils.abortWith(message, PriorityAdmissionInterceptor.serviceUnavailable());
+		message.getExchange().put(SHED_ON_DISPATCH, Boolean.TRUE);
+		task.run();
+	}
+
+	public void execute(Runnable task, PriorityClass priorityClass) {
+		lock.lock();
+		try {
+			if (shutdown) {
+				throw new RejectedExecutionException("Dispatch executor [" + name + "] has been shut down");
+			}
+			if (queued.get() >= policy.getQueueCapacity()) {
+				shed.get(priorityClass).incrementAndGet();
+				throw new RejectedExecutionException("Dispatch queue of [" + name + "] is full");
+			}
+			queues.get(priorityClass).addLast(task);
+			queued.incrementAndGet();
+			notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Decides whether to accept new work of the given class, shedding lower
+	 * classes first as the queue fills.
+	 *
+	 * @return <code>false</code> if the work should be shed
+	 */
+	public boolean tryAdmit(PriorityClass priorityClass) {
+		if (queued.get() < policy.getQueueCapacity() * priorityClass.getQueueShare()) {
+			return true;
+		}
+		shed.get(priorityClass).incrementAndGet();
+		return false;
+	}
+
+	public int getQueued() {
+		return queued.get();
+	}
+
+	public long getShedCount(PriorityClass priorityClass) {
+		return shed.get(priorityClass).get();
+	}
+
+	private Runnable take(int workerGeneration) throws InterruptedException {
+		lock.lock();
+		try {
+			while (workerGeneration == generation && queued.get() == 0) {
+				if (shutdown) {
+					return null;
+				}
+				notEmpty.await();
+			}
+			if (workerGeneration != generation) {
+				return null;
+			}
+			ArrayDeque<Runnable> queue = policy.getMode() == SchedulingMode.STRICT ? highestNonEmpty() : weightedNonEmpty();
+			queued.decrementAndGet();
+			return queue.pollFirst();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private ArrayDeque<Runnable> highestNonEmpty() {
+		for (PriorityClass priorityClass: PRIORITY_ORDER) {
+			ArrayDeque<Runnable> queue = queues.get(priorityClass);
+			if (!queue.isEmpty()) {
+				return queue;
+			}
+		}
+		throw new IllegalStateException("No queued work");
+	}
+
+	/*
+	 * Smooth weighted round robin: every class with queued work gains its
+	 * weight, the richest class is chosen and pays the total, interleaving
+	 * classes in proportion to their weights.
+	 */
+	private ArrayDeque<Runnable> weightedNonEmpty() {
+		int total = 0;
+		int selected = -1;
+		for (int i = 0; i < PRIORITY_ORDER.length; i++) {
+			if (queues.get(PRIORITY_ORDER[i]).isEmpty()) {
+				continue;
+			}
+			int weight = Math.max(1, policy.getWeight(PRIORITY_ORDER[i]));
+			currentWeights[i] += weight;
+			total += weight;
+			if (selected < 0 || currentWeights[i] > currentWeights[selected]) {
+				selected = i;
+			}
+		}
+		currentWeights[selected] -= total;
+		return queues.get(PRIORITY_ORDER[selected]);
+	}
+
+	private final class Worker implements Runnable {
+
+		private final int workerGeneration;
+
+		Worker(int workerGeneration) {
+			this.workerGeneration = workerGeneration;
+		}
+
+		@Override
+		public void run() {
+			try {
+				for (Runnable task = take(workerGeneration); task != null; task = take(workerGeneration)) {
+					try {
+						task.run();
+					} catch (RuntimeException e) {
+						LOG.log(Level.WARNING, "Dispatched task failed on [" + name + "]", e);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
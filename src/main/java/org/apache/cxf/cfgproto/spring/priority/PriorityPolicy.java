@@ -0,0 +1,29 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicy;
+
+/**
+ * Assigns a {@link PriorityClass} to the calls of a service.
+ *
+ * @see JaxRsPriority
+ * @author pwilson
+ */
+public class PriorityPolicy implements JaxRsServicePolicy {
+
+	private PriorityClass priorityClass = PriorityClass.DEFAULT;
+
+	public PriorityPolicy() {}
+
+	public PriorityPolicy(PriorityClass priorityClass) {
+		this.priorityClass = priorityClass;
+	}
+
+	public PriorityClass getPriorityClass() {
+		return priorityClass;
+	}
+
+	public void setPriorityClass(PriorityClass priorityClass) {
+		this.priorityClass = priorityClass;
+	}
+
+}
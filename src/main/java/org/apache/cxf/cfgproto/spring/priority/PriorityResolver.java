@@ -0,0 +1,74 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.message.Message;
+import org.springframework.core.annotation.AnnotationUtils;
+
+/**
+ * Determines the {@link PriorityClass} of a request: a {@link JaxRsPriority}
+ * annotation on the resource method, then on the resource class, then the
+ * {@link PriorityPolicy} of the service or server, and otherwise
+ * {@link PriorityClass#DEFAULT}. Results are cached per method and class.
+ *
+ * @author pwilson
+ */
+class PriorityResolver {
+
+	private final JaxRsServicePolicies<PriorityPolicy> policies;
+	private final ConcurrentMap<Method, PriorityClass> methodPriorities = new ConcurrentHashMap<Method, PriorityClass>();
+	private final ConcurrentMap<Class<?>, PriorityClass> servicePriorities = new ConcurrentHashMap<Class<?>, PriorityClass>();
+
+	PriorityResolver(JaxRsServicePolicies<PriorityPolicy> policies) {
+		this.policies = policies;
+	}
+
+	/**
+	 * Resolves the priority of the request, at the level of its resource
+	 * method, matched ahead of the JAX-RS in-interceptor when admitting the
+	 * request, otherwise at the level of its service.
+	 */
+	PriorityClass resolve(Message message) {
+		if (message == null) {
+			return PriorityClass.DEFAULT;
+		}
+		OperationResourceInfo operation = JaxRsMessageUtils.getTargetOperation(message);
+		if (operation == null) {
+			return resolveService(JaxRsMessageUtils.getTargetServiceClass(message));
+		}
+		Method method = operation.getMethodToInvoke();
+		PriorityClass priorityClass = methodPriorities.get(method);
+		if (priorityClass == null) {
+			JaxRsPriority annotation = AnnotationUtils.findAnnotation(method, JaxRsPriority.class);
+			priorityClass = annotation != null 
+						  ? annotation.value() 
+						  : resolveService(operation.getClassResourceInfo().getServiceClass());
+			methodPriorities.put(method, priorityClass);
+		}
+		return priorityClass;
+	}
+
+	private PriorityClass resolveService(Class<?> serviceClass) {
+		if (serviceClass == null) {
+			return defaultPriority(null);
+		}
+		PriorityClass priorityClass = servicePriorities.get(serviceClass);
+		if (priorityClass == null) {
+			JaxRsPriority annotation = AnnotationUtils.findAnnotation(serviceClass, JaxRsPriority.class);
+			priorityClass = annotation != null ? annotation.value() : defaultPriority(serviceClass);
+			servicePriorities.put(serviceClass, priorityClass);
+		}
+		return priorityClass;
+	}
+
+	private PriorityClass defaultPriority(Class<?> serviceClass) {
+		PriorityPolicy policy = policies.getPolicy(serviceClass);
+		return policy != null ? policy.getPriorityClass() : PriorityClass.DEFAULT;
+	}
+
+}
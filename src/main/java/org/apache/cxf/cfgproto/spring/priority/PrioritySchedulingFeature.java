@@ -0,0 +1,59 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.cfgproto.spring.ServerLifeCycleUtils;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.service.Service;
+
+/**
+ * Installs a {@link PriorityDispatchExecutor} as the executor of a server's
+ * service, along with admission control shedding low-priority work first.
+ * The executor is shut down with the server and started again with it.
+ *
+ * @author pwilson
+ */
+public class PrioritySchedulingFeature extends AbstractFeature {
+
+	private final PriorityResolver resolver;
+	private final PriorityDispatchExecutor executor;
+
+	public PrioritySchedulingFeature(PrioritySchedulingPolicy policy, JaxRsServicePolicies<PriorityPolicy> priorities, String serverName) {
+		this.resolver = new PriorityResolver(priorities);
+		this.executor = new PriorityDispatchExecutor(policy, resolver, serverName);
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		Service service = server.getEndpoint().getService();
+		service.setExecutor(executor);
+		if (!(service.getInvoker() instanceof SheddingInvoker)) {
+			service.setInvoker(new SheddingInvoker(service.getInvoker()));
+		}
+		executor.start();
+		ServerLifeCycleUtils.onServerRestart(server, bus, new Runnable() {
+			@Override
+			public void run() {
+				executor.start();
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				executor.shutdown();
+			}
+		});
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new PriorityAdmissionInterceptor(executor, resolver));
+	}
+
+	public PriorityDispatchExecutor getExecutor() {
+		return executor;
+	}
+
+}
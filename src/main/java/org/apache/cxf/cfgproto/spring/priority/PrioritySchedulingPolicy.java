@@ -0,0 +1,87 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+/**
+ * The configuration of a server's {@link PriorityDispatchExecutor}.
+ *
+ * @see JaxRsPriorityScheduling
+ * @author pwilson
+ */
+public class PrioritySchedulingPolicy {
+
+	private int threads;
+	private int queueCapacity = 100;
+	private SchedulingMode mode = SchedulingMode.WEIGHTED;
+	private int criticalWeight = 8;
+	private int defaultWeight = 4;
+	private int batchWeight = 1;
+
+	public PrioritySchedulingPolicy() {}
+
+	public PrioritySchedulingPolicy(int threads, int queueCapacity) {
+		setThreads(threads);
+		setQueueCapacity(queueCapacity);
+	}
+
+	int getWeight(PriorityClass priorityClass) {
+		switch (priorityClass) {
+		case CRITICAL:
+			return criticalWeight;
+		case BATCH:
+			return batchWeight;
+		default:
+			return defaultWeight;
+		}
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be at least 1: " + threads);
+		}
+		this.threads = threads;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public SchedulingMode getMode() {
+		return mode;
+	}
+
+	public void setMode(SchedulingMode mode) {
+		this.mode = mode;
+	}
+
+	public int getCriticalWeight() {
+		return criticalWeight;
+	}
+
+	public void setCriticalWeight(int criticalWeight) {
+		this.criticalWeight = criticalWeight;
+	}
+
+	public int getDefaultWeight() {
+		return defaultWeight;
+	}
+
+	public void setDefaultWeight(int defaultWeight) {
+		this.defaultWeight = defaultWeight;
+	}
+
+	public int getBatchWeight() {
+		return batchWeight;
+	}
+
+	public void setBatchWeight(int batchWeight) {
+		this.batchWeight = batchWeight;
+	}
+
+}
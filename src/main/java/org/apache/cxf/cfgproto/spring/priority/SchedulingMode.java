@@ -0,0 +1,23 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+/**
+ * How a {@link PriorityDispatchExecutor} chooses between queued work of
+ * different {@link PriorityClass priority classes}.
+ *
+ * @author pwilson
+ */
+public enum SchedulingMode {
+
+	/**
+	 * Always run the highest class with queued work. Lower classes may
+	 * starve while higher classes keep the server saturated.
+	 */
+	STRICT,
+
+	/**
+	 * Share dispatch between classes with queued work in proportion to their
+	 * weights, so lower classes are slowed but never starved.
+	 */
+	WEIGHTED
+
+}
@@ -0,0 +1,29 @@
+package org.apache.cxf.cfgproto.spring.priority;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.service.invoker.Invoker;
+
+/**
+ * Skips the invocation of a request shed by the
+ * {@link PriorityDispatchExecutor} on dispatch, which has already been
+ * answered.
+ *
+ * @author pwilson
+ */
+class SheddingInvoker implements Invoker {
+
+	private final Invoker delegate;
+
+	SheddingInvoker(Invoker delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object invoke(Exchange exchange, Object o) {
+		if (Boolean.TRUE.equals(exchange.get(PriorityDispatchExecutor.SHED_ON_DISPATCH))) {
+			return null;
+		}
+		return delegate.invoke(exchange, o);
+	}
+
+}
@@ -0,0 +1,40 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+import org.apache.cxf.message.Message;
+
+/**
+ * Keys requests by an API key sent in a request header. Requests without the
+ * header are keyed by remote address, so anonymous callers cannot exhaust the
+ * bucket of a tenant.
+ *
+ * @author pwilson
+ */
+public class ApiKeyKeyExtractor implements RateLimitKeyExtractor {
+
+	public static final String DEFAULT_HEADER = "X-API-Key";
+
+	private static final String API_KEY_PREFIX = "key:";
+	private static final String ADDRESS_PREFIX = "address:";
+
+	private final String headerName;
+	private final RateLimitKeyExtractor fallback = new RemoteAddressKeyExtractor();
+
+	public ApiKeyKeyExtractor() {
+		this(DEFAULT_HEADER);
+	}
+
+	public ApiKeyKeyExtractor(String headerName) {
+		this.headerName = headerName;
+	}
+
+	@Override
+	public String extractKey(Message message) {
+		String apiKey = HttpUtils.getProtocolHeader(message, headerName, null);
+		if (apiKey == null || apiKey.isEmpty()) {
+			return ADDRESS_PREFIX + fallback.extractKey(message);
+		}
+		return API_KEY_PREFIX + apiKey;
+	}
+
+}
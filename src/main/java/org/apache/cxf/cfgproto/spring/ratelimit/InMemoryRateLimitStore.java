@@ -0,0 +1,36 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link RateLimitStore} held in the memory of the current process. Stands
+ * in for a shared store in tests, or where several servers of one process
+ * should share a limit.
+ *
+ * @author pwilson
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+	private final ConcurrentMap<String, Long> values = new ConcurrentHashMap<String, Long>();
+
+	@Override
+	public Long get(String key) {
+		return values.get(key);
+	}
+
+	@Override
+	public boolean putIfAbsent(String key, long value) {
+		return values.putIfAbsent(key, value) == null;
+	}
+
+	@Override
+	public boolean compareAndSet(String key, long expected, long value) {
+		return values.replace(key, expected, value);
+	}
+
+	public void clear() {
+		values.clear();
+	}
+
+}
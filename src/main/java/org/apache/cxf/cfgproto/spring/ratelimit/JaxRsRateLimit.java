@@ -0,0 +1,73 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.JaxRsService;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Limits the rate of requests per client key. Placed on a {@link JaxRsServer
+ * @JaxRsServer} configuration class the limit is shared by the services of
+ * the server; placed alongside {@link JaxRsService @JaxRsService} on a factory
+ * method it applies to that service only, in place of the server's limit.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsRateLimit(permitsPerSecond = 100, keyedBy = RateLimitKey.API_KEY)
+ * public class MyJaxRsServerConfiguration {
+ *     &#064;JaxRsService
+ *     &#064;JaxRsRateLimit(permitsPerSecond = 5, burst = 20)
+ *     public Object exportService() {
+ *         return new ExportService();
+ *     }
+ * }
+ * </pre>
+ * Requests over the limit are refused with <code>429 Too Many Requests</code>
+ * and a <code>Retry-After</code> header, before their body is read.
+ *
+ * @see RateLimitPolicy
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface JaxRsRateLimit {
+
+	/**
+	 * The steady rate of requests allowed per key.
+	 */
+	double permitsPerSecond();
+
+	/**
+	 * The number of requests a key may make at once after being idle. The
+	 * default is one second's worth of permits.
+	 */
+	int burst() default 0;
+
+	/**
+	 * How requests are assigned to buckets, unless {@link #keyExtractorName()}
+	 * is given.
+	 */
+	RateLimitKey keyedBy() default RateLimitKey.REMOTE_ADDRESS;
+
+	/**
+	 * The header carrying the API key when keyed by {@link RateLimitKey#API_KEY}.
+	 */
+	String apiKeyHeader() default ApiKeyKeyExtractor.DEFAULT_HEADER;
+
+	/**
+	 * The name of a {@link RateLimitKeyExtractor} bean to key requests with.
+	 */
+	String keyExtractorName() default "";
+
+	/**
+	 * The name of a {@link RateLimitStore} bean holding the buckets, for limits
+	 * shared between nodes. Buckets are held in process by default.
+	 */
+	String storeName() default "";
+
+}
@@ -0,0 +1,21 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+/**
+ * The built-in ways of keying rate limit buckets.
+ *
+ * @see JaxRsRateLimit#keyedBy()
+ * @author pwilson
+ */
+public enum RateLimitKey {
+
+	/**
+	 * One bucket per remote address.
+	 */
+	REMOTE_ADDRESS,
+
+	/**
+	 * One bucket per API key, read from {@link JaxRsRateLimit#apiKeyHeader()}.
+	 */
+	API_KEY
+
+}
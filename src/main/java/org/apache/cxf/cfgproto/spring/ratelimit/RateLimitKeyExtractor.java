@@ -0,0 +1,18 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import org.apache.cxf.message.Message;
+
+/**
+ * Derives the key of the bucket an inbound request is charged to.
+ *
+ * @author pwilson
+ */
+public interface RateLimitKeyExtractor {
+
+	/**
+	 * @param message the inbound message, before its body has been read
+	 * @return the bucket key, never <code>null</code>
+	 */
+	String extractKey(Message message);
+
+}
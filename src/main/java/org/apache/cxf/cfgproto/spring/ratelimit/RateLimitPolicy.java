@@ -0,0 +1,109 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicy;
+
+/**
+ * A token-bucket rate limit: a steady rate of permits per second per client
+ * key, plus a burst allowance.
+ * <p>
+ * Buckets are held in process by default. Supplying a {@link RateLimitStore}
+ * instead keeps them in a store shared between nodes.
+ *
+ * @see JaxRsRateLimit
+ * @author pwilson
+ */
+public class RateLimitPolicy implements JaxRsServicePolicy {
+
+	private String name = "default";
+	private double permitsPerSecond;
+	private int burst;
+	private RateLimitKeyExtractor keyExtractor = new RemoteAddressKeyExtractor();
+	private RateLimitStore store;
+
+	public RateLimitPolicy() {}
+
+	public RateLimitPolicy(double permitsPerSecond, int burst) {
+		setPermitsPerSecond(permitsPerSecond);
+		setBurst(burst);
+	}
+
+	/**
+	 * Creates the limiter enforcing this policy; in process unless a store
+	 * has been set.
+	 */
+	public RateLimiter createRateLimiter() {
+		if (store == null) {
+			return new TokenBucketRateLimiter(this);
+		}
+		return new StoreBackedRateLimiter(this, store);
+	}
+
+	/**
+	 * The nanoseconds between permits at the steady rate.
+	 */
+	long getEmissionIntervalNanos() {
+		return Math.max(1L, (long) (SECONDS.toNanos(1) / permitsPerSecond));
+	}
+
+	/**
+	 * How far ahead of the steady rate a client may run, in nanoseconds.
+	 */
+	long getBurstToleranceNanos() {
+		return (getBurst() - 1) * getEmissionIntervalNanos();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Namespaces the keys of this policy within a shared store.
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	public void setPermitsPerSecond(double permitsPerSecond) {
+		if (permitsPerSecond <= 0) {
+			throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+		}
+		this.permitsPerSecond = permitsPerSecond;
+	}
+
+	/**
+	 * The bucket capacity; defaults to one second's worth of permits.
+	 */
+	public int getBurst() {
+		if (burst > 0) {
+			return burst;
+		}
+		return (int) Math.max(1L, (long) Math.ceil(permitsPerSecond));
+	}
+
+	public void setBurst(int burst) {
+		this.burst = burst;
+	}
+
+	public RateLimitKeyExtractor getKeyExtractor() {
+		return keyExtractor;
+	}
+
+	public void setKeyExtractor(RateLimitKeyExtractor keyExtractor) {
+		this.keyExtractor = keyExtractor;
+	}
+
+	public RateLimitStore getStore() {
+		return store;
+	}
+
+	public void setStore(RateLimitStore store) {
+		this.store = store;
+	}
+
+}
@@ -0,0 +1,39 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+/**
+ * SPI for a key-value store shared between nodes, allowing a rate limit to
+ * apply across a cluster rather than per process.
+ * <p>
+ * Each value is the <em>theoretical arrival time</em> of the next request
+ * for the key, in nanoseconds of wall-clock time. A value in the past is
+ * equivalent to a full bucket, so implementations may expire entries
+ * once their value has passed.
+ * <p>
+ * Implementations must make {@link #putIfAbsent(String, long)} and
+ * {@link #compareAndSet(String, long, long)} atomic with respect to all
+ * nodes sharing the store.
+ *
+ * @see StoreBackedRateLimiter
+ * @see InMemoryRateLimitStore
+ * @author pwilson
+ */
+public interface RateLimitStore {
+
+	/**
+	 * @return the current value for the key, or <code>null</code> if absent
+	 */
+	Long get(String key);
+
+	/**
+	 * @return <code>true</code> if the value was stored, <code>false</code>
+	 *         if the key already had a value
+	 */
+	boolean putIfAbsent(String key, long value);
+
+	/**
+	 * @return <code>true</code> if the value was replaced, <code>false</code>
+	 *         if the current value was not the expected one
+	 */
+	boolean compareAndSet(String key, long expected, long value);
+
+}
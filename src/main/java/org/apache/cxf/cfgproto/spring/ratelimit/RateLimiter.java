@@ -0,0 +1,19 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+/**
+ * Admission control over a keyed set of token buckets.
+ *
+ * @author pwilson
+ */
+public interface RateLimiter {
+
+	/**
+	 * Attempts to take a single permit from the bucket identified by the key.
+	 *
+	 * @param key the client key, e.g. an API key or remote address
+	 * @return <code>0</code> if a permit was taken, otherwise the number of
+	 *         nanoseconds until a permit is expected to become available
+	 */
+	long tryAcquire(String key);
+
+}
@@ -0,0 +1,33 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import java.util.Collections;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+
+/**
+ * Enforces the {@link RateLimitPolicy rate limits} of a server and its
+ * services.
+ *
+ * @author pwilson
+ */
+public class RateLimitingFeature extends AbstractFeature {
+
+	private final RateLimitingInterceptor interceptor;
+
+	public RateLimitingFeature(RateLimitPolicy policy) {
+		this(new JaxRsServicePolicies<RateLimitPolicy>(policy, Collections.<Class<?>, RateLimitPolicy>emptyMap()));
+	}
+
+	public RateLimitingFeature(JaxRsServicePolicies<RateLimitPolicy> policies) {
+		this.interceptor = new RateLimitingInterceptor(policies);
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(interceptor);
+	}
+
+}
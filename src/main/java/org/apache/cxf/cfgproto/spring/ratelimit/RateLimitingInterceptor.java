@@ -0,0 +1,67 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.JaxRsMessageUtils;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Charges each inbound request to the bucket of its client key, refusing it
+ * with <code>429</code> when the bucket is empty. Runs ahead of the JAX-RS
+ * in-interceptor so that refused requests never have their body read.
+ *
+ * @author pwilson
+ */
+public class RateLimitingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	static final int TOO_MANY_REQUESTS = 429;
+
+	private final JaxRsServicePolicies<RateLimitPolicy> policies;
+	private final Map<RateLimitPolicy, RateLimiter> rateLimiters = new IdentityHashMap<RateLimitPolicy, RateLimiter>();
+
+	public RateLimitingInterceptor(JaxRsServicePolicies<RateLimitPolicy> policies) {
+		super(Phase.PRE_UNMARSHAL);
+		this.policies = policies;
+		for (RateLimitPolicy policy: policies.getPolicies()) {
+			rateLimiters.put(policy, policy.createRateLimiter());
+		}
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		RateLimitPolicy policy = selectPolicy(message);
+		if (policy == null) {
+			return;
+		}
+		String key = policy.getKeyExtractor().extractKey(message);
+		long wait = rateLimiters.get(policy).tryAcquire(key);
+		if (wait > 0) {
+			JaxRsMessageUtils.abortWith(message, tooManyRequests(wait));
+		}
+	}
+
+	private RateLimitPolicy selectPolicy(Message message) {
+		if (!policies.hasServicePolicies()) {
+			return policies.getDefaultPolicy();
+		}
+		return policies.getPolicy(JaxRsMessageUtils.getTargetServiceClass(message));
+	}
+
+	private Response tooManyRequests(long waitNanos) {
+		long retryAfterSeconds = Math.max(1L, (waitNanos + SECONDS.toNanos(1) - 1) / SECONDS.toNanos(1));
+		return Response.status(TOO_MANY_REQUESTS)
+					   .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+					   .build();
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+/**
+ * Keys requests by the remote address of the caller. Requests received over
+ * a transport without a remote address, such as the local transport, share a
+ * single bucket.
+ *
+ * @author pwilson
+ */
+public class RemoteAddressKeyExtractor implements RateLimitKeyExtractor {
+
+	static final String UNKNOWN_ADDRESS = "unknown";
+
+	@Override
+	public String extractKey(Message message) {
+		Object request = message.get(AbstractHTTPDestination.HTTP_REQUEST);
+		if (request instanceof HttpServletRequest) {
+			String remoteAddress = ((HttpServletRequest) request).getRemoteAddr();
+			if (remoteAddress != null) {
+				return remoteAddress;
+			}
+		}
+		return UNKNOWN_ADDRESS;
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.base.Ticker;
+
+/**
+ * A {@link RateLimiter} keeping its buckets in a {@link RateLimitStore}
+ * shared between nodes, using the same algorithm as
+ * {@link TokenBucketRateLimiter} over wall-clock time.
+ * <p>
+ * Updates are optimistic. If a bucket is contended beyond a few attempts
+ * the request is refused, since a contended bucket is almost certainly one
+ * being drained.
+ *
+ * @author pwilson
+ */
+public class StoreBackedRateLimiter implements RateLimiter {
+
+	private static final int MAX_ATTEMPTS = 8;
+
+	private static final Ticker WALL_CLOCK = new Ticker() {
+		@Override
+		public long read() {
+			return MILLISECONDS.toNanos(System.currentTimeMillis());
+		}
+	};
+
+	private final String keyPrefix;
+	private final long emissionInterval;
+	private final long burstTolerance;
+	private final RateLimitStore store;
+	private final Ticker ticker;
+
+	public StoreBackedRateLimiter(RateLimitPolicy policy, RateLimitStore store) {
+		this(policy, store, WALL_CLOCK);
+	}
+
+	public StoreBackedRateLimiter(RateLimitPolicy policy, RateLimitStore store, Ticker ticker) {
+		this.keyPrefix = policy.getName() + ":";
+		this.emissionInterval = policy.getEmissionIntervalNanos();
+		this.burstTolerance = policy.getBurstToleranceNanos();
+		this.store = store;
+		this.ticker = ticker;
+	}
+
+	@Override
+	public long tryAcquire(String key) {
+		String storeKey = keyPrefix + key;
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			long now = ticker.read();
+			Long arrival = store.get(storeKey);
+			long start = arrival == null || arrival - now <= 0 ? now : arrival;
+			long wait = (start - now) - burstTolerance;
+			if (wait > 0) {
+				return wait;
+			}
+			long next = start + emissionInterval;
+			boolean stored = arrival == null
+						   ? store.putIfAbsent(storeKey, next)
+						   : store.compareAndSet(storeKey, arrival, next);
+			if (stored) {
+				return 0;
+			}
+		}
+		return emissionInterval;
+	}
+
+}
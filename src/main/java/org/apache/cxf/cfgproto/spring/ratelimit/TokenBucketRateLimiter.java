@@ -0,0 +1,132 @@
+package org.apache.cxf.cfgproto.spring.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+
+/**
+ * An in-process {@link RateLimiter} that never blocks.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the theoretical arrival
+ * time of the next request (the generic cell rate algorithm, equivalent to
+ * a token bucket), updated by compare-and-set. Buckets are spread over a
+ * fixed number of stripes so that evicting idle buckets, which is only
+ * necessary once a stripe grows past its limit, never touches more than a
+ * fraction of the keys.
+ *
+ * @author pwilson
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+	private static final int DEFAULT_STRIPES = 16;
+	private static final int DEFAULT_KEYS_PER_STRIPE = 4096;
+
+	private final long emissionInterval;
+	private final long burstTolerance;
+	private final Ticker ticker;
+	private final Stripe[] stripes;
+	private final int stripeMask;
+	private final int keysPerStripe;
+
+	public TokenBucketRateLimiter(RateLimitPolicy policy) {
+		this(policy, Ticker.systemTicker(), DEFAULT_STRIPES, DEFAULT_KEYS_PER_STRIPE);
+	}
+
+	public TokenBucketRateLimiter(RateLimitPolicy policy, Ticker ticker, int stripes, int keysPerStripe) {
+		this.emissionInterval = policy.getEmissionIntervalNanos();
+		this.burstTolerance = policy.getBurstToleranceNanos();
+		this.ticker = ticker;
+		this.keysPerStripe = keysPerStripe;
+		int stripeCount = 1;
+		while (stripeCount < stripes) {
+			stripeCount <<= 1;
+		}
+		this.stripes = new Stripe[stripeCount];
+		this.stripeMask = stripeCount - 1;
+		for (int i = 0; i < stripeCount; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	@Override
+	public long tryAcquire(String key) {
+		Stripe stripe = stripeFor(key);
+		AtomicLong bucket = stripe.bucketFor(key, ticker.read());
+		for (;;) {
+			long now = ticker.read();
+			long arrival = bucket.get();
+			long start = arrival - now > 0 ? arrival : now;
+			long wait = (start - now) - burstTolerance;
+			if (wait > 0) {
+				return wait;
+			}
+			if (bucket.compareAndSet(arrival, start + emissionInterval)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of buckets currently held
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe: stripes) {
+			size += stripe.buckets.size();
+		}
+		return size;
+	}
+
+	private Stripe stripeFor(String key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return stripes[hash & stripeMask];
+	}
+
+	private final class Stripe {
+
+		private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<String, AtomicLong>();
+		private final AtomicBoolean evicting = new AtomicBoolean();
+
+		AtomicLong bucketFor(String key, long now) {
+			AtomicLong bucket = buckets.get(key);
+			if (bucket != null) {
+				return bucket;
+			}
+			if (buckets.size() >= keysPerStripe) {
+				evictFullBuckets(now);
+			}
+			AtomicLong created = new AtomicLong(now);
+			bucket = buckets.putIfAbsent(key, created);
+			return bucket == null ? created : bucket;
+		}
+
+		/*
+		 * A bucket whose arrival time has passed is full, and so is
+		 * indistinguishable from one that does not exist. A caller still
+		 * holding an evicted bucket may be admitted once more than its
+		 * limit allows, which is tolerated to keep the path lock-free.
+		 */
+		private void evictFullBuckets(long now) {
+			if (!evicting.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				Iterator<Map.Entry<String, AtomicLong>> entries = buckets.entrySet().iterator();
+				while (entries.hasNext()) {
+					if (entries.next().getValue().get() - now <= 0) {
+						entries.remove();
+					}
+				}
+			} finally {
+				evicting.set(false);
+			}
+		}
+	}
+
+}
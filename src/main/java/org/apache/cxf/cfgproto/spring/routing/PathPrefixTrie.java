@@ -0,0 +1,124 @@
+package org.apache.cxf.cfgproto.spring.routing;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Values keyed by path prefixes, looked up by the longest prefix of a path
+ * that has a value. Prefixes and paths are compared by whole segments, so
+ * that <code>/orders</code> is a prefix of <code>/orders/1</code> but not
+ * of <code>/ordersArchive</code>; empty segments are ignored, and the empty
+ * prefix, <code>/</code>, is a prefix of every path.
+ * <p>
+ * A lookup costs one hash lookup per segment of the path, however many
+ * prefixes are held, and never locks.
+ *
+ * @author pwilson
+ */
+public final class PathPrefixTrie<T> {
+
+	private final Node<T> root = new Node<T>();
+
+	/**
+	 * Holds a value under a prefix.
+	 *
+	 * @return the value previously held under the prefix, if any
+	 */
+	public synchronized T put(String prefix, T value) {
+		Node<T> node = root;
+		int start = nextSegment(prefix, 0);
+		while (start < prefix.length()) {
+			int end = segmentEnd(prefix, start);
+			String segment = prefix.substring(start, end);
+			Node<T> child = node.children.get(segment);
+			if (child == null) {
+				child = new Node<T>();
+				node.children.put(segment, child);
+			}
+			node = child;
+			start = nextSegment(prefix, end);
+		}
+		T previous = node.value;
+		node.value = value;
+		return previous;
+	}
+
+	/**
+	 * Removes the value held under a prefix.
+	 *
+	 * @return the value removed, or <code>null</code> if none was held
+	 */
+	public synchronized T remove(String prefix) {
+		Node<T> node = find(prefix);
+		if (node == null) {
+			return null;
+		}
+		T previous = node.value;
+		node.value = null;
+		return previous;
+	}
+
+	/**
+	 * @return the value held under exactly the given prefix, or
+	 * <code>null</code> if none is
+	 */
+	public T get(String prefix) {
+		Node<T> node = find(prefix);
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * Finds the value held under the longest prefix of a path.
+	 *
+	 * @return the value, or <code>null</code> if no prefix of the path holds one
+	 */
+	public T match(String path) {
+		Node<T> node = root;
+		T matched = node.value;
+		int start = nextSegment(path, 0);
+		while (start < path.length()) {
+			int end = segmentEnd(path, start);
+			node = node.children.get(path.substring(start, end));
+			if (node == null) {
+				break;
+			}
+			if (node.value != null) {
+				matched = node.value;
+			}
+			start = nextSegment(path, end);
+		}
+		return matched;
+	}
+
+	private Node<T> find(String prefix) {
+		Node<T> node = root;
+		int start = nextSegment(prefix, 0);
+		while (node != null && start < prefix.length()) {
+			int end = segmentEnd(prefix, start);
+			node = node.children.get(prefix.substring(start, end));
+			start = nextSegment(prefix, end);
+		}
+		return node;
+	}
+
+	private static int nextSegment(String path, int from) {
+		int index = from;
+		while (index < path.length() && path.charAt(index) == '/') {
+			index++;
+		}
+		return index;
+	}
+
+	private static int segmentEnd(String path, int start) {
+		int end = path.indexOf('/', start);
+		return end < 0 ? path.length() : end;
+	}
+
+	private static final class Node<T> {
+
+		final ConcurrentMap<String, Node<T>> children = new ConcurrentHashMap<String, Node<T>>(4);
+		volatile T value;
+
+	}
+
+}
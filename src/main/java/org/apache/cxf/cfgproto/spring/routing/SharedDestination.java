@@ -0,0 +1,249 @@
+package org.apache.cxf.cfgproto.spring.routing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerLifeCycleManager;
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.transport.ChainInitiationObserver;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+/**
+ * A transport destination shared by any number of servers, each reached
+ * under its own path prefix. The servers are created on the address of the
+ * destination, but never started on it: instead the destination hands every
+ * request to this router, which finds the server of the longest matching
+ * prefix in a {@link PathPrefixTrie} and rebases the request onto the prefix
+ * before passing it on, so that each server sees the paths of its own
+ * resources only. Requests matching no prefix are answered with
+ * <code>404 Not Found</code>.
+ * <p>
+ * Servers sharing a destination must share a bus, that of the first server
+ * {@link #route routed}. The destination is shut down when the last of them
+ * {@link Route#stop() stops}.
+ *
+ * @author pwilson
+ */
+public final class SharedDestination implements MessageObserver {
+
+	/*
+	 * The request attribute holding the endpoint address of servlet
+	 * requests, which takes precedence over the address of the destination.
+	 */
+	static final String ENDPOINT_ADDRESS_ATTRIBUTE = "org.apache.cxf.transport.endpoint.address";
+
+	private static final Logger LOG = LogUtils.getLogger(SharedDestination.class);
+
+	private static final ConcurrentMap<String, SharedDestination> DESTINATIONS = new ConcurrentHashMap<String, SharedDestination>();
+
+	private final String address;
+	private final Destination destination;
+	private final Bus bus;
+	private final PathPrefixTrie<Route> routes = new PathPrefixTrie<Route>();
+	// guarded by the class
+	private int routeCount;
+
+	private SharedDestination(String address, Destination destination, Bus bus) {
+		this.address = address;
+		this.destination = destination;
+		this.bus = bus;
+	}
+
+	/**
+	 * @return the bus of the servers sharing the destination of the given
+	 * address, or <code>null</code> if none does yet
+	 */
+	public static Bus findBus(String address) {
+		SharedDestination shared = DESTINATIONS.get(address);
+		return shared == null ? null : shared.bus;
+	}
+
+	/**
+	 * Routes the requests of the destination of a server under a prefix to
+	 * the server, in place of starting it.
+	 *
+	 * @param server a server created, but not started, on the address
+	 * @param address the address of the shared destination
+	 * @param prefix the path prefix of the server
+	 * @param bus the bus of the server
+	 * @return the route, stopped to stop the server
+	 */
+	public static synchronized Route route(Server server, String address, String prefix, Bus bus) {
+		SharedDestination shared = DESTINATIONS.get(address);
+		if (shared == null) {
+			shared = new SharedDestination(address, server.getDestination(), bus);
+			server.getDestination().setMessageObserver(shared);
+			DESTINATIONS.put(address, shared);
+		} else if (shared.destination != server.getDestination()) {
+			throw new IllegalStateException("Servers sharing [" + address + "] must share a bus");
+		}
+		Route route = new Route(shared, normalize(prefix), server, new ChainInitiationObserver(server.getEndpoint(), bus));
+		if (shared.routes.get(route.prefix) != null) {
+			throw new IllegalStateException("Prefix [" + route.prefix + "] of [" + address + "] is already routed");
+		}
+		shared.routes.put(route.prefix, route);
+		shared.routeCount++;
+		ServerLifeCycleManager lifeCycleManager = bus.getExtension(ServerLifeCycleManager.class);
+		if (lifeCycleManager != null) {
+			lifeCycleManager.startServer(server);
+		}
+		return route;
+	}
+
+	private static synchronized void unroute(Route route) {
+		SharedDestination shared = route.destination;
+		if (shared.routes.get(route.prefix) != route) {
+			return;
+		}
+		shared.routes.remove(route.prefix);
+		ServerLifeCycleManager lifeCycleManager = shared.bus.getExtension(ServerLifeCycleManager.class);
+		if (lifeCycleManager != null) {
+			lifeCycleManager.stopServer(route.server);
+		}
+		if (--shared.routeCount == 0) {
+			DESTINATIONS.remove(shared.address, shared);
+			shared.destination.setMessageObserver(null);
+			shared.destination.shutdown();
+		}
+	}
+
+	@Override
+	public void onMessage(Message message) {
+		String base = getBaseAddress(message);
+		Route route = routes.match(getPathToMatch(message, base));
+		if (route == null) {
+			notFound(message);
+			return;
+		}
+		String routedBase = base.endsWith("/") ? base.substring(0, base.length() - 1) + route.prefix : base + route.prefix;
+		Object request = message.get(AbstractHTTPDestination.HTTP_REQUEST);
+		if (request instanceof HttpServletRequest) {
+			((HttpServletRequest) request).setAttribute(ENDPOINT_ADDRESS_ATTRIBUTE, routedBase);
+		} else {
+			message.put(Message.BASE_PATH, routedBase);
+		}
+		route.observer.onMessage(message);
+	}
+
+	private String getBaseAddress(Message message) {
+		Object request = message.get(AbstractHTTPDestination.HTTP_REQUEST);
+		if (request instanceof HttpServletRequest) {
+			Object endpointAddress = ((HttpServletRequest) request).getAttribute(ENDPOINT_ADDRESS_ATTRIBUTE);
+			if (endpointAddress != null) {
+				return endpointAddress.toString();
+			}
+		}
+		if (destination instanceof AbstractHTTPDestination) {
+			return ((AbstractHTTPDestination) destination).getEndpointInfo().getAddress();
+		}
+		String basePath = (String) message.get(Message.BASE_PATH);
+		return basePath != null ? basePath : destination.getAddress().getAddress().getValue();
+	}
+
+	private static String getPathToMatch(Message message, String base) {
+		String requestUri = (String) message.get(Message.REQUEST_URI);
+		if (requestUri == null) {
+			return "/";
+		}
+		int query = requestUri.indexOf('?');
+		if (query >= 0) {
+			requestUri = requestUri.substring(0, query);
+		}
+		String basePath = URI.create(base).getRawPath();
+		return HttpUtils.getPathToMatch(requestUri, basePath == null ? "/" : basePath, true);
+	}
+
+	private void notFound(Message message) {
+		// transports may pass requests with an exchange of their own
+		Exchange exchange = message.getExchange();
+		if (exchange == null) {
+			exchange = new ExchangeImpl();
+			message.setExchange(exchange);
+		}
+		exchange.setInMessage(message);
+		exchange.setDestination(destination);
+		Message response = new MessageImpl();
+		response.setExchange(exchange);
+		exchange.setOutMessage(response);
+		response.put(Message.RESPONSE_CODE, 404);
+		response.put(Message.PROTOCOL_HEADERS, new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER));
+		try {
+			Conduit backChannel = destination.getBackChannel(message);
+			backChannel.prepare(response);
+			OutputStream out = response.getContent(OutputStream.class);
+			if (out != null) {
+				out.close();
+			}
+			backChannel.close(response);
+		} catch (IOException e) {
+			LOG.log(Level.FINE, "Unable to answer unrouted request on [" + address + "]", e);
+		}
+	}
+
+	/*
+	 * Prefixes are held as "" or "/segment/...".
+	 */
+	private static String normalize(String prefix) {
+		StringBuilder normalized = new StringBuilder(prefix.length());
+		for (String segment: prefix.split("/")) {
+			if (segment.length() > 0) {
+				normalized.append('/').append(segment);
+			}
+		}
+		return normalized.toString();
+	}
+
+	/**
+	 * A server reached under a prefix of a shared destination.
+	 */
+	public static final class Route {
+
+		private final SharedDestination destination;
+		private final String prefix;
+		private final Server server;
+		private final MessageObserver observer;
+
+		private Route(SharedDestination destination, String prefix, Server server, MessageObserver observer) {
+			this.destination = destination;
+			this.prefix = prefix;
+			this.server = server;
+			this.observer = observer;
+		}
+
+		/**
+		 * The prefix, either empty or starting with a slash.
+		 */
+		public String getPrefix() {
+			return prefix;
+		}
+
+		/**
+		 * Stops routing requests to the server, shutting the destination down
+		 * if no other server shares it.
+		 */
+		public void stop() {
+			unroute(this);
+		}
+
+	}
+
+}
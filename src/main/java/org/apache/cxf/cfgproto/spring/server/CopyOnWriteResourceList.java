@@ -0,0 +1,77 @@
+package org.apache.cxf.cfgproto.spring.server;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The root resources of a server, which may be replaced while the server
+ * handles requests. Readers see an immutable snapshot, and iterating the
+ * list always walks a single snapshot; writers copy it.
+ *
+ * @author pwilson
+ */
+final class CopyOnWriteResourceList extends AbstractList<ClassResourceInfo> {
+
+	private volatile ImmutableList<ClassResourceInfo> snapshot = ImmutableList.of();
+
+	@Override
+	public ClassResourceInfo get(int index) {
+		return snapshot.get(index);
+	}
+
+	@Override
+	public int size() {
+		return snapshot.size();
+	}
+
+	@Override
+	public Iterator<ClassResourceInfo> iterator() {
+		return snapshot.iterator();
+	}
+
+	@Override
+	public synchronized void add(int index, ClassResourceInfo resource) {
+		List<ClassResourceInfo> resources = snapshot;
+		snapshot = ImmutableList.<ClassResourceInfo>builder()
+								.addAll(resources.subList(0, index))
+								.add(resource)
+								.addAll(resources.subList(index, resources.size()))
+								.build();
+	}
+
+	@Override
+	public synchronized ClassResourceInfo set(int index, ClassResourceInfo resource) {
+		List<ClassResourceInfo> resources = snapshot;
+		ClassResourceInfo previous = resources.get(index);
+		snapshot = ImmutableList.<ClassResourceInfo>builder()
+								.addAll(resources.subList(0, index))
+								.add(resource)
+								.addAll(resources.subList(index + 1, resources.size()))
+								.build();
+		return previous;
+	}
+
+	@Override
+	public synchronized ClassResourceInfo remove(int index) {
+		List<ClassResourceInfo> resources = snapshot;
+		ClassResourceInfo previous = resources.get(index);
+		snapshot = ImmutableList.<ClassResourceInfo>builder()
+								.addAll(resources.subList(0, index))
+								.addAll(resources.subList(index + 1, resources.size()))
+								.build();
+		return previous;
+	}
+
+	/**
+	 * Replaces every resource at once.
+	 */
+	synchronized void replaceWith(List<ClassResourceInfo> resources) {
+		snapshot = ImmutableList.copyOf(resources);
+	}
+
+}
@@ -0,0 +1,57 @@
+package org.apache.cxf.cfgproto.spring.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cxf.cfgproto.spring.model.ResourceModelCache;
+import org.apache.cxf.common.util.ClassHelper;
+import org.apache.cxf.jaxrs.JAXRSServiceFactoryBean;
+import org.apache.cxf.jaxrs.model.UserResource;
+
+/**
+ * Builds a JAX-RS service whose root resources are held in a
+ * {@link CopyOnWriteResourceList}, so that they may be replaced once the
+ * server is running.
+ * <p>
+ * Given a {@link ResourceModelCache}, the resources of the service beans are
+ * built from the cached model when it is current, and cached otherwise.
+ *
+ * @author pwilson
+ */
+class CopyOnWriteServiceFactoryBean extends JAXRSServiceFactoryBean {
+
+	private final ResourceModelCache resourceModelCache;
+	private final String serverName;
+
+	CopyOnWriteServiceFactoryBean() {
+		this(null, null);
+	}
+
+	CopyOnWriteServiceFactoryBean(ResourceModelCache resourceModelCache, String serverName) {
+		this.classResourceInfos = new CopyOnWriteResourceList();
+		this.resourceModelCache = resourceModelCache;
+		this.serverName = serverName;
+	}
+
+	@Override
+	public void setResourceClassesFromBeans(List<Object> beans) {
+		if (resourceModelCache == null) {
+			super.setResourceClassesFromBeans(beans);
+			return;
+		}
+		List<Class<?>> serviceClasses = new ArrayList<Class<?>>();
+		for (Object bean: beans) {
+			serviceClasses.add(ClassHelper.getRealClass(bean));
+		}
+		List<UserResource> model = resourceModelCache.load(serverName, serviceClasses);
+		if (model != null) {
+			// the beans are bound to the resources created from the model
+			setUserResourcesWithServiceClass(model, serviceClasses.toArray(new Class<?>[serviceClasses.size()]));
+			super.setResourceClassesFromBeans(beans);
+		} else {
+			super.setResourceClassesFromBeans(beans);
+			resourceModelCache.store(serverName, classResourceInfos);
+		}
+	}
+
+}
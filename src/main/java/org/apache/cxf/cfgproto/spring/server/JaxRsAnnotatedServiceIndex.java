@@ -0,0 +1,154 @@
+package org.apache.cxf.cfgproto.spring.server;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.cxf.cfgproto.spring.JaxRsServices;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Indexes the beans of the context by the marker annotations of
+ * {@link JaxRsServices#annotatedWith()}, once for all servers, in place of a
+ * <code>getBeansWithAnnotation</code> per marker and per server.
+ * <p>
+ * Bean definitions naming their class are indexed as soon as the bean
+ * factory has been post-processed, by loading the class alone. The types of
+ * those created by factory methods or factory beans can only be determined
+ * once the context is able to create beans, so they are resolved on the
+ * first lookup. Only the beans matching a marker are ever created by the
+ * index, and only when a server asks for them.
+ * <p>
+ * Registered by {@link JaxRsServerBeanRegistrar} under {@link #BEAN_NAME}.
+ *
+ * @author pwilson
+ */
+public class JaxRsAnnotatedServiceIndex implements BeanFactoryPostProcessor {
+
+	public static final String BEAN_NAME = JaxRsAnnotatedServiceIndex.class.getName();
+
+	private final Set<Class<? extends Annotation>> markerTypes = new LinkedHashSet<Class<? extends Annotation>>();
+
+	private ConfigurableListableBeanFactory beanFactory;
+	private List<String> candidateNames;
+	private Map<String, Set<Class<? extends Annotation>>> resolvedMarkers;
+	private ListMultimap<Class<? extends Annotation>, String> index;
+
+	@Override
+	public synchronized void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		this.beanFactory = beanFactory;
+		this.candidateNames = new ArrayList<String>();
+		this.resolvedMarkers = new LinkedHashMap<String, Set<Class<? extends Annotation>>>();
+		for (String beanName: beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+			if (beanDefinition.isAbstract() || BEAN_NAME.equals(beanName)) {
+				continue;
+			}
+			candidateNames.add(beanName);
+			Class<?> beanClass = resolveDeclaredClass(beanDefinition);
+			if (beanClass != null) {
+				resolvedMarkers.put(beanName, markersOf(beanClass));
+			}
+		}
+	}
+
+	/**
+	 * Finds the beans annotated with the given marker, in the order of their
+	 * definitions, creating them if need be.
+	 *
+	 * @param markerType a marker registered with the index
+	 */
+	public List<Object> getServices(Class<? extends Annotation> markerType) {
+		List<String> beanNames = getBeanNames(markerType);
+		List<Object> services = new ArrayList<Object>(beanNames.size());
+		for (String beanName: beanNames) {
+			services.add(beanFactory.getBean(beanName));
+		}
+		return services;
+	}
+
+	/**
+	 * Finds the names of the beans annotated with the given marker, in the
+	 * order of their definitions, without creating them.
+	 */
+	public synchronized List<String> getBeanNames(Class<? extends Annotation> markerType) {
+		if (beanFactory == null) {
+			throw new IllegalStateException("Bean factory not yet post-processed");
+		}
+		if (!markerTypes.contains(markerType)) {
+			throw new IllegalArgumentException("Marker " + markerType.getName() + " is not indexed");
+		}
+		if (index == null) {
+			index = buildIndex();
+		}
+		return Collections.unmodifiableList(index.get(markerType));
+	}
+
+	/**
+	 * The marker annotations to index.
+	 */
+	public synchronized void setMarkerTypes(Class<? extends Annotation>[] markerTypes) {
+		this.markerTypes.addAll(Arrays.asList(markerTypes));
+	}
+
+	private ListMultimap<Class<? extends Annotation>, String> buildIndex() {
+		ListMultimap<Class<? extends Annotation>, String> index = ArrayListMultimap.create();
+		for (String beanName: candidateNames) {
+			Set<Class<? extends Annotation>> markers = resolvedMarkers.get(beanName);
+			if (markers == null) {
+				Class<?> beanType = beanFactory.getType(beanName);
+				markers = beanType == null ? new LinkedHashSet<Class<? extends Annotation>>() : markersOf(beanType);
+				resolvedMarkers.put(beanName, markers);
+			}
+			for (Class<? extends Annotation> marker: markers) {
+				index.put(marker, beanName);
+			}
+		}
+		return index;
+	}
+
+	/*
+	 * The class of a definition without a factory method, unless it is a
+	 * factory bean, is the class of its bean.
+	 */
+	private Class<?> resolveDeclaredClass(BeanDefinition beanDefinition) {
+		String className = beanDefinition.getBeanClassName();
+		if (className == null || beanDefinition.getFactoryMethodName() != null || beanDefinition.getFactoryBeanName() != null) {
+			return null;
+		}
+		try {
+			Class<?> beanClass = ClassUtils.forName(className, beanFactory.getBeanClassLoader());
+			return FactoryBean.class.isAssignableFrom(beanClass) ? null : beanClass;
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (LinkageError e) {
+			return null;
+		}
+	}
+
+	private Set<Class<? extends Annotation>> markersOf(Class<?> beanType) {
+		Set<Class<? extends Annotation>> markers = new LinkedHashSet<Class<? extends Annotation>>();
+		for (Class<? extends Annotation> marker: markerTypes) {
+			if (AnnotationUtils.findAnnotation(beanType, marker) != null) {
+				markers.add(marker);
+			}
+		}
+		return markers;
+	}
+
+}
@@ -76,7 +76,64 @@ public @interface JaxRsServer {
 	 * from those available from the classpath dependencies. The default is
 	 * the HTTP transport: 
 	 * 			<code>"http://cxf.apache.org/transports/http"</code>.
+	 * To serve from an embedded HTTP server instead of a servlet container,
+	 * see {@link org.apache.cxf.cfgproto.spring.embedded.JaxRsEmbeddedHttp}.
 	 */
 	String transport() default "http://cxf.apache.org/transports/http";
+
+	/**
+	 * The address of a destination shared with other servers, which then
+	 * serve the requests under their {@link #address()}, taken as a path
+	 * prefix of the shared destination. Requests are dispatched to the
+	 * server of the longest matching prefix at a cost independent of the
+	 * number of servers. The default, an empty string, gives the server a
+	 * destination of its own.
+	 */
+	String sharedDestination() default "";
+
+	/**
+	 * Whether clients in the same JVM may reach the server without the
+	 * network: over the local transport, when it is on the classpath, rather
+	 * than loopback TCP, or by calling its services directly when they are
+	 * configured for co-located calls. The default is <code>true</code>.
+	 */
+	boolean localBinding() default true;
+
+	/**
+	 * The directory in which the resource model of the server is cached
+	 * between starts, keyed by a hash of the resource classes, so that their
+	 * annotations are only evaluated again once they change. The default,
+	 * an empty string, disables the cache.
+	 */
+	String resourceModelCache() default "";
+
+	/**
+	 * The largest request body accepted, in bytes. Larger requests are
+	 * refused with <code>413 Request Entity Too Large</code>, before they are
+	 * read when their length is declared. The default, <code>-1</code>, 
+	 * accepts requests of any size.
+	 */
+	long maxRequestSize() default -1;
+
+	/**
+	 * When set, request bodies are read in full before dispatch, holding up
+	 * to this many bytes in memory and spilling the rest to a temporary
+	 * file. The default, <code>-1</code>, streams request bodies to the
+	 * services as they arrive.
+	 */
+	long requestBufferThreshold() default -1;
+
+	/**
+	 * The directory to which request bodies and attachments are spilled.
+	 * The default, an empty string, is the directory of temporary files.
+	 */
+	String requestSpillDirectory() default "";
+
+	/**
+	 * The cipher transformation with which spilled request bodies are
+	 * encrypted, e.g. <code>"AES/CTR/NoPadding"</code>. The default, an 
+	 * empty string, leaves them unencrypted.
+	 */
+	String requestSpillCipherTransformation() default "";
 	
 }
@@ -1,5 +1,7 @@
 package org.apache.cxf.cfgproto.spring.server;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -8,15 +10,45 @@ import javax.ws.rs.Path;
 import org.apache.cxf.cfgproto.spring.JaxRsComponentRegistrar;
 import org.apache.cxf.cfgproto.spring.JaxRsService;
 import org.apache.cxf.cfgproto.spring.JaxRsServices;
+import org.apache.cxf.cfgproto.spring.accesslog.AccessLogPolicy;
+import org.apache.cxf.cfgproto.spring.accesslog.JaxRsAccessLog;
+import org.apache.cxf.cfgproto.spring.accounting.JaxRsResourceAccounting;
+import org.apache.cxf.cfgproto.spring.accounting.ResourceAccountingPolicy;
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimitPolicy;
+import org.apache.cxf.cfgproto.spring.adaptive.JaxRsAdaptiveConcurrencyLimit;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.buffers.JaxRsPooledBuffers;
+import org.apache.cxf.cfgproto.spring.bulkhead.BulkheadPolicy;
+import org.apache.cxf.cfgproto.spring.bulkhead.JaxRsBulkhead;
+import org.apache.cxf.cfgproto.spring.embedded.EmbeddedHttpPolicy;
+import org.apache.cxf.cfgproto.spring.embedded.JaxRsEmbeddedHttp;
+import org.apache.cxf.cfgproto.spring.errors.FastErrorPolicy;
+import org.apache.cxf.cfgproto.spring.errors.JaxRsFastErrors;
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsPolicy;
+import org.apache.cxf.cfgproto.spring.priority.JaxRsPriority;
+import org.apache.cxf.cfgproto.spring.priority.JaxRsPriorityScheduling;
+import org.apache.cxf.cfgproto.spring.priority.PriorityPolicy;
+import org.apache.cxf.cfgproto.spring.priority.PrioritySchedulingPolicy;
+import org.apache.cxf.cfgproto.spring.ratelimit.ApiKeyKeyExtractor;
+import org.apache.cxf.cfgproto.spring.ratelimit.JaxRsRateLimit;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitKey;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitPolicy;
+import org.apache.cxf.cfgproto.spring.slowrequests.JaxRsSlowRequests;
+import org.apache.cxf.cfgproto.spring.slowrequests.SlowRequestPolicy;
+import org.apache.cxf.cfgproto.spring.warmup.JaxRsWarmUp;
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpPolicy;
 import org.apache.cxf.endpoint.Server;
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.StringUtils;
 
 /**
  * A {@link ImportBeanDefinitionRegistrar registrar} that registers a 
@@ -38,6 +70,9 @@ import org.springframework.core.type.MethodMetadata;
  *       service classes and registered with a server. This is a generalised form
  *       of the functionality to automatically add all {@link Path} annotated 
  *       beans to the current server.
+ *   <li>Policies such as {@link JaxRsRateLimit} and {@link JaxRsBulkhead} may be declared on the 
+ *       configuration class for the whole server, or on a {@link JaxRsService}
+ *       factory method for that service alone.
  * <ul> 
  * <p>
  * All annotations described above can be included as <em>meta-annotations
@@ -57,20 +92,33 @@ class JaxRsServerBeanRegistrar extends JaxRsComponentRegistrar implements Import
 	private static final String SERVER_ANNOTATION_CLASS_NAME = JaxRsServer.class.getName();
 	private static final String JAXRS_SERVICE_ANNOTATION_NAME = JaxRsService.class.getName();
 	private static final String JAXRS_SERVICES_ANNOTATION_NAME = JaxRsServices.class.getName();
+	private static final String RATE_LIMIT_ANNOTATION_NAME = JaxRsRateLimit.class.getName();
+	private static final String BULKHEAD_ANNOTATION_NAME = JaxRsBulkhead.class.getName();
+	private static final String ADAPTIVE_LIMIT_ANNOTATION_NAME = JaxRsAdaptiveConcurrencyLimit.class.getName();
+	private static final String PRIORITY_ANNOTATION_NAME = JaxRsPriority.class.getName();
+	private static final String PRIORITY_SCHEDULING_ANNOTATION_NAME = JaxRsPriorityScheduling.class.getName();
+	private static final String WARM_UP_ANNOTATION_NAME = JaxRsWarmUp.class.getName();
+	private static final String POOLED_BUFFERS_ANNOTATION_NAME = JaxRsPooledBuffers.class.getName();
+	private static final String RESOURCE_ACCOUNTING_ANNOTATION_NAME = JaxRsResourceAccounting.class.getName();
+	private static final String FAST_ERRORS_ANNOTATION_NAME = JaxRsFastErrors.class.getName();
+	private static final String SLOW_REQUESTS_ANNOTATION_NAME = JaxRsSlowRequests.class.getName();
+	private static final String ACCESS_LOG_ANNOTATION_NAME = JaxRsAccessLog.class.getName();
+	private static final String EMBEDDED_HTTP_ANNOTATION_NAME = JaxRsEmbeddedHttp.class.getName();
 
 	@Override
 	public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
 		RootBeanDefinition beanDefinition = createBeanDefinitionBuilder();
 		Map<String, Object> jaxRsServerAttributes = getJaxRsServerAttributes(importingClassMetadata);
 		configureBeanProperties(beanDefinition, jaxRsServerAttributes);
-		addCollaborators(importingClassMetadata, beanDefinition);
+		addCollaborators(importingClassMetadata, beanDefinition, registry);
 		String serverName = getServerName(importingClassMetadata);
+		addServerPolicies(beanDefinition, importingClassMetadata, serverName);
 		registerBeanDefinition(registry, serverName, beanDefinition);
 	}
 
 	private void addCollaborators(AnnotationMetadata importingClassMetadata,
-			RootBeanDefinition beanDefinition) {
-		addServiceBeans(beanDefinition, importingClassMetadata);
+			RootBeanDefinition beanDefinition, BeanDefinitionRegistry registry) {
+		addServiceBeans(beanDefinition, importingClassMetadata, registry);
 		addProviders(beanDefinition, importingClassMetadata);
 		addFeatures(beanDefinition, importingClassMetadata);
 	}
@@ -93,38 +141,94 @@ class JaxRsServerBeanRegistrar extends JaxRsComponentRegistrar implements Import
 		beanDefinition.setSource(this);
 		beanDefinition.getPropertyValues().add("address", attributes.get("address"));
 		beanDefinition.getPropertyValues().add("transport", attributes.get("transport"));
+		beanDefinition.getPropertyValues().add("localBinding", attributes.get("localBinding"));
+		String sharedDestination = (String) attributes.get("sharedDestination");
+		if (StringUtils.hasText(sharedDestination)) {
+			beanDefinition.getPropertyValues().add("sharedDestinationAddress", sharedDestination);
+		}
+		String resourceModelCache = (String) attributes.get("resourceModelCache");
+		if (StringUtils.hasText(resourceModelCache)) {
+			beanDefinition.getPropertyValues().add("resourceModelCacheDirectory", resourceModelCache);
+		}
+		addRequestLimits(beanDefinition, attributes);
+	}
+
+	private void addRequestLimits(RootBeanDefinition beanDefinition, Map<String, Object> attributes) {
+		long maxRequestSize = (Long) attributes.get("maxRequestSize");
+		long bufferThreshold = (Long) attributes.get("requestBufferThreshold");
+		String spillDirectory = (String) attributes.get("requestSpillDirectory");
+		String cipherTransformation = (String) attributes.get("requestSpillCipherTransformation");
+		if (StringUtils.hasText(cipherTransformation) && bufferThreshold < 0) {
+			throw new IllegalArgumentException("A requestSpillCipherTransformation [" + cipherTransformation
+					+ "] requires a requestBufferThreshold");
+		}
+		if (maxRequestSize < 0 && bufferThreshold < 0 && !StringUtils.hasText(spillDirectory)
+				&& !StringUtils.hasText(cipherTransformation)) {
+			return;
+		}
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(RequestLimitsPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		propertyValues.add("maxRequestSize", maxRequestSize);
+		propertyValues.add("bufferThreshold", bufferThreshold);
+		if (StringUtils.hasText(spillDirectory)) {
+			propertyValues.add("spillDirectory", spillDirectory);
+		}
+		if (StringUtils.hasText(cipherTransformation)) {
+			propertyValues.add("spillCipherTransformation", cipherTransformation);
+		}
+		beanDefinition.getPropertyValues().add("requestLimits", policyDefinition);
 	}
 
-	private void addServiceBeans(BeanDefinition beanDefinition, AnnotationMetadata importingClassMetadata) {
-		addServicesFromClass(beanDefinition, importingClassMetadata);
+	private void addServiceBeans(BeanDefinition beanDefinition, AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+		addServicesFromClass(beanDefinition, importingClassMetadata, registry);
 		addServicesFromMethods(beanDefinition, importingClassMetadata);
 	}
 
-	private void addServicesFromClass(BeanDefinition beanDefinition, AnnotationMetadata importingClassMetadata) {
+	private void addServicesFromClass(BeanDefinition beanDefinition, AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
 		Map<String, Object> classLevelServiceAnnotationAttributes = importingClassMetadata.getAnnotationAttributes(JAXRS_SERVICES_ANNOTATION_NAME);
 		if (classLevelServiceAnnotationAttributes == null) {
 			return;
 		}
 		addTypeLevelServiceReferences(beanDefinition, classLevelServiceAnnotationAttributes);
-		addTypeLevelServiceAnnotationMarkers(beanDefinition, classLevelServiceAnnotationAttributes);
+		addTypeLevelServiceAnnotationMarkers(beanDefinition, classLevelServiceAnnotationAttributes, registry);
 	}
 
-	private void addTypeLevelServiceAnnotationMarkers(BeanDefinition beanDefinition, Map<String, Object> classLevelServiceAnnotationAttributes) {
+	private void addTypeLevelServiceAnnotationMarkers(BeanDefinition beanDefinition, Map<String, Object> classLevelServiceAnnotationAttributes,
+			BeanDefinitionRegistry registry) {
 		Object annotationAttributes = classLevelServiceAnnotationAttributes.get("annotatedWith");
 		if (annotationAttributes == null) {
 			return;
 		}
-		if (annotationAttributes.getClass().isArray()) {
-			for (Class<?> annotationRef: (Class<?>[]) annotationAttributes) {
-				addServiceAnnotationReferenceToBeanDefinition(beanDefinition, (Class<?>) annotationRef);
-			}
-		} else {
-			addServiceAnnotationReferenceToBeanDefinition(beanDefinition, (Class<?>) annotationAttributes);
+		Class<?>[] annotationTypes = annotationAttributes.getClass().isArray() 
+								   ? (Class<?>[]) annotationAttributes 
+								   : new Class<?>[]{(Class<?>) annotationAttributes};
+		if (annotationTypes.length == 0) {
+			return;
 		}
+		BeanDefinition indexDefinition = getAnnotatedServiceIndexDefinition(registry);
+		for (Class<?> annotationType: annotationTypes) {
+			addServiceAnnotationReferenceToBeanDefinition(beanDefinition, annotationType);
+			addToListProperty(indexDefinition, "markerTypes", annotationType);
+		}
+		beanDefinition.getPropertyValues().add("annotatedServiceIndex", new RuntimeBeanReference(JaxRsAnnotatedServiceIndex.BEAN_NAME));
 	}
 
 	private void addServiceAnnotationReferenceToBeanDefinition(BeanDefinition beanDefinition, Class<?> annotationType) {
-		beanDefinition.getPropertyValues().add("serviceAnnotationMarkerTypes", annotationType);
+		addToListProperty(beanDefinition, "serviceAnnotationMarkerTypes", annotationType);
+	}
+
+	/*
+	 * A single index serves the marker annotations of every server.
+	 */
+	private BeanDefinition getAnnotatedServiceIndexDefinition(BeanDefinitionRegistry registry) {
+		if (registry.containsBeanDefinition(JaxRsAnnotatedServiceIndex.BEAN_NAME)) {
+			return registry.getBeanDefinition(JaxRsAnnotatedServiceIndex.BEAN_NAME);
+		}
+		RootBeanDefinition indexDefinition = new RootBeanDefinition(JaxRsAnnotatedServiceIndex.class);
+		indexDefinition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+		indexDefinition.setSource(this);
+		registry.registerBeanDefinition(JaxRsAnnotatedServiceIndex.BEAN_NAME, indexDefinition);
+		return indexDefinition;
 	}
 
 	private void addTypeLevelServiceReferences(BeanDefinition beanDefinition,
@@ -143,7 +247,7 @@ class JaxRsServerBeanRegistrar extends JaxRsComponentRegistrar implements Import
 	}
 
 	private void addServiceToBeanDefinition(BeanDefinition beanDefinition, String name) {
-		beanDefinition.getPropertyValues().add("serviceBeans", new RuntimeBeanReference(name));
+		addToListProperty(beanDefinition, "serviceBeans", new RuntimeBeanReference(name));
 	}
 
 	private void addServicesFromMethods(BeanDefinition beanDefinition,
@@ -152,7 +256,192 @@ class JaxRsServerBeanRegistrar extends JaxRsComponentRegistrar implements Import
 		for (MethodMetadata methodMetadata : serviceFactoryMethods) {
 			String[] beanNames = getBeanNames(methodMetadata, JAXRS_SERVICE_ANNOTATION_NAME);
 			addServiceToBeanDefinition(beanDefinition, beanNames[0]);
+			addServicePolicies(beanDefinition, methodMetadata, beanNames[0]);
+		}
+	}
+
+	/*
+	 * Policy annotations on the configuration class apply to the whole server.
+	 */
+	private void addServerPolicies(BeanDefinition beanDefinition, AnnotationMetadata importingClassMetadata, String serverName) {
+		for (BeanDefinition policyDefinition: createPolicyDefinitions(importingClassMetadata, serverName)) {
+			addToListProperty(beanDefinition, "policies", policyDefinition);
+		}
+		Map<String, Object> adaptiveLimitAttributes = importingClassMetadata.getAnnotationAttributes(ADAPTIVE_LIMIT_ANNOTATION_NAME);
+		if (adaptiveLimitAttributes != null) {
+			beanDefinition.getPropertyValues().add("adaptiveConcurrencyLimit", createAdaptiveLimitPolicyDefinition(adaptiveLimitAttributes));
+		}
+		Map<String, Object> schedulingAttributes = importingClassMetadata.getAnnotationAttributes(PRIORITY_SCHEDULING_ANNOTATION_NAME);
+		if (schedulingAttributes != null) {
+			beanDefinition.getPropertyValues().add("priorityScheduling", createPrioritySchedulingPolicyDefinition(schedulingAttributes));
+		}
+		Map<String, Object> warmUpAttributes = importingClassMetadata.getAnnotationAttributes(WARM_UP_ANNOTATION_NAME);
+		if (warmUpAttributes != null) {
+			beanDefinition.getPropertyValues().add("warmUp", createWarmUpPolicyDefinition(warmUpAttributes));
+		}
+		Map<String, Object> pooledBuffersAttributes = importingClassMetadata.getAnnotationAttributes(POOLED_BUFFERS_ANNOTATION_NAME);
+		if (pooledBuffersAttributes != null) {
+			beanDefinition.getPropertyValues().add("pooledBuffers", createBufferPoolPolicyDefinition(pooledBuffersAttributes));
+		}
+		Map<String, Object> accountingAttributes = importingClassMetadata.getAnnotationAttributes(RESOURCE_ACCOUNTING_ANNOTATION_NAME);
+		if (accountingAttributes != null) {
+			beanDefinition.getPropertyValues().add("resourceAccounting", createResourceAccountingPolicyDefinition(accountingAttributes));
+		}
+		Map<String, Object> fastErrorsAttributes = importingClassMetadata.getAnnotationAttributes(FAST_ERRORS_ANNOTATION_NAME);
+		if (fastErrorsAttributes != null) {
+			beanDefinition.getPropertyValues().add("fastErrors", createFastErrorPolicyDefinition(fastErrorsAttributes));
+		}
+		Map<String, Object> slowRequestsAttributes = importingClassMetadata.getAnnotationAttributes(SLOW_REQUESTS_ANNOTATION_NAME);
+		if (slowRequestsAttributes != null) {
+			beanDefinition.getPropertyValues().add("slowRequests", createSlowRequestPolicyDefinition(slowRequestsAttributes));
+		}
+		Map<String, Object> accessLogAttributes = importingClassMetadata.getAnnotationAttributes(ACCESS_LOG_ANNOTATION_NAME);
+		if (accessLogAttributes != null) {
+			beanDefinition.getPropertyValues().add("accessLog", createAccessLogPolicyDefinition(accessLogAttributes));
+		}
+		Map<String, Object> embeddedHttpAttributes = importingClassMetadata.getAnnotationAttributes(EMBEDDED_HTTP_ANNOTATION_NAME);
+		if (embeddedHttpAttributes != null) {
+			beanDefinition.getPropertyValues().add("embeddedHttp", createEmbeddedHttpPolicyDefinition(embeddedHttpAttributes));
+		}
+	}
+
+	/*
+	 * Policy annotations alongside @JaxRsService apply to that service only.
+	 */
+	private void addServicePolicies(BeanDefinition beanDefinition, MethodMetadata methodMetadata, String serviceName) {
+		for (BeanDefinition policyDefinition: createPolicyDefinitions(methodMetadata, serviceName)) {
+			addToMapOfListsProperty(beanDefinition, "servicePolicies", serviceName, policyDefinition);
+		}
+	}
+
+	private List<BeanDefinition> createPolicyDefinitions(AnnotatedTypeMetadata metadata, String name) {
+		List<BeanDefinition> policyDefinitions = new ArrayList<BeanDefinition>();
+		Map<String, Object> rateLimitAttributes = metadata.getAnnotationAttributes(RATE_LIMIT_ANNOTATION_NAME);
+		if (rateLimitAttributes != null) {
+			policyDefinitions.add(createRateLimitPolicyDefinition(rateLimitAttributes, name));
+		}
+		Map<String, Object> bulkheadAttributes = metadata.getAnnotationAttributes(BULKHEAD_ANNOTATION_NAME);
+		if (bulkheadAttributes != null) {
+			policyDefinitions.add(createBulkheadPolicyDefinition(bulkheadAttributes));
 		}
+		Map<String, Object> priorityAttributes = metadata.getAnnotationAttributes(PRIORITY_ANNOTATION_NAME);
+		if (priorityAttributes != null) {
+			RootBeanDefinition policyDefinition = new RootBeanDefinition(PriorityPolicy.class);
+			policyDefinition.getPropertyValues().add("priorityClass", priorityAttributes.get("value"));
+			policyDefinitions.add(policyDefinition);
+		}
+		return policyDefinitions;
+	}
+
+	private BeanDefinition createRateLimitPolicyDefinition(Map<String, Object> attributes, String name) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(RateLimitPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		propertyValues.add("name", name);
+		propertyValues.add("permitsPerSecond", attributes.get("permitsPerSecond"));
+		propertyValues.add("burst", attributes.get("burst"));
+		String keyExtractorName = (String) attributes.get("keyExtractorName");
+		if (!keyExtractorName.isEmpty()) {
+			propertyValues.add("keyExtractor", new RuntimeBeanReference(keyExtractorName));
+		} else if (attributes.get("keyedBy") == RateLimitKey.API_KEY) {
+			propertyValues.add("keyExtractor", new ApiKeyKeyExtractor((String) attributes.get("apiKeyHeader")));
+		}
+		String storeName = (String) attributes.get("storeName");
+		if (!storeName.isEmpty()) {
+			propertyValues.add("store", new RuntimeBeanReference(storeName));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createAdaptiveLimitPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(AdaptiveConcurrencyLimitPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"initialLimit", "minLimit", "maxLimit", "windowMillis", "minWindowSamples", "smoothing"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createWarmUpPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(WarmUpPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"iterations", "maxDurationMillis", "unsafeMethods"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createBufferPoolPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(BufferPoolPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"bufferSize", "minPooledSize", "maxPooledSize", "maxPooledPerSizeClass", "leakDetection"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createResourceAccountingPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(ResourceAccountingPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"cpuTime", "allocatedBytes", "topEndpoints", "maxEndpoints"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createFastErrorPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(FastErrorPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"statuses", "mediaType", "rejectUnmatched"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createSlowRequestPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(SlowRequestPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"thresholdMillis", "capacity"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createAccessLogPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(AccessLogPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"file", "headers", "capacity", "maxFileSize", "maxFiles"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createEmbeddedHttpPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(EmbeddedHttpPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"host", "port", "acceptors", "selectors", "minWorkerThreads", "maxWorkerThreads", 
+											"idleTimeoutMillis", "maxHeaderSize"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createPrioritySchedulingPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(PrioritySchedulingPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		for (String attribute: new String[]{"threads", "queueCapacity", "mode", "criticalWeight", "defaultWeight", "batchWeight"}) {
+			propertyValues.add(attribute, attributes.get(attribute));
+		}
+		return policyDefinition;
+	}
+
+	private BeanDefinition createBulkheadPolicyDefinition(Map<String, Object> attributes) {
+		RootBeanDefinition policyDefinition = new RootBeanDefinition(BulkheadPolicy.class);
+		MutablePropertyValues propertyValues = policyDefinition.getPropertyValues();
+		propertyValues.add("maxConcurrentCalls", attributes.get("maxConcurrentCalls"));
+		propertyValues.add("maxWaitingCalls", attributes.get("maxWaitingCalls"));
+		propertyValues.add("maxWaitMillis", attributes.get("maxWaitMillis"));
+		propertyValues.add("retryAfterSeconds", attributes.get("retryAfterSeconds"));
+		return policyDefinition;
 	}
 	
 	private String getServerName(AnnotationMetadata importingClassMetadata) {
@@ -12,6 +12,7 @@ import org.apache.cxf.cfgproto.spring.FeatureRegistry;
 import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
 import org.apache.cxf.cfgproto.spring.JaxRsServiceRegistry;
 import org.apache.cxf.cfgproto.spring.ProviderRegistry;
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsPolicy;
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
 
 import com.google.common.base.Function;
@@ -27,6 +28,10 @@ import com.google.common.base.Function;
  * the JaxRs server <code>address</code>, then it will assert that only a single 
  * such registration has been made (i.e. conflict detection) or return 
  * <code>null</code>.
+ * <p>
+ * Optional policies, such as the {@link #getRequestLimits() request limits},
+ * are taken from those configurers implementing
+ * {@link JaxRsServerPolicyConfigurer} only.
  * 
  * @author pwilson
  */
@@ -64,6 +69,16 @@ public class JaxRsServerConfigurationComposite {
 		   		 	.toSet(), 
 		   		 	"bus");
 	}
+
+	public RequestLimitsPolicy getRequestLimits() {
+		return selectFirstAndOnlyItem(
+					from(configurers)
+					.filter(JaxRsServerPolicyConfigurer.class)
+					.transform(getRequestLimitsPolicies())
+		   		 	.filter(notNull())
+		   		 	.toSet(), 
+		   		 	"request limits");
+	}
 	
 	public void addProviders(ProviderRegistry providerRegistry) {
 		for (JaxRsServerConfigurer configurer: configurers) {
@@ -94,6 +109,18 @@ public class JaxRsServerConfigurationComposite {
 			configurer.addInInterceptors(inInterceptorRegistry);
 		}
 	}
+
+	public void addFaultInInterceptors(InterceptorRegistry faultInInterceptorRegistry) {
+		for (JaxRsServerConfigurer configurer: configurers) {
+			configurer.addFaultInInterceptors(faultInInterceptorRegistry);
+		}
+	}
+
+	public void addFaultOutInterceptors(InterceptorRegistry faultOutInterceptorRegistry) {
+		for (JaxRsServerConfigurer configurer: configurers) {
+			configurer.addFaultOutInterceptors(faultOutInterceptorRegistry);
+		}
+	}
 	
 	public void configureFactoryBean(JAXRSServerFactoryBean factoryBean) {
 		for (JaxRsServerConfigurer configurer: configurers) {
@@ -128,4 +155,13 @@ public class JaxRsServerConfigurationComposite {
 		};
 	}
 	
+	private Function<JaxRsServerPolicyConfigurer, RequestLimitsPolicy> getRequestLimitsPolicies() {
+		return new Function<JaxRsServerPolicyConfigurer, RequestLimitsPolicy>() {
+			@Override
+			public RequestLimitsPolicy apply(JaxRsServerPolicyConfigurer configurer) {
+				return configurer.serverRequestLimits();
+			}
+		};
+	}
+	
 }
\ No newline at end of file
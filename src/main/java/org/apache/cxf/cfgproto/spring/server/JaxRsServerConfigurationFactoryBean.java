@@ -1,26 +1,83 @@
 package org.apache.cxf.cfgproto.spring.server;
 
+import static org.apache.cxf.cfgproto.spring.JaxRsComponentConfigurationUtils.selectFirstAndOnlyItem;
+
+import java.io.File;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.bus.spring.SpringBusFactory;
 import org.apache.cxf.cfgproto.spring.FeatureRegistry;
 import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicy;
 import org.apache.cxf.cfgproto.spring.JaxRsServiceRegistry;
+import org.apache.cxf.cfgproto.spring.ProviderFeature;
 import org.apache.cxf.cfgproto.spring.ProviderRegistry;
+import org.apache.cxf.cfgproto.spring.accesslog.AccessLogFeature;
+import org.apache.cxf.cfgproto.spring.accesslog.AccessLogPolicy;
+import org.apache.cxf.cfgproto.spring.accounting.ResourceAccountingFeature;
+import org.apache.cxf.cfgproto.spring.accounting.ResourceAccountingPolicy;
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimitFeature;
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimitPolicy;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.buffers.PooledBuffersFeature;
+import org.apache.cxf.cfgproto.spring.bulkhead.BulkheadFeature;
+import org.apache.cxf.cfgproto.spring.bulkhead.BulkheadPolicy;
+import org.apache.cxf.cfgproto.spring.embedded.EmbeddedHttpPolicy;
+import org.apache.cxf.cfgproto.spring.embedded.EmbeddedHttpTransport;
+import org.apache.cxf.cfgproto.spring.errors.FastErrorFeature;
+import org.apache.cxf.cfgproto.spring.errors.FastErrorMapper;
+import org.apache.cxf.cfgproto.spring.errors.FastErrorPolicy;
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsFeature;
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsPolicy;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpoint;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.cfgproto.spring.model.ResourceModelCache;
+import org.apache.cxf.cfgproto.spring.priority.PriorityPolicy;
+import org.apache.cxf.cfgproto.spring.priority.PrioritySchedulingFeature;
+import org.apache.cxf.cfgproto.spring.priority.PrioritySchedulingPolicy;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitPolicy;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitingFeature;
+import org.apache.cxf.cfgproto.spring.routing.SharedDestination;
+import org.apache.cxf.cfgproto.spring.slowrequests.SlowRequestFeature;
+import org.apache.cxf.cfgproto.spring.slowrequests.SlowRequestPolicy;
+import org.apache.cxf.cfgproto.spring.tracing.Tracer;
+import org.apache.cxf.cfgproto.spring.tracing.TracingFeature;
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpPolicy;
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpRequest;
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpRunner;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.ClassHelper;
+import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.endpoint.Server;
 import org.apache.cxf.feature.Feature;
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.JAXRSServiceFactoryBean;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.Sets;
+
 /**
  * Factory bean responsible for creating a {@link Server JAX-RS Server} and
  * making it available with the context.
@@ -35,21 +92,53 @@ import org.springframework.context.ApplicationContextAware;
  * is required, one can remove the {@link JaxRsServer @JaxRsServer} annotation and
  * directly subclass this, overriding methods such as {@link #getAddress()},
  * {@link #getServices()} or even {@link #configureFactoryBean(JAXRSServerFactoryBean)}.
+ * <p>
+ * Once running, services and providers may be {@link #registerServices(Object...) registered}
+ * and {@link #unregisterServices(Object...) unregistered} through the factory bean itself,
+ * looked up as <code>&amp;serverName</code>, without restarting the server.
  * 
  * @author pwilson
  */
-public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>, ApplicationContextAware {
+public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>, ApplicationContextAware, BeanNameAware {
 	
+	private static final Logger LOG = LogUtils.getLogger(JaxRsServerConfigurationFactoryBean.class);
+
 	private Server server;
+	private Server localServer;
+	private SharedDestination.Route sharedRoute;
+	private LocalEndpoint localEndpoint;
+	private Bus bus;
+	private final Object updateLock = new Object();
+	private String serverName;
 	private String address;
 	private String transport;
+	private boolean localBinding = true;
+	private String sharedDestinationAddress;
+	private EmbeddedHttpPolicy embeddedHttp;
+	private String resourceModelCacheDirectory;
+	private AdaptiveConcurrencyLimitPolicy adaptiveConcurrencyLimit;
+	private PrioritySchedulingPolicy priorityScheduling;
+	private WarmUpPolicy warmUp;
+	private RequestLimitsPolicy requestLimits;
+	private BufferPoolPolicy pooledBuffers;
+	private ResourceAccountingPolicy resourceAccounting;
+	private FastErrorPolicy fastErrors;
+	private SlowRequestPolicy slowRequests;
+	private AccessLogPolicy accessLog;
+	private Tracer tracer;
 	
 	private final JaxRsServiceRegistry serviceRegistry = new JaxRsServiceRegistry();
 	private Class<? extends Annotation>[] serviceAnnotationMarkerTypes;
+	private JaxRsAnnotatedServiceIndex annotatedServiceIndex;
+	private final List<JaxRsServicePolicy> policies = new ArrayList<JaxRsServicePolicy>();
+	private final Map<String, List<JaxRsServicePolicy>> servicePolicies = new LinkedHashMap<String, List<JaxRsServicePolicy>>();
 
 	private final InterceptorRegistry outInterceptorRegistry = new InterceptorRegistry();
 	private final InterceptorRegistry inInterceptorRegistry = new InterceptorRegistry();
+	private final InterceptorRegistry faultOutInterceptorRegistry = new InterceptorRegistry();
+	private final InterceptorRegistry faultInInterceptorRegistry = new InterceptorRegistry();
 	private final ProviderRegistry providerRegistry = new ProviderRegistry();
+	private final ProviderRegistry featureProviderRegistry = new ProviderRegistry();
 	private final FeatureRegistry featureRegistry = new FeatureRegistry();
 	
 	private ApplicationContext applicationContext;
@@ -76,12 +165,259 @@ public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>,
 		server = createServerFromConfiguration();
 	}
 
+	@PreDestroy
+	private void destroyServer() {
+		if (localEndpoint != null) {
+			LocalEndpointRegistry.unregister(localEndpoint);
+		}
+		if (localServer != null) {
+			localServer.destroy();
+		}
+		if (sharedRoute != null) {
+			sharedRoute.stop();
+		} else if (server != null) {
+			server.destroy();
+		}
+	}
+
 	private Server createServerFromConfiguration() {
-		JAXRSServerFactoryBean factoryBean = new JAXRSServerFactoryBean();
+		ResourceModelCache resourceModelCache = resourceModelCacheDirectory == null 
+											  ? null 
+											  : new ResourceModelCache(new File(resourceModelCacheDirectory));
+		JAXRSServerFactoryBean factoryBean = new JAXRSServerFactoryBean(
+				new CopyOnWriteServiceFactoryBean(resourceModelCache, getServerName()));
 		addConfiguredInterceptors();
 		globalFactoryBeanConfiguration(factoryBean);
 		factoryBean = configureFactoryBean(factoryBean);
-		return factoryBean.create();
+		if (embeddedHttp != null) {
+			factoryBean.setTransportId(EmbeddedHttpTransport.HTTP_TRANSPORT_ID);
+			factoryBean.setAddress(embeddedHttp.resolveAddress(factoryBean.getAddress()));
+			EmbeddedHttpTransport.configureEngine(factoryBean.getBus(), embeddedHttp);
+		}
+		if (sharedDestinationAddress != null) {
+			factoryBean.setAddress(sharedDestinationAddress);
+		}
+		if (warmUp != null || sharedDestinationAddress != null) {
+			factoryBean.setStart(false);
+		}
+		Server created = factoryBean.create();
+		bus = factoryBean.getBus();
+		createLocalServer(factoryBean, created);
+		if (warmUp != null) {
+			warmUpAndStart(created);
+		} else {
+			if (localServer != null) {
+				localServer.start();
+			}
+			if (sharedDestinationAddress != null) {
+				start(created);
+			}
+		}
+		return created;
+	}
+
+	/*
+	 * Servers sharing a destination are reached under their own address,
+	 * taken as a path prefix, rather than started on it.
+	 */
+	private void start(Server created) {
+		if (sharedDestinationAddress == null) {
+			created.start();
+		} else {
+			sharedRoute = SharedDestination.route(created, sharedDestinationAddress, getAddress(), bus);
+		}
+	}
+
+	/*
+	 * Warms the server up over the local transport before starting it. A
+	 * server on the local transport itself can only be warmed up once
+	 * started.
+	 */
+	private void warmUpAndStart(Server created) {
+		String localAddress = localEndpoint == null ? null : localEndpoint.getAddress();
+		if (localServer != null) {
+			localServer.start();
+		}
+		if (localAddress == null) {
+			LOG.warning("Server [" + getServerName() + "] started cold: warm-up requires local binding and the local transport");
+			start(created);
+			return;
+		}
+		if (localServer == null) {
+			start(created);
+		}
+		try {
+			WarmUpRunner runner = new WarmUpRunner(warmUp);
+			JAXRSServiceImpl service = (JAXRSServiceImpl) created.getEndpoint().getService();
+			List<WarmUpRequest> requests = runner.createRequests(service.getClassResourceInfos(), serviceRegistry.getServices());
+			runner.run(localAddress, localEndpoint.getBus(), requests, getServerProviders());
+		} finally {
+			if (localServer != null) {
+				start(created);
+			}
+		}
+	}
+
+	/**
+	 * Adds services to the running server. Server-wide policies apply to
+	 * them, but no service-specific policies.
+	 *
+	 * @param services the service beans to add
+	 */
+	public void registerServices(Object... services) {
+		synchronized (updateLock) {
+			serviceRegistry.addServices(services);
+			updateServer();
+		}
+	}
+
+	/**
+	 * Removes services from the running server. Requests already dispatched
+	 * to a removed service complete normally.
+	 *
+	 * @param services the service beans to remove
+	 * @throws IllegalStateException if no service would remain
+	 */
+	public void unregisterServices(Object... services) {
+		synchronized (updateLock) {
+			Set<Object> removed = Sets.newIdentityHashSet();
+			removed.addAll(Arrays.asList(services));
+			if (removed.containsAll(serviceRegistry.getServices())) {
+				throw new IllegalStateException("Server [" + getServerName() + "] must keep at least one service");
+			}
+			serviceRegistry.removeServices(services);
+			updateServer();
+		}
+	}
+
+	/**
+	 * Adds providers to the running server.
+	 *
+	 * @param providers the providers to add
+	 */
+	public void registerProviders(Object... providers) {
+		synchronized (updateLock) {
+			providerRegistry.addProvider(providers);
+			updateServer();
+		}
+	}
+
+	/**
+	 * Removes providers from the running server. Providers contributed by
+	 * features are kept.
+	 *
+	 * @param providers the providers to remove
+	 */
+	public void unregisterProviders(Object... providers) {
+		synchronized (updateLock) {
+			providerRegistry.removeProvider(providers);
+			updateServer();
+		}
+	}
+
+	/*
+	 * Builds the resource model and provider factory of the registered
+	 * services aside, as the JAX-RS server factory bean would, then swaps
+	 * them into the running server. Requests in flight keep the model they
+	 * started with; the resources and providers are each swapped
+	 * atomically, resources last so that no new resource is reached without
+	 * its providers.
+	 */
+	private void updateServer() {
+		if (server == null) {
+			throw new IllegalStateException("Server [" + getServerName() + "] is not running");
+		}
+		JAXRSServiceImpl liveService = (JAXRSServiceImpl) server.getEndpoint().getService();
+		if (!(liveService.getClassResourceInfos() instanceof CopyOnWriteResourceList)) {
+			throw new IllegalStateException("Server [" + getServerName() + "] was not created to be updated at runtime");
+		}
+		JAXRSServiceFactoryBean serviceFactory = new JAXRSServiceFactoryBean();
+		serviceFactory.setBus(bus);
+		serviceFactory.setResourceClassesFromBeans(new ArrayList<Object>(serviceRegistry.getServices()));
+		List<ClassResourceInfo> resources = serviceFactory.getClassResourceInfo();
+
+		ServerProviderFactory liveProviderFactory = (ServerProviderFactory) server.getEndpoint().get(ServerProviderFactory.class.getName());
+		ServerProviderFactory providerFactory = ServerProviderFactory.createInstance(bus);
+		for (ClassResourceInfo resource: resources) {
+			resource.initBeanParamInfo(providerFactory);
+		}
+		providerFactory.setApplicationProvider(liveProviderFactory.getApplicationProvider());
+		providerFactory.setRequestPreprocessor(liveProviderFactory.getRequestPreprocessor());
+		providerFactory.setUserProviders(getServerProviders());
+		providerFactory.initProviders(resources);
+		providerFactory.applyDynamicFeatures(resources);
+
+		server.getEndpoint().put(ServerProviderFactory.class.getName(), providerFactory);
+		if (localServer != null) {
+			localServer.getEndpoint().put(ServerProviderFactory.class.getName(), providerFactory);
+		}
+		((CopyOnWriteResourceList) liveService.getClassResourceInfos()).replaceWith(resources);
+
+		if (localEndpoint != null) {
+			LocalEndpoint previous = localEndpoint;
+			registerLocalEndpoint(previous.getAddress(), previous.getBus(), server.getEndpoint());
+			LocalEndpointRegistry.unregister(previous);
+		}
+	}
+
+	/*
+	 * Makes the server reachable by clients in the same JVM: by publishing
+	 * the same service, with the same features and interceptors, over the
+	 * local transport when available, and by registering its services for
+	 * co-located calls.
+	 */
+	private void createLocalServer(JAXRSServerFactoryBean factoryBean, Server created) {
+		if (!localBinding) {
+			return;
+		}
+		String localAddress = null;
+		if (LocalEndpointRegistry.LOCAL_TRANSPORT_ID.equals(factoryBean.getTransportId()) && sharedDestinationAddress == null) {
+			localAddress = factoryBean.getAddress();
+		} else if (LocalEndpointRegistry.isLocalTransportAvailable()) {
+			localAddress = "local://" + getServerName();
+			localServer = createLocalTransportServer(factoryBean, created, localAddress);
+		}
+		registerLocalEndpoint(localAddress, factoryBean.getBus(), created.getEndpoint());
+	}
+
+	/*
+	 * Built by a factory bean of its own, so that the features of the server
+	 * are initialized once, for the server alone. The local server shares
+	 * the service of the server, and so its resources and executor, and
+	 * takes the interceptors and properties its features gave the endpoint
+	 * of the server. It is left for the caller to start.
+	 */
+	private Server createLocalTransportServer(JAXRSServerFactoryBean factoryBean, Server created, String localAddress) {
+		JAXRSServerFactoryBean localFactoryBean = new JAXRSServerFactoryBean(factoryBean.getServiceFactory());
+		localFactoryBean.setBus(factoryBean.getBus());
+		localFactoryBean.setAddress(localAddress);
+		localFactoryBean.setTransportId(LocalEndpointRegistry.LOCAL_TRANSPORT_ID);
+		localFactoryBean.setProviders(factoryBean.getProviders());
+		localFactoryBean.setStart(false);
+		Server local = localFactoryBean.create();
+
+		Endpoint endpoint = created.getEndpoint();
+		Endpoint localTransportEndpoint = local.getEndpoint();
+		localTransportEndpoint.getInInterceptors().addAll(endpoint.getInInterceptors());
+		localTransportEndpoint.getOutInterceptors().addAll(endpoint.getOutInterceptors());
+		localTransportEndpoint.getInFaultInterceptors().addAll(endpoint.getInFaultInterceptors());
+		localTransportEndpoint.getOutFaultInterceptors().addAll(endpoint.getOutFaultInterceptors());
+		for (Map.Entry<String, Object> property: endpoint.entrySet()) {
+			if (!localTransportEndpoint.containsKey(property.getKey())) {
+				localTransportEndpoint.put(property.getKey(), property.getValue());
+			}
+		}
+		return local;
+	}
+
+	private void registerLocalEndpoint(String localAddress, Bus bus, Endpoint endpoint) {
+		List<Object> services = serviceRegistry.getServices();
+		localEndpoint = new LocalEndpoint(localAddress, bus, services, endpoint);
+		List<Class<?>> serviceClasses = new ArrayList<Class<?>>();
+		for (Object service: services) {
+			serviceClasses.add(ClassHelper.getRealClass(service));
+		}
+		LocalEndpointRegistry.register(localEndpoint, serviceClasses);
 	}
 
 	/*
@@ -103,17 +439,49 @@ public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>,
 		factoryBean.setTransportId(getTransport());
 		factoryBean.setBus(getBus());
 		factoryBean.setServiceBeans(getServices());
-		factoryBean.setProviders(getProviders());
-		factoryBean.setFeatures(getFeatures());
+		List<Feature> features = getFeatures();
+		factoryBean.setProviders(getProviders(features));
+		factoryBean.setFeatures(features);
 		factoryBean.setInInterceptors(inInterceptorRegistry.getInterceptors());
 		factoryBean.setOutInterceptors(outInterceptorRegistry.getInterceptors());
+		factoryBean.setInFaultInterceptors(faultInInterceptorRegistry.getInterceptors());
+		factoryBean.setOutFaultInterceptors(faultOutInterceptorRegistry.getInterceptors());
 		return factoryBean;
 	}
 
-	private List<?> getProviders() {
+	private List<Object> getProviders(List<Feature> features) {
 		configurers.addProviders(providerRegistry);
 		addProviders(providerRegistry);
-		return providerRegistry.getProviders();
+		addPolicyProviders(providerRegistry);
+		addFeatureProviders(features);
+		return getServerProviders();
+	}
+
+	/*
+	 * Kept apart from the other providers, so that they cannot be
+	 * unregistered.
+	 */
+	private void addFeatureProviders(List<Feature> features) {
+		for (Feature feature: features) {
+			if (feature instanceof ProviderFeature) {
+				featureProviderRegistry.addProvider(((ProviderFeature) feature).getProviders().toArray());
+			}
+		}
+	}
+
+	private List<Object> getServerProviders() {
+		List<Object> providers = new ArrayList<Object>(providerRegistry.getProviders());
+		providers.addAll(featureProviderRegistry.getProviders());
+		return providers;
+	}
+
+	/*
+	 * Registered with the other providers so that they survive updates.
+	 */
+	private void addPolicyProviders(ProviderRegistry providers) {
+		if (fastErrors != null) {
+			providers.addProvider(new FastErrorMapper(fastErrors));
+		}
 	}
 	
 	protected void addProviders(ProviderRegistry providers) {}
@@ -121,25 +489,92 @@ public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>,
 	private List<Feature> getFeatures() {
 		configurers.addFeatures(featureRegistry);
 		addFeatures(featureRegistry);
+		addPolicyFeatures(featureRegistry);
 		return featureRegistry.getFeatures();
 	}
 	
 	protected void addFeatures(FeatureRegistry features) {}
+
+	/*
+	 * Installs the features enforcing server and service policies. Relies on
+	 * the services, and so their policies, having been registered already.
+	 */
+	private void addPolicyFeatures(FeatureRegistry features) {
+		if (tracer != null) {
+			features.addFeature(new TracingFeature(tracer, getServerName()));
+		}
+		if (slowRequests != null) {
+			features.addFeature(new SlowRequestFeature(slowRequests, getServerName()));
+		}
+		if (accessLog != null) {
+			features.addFeature(new AccessLogFeature(accessLog, getServerName()));
+		}
+		if (resourceAccounting != null) {
+			features.addFeature(new ResourceAccountingFeature(resourceAccounting, getServerName()));
+		}
+		if (fastErrors != null) {
+			features.addFeature(new FastErrorFeature(fastErrors));
+		}
+		RequestLimitsPolicy requestLimits = getRequestLimits();
+		if (requestLimits != null) {
+			features.addFeature(new RequestLimitsFeature(requestLimits));
+		}
+		JaxRsServicePolicies<RateLimitPolicy> rateLimits = getPolicies(RateLimitPolicy.class);
+		if (!rateLimits.isEmpty()) {
+			features.addFeature(new RateLimitingFeature(rateLimits));
+		}
+		JaxRsServicePolicies<BulkheadPolicy> bulkheads = getPolicies(BulkheadPolicy.class);
+		if (!bulkheads.isEmpty()) {
+			features.addFeature(new BulkheadFeature(bulkheads));
+		}
+		if (adaptiveConcurrencyLimit != null) {
+			features.addFeature(new AdaptiveConcurrencyLimitFeature(adaptiveConcurrencyLimit, getServerName()));
+		}
+		if (priorityScheduling != null) {
+			features.addFeature(new PrioritySchedulingFeature(priorityScheduling, getPolicies(PriorityPolicy.class), getServerName()));
+		}
+		if (pooledBuffers != null) {
+			features.addFeature(new PooledBuffersFeature(pooledBuffers, getServerName()));
+		}
+	}
+
+	/**
+	 * Combines the server-wide policy of the given type with those registered
+	 * against individual services.
+	 * 
+	 * @param policyType the type of policy
+	 * @throws IllegalArgumentException if more than one server-wide policy of the type is configured
+	 */
+	protected <T extends JaxRsServicePolicy> JaxRsServicePolicies<T> getPolicies(Class<T> policyType) {
+		T defaultPolicy = selectFirstAndOnlyItem(
+				FluentIterable.from(policies).filter(policyType).toSet(),
+				policyType.getSimpleName());
+		return new JaxRsServicePolicies<T>(defaultPolicy, serviceRegistry.getPolicies(policyType));
+	}
 	
 	private List<Object> getServices() {
 		configurers.addServices(serviceRegistry);
 		addServices(serviceRegistry);
 		addServicesFromMarkerAnnotations(serviceRegistry);
+		addNamedServicePolicies(serviceRegistry);
 		return serviceRegistry.getServices();
 	}
 
+	private void addNamedServicePolicies(JaxRsServiceRegistry serviceRegistry) {
+		for (Map.Entry<String, List<JaxRsServicePolicy>> entry: servicePolicies.entrySet()) {
+			serviceRegistry.addPolicies(applicationContext.getBean(entry.getKey()), entry.getValue());
+		}
+	}
+
 	private void addServicesFromMarkerAnnotations(JaxRsServiceRegistry serviceRegistry) {
 		if (serviceAnnotationMarkerTypes == null) {
 			return;
 		}
 		for (Class<? extends Annotation> annotationType: serviceAnnotationMarkerTypes) {
-			Map<String, Object> beans = applicationContext.getBeansWithAnnotation(annotationType);
-			for (Object annotatedBean: beans.values()) {
+			Collection<Object> beans = annotatedServiceIndex != null 
+									 ? annotatedServiceIndex.getServices(annotationType)
+									 : applicationContext.getBeansWithAnnotation(annotationType).values();
+			for (Object annotatedBean: beans) {
 				serviceRegistry.addServices(annotatedBean);
 			}
 		}
@@ -150,10 +585,28 @@ public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>,
 	private void addConfiguredInterceptors() {
 		configurers.addInInterceptors(inInterceptorRegistry);
 		configurers.addOutInterceptors(outInterceptorRegistry);
+		configurers.addFaultInInterceptors(faultInInterceptorRegistry);
+		configurers.addFaultOutInterceptors(faultOutInterceptorRegistry);
+		addInInterceptors(inInterceptorRegistry);
+		addOutInterceptors(outInterceptorRegistry);
+		addFaultInInterceptors(faultInInterceptorRegistry);
+		addFaultOutInterceptors(faultOutInterceptorRegistry);
 	}
+
+	protected void addInInterceptors(InterceptorRegistry interceptorRegistry) {}
 	
 	protected void addOutInterceptors(InterceptorRegistry interceptorRegistry) {}
 
+	/**
+	 * Adds interceptors run on faults raised while handling a request.
+	 */
+	protected void addFaultInInterceptors(InterceptorRegistry interceptorRegistry) {}
+
+	/**
+	 * Adds interceptors run while writing fault responses.
+	 */
+	protected void addFaultOutInterceptors(InterceptorRegistry interceptorRegistry) {}
+
 	protected String getTransport() {
 		if (transport != null) {
 			return transport;
@@ -170,12 +623,26 @@ public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>,
 
 	protected Bus getBus() {
 		Bus bus = configurers.getBus();
+		if (bus == null && sharedDestinationAddress != null) {
+			bus = SharedDestination.findBus(sharedDestinationAddress);
+		}
 		if (bus == null) {
 			return new SpringBusFactory(applicationContext).createBus();
 		}
 		return bus;
 	}
 
+	protected RequestLimitsPolicy getRequestLimits() {
+		if (requestLimits != null) {
+			return requestLimits;
+		}
+		return configurers.getRequestLimits();
+	}
+
+	protected String getServerName() {
+		return serverName;
+	}
+
 	public void setAddress(String address) {
 		this.address = address;
 	}
@@ -183,6 +650,38 @@ public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>,
 	public void setTransport(String transport) {
 		this.transport = transport;
 	}
+
+	/**
+	 * Shares the destination of the given address with other servers, the
+	 * requests of the server being those under its own address. Servers
+	 * sharing a destination share the bus of the first of them.
+	 */
+	public void setSharedDestinationAddress(String sharedDestinationAddress) {
+		this.sharedDestinationAddress = sharedDestinationAddress;
+	}
+
+	/**
+	 * Serves the server from an embedded HTTP server, its address being the
+	 * path under which it is served.
+	 */
+	public void setEmbeddedHttp(EmbeddedHttpPolicy embeddedHttp) {
+		this.embeddedHttp = embeddedHttp;
+	}
+
+	/**
+	 * Whether clients in the same JVM may reach the server without the network.
+	 */
+	public void setLocalBinding(boolean localBinding) {
+		this.localBinding = localBinding;
+	}
+	
+	/**
+	 * The directory in which the resource model of the server is cached
+	 * between starts. Without one, the model is reflected on every start.
+	 */
+	public void setResourceModelCacheDirectory(String resourceModelCacheDirectory) {
+		this.resourceModelCacheDirectory = resourceModelCacheDirectory;
+	}
 	
 	public void setServiceBeans(List<Object> serviceBeans) {
 		this.serviceRegistry.addServices(serviceBeans.toArray());
@@ -196,16 +695,118 @@ public class JaxRsServerConfigurationFactoryBean implements FactoryBean<Server>,
 		this.featureRegistry.addFeature(features);
 	}
 	
+	/**
+	 * Policies applying to every service of the server, unless overridden
+	 * for a service.
+	 */
+	public void setPolicies(List<JaxRsServicePolicy> policies) {
+		this.policies.addAll(policies);
+	}
+
+	/**
+	 * Policies applying to individual services, keyed by service bean name.
+	 */
+	public void setServicePolicies(Map<String, List<JaxRsServicePolicy>> servicePolicies) {
+		this.servicePolicies.putAll(servicePolicies);
+	}
+	
+	/**
+	 * Turns on adaptive concurrency limiting for the server.
+	 */
+	public void setAdaptiveConcurrencyLimit(AdaptiveConcurrencyLimitPolicy adaptiveConcurrencyLimit) {
+		this.adaptiveConcurrencyLimit = adaptiveConcurrencyLimit;
+	}
+
+	/**
+	 * Turns on priority scheduling of service invocations for the server.
+	 */
+	public void setPriorityScheduling(PrioritySchedulingPolicy priorityScheduling) {
+		this.priorityScheduling = priorityScheduling;
+	}
+
+	/**
+	 * Limits the size of request bodies, and how much of them is held in
+	 * memory, taking precedence over those of configurers.
+	 */
+	public void setRequestLimits(RequestLimitsPolicy requestLimits) {
+		this.requestLimits = requestLimits;
+	}
+
+	/**
+	 * Writes responses through pooled buffers.
+	 */
+	public void setPooledBuffers(BufferPoolPolicy pooledBuffers) {
+		this.pooledBuffers = pooledBuffers;
+	}
+
+	/**
+	 * Measures the CPU time and allocated bytes of each request.
+	 */
+	public void setResourceAccounting(ResourceAccountingPolicy resourceAccounting) {
+		this.resourceAccounting = resourceAccounting;
+	}
+
+	/**
+	 * Sends common client errors through a fast path.
+	 */
+	public void setFastErrors(FastErrorPolicy fastErrors) {
+		this.fastErrors = fastErrors;
+	}
+
+	/**
+	 * Records the timelines of slow requests.
+	 */
+	public void setSlowRequests(SlowRequestPolicy slowRequests) {
+		this.slowRequests = slowRequests;
+	}
+
+	/**
+	 * Writes an access log of the server.
+	 */
+	public void setAccessLog(AccessLogPolicy accessLog) {
+		this.accessLog = accessLog;
+	}
+
+	/**
+	 * Warms the server up before it starts.
+	 */
+	public void setWarmUp(WarmUpPolicy warmUp) {
+		this.warmUp = warmUp;
+	}
+
 	public void setServiceAnnotationMarkerTypes(Class<? extends Annotation>[] serviceAnnotationMarkerTypes) {
 		this.serviceAnnotationMarkerTypes = serviceAnnotationMarkerTypes;
 	}
 
+	/**
+	 * The index through which beans annotated with the
+	 * {@link #setServiceAnnotationMarkerTypes(Class[]) marker types} are
+	 * found. Without one, the application context is searched.
+	 */
+	public void setAnnotatedServiceIndex(JaxRsAnnotatedServiceIndex annotatedServiceIndex) {
+		this.annotatedServiceIndex = annotatedServiceIndex;
+	}
+
+	/**
+	 * Traces the requests of the server. Any tracer registered with the
+	 * context is used.
+	 */
+	@Autowired(required = false)
+	public void setTracer(Tracer tracer) {
+		this.tracer = tracer;
+	}
+
 	@Autowired(required = false)
 	public void setContainerServerConfigurers(
 			List<JaxRsServerConfigurer> containerServerConfigurers) {
 		this.configurers.addJaxRsServerConfigurers(containerServerConfigurers);
 	}
 
+	@Override
+	public void setBeanName(String name) {
+		this.serverName = name;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext)
 			throws BeansException {
@@ -5,6 +5,7 @@ import org.apache.cxf.cfgproto.spring.FeatureRegistry;
 import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
 import org.apache.cxf.cfgproto.spring.JaxRsServiceRegistry;
 import org.apache.cxf.cfgproto.spring.ProviderRegistry;
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsPolicy;
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
 
 /**
@@ -14,7 +15,7 @@ import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
  * 
  * @author pwilson
  */
-public abstract class JaxRsServerConfigurerAdapter implements JaxRsServerConfigurer {
+public abstract class JaxRsServerConfigurerAdapter implements JaxRsServerPolicyConfigurer {
 	
 	@Override
 	public String serverAddress() {
@@ -31,6 +32,11 @@ public abstract class JaxRsServerConfigurerAdapter implements JaxRsServerConfigu
 		return null;
 	}
 
+	@Override
+	public RequestLimitsPolicy serverRequestLimits() {
+		return null;
+	}
+
 	@Override
 	public void addServices(JaxRsServiceRegistry serviceRegistry) {
 	}
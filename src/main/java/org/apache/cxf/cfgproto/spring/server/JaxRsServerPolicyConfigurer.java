@@ -0,0 +1,20 @@
+package org.apache.cxf.cfgproto.spring.server;
+
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsPolicy;
+
+/**
+ * A {@link JaxRsServerConfigurer} that also provides the optional policies of
+ * a JAX-RS server. Configurers that do not implement this interface provide
+ * none of them; {@link JaxRsServerConfigurerAdapter} implements it.
+ * 
+ * @author pwilson
+ */
+public interface JaxRsServerPolicyConfigurer extends JaxRsServerConfigurer {
+
+	/**
+	 * The limits on request bodies of the server, or <code>null</code> if
+	 * the configurer sets none.
+	 */
+	RequestLimitsPolicy serverRequestLimits();
+
+}
@@ -0,0 +1,37 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Records the timelines of slow requests to the server declared by a
+ * {@link JaxRsServer @JaxRsServer} configuration class.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsSlowRequests(thresholdMillis = 500)
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ * The slowest requests can be dumped over JMX.
+ *
+ * @see SlowRequestRecorder
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsSlowRequests {
+
+	long thresholdMillis() default 1000;
+
+	/**
+	 * The number of slow requests held.
+	 */
+	int capacity() default 256;
+
+}
@@ -0,0 +1,87 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+/**
+ * The times at which a request reached each step of its handling, on the
+ * clock of {@link System#nanoTime()}. Steps a request skipped, e.g. reading
+ * a body for a request refused early, are left unmarked.
+ *
+ * @author pwilson
+ */
+final class RequestTimeline {
+
+	/**
+	 * The steps of the handling of a request, in order.
+	 */
+	enum Step {
+
+		/** Received by the server */
+		RECEIVED("received"),
+		/** Through the protocol and admission interceptors, up to matching */
+		HEADERS_PARSED("headersParsed"),
+		/** Matched, and its body read into the parameters of the resource method */
+		BODY_READ("bodyRead"),
+		/** Returned from the resource method, or failed */
+		INVOKED("invoked"),
+		/** Response body written */
+		WRITTEN("written"),
+		/** Response flushed and closed */
+		FLUSHED("flushed");
+
+		private final String label;
+
+		private Step(String label) {
+			this.label = label;
+		}
+
+		String getLabel() {
+			return label;
+		}
+
+	}
+
+	private final long startTimeMillis = System.currentTimeMillis();
+	private final long[] nanos = new long[Step.values().length];
+
+	RequestTimeline() {
+		nanos[Step.RECEIVED.ordinal()] = System.nanoTime();
+	}
+
+	void mark(Step step) {
+		nanos[step.ordinal()] = System.nanoTime();
+	}
+
+	long getStartTimeMillis() {
+		return startTimeMillis;
+	}
+
+	/**
+	 * @return the time from receipt to the latest step marked
+	 */
+	long getElapsedNanos() {
+		for (int i = nanos.length - 1; i > 0; i--) {
+			if (nanos[i] != 0) {
+				return nanos[i] - nanos[0];
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return for each step, the time since the previous step marked, or
+	 * <code>-1</code> if the step was not marked
+	 */
+	long[] getStepNanos() {
+		long[] steps = new long[nanos.length];
+		long previous = nanos[0];
+		for (int i = 1; i < nanos.length; i++) {
+			if (nanos[i] == 0) {
+				steps[i] = -1;
+			} else {
+				steps[i] = nanos[i] - previous;
+				previous = nanos[i];
+			}
+		}
+		return steps;
+	}
+
+}
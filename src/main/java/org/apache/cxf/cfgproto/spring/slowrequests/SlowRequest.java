@@ -0,0 +1,96 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * The timeline of a request slower than the threshold of its
+ * {@link SlowRequestRecorder}.
+ *
+ * @author pwilson
+ */
+public final class SlowRequest {
+
+	private final long startTimeMillis;
+	private final String httpMethod;
+	private final String uri;
+	private final int status;
+	private final long elapsedNanos;
+	private final long[] stepNanos;
+
+	SlowRequest(RequestTimeline timeline, String httpMethod, String uri, int status) {
+		this.startTimeMillis = timeline.getStartTimeMillis();
+		this.httpMethod = httpMethod;
+		this.uri = uri;
+		this.status = status;
+		this.elapsedNanos = timeline.getElapsedNanos();
+		this.stepNanos = timeline.getStepNanos();
+	}
+
+	public long getStartTimeMillis() {
+		return startTimeMillis;
+	}
+
+	public String getHttpMethod() {
+		return httpMethod;
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	/**
+	 * @return the status of the response, or <code>0</code> if unknown
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @param step the label of a step, e.g. <code>bodyRead</code>
+	 * @return the time spent reaching the step from the previous one, or
+	 * <code>-1</code> if the request skipped the step
+	 */
+	public long getStepNanos(String step) {
+		for (RequestTimeline.Step candidate: RequestTimeline.Step.values()) {
+			if (candidate.getLabel().equals(step)) {
+				return stepNanos[candidate.ordinal()];
+			}
+		}
+		throw new IllegalArgumentException("Unknown step [" + step + "]");
+	}
+
+	/**
+	 * e.g. <code>2014-05-02T10:15:30.123Z GET /items 200 1520.3ms
+	 * [headersParsed=0.1ms bodyRead=0.4ms invoked=1510.2ms written=9.5ms
+	 * flushed=0.1ms]</code>
+	 */
+	@Override
+	public String toString() {
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		StringBuilder line = new StringBuilder(160);
+		line.append(format.format(new Date(startTimeMillis))).append(' ')
+			.append(httpMethod).append(' ').append(uri).append(' ')
+			.append(status).append(' ').append(millis(elapsedNanos)).append(" [");
+		String separator = "";
+		for (RequestTimeline.Step step: RequestTimeline.Step.values()) {
+			if (step.ordinal() > 0 && stepNanos[step.ordinal()] >= 0) {
+				line.append(separator).append(step.getLabel()).append('=').append(millis(stepNanos[step.ordinal()]));
+				separator = " ";
+			}
+		}
+		return line.append(']').toString();
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+	}
+
+}
@@ -0,0 +1,67 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+import java.util.List;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.cfgproto.spring.slowrequests.RequestTimeline.Step;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.jaxrs.interceptor.JAXRSInInterceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Records a timeline of each request of a server, keeping those of slow
+ * requests in its {@link SlowRequestRecorder}, exposed as the MBean
+ * <code>org.apache.cxf.cfgproto:type=SlowRequests,server="..."</code>.
+ * <p>
+ * Timelines mark the receipt of a request, the start of its matching by
+ * the JAX-RS runtime, the reading of its body, the return of its resource
+ * method, the writing of its response and the flushing of the response by
+ * the transport. Marking costs a read of the clock; only slow requests are
+ * kept.
+ *
+ * @author pwilson
+ */
+public class SlowRequestFeature extends AbstractFeature {
+
+	private final String serverName;
+	private final SlowRequestRecorder recorder;
+
+	public SlowRequestFeature(SlowRequestPolicy policy, String serverName) {
+		this.serverName = serverName;
+		this.recorder = policy.createRecorder();
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		JaxRsManagementUtils.registerForServer(server, bus, recorder,
+				JaxRsManagementUtils.serverObjectName("SlowRequests", serverName));
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new SlowRequestInterceptor());
+		SlowRequestInterceptor.Mark headersParsed = new SlowRequestInterceptor.Mark(Phase.UNMARSHAL, Step.HEADERS_PARSED);
+		headersParsed.addBefore(JAXRSInInterceptor.class.getName());
+		provider.getInInterceptors().add(headersParsed);
+		provider.getInInterceptors().add(new SlowRequestInterceptor.Mark(Phase.PRE_INVOKE, Step.BODY_READ));
+		addResponseMarks(provider.getOutInterceptors());
+		addResponseMarks(provider.getOutFaultInterceptors());
+	}
+
+	private void addResponseMarks(List<Interceptor<? extends Message>> chain) {
+		chain.add(new SlowRequestInterceptor.Mark(Phase.SETUP, Step.INVOKED));
+		chain.add(new SlowRequestInterceptor.Mark(Phase.POST_MARSHAL, Step.WRITTEN));
+		chain.add(new SlowRequestInterceptor.Flushed(recorder));
+	}
+
+	public SlowRequestRecorder getRecorder() {
+		return recorder;
+	}
+
+}
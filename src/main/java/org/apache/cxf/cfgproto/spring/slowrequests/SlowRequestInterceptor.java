@@ -0,0 +1,82 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+import org.apache.cxf.cfgproto.spring.slowrequests.RequestTimeline.Step;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.MessageSenderInterceptor.MessageSenderEndingInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Starts the timeline of a request as it is received, and records it once
+ * its response has been flushed, if it was slow.
+ *
+ * @author pwilson
+ */
+public class SlowRequestInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	public SlowRequestInterceptor() {
+		super(Phase.RECEIVE);
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		message.getExchange().put(RequestTimeline.class, new RequestTimeline());
+	}
+
+	/**
+	 * Marks the step a request has reached.
+	 */
+	static class Mark extends AbstractPhaseInterceptor<Message> {
+
+		private final Step step;
+
+		Mark(String phase, Step step) {
+			super(Mark.class.getName() + "." + step, phase);
+			this.step = step;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			RequestTimeline timeline = message.getExchange().get(RequestTimeline.class);
+			if (timeline != null) {
+				timeline.mark(step);
+			}
+		}
+
+	}
+
+	/**
+	 * Marks the response flushed once the transport has closed it, and
+	 * records the request.
+	 */
+	static class Flushed extends AbstractPhaseInterceptor<Message> {
+
+		private final SlowRequestRecorder recorder;
+
+		Flushed(SlowRequestRecorder recorder) {
+			super(Phase.PREPARE_SEND_ENDING);
+			addAfter(MessageSenderEndingInterceptor.class.getName());
+			this.recorder = recorder;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			Exchange exchange = message.getExchange();
+			RequestTimeline timeline = (RequestTimeline) exchange.remove(RequestTimeline.class.getName());
+			if (timeline == null) {
+				return;
+			}
+			timeline.mark(Step.FLUSHED);
+			Message request = exchange.getInMessage();
+			Integer status = (Integer) message.get(Message.RESPONSE_CODE);
+			recorder.record(timeline, 
+							(String) request.get(Message.HTTP_REQUEST_METHOD), 
+							(String) request.get(Message.REQUEST_URI), 
+							status == null ? 0 : status);
+		}
+
+	}
+
+}
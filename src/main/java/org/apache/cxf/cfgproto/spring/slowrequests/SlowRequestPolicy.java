@@ -0,0 +1,42 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+/**
+ * Which requests the {@link SlowRequestRecorder} of a server holds, and how
+ * many.
+ *
+ * @see JaxRsSlowRequests
+ * @author pwilson
+ */
+public class SlowRequestPolicy {
+
+	private long thresholdMillis = 1000;
+	private int capacity = 256;
+
+	public SlowRequestRecorder createRecorder() {
+		return new SlowRequestRecorder(this);
+	}
+
+	/**
+	 * Requests taking at least this long are recorded. May be changed over
+	 * JMX while the server runs.
+	 */
+	public long getThresholdMillis() {
+		return thresholdMillis;
+	}
+
+	public void setThresholdMillis(long thresholdMillis) {
+		this.thresholdMillis = thresholdMillis;
+	}
+
+	/**
+	 * The number of slow requests held.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Holds the timelines of the most recent requests slower than a threshold
+ * in a ring of fixed size. Recording claims a slot with a single atomic
+ * increment and never blocks; when the ring is full the oldest requests are
+ * overwritten.
+ *
+ * @author pwilson
+ */
+public class SlowRequestRecorder implements SlowRequestRecorderMBean {
+
+	private final AtomicReferenceArray<SlowRequest> ring;
+	private final AtomicLong recorded = new AtomicLong();
+	private volatile long thresholdNanos;
+
+	public SlowRequestRecorder(SlowRequestPolicy policy) {
+		this.ring = new AtomicReferenceArray<SlowRequest>(Math.max(1, policy.getCapacity()));
+		this.thresholdNanos = MILLISECONDS.toNanos(policy.getThresholdMillis());
+	}
+
+	/**
+	 * Records the timeline of a completed request if it was slow.
+	 */
+	void record(RequestTimeline timeline, String httpMethod, String uri, int status) {
+		if (timeline.getElapsedNanos() < thresholdNanos) {
+			return;
+		}
+		long sequence = recorded.getAndIncrement();
+		ring.set((int) (sequence % ring.length()), new SlowRequest(timeline, httpMethod, uri, status));
+	}
+
+	/**
+	 * @return the slow requests held, most recent first
+	 */
+	public List<SlowRequest> getSlowRequests() {
+		long last = recorded.get();
+		int held = (int) Math.min(last, ring.length());
+		List<SlowRequest> requests = new ArrayList<SlowRequest>(held);
+		for (long sequence = last - 1; sequence >= last - held; sequence--) {
+			SlowRequest request = ring.get((int) (sequence % ring.length()));
+			if (request != null) {
+				requests.add(request);
+			}
+		}
+		return requests;
+	}
+
+	@Override
+	public String[] dump() {
+		List<SlowRequest> requests = getSlowRequests();
+		String[] lines = new String[requests.size()];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = requests.get(i).toString();
+		}
+		return lines;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < ring.length(); i++) {
+			ring.set(i, null);
+		}
+	}
+
+	@Override
+	public long getThresholdMillis() {
+		return NANOSECONDS.toMillis(thresholdNanos);
+	}
+
+	@Override
+	public void setThresholdMillis(long thresholdMillis) {
+		this.thresholdNanos = MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	@Override
+	public long getSlowRequestCount() {
+		return recorded.get();
+	}
+
+	@Override
+	public int getCapacity() {
+		return ring.length();
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.apache.cxf.cfgproto.spring.slowrequests;
+
+/**
+ * Management interface of the {@link SlowRequestRecorder} of a server.
+ *
+ * @author pwilson
+ */
+public interface SlowRequestRecorderMBean {
+
+	long getThresholdMillis();
+
+	void setThresholdMillis(long thresholdMillis);
+
+	/**
+	 * The number of slow requests recorded since the server started,
+	 * including those since overwritten.
+	 */
+	long getSlowRequestCount();
+
+	int getCapacity();
+
+	/**
+	 * The slow requests held, most recent first.
+	 */
+	String[] dump();
+
+	void clear();
+
+}
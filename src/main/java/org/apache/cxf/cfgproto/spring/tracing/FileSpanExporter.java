@@ -0,0 +1,94 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Appends spans to a file, one JSON object per line. Only sampled traces
+ * reach the exporter, so each span is flushed as it is written.
+ *
+ * @author pwilson
+ */
+public class FileSpanExporter implements SpanExporter, Closeable {
+
+	private static final Logger LOG = LogUtils.getLogger(FileSpanExporter.class);
+
+	private final File file;
+	private final Writer writer;
+
+	public FileSpanExporter(File file) throws IOException {
+		this.file = file;
+		this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), Charsets.UTF_8));
+	}
+
+	@Override
+	public synchronized void export(Span span) {
+		try {
+			writer.write(toJson(span));
+			writer.write('\n');
+			writer.flush();
+		} catch (IOException e) {
+			LOG.log(Level.WARNING, "Unable to write span to [" + file + "]", e);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+	static String toJson(Span span) {
+		StringBuilder json = new StringBuilder(256);
+		json.append("{\"traceId\":\"").append(span.getTraceId())
+			.append("\",\"spanId\":\"").append(span.getSpanId()).append('"');
+		if (span.getParentSpanId() != null) {
+			json.append(",\"parentSpanId\":\"").append(span.getParentSpanId()).append('"');
+		}
+		json.append(",\"name\":");
+		appendString(json, span.getName());
+		json.append(",\"kind\":\"").append(span.getKind())
+			.append("\",\"startTimeMicros\":").append(span.getStartTimeMicros())
+			.append(",\"durationNanos\":").append(span.getDurationNanos())
+			.append(",\"error\":").append(span.isError())
+			.append(",\"attributes\":{");
+		boolean first = true;
+		for (Map.Entry<String, String> attribute: span.getAttributes().entrySet()) {
+			if (!first) {
+				json.append(',');
+			}
+			first = false;
+			appendString(json, attribute.getKey());
+			json.append(':');
+			appendString(json, attribute.getValue());
+		}
+		return json.append("}}").toString();
+	}
+
+	private static void appendString(StringBuilder json, String value) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+
+}
@@ -0,0 +1,46 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent spans in memory, e.g. for tests or for a diagnostic
+ * endpoint.
+ *
+ * @author pwilson
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+	private final int capacity;
+	private final Deque<Span> spans;
+
+	/**
+	 * @param capacity the number of spans kept; older ones are dropped
+	 */
+	public InMemorySpanExporter(int capacity) {
+		this.capacity = capacity;
+		this.spans = new ArrayDeque<Span>(capacity);
+	}
+
+	@Override
+	public synchronized void export(Span span) {
+		if (spans.size() == capacity) {
+			spans.removeFirst();
+		}
+		spans.addLast(span);
+	}
+
+	/**
+	 * @return the spans kept, oldest first
+	 */
+	public synchronized List<Span> getSpans() {
+		return new ArrayList<Span>(spans);
+	}
+
+	public synchronized void clear() {
+		spans.clear();
+	}
+
+}
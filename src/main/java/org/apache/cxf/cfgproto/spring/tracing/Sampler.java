@@ -0,0 +1,74 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Decides, at the head of a trace, whether it is sampled: by probability,
+ * and then by a budget of traces per second, so that bursts of traffic do
+ * not turn into bursts of spans.
+ *
+ * @author pwilson
+ */
+public class Sampler {
+
+	private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
+	private final double probability;
+	private final long intervalNanos;
+	private final long burstNanos;
+	private final Ticker ticker;
+	private final AtomicLong nextFree;
+
+	/**
+	 * @param probability the probability of sampling a trace, from 0 to 1
+	 * @param maxTracesPerSecond the most traces sampled per second, or 0
+	 * for no limit
+	 */
+	public Sampler(double probability, double maxTracesPerSecond) {
+		this(probability, maxTracesPerSecond, Ticker.systemTicker());
+	}
+
+	public Sampler(double probability, double maxTracesPerSecond, Ticker ticker) {
+		this.probability = probability;
+		this.intervalNanos = maxTracesPerSecond > 0 ? (long) (1e9 / maxTracesPerSecond) : 0;
+		// allows up to a second's worth of traces at once
+		this.burstNanos = Math.max(0, 1000000000L - intervalNanos);
+		this.ticker = ticker;
+		this.nextFree = new AtomicLong(ticker.read());
+	}
+
+	/**
+	 * @return <code>true</code> if a new trace is to be sampled
+	 */
+	public boolean isSampled() {
+		if (probability <= 0 || probability < 1 && RANDOM.get().nextDouble() >= probability) {
+			return false;
+		}
+		return intervalNanos == 0 || tryAcquire();
+	}
+
+	/*
+	 * A token bucket kept as the time at which the next trace is free.
+	 */
+	private boolean tryAcquire() {
+		long now = ticker.read();
+		for (;;) {
+			long next = nextFree.get();
+			if (next - now > burstNanos) {
+				return false;
+			}
+			if (nextFree.compareAndSet(next, Math.max(next, now - burstNanos) + intervalNanos)) {
+				return true;
+			}
+		}
+	}
+
+}
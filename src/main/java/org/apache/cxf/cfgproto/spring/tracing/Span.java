@@ -0,0 +1,125 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A timed operation of a sampled trace: the dispatch of a request by a
+ * server, the invocation of a resource method or a call made by a client.
+ * Spans are handed to the {@link SpanExporter} of their tracer once
+ * {@link #end() ended}, and must not be changed afterwards.
+ *
+ * @author pwilson
+ */
+public final class Span {
+
+	public enum Kind {
+		SERVER, INTERNAL, CLIENT
+	}
+
+	private final Tracer tracer;
+	private final TraceContext context;
+	private final String parentSpanId;
+	private final String name;
+	private final Kind kind;
+	private final long startTimeMicros;
+	private final long startNanos;
+	private final Map<String, String> attributes = new LinkedHashMap<String, String>();
+	private final AtomicBoolean ended = new AtomicBoolean();
+	private long durationNanos;
+	private boolean error;
+
+	Span(Tracer tracer, TraceContext context, String parentSpanId, String name, Kind kind) {
+		this.tracer = tracer;
+		this.context = context;
+		this.parentSpanId = parentSpanId;
+		this.name = name;
+		this.kind = kind;
+		this.startTimeMicros = System.currentTimeMillis() * 1000;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Ends the span and exports it. Only the first call has any effect.
+	 */
+	public void end() {
+		if (ended.compareAndSet(false, true)) {
+			durationNanos = System.nanoTime() - startNanos;
+			tracer.export(this);
+		}
+	}
+
+	/**
+	 * Sets an attribute of the span, e.g. <code>http.status_code</code>.
+	 */
+	public Span setAttribute(String key, String value) {
+		attributes.put(key, value);
+		return this;
+	}
+
+	/**
+	 * Marks the span as failed.
+	 */
+	public Span setError(boolean error) {
+		this.error = error;
+		return this;
+	}
+
+	/**
+	 * @return the context that children of the span continue the trace from
+	 */
+	public TraceContext getContext() {
+		return context;
+	}
+
+	public String getTraceId() {
+		return context.getTraceId();
+	}
+
+	public String getSpanId() {
+		return context.getSpanId();
+	}
+
+	/**
+	 * @return the span of the parent, or <code>null</code> for the root of
+	 * the trace
+	 */
+	public String getParentSpanId() {
+		return parentSpanId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the start of the span, in microseconds since the epoch
+	 */
+	public long getStartTimeMicros() {
+		return startTimeMicros;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public boolean isError() {
+		return error;
+	}
+
+	public Map<String, String> getAttributes() {
+		return Collections.unmodifiableMap(attributes);
+	}
+
+	@Override
+	public String toString() {
+		return kind + " " + name + " " + context.getTraceId() + "/" + context.getSpanId();
+	}
+
+}
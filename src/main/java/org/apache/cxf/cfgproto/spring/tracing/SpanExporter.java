@@ -0,0 +1,15 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+/**
+ * Receives the spans of sampled traces as they end, on the thread ending
+ * them. Implementations must be thread-safe and should not block for long.
+ *
+ * @see InMemorySpanExporter
+ * @see FileSpanExporter
+ * @author pwilson
+ */
+public interface SpanExporter {
+
+	void export(Span span);
+
+}
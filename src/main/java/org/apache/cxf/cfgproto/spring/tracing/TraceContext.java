@@ -0,0 +1,157 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.util.Random;
+
+/**
+ * The position of a request in a trace, as carried by the W3C
+ * <code>traceparent</code> header: the trace, the span of the caller and
+ * whether the trace is sampled.
+ *
+ * @author pwilson
+ */
+public final class TraceContext {
+
+	private static final int TRACEPARENT_LENGTH = 55;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
+	private final String traceId;
+	private final String spanId;
+	private final boolean sampled;
+
+	TraceContext(String traceId, String spanId, boolean sampled) {
+		this.traceId = traceId;
+		this.spanId = spanId;
+		this.sampled = sampled;
+	}
+
+	/**
+	 * Parses a <code>traceparent</code> header of version <code>00</code>,
+	 * or of a later version, of which only the fields of version
+	 * <code>00</code> are read.
+	 *
+	 * @return the context, or <code>null</code> if the header is missing or
+	 * malformed
+	 */
+	public static TraceContext parse(String traceparent) {
+		if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH) {
+			return null;
+		}
+		if (traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+			return null;
+		}
+		if (!isHex(traceparent, 0, 2) || traceparent.startsWith("ff")) {
+			return null;
+		}
+		if (traceparent.startsWith("00") ? traceparent.length() != TRACEPARENT_LENGTH 
+										 : traceparent.length() > TRACEPARENT_LENGTH && traceparent.charAt(TRACEPARENT_LENGTH) != '-') {
+			return null;
+		}
+		if (!isHex(traceparent, 3, 35) || !isHex(traceparent, 36, 52) || !isHex(traceparent, 53, 55)) {
+			return null;
+		}
+		if (isZero(traceparent, 3, 35) || isZero(traceparent, 36, 52)) {
+			return null;
+		}
+		boolean sampled = (Character.digit(traceparent.charAt(54), 16) & 1) != 0;
+		return new TraceContext(traceparent.substring(3, 35), traceparent.substring(36, 52), sampled);
+	}
+
+	/**
+	 * The context of a request or call whose trace is not sampled, which
+	 * calls made on its behalf carry on so that the services they reach do
+	 * not sample the trace anew.
+	 *
+	 * @param parent the context of the caller, or <code>null</code> to
+	 * start a trace
+	 */
+	static TraceContext unsampled(TraceContext parent) {
+		if (parent != null && !parent.isSampled()) {
+			return parent;
+		}
+		return new TraceContext(parent == null ? newTraceId() : parent.getTraceId(), newSpanId(), false);
+	}
+
+	static String newTraceId() {
+		Random random = RANDOM.get();
+		long high;
+		do {
+			high = random.nextLong();
+		} while (high == 0);
+		return hex(high) + hex(random.nextLong());
+	}
+
+	static String newSpanId() {
+		Random random = RANDOM.get();
+		long id;
+		do {
+			id = random.nextLong();
+		} while (id == 0);
+		return hex(id);
+	}
+
+	/**
+	 * @return the <code>traceparent</code> header continuing the trace from
+	 * this context
+	 */
+	public String toTraceparent() {
+		return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+	}
+
+	/**
+	 * @return the 32 hexadecimal digits of the trace
+	 */
+	public String getTraceId() {
+		return traceId;
+	}
+
+	/**
+	 * @return the 16 hexadecimal digits of the span
+	 */
+	public String getSpanId() {
+		return spanId;
+	}
+
+	public boolean isSampled() {
+		return sampled;
+	}
+
+	@Override
+	public String toString() {
+		return toTraceparent();
+	}
+
+	private static boolean isHex(String value, int from, int to) {
+		for (int i = from; i < to; i++) {
+			char c = value.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isZero(String value, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (value.charAt(i) != '0') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String hex(long value) {
+		char[] digits = new char[16];
+		for (int i = 15; i >= 0; i--) {
+			digits[i] = HEX[(int) (value & 0xf)];
+			value >>>= 4;
+		}
+		return new String(digits);
+	}
+
+}
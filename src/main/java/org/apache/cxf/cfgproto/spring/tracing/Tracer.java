@@ -0,0 +1,144 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.client.enable.EnableJaxRsClient;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Samples traces and records the spans of the sampled ones. A tracer
+ * registered with the context is picked up by every
+ * {@link JaxRsServer @JaxRsServer} server and every
+ * {@link EnableJaxRsClient @EnableJaxRsClient} client:
+ * <pre class="code">
+ * &#064;Bean
+ * public Tracer tracer() {
+ *     TracingPolicy policy = new TracingPolicy();
+ *     policy.setSampleRate(0.05);
+ *     return policy.createTracer();
+ * }
+ * </pre>
+ * Servers continue the trace of the W3C <code>traceparent</code> header of a
+ * request, and clients called while a request is served pass it on. The
+ * context of the request being served is held by the thread invoking its
+ * resource method. Requests of unsampled traces cost the parsing of the
+ * header; no span is created for them, but their context is passed on with
+ * the sampled flag unset, so that downstream services do not start traces
+ * of their own.
+ *
+ * @author pwilson
+ */
+public class Tracer implements Closeable {
+
+	public static final String TRACEPARENT = "traceparent";
+
+	private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<TraceContext>();
+
+	private final Sampler sampler;
+	private final boolean honorParentSampling;
+	private final SpanExporter exporter;
+
+	public Tracer(TracingPolicy policy) {
+		this(policy, new Sampler(policy.getSampleRate(), policy.getMaxTracesPerSecond()));
+	}
+
+	public Tracer(TracingPolicy policy, Sampler sampler) {
+		this.sampler = sampler;
+		this.honorParentSampling = policy.isHonorParentSampling();
+		this.exporter = policy.getExporter() != null ? policy.getExporter() : new InMemorySpanExporter(1000);
+	}
+
+	/**
+	 * @return the context of the request being served by the current
+	 * thread, or <code>null</code> if none is
+	 */
+	public static TraceContext currentContext() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Makes the given context that of the current thread.
+	 *
+	 * @return the previous context, to be restored
+	 */
+	public static TraceContext setCurrentContext(TraceContext context) {
+		TraceContext previous = CURRENT.get();
+		if (context == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(context);
+		}
+		return previous;
+	}
+
+	/**
+	 * Starts a span continuing the trace of the given parent, or starting a
+	 * trace if there is none, if the trace is sampled.
+	 *
+	 * @param parent the context of the caller, or <code>null</code>
+	 * @return the span, or <code>null</code> if the trace is not sampled
+	 */
+	public Span startSpan(String name, Span.Kind kind, TraceContext parent) {
+		return isSampled(parent) ? startSampledSpan(name, kind, parent) : null;
+	}
+
+	/**
+	 * Decides whether the trace of the given parent, or a trace started if
+	 * there is none, is sampled.
+	 *
+	 * @param parent the context of the caller, or <code>null</code>
+	 */
+	public boolean isSampled(TraceContext parent) {
+		return parent != null && honorParentSampling ? parent.isSampled() : sampler.isSampled();
+	}
+
+	/*
+	 * Starts a span once the trace has been found to be sampled, so that
+	 * callers build its name only then.
+	 */
+	Span startSampledSpan(String name, Span.Kind kind, TraceContext parent) {
+		return parent == null ? newSpan(TraceContext.newTraceId(), null, name, kind) 
+							  : newSpan(parent.getTraceId(), parent.getSpanId(), name, kind);
+	}
+
+	/**
+	 * Starts a span of the current trace, which is sampled.
+	 */
+	public Span startChildSpan(String name, Span.Kind kind, Span parent) {
+		return newSpan(parent.getTraceId(), parent.getSpanId(), name, kind);
+	}
+
+	/**
+	 * Adds the interceptors passing the current trace on to the calls of a
+	 * client, and recording their spans.
+	 */
+	public void addClientInterceptors(InterceptorRegistry outInterceptors, InterceptorRegistry inInterceptors) {
+		outInterceptors.addInterceptors(new TracingClientOutInterceptor(this));
+		inInterceptors.addInterceptors(new TracingClientInInterceptor());
+	}
+
+	public SpanExporter getExporter() {
+		return exporter;
+	}
+
+	/**
+	 * Closes the exporter, if it needs closing.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (exporter instanceof Closeable) {
+			((Closeable) exporter).close();
+		}
+	}
+
+	void export(Span span) {
+		exporter.export(span);
+	}
+
+	private Span newSpan(String traceId, String parentSpanId, String name, Span.Kind kind) {
+		return new Span(this, new TraceContext(traceId, TraceContext.newSpanId(), true), parentSpanId, name, kind);
+	}
+
+}
@@ -0,0 +1,32 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Ends the span of an outgoing call as soon as its response arrives. Server
+ * errors mark the span as failed.
+ *
+ * @author pwilson
+ */
+public class TracingClientInInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	TracingClientInInterceptor() {
+		super(Phase.RECEIVE);
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		Span span = (Span) message.getExchange().remove(TracingClientOutInterceptor.CLIENT_SPAN);
+		if (span != null) {
+			Integer responseCode = (Integer) message.get(Message.RESPONSE_CODE);
+			if (responseCode != null) {
+				span.setAttribute("http.status_code", responseCode.toString());
+			}
+			span.setError(responseCode == null || responseCode >= 500).end();
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Passes the trace of the request being served on to an outgoing call in
+ * its <code>traceparent</code> header, starting a span for the call if the
+ * trace is sampled. Calls made outside of any request start a trace, passed
+ * on unsampled if the tracer does not sample it.
+ *
+ * @author pwilson
+ */
+public class TracingClientOutInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	static final String CLIENT_SPAN = TracingClientOutInterceptor.class.getName() + ".CLIENT_SPAN";
+
+	private final Tracer tracer;
+
+	TracingClientOutInterceptor(Tracer tracer) {
+		super(Phase.SETUP);
+		this.tracer = tracer;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		TraceContext current = Tracer.currentContext();
+		if (current != null && !current.isSampled() || !tracer.isSampled(current)) {
+			setTraceparent(message, TraceContext.unsampled(current).toTraceparent());
+			return;
+		}
+		String method = (String) message.get(Message.HTTP_REQUEST_METHOD);
+		String address = (String) message.get(Message.ENDPOINT_ADDRESS);
+		Span span = tracer.startSampledSpan(method + " " + address, Span.Kind.CLIENT, current);
+		span.setAttribute("http.method", String.valueOf(method)).setAttribute("http.url", String.valueOf(address));
+		message.getExchange().put(CLIENT_SPAN, span);
+		setTraceparent(message, span.getContext().toTraceparent());
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		Span span = (Span) message.getExchange().remove(CLIENT_SPAN);
+		if (span != null) {
+			span.setError(true).end();
+		}
+	}
+
+	private static void setTraceparent(Message message, String traceparent) {
+		Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) message.get(Message.PROTOCOL_HEADERS));
+		if (headers == null) {
+			headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+			message.put(Message.PROTOCOL_HEADERS, headers);
+		}
+		headers.put(Tracer.TRACEPARENT, Collections.singletonList(traceparent));
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.service.Service;
+
+/**
+ * Continues the traces of the requests of a server, recording spans for
+ * the dispatch of sampled requests and for the invocation of their resource
+ * methods.
+ *
+ * @see Tracer
+ * @author pwilson
+ */
+public class TracingFeature extends AbstractFeature {
+
+	private final Tracer tracer;
+	private final String serverName;
+
+	public TracingFeature(Tracer tracer, String serverName) {
+		this.tracer = tracer;
+		this.serverName = serverName;
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		super.initialize(server, bus);
+		Service service = server.getEndpoint().getService();
+		if (!(service.getInvoker() instanceof TracingInvoker)) {
+			service.setInvoker(new TracingInvoker(service.getInvoker(), tracer));
+		}
+	}
+
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getInInterceptors().add(new TracingInInterceptor(tracer, serverName));
+		ExchangeCompletionInterceptor.install(provider);
+	}
+
+}
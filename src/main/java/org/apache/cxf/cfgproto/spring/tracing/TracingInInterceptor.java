@@ -0,0 +1,73 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.cfgproto.spring.ExchangeCompletionInterceptor;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Reads the <code>traceparent</code> header of a request as soon as it is
+ * received, and if its trace is sampled starts the span of its dispatch by
+ * the server, ended once the response has been sent. Otherwise the request
+ * is given an unsampled context, passed on to the calls it makes.
+ *
+ * @author pwilson
+ */
+class TracingInInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final Tracer tracer;
+	private final String serverName;
+
+	TracingInInterceptor(Tracer tracer, String serverName) {
+		super(Phase.RECEIVE);
+		this.tracer = tracer;
+		this.serverName = serverName;
+	}
+
+	@Override
+	public void handleMessage(Message message) throws Fault {
+		Exchange exchange = message.getExchange();
+		TraceContext parent = TraceContext.parse(getTraceparent(message));
+		if (!tracer.isSampled(parent)) {
+			exchange.put(TraceContext.class, TraceContext.unsampled(parent));
+			return;
+		}
+		String method = (String) message.get(Message.HTTP_REQUEST_METHOD);
+		String path = (String) message.get(Message.REQUEST_URI);
+		final Span span = tracer.startSampledSpan(method + " " + path, Span.Kind.SERVER, parent);
+		span.setAttribute("http.method", String.valueOf(method))
+			.setAttribute("http.target", String.valueOf(path))
+			.setAttribute("server", serverName);
+		exchange.put(TraceContext.class, span.getContext());
+		exchange.put(Span.class, span);
+		final Exchange completed = exchange;
+		ExchangeCompletionInterceptor.addCompletionCallback(exchange, new Runnable() {
+			@Override
+			public void run() {
+				endSpan(span, completed);
+			}
+		});
+	}
+
+	private static void endSpan(Span span, Exchange exchange) {
+		Message response = exchange.getOutFaultMessage() != null ? exchange.getOutFaultMessage() : exchange.getOutMessage();
+		Integer responseCode = response == null ? null : (Integer) response.get(Message.RESPONSE_CODE);
+		if (responseCode != null) {
+			span.setAttribute("http.status_code", responseCode.toString());
+		}
+		span.setError(responseCode == null ? exchange.getOutFaultMessage() != null : responseCode >= 500).end();
+	}
+
+	private static String getTraceparent(Message message) {
+		Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) message.get(Message.PROTOCOL_HEADERS));
+		List<String> values = headers == null ? null : headers.get(Tracer.TRACEPARENT);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+}
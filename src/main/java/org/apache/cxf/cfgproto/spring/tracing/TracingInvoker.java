@@ -0,0 +1,57 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.service.invoker.Invoker;
+
+/**
+ * Makes the trace of a request that of the thread invoking its resource
+ * method, which may be a thread of the server's executor, so that clients
+ * called by the method pass it on. Sampled invocations are recorded as a
+ * span of their own.
+ *
+ * @author pwilson
+ */
+class TracingInvoker implements Invoker {
+
+	private final Invoker delegate;
+	private final Tracer tracer;
+
+	TracingInvoker(Invoker delegate, Tracer tracer) {
+		this.delegate = delegate;
+		this.tracer = tracer;
+	}
+
+	@Override
+	public Object invoke(Exchange exchange, Object o) {
+		TraceContext context = exchange.get(TraceContext.class);
+		if (context == null) {
+			return delegate.invoke(exchange, o);
+		}
+		Span serverSpan = exchange.get(Span.class);
+		Span span = serverSpan == null ? null : tracer.startChildSpan(operationName(exchange), Span.Kind.INTERNAL, serverSpan);
+		TraceContext previous = Tracer.setCurrentContext(span == null ? context : span.getContext());
+		try {
+			return delegate.invoke(exchange, o);
+		} catch (RuntimeException e) {
+			if (span != null) {
+				span.setError(true);
+			}
+			throw e;
+		} finally {
+			Tracer.setCurrentContext(previous);
+			if (span != null) {
+				span.end();
+			}
+		}
+	}
+
+	private static String operationName(Exchange exchange) {
+		OperationResourceInfo operation = exchange.get(OperationResourceInfo.class);
+		if (operation == null) {
+			return "invoke";
+		}
+		return operation.getClassResourceInfo().getServiceClass().getSimpleName() + "." + operation.getMethodToInvoke().getName();
+	}
+
+}
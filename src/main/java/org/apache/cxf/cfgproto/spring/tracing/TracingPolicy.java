@@ -0,0 +1,66 @@
+package org.apache.cxf.cfgproto.spring.tracing;
+
+/**
+ * How a {@link Tracer} samples traces, and where their spans go.
+ *
+ * @author pwilson
+ */
+public class TracingPolicy {
+
+	private double sampleRate = 0.01;
+	private double maxTracesPerSecond = 10;
+	private boolean honorParentSampling = true;
+	private SpanExporter exporter;
+
+	public Tracer createTracer() {
+		return new Tracer(this);
+	}
+
+	/**
+	 * The probability of sampling a trace started by this JVM, from 0 to 1.
+	 */
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * The most traces started by this JVM that are sampled per second, or 0
+	 * for no limit.
+	 */
+	public double getMaxTracesPerSecond() {
+		return maxTracesPerSecond;
+	}
+
+	public void setMaxTracesPerSecond(double maxTracesPerSecond) {
+		this.maxTracesPerSecond = maxTracesPerSecond;
+	}
+
+	/**
+	 * Whether requests continuing a trace follow the sampling decision of
+	 * their caller, so that traces are complete. Otherwise each request is
+	 * sampled as if it started a trace.
+	 */
+	public boolean isHonorParentSampling() {
+		return honorParentSampling;
+	}
+
+	public void setHonorParentSampling(boolean honorParentSampling) {
+		this.honorParentSampling = honorParentSampling;
+	}
+
+	/**
+	 * Where spans go; by default the last thousand are kept in memory.
+	 */
+	public SpanExporter getExporter() {
+		return exporter;
+	}
+
+	public void setExporter(SpanExporter exporter) {
+		this.exporter = exporter;
+	}
+
+}
@@ -0,0 +1,54 @@
+package org.apache.cxf.cfgproto.spring.warmup;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+
+/**
+ * Warms up the server declared by a {@link JaxRsServer @JaxRsServer}
+ * configuration class before it is started, by sending synthetic requests
+ * to each of its resource methods over the local transport, so that classes
+ * are loaded and code compiled before the first real request arrives.
+ * <pre class="code">
+ * &#064;Configuration
+ * &#064;JaxRsServer
+ * &#064;JaxRsWarmUp(iterations = 500)
+ * public class MyJaxRsServerConfiguration {
+ * }
+ * </pre>
+ * Services supply their own requests by implementing {@link WarmUpSamples};
+ * for the others, requests are generated for their safe methods only.
+ * Synthetic requests carry the {@link WarmUpRunner#WARM_UP_HEADER} header.
+ * <p>
+ * Warm-up requires local binding and the local transport on the classpath;
+ * without them the server starts cold.
+ *
+ * @see WarmUpRunner
+ * @author pwilson
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface JaxRsWarmUp {
+
+	/**
+	 * How many times each request is sent.
+	 */
+	int iterations() default 100;
+
+	/**
+	 * The longest warm-up may delay the start of the server.
+	 */
+	long maxDurationMillis() default 30000;
+
+	/**
+	 * Whether requests are also generated for methods other than
+	 * <code>GET</code>, <code>HEAD</code> and <code>OPTIONS</code>, which
+	 * may change the state of the service.
+	 */
+	boolean unsafeMethods() default false;
+
+}
@@ -0,0 +1,39 @@
+package org.apache.cxf.cfgproto.spring.warmup;
+
+/**
+ * How a server is warmed up before it starts.
+ *
+ * @see JaxRsWarmUp
+ * @author pwilson
+ */
+public class WarmUpPolicy {
+
+	private int iterations = 100;
+	private long maxDurationMillis = 30000;
+	private boolean unsafeMethods;
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	public long getMaxDurationMillis() {
+		return maxDurationMillis;
+	}
+
+	public void setMaxDurationMillis(long maxDurationMillis) {
+		this.maxDurationMillis = maxDurationMillis;
+	}
+
+	public boolean isUnsafeMethods() {
+		return unsafeMethods;
+	}
+
+	public void setUnsafeMethods(boolean unsafeMethods) {
+		this.unsafeMethods = unsafeMethods;
+	}
+
+}
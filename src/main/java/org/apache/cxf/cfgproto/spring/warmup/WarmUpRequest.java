@@ -0,0 +1,64 @@
+package org.apache.cxf.cfgproto.spring.warmup;
+
+/**
+ * A synthetic request sent to a server while it warms up.
+ *
+ * @author pwilson
+ */
+public final class WarmUpRequest {
+
+	private final String method;
+	private final String path;
+	private final String contentType;
+	private final String accept;
+	private final Object body;
+
+	/**
+	 * @param method the HTTP method
+	 * @param path the path, relative to the address of the server
+	 * @param contentType the media type of the body, or <code>null</code> if none is sent
+	 * @param accept the acceptable media type of the response
+	 * @param body the body, written by the providers of the server, or <code>null</code>
+	 */
+	public WarmUpRequest(String method, String path, String contentType, String accept, Object body) {
+		this.method = method;
+		this.path = path;
+		this.contentType = contentType;
+		this.accept = accept;
+		this.body = body;
+	}
+
+	public static WarmUpRequest get(String path, String accept) {
+		return new WarmUpRequest("GET", path, null, accept, null);
+	}
+
+	public static WarmUpRequest post(String path, String contentType, Object body, String accept) {
+		return new WarmUpRequest("POST", path, contentType, accept, body);
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getAccept() {
+		return accept;
+	}
+
+	public Object getBody() {
+		return body;
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + path;
+	}
+
+}
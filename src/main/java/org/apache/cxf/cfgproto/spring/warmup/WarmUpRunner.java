@@ -0,0 +1,233 @@
+package org.apache.cxf.cfgproto.spring.warmup;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.ClassHelper;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.Parameter;
+import org.apache.cxf.jaxrs.model.ParameterType;
+import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.transport.local.LocalConduit;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Sends the synthetic requests of a warm-up to a server over the local
+ * transport.
+ * <p>
+ * Requests are generated from the resource methods of the services not
+ * supplying their own {@link WarmUpSamples}: path parameters are given
+ * <code>1</code>, or <code>true</code> when boolean, and bodies are an
+ * empty instance of their type, or a short string. Methods whose body
+ * cannot be created that way are left cold. Each request is sent the
+ * configured number of times, round after round, until the time allowed
+ * runs out; requests failing on the client side are not sent again.
+ * Responses of any status count, as the code paths are warmed all the same.
+ *
+ * @author pwilson
+ */
+public class WarmUpRunner {
+
+	/**
+	 * Set on every synthetic request.
+	 */
+	public static final String WARM_UP_HEADER = "X-Warm-Up";
+
+	private static final Logger LOG = LogUtils.getLogger(WarmUpRunner.class);
+	private static final Set<String> SAFE_METHODS = ImmutableSet.of("GET", "HEAD", "OPTIONS");
+
+	private final WarmUpPolicy policy;
+	private final Ticker ticker;
+
+	public WarmUpRunner(WarmUpPolicy policy) {
+		this(policy, Ticker.systemTicker());
+	}
+
+	public WarmUpRunner(WarmUpPolicy policy, Ticker ticker) {
+		this.policy = policy;
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Collects the requests supplied by the services, and generates those of
+	 * the other resources.
+	 *
+	 * @param resources the root resources of the server
+	 * @param services the service beans of the server
+	 */
+	public List<WarmUpRequest> createRequests(List<ClassResourceInfo> resources, List<?> services) {
+		List<WarmUpRequest> requests = new ArrayList<WarmUpRequest>();
+		Set<Class<?>> supplied = new HashSet<Class<?>>();
+		for (Object service: services) {
+			if (service instanceof WarmUpSamples) {
+				requests.addAll(((WarmUpSamples) service).getWarmUpRequests());
+				supplied.add(ClassHelper.getRealClass(service));
+			}
+		}
+		for (ClassResourceInfo resource: resources) {
+			if (supplied.contains(resource.getServiceClass())) {
+				continue;
+			}
+			for (OperationResourceInfo operation: resource.getMethodDispatcher().getOperationResourceInfos()) {
+				String method = operation.getHttpMethod();
+				if (method == null || !(policy.isUnsafeMethods() || SAFE_METHODS.contains(method))) {
+					continue;
+				}
+				WarmUpRequest request = generate(resource, operation);
+				if (request != null) {
+					requests.add(request);
+				}
+			}
+		}
+		return requests;
+	}
+
+	/**
+	 * Sends the requests to the server.
+	 *
+	 * @param address the address of the server on the local transport
+	 * @param bus the bus of the server
+	 * @param requests the requests to send
+	 * @param providers the providers writing request bodies
+	 * @return the number of requests sent
+	 */
+	public int run(String address, Bus bus, List<WarmUpRequest> requests, List<?> providers) {
+		long start = ticker.read();
+		long deadline = start + MILLISECONDS.toNanos(policy.getMaxDurationMillis());
+		Map<WarmUpRequest, WebClient> clients = new LinkedHashMap<WarmUpRequest, WebClient>();
+		for (WarmUpRequest request: requests) {
+			clients.put(request, createClient(address, bus, request, providers));
+		}
+		int sent = 0;
+		for (int i = 0; i < policy.getIterations() && !clients.isEmpty(); i++) {
+			for (Map.Entry<WarmUpRequest, WebClient> entry: new ArrayList<Map.Entry<WarmUpRequest, WebClient>>(clients.entrySet())) {
+				if (ticker.read() - deadline >= 0) {
+					LOG.warning("Warm-up of [" + address + "] stopped after " + policy.getMaxDurationMillis() + "ms");
+					return sent;
+				}
+				try {
+					Response response = entry.getValue().invoke(entry.getKey().getMethod(), entry.getKey().getBody());
+					response.close();
+					sent++;
+				} catch (RuntimeException e) {
+					LOG.log(Level.FINE, "Not warming up " + entry.getKey() + " of [" + address + "]", e);
+					clients.remove(entry.getKey());
+				}
+			}
+		}
+		LOG.info("Warmed up [" + address + "] with " + sent + " requests in "
+				+ NANOSECONDS.toMillis(ticker.read() - start) + "ms");
+		return sent;
+	}
+
+	private static WebClient createClient(String address, Bus bus, WarmUpRequest request, List<?> providers) {
+		JAXRSClientFactoryBean factoryBean = new JAXRSClientFactoryBean();
+		factoryBean.setAddress(address);
+		factoryBean.setBus(bus);
+		factoryBean.setProviders(providers);
+		WebClient client = factoryBean.createWebClient().path(request.getPath()).header(WARM_UP_HEADER, "true");
+		if (request.getAccept() != null) {
+			client.accept(request.getAccept());
+		}
+		if (request.getContentType() != null) {
+			client.type(request.getContentType());
+		}
+		WebClient.getConfig(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+		return client;
+	}
+
+	private static WarmUpRequest generate(ClassResourceInfo resource, OperationResourceInfo operation) {
+		Class<?>[] parameterTypes = operation.getMethodToInvoke().getParameterTypes();
+		Map<String, String> pathValues = new HashMap<String, String>();
+		Object body = null;
+		boolean hasBody = false;
+		for (Parameter parameter: operation.getParameters()) {
+			Class<?> type = parameterTypes[parameter.getIndex()];
+			if (parameter.getType() == ParameterType.PATH) {
+				pathValues.put(parameter.getName(), boolean.class == type || Boolean.class == type ? "true" : "1");
+			} else if (parameter.getType() == ParameterType.REQUEST_BODY) {
+				hasBody = true;
+				body = sampleBody(type);
+				if (body == null) {
+					return null;
+				}
+			}
+		}
+		String path = join(substitute(resource.getURITemplate(), pathValues), substitute(operation.getURITemplate(), pathValues));
+		String accept = firstConcrete(operation.getProduceTypes(), MediaType.WILDCARD);
+		if (!hasBody) {
+			return new WarmUpRequest(operation.getHttpMethod(), path, null, accept, null);
+		}
+		String contentType = firstConcrete(operation.getConsumeTypes(), body instanceof String ? MediaType.TEXT_PLAIN : null);
+		if (contentType == null) {
+			return null;
+		}
+		return new WarmUpRequest(operation.getHttpMethod(), path, contentType, accept, body);
+	}
+
+	private static Object sampleBody(Class<?> type) {
+		if (type == String.class) {
+			return "warm-up";
+		}
+		if (type == byte[].class) {
+			return new byte[0];
+		}
+		try {
+			return type.getConstructor().newInstance();
+		} catch (Exception e) {
+			return null;
+		} catch (LinkageError e) {
+			return null;
+		}
+	}
+
+	private static String substitute(URITemplate template, Map<String, String> pathValues) {
+		if (template == null) {
+			return "";
+		}
+		Map<String, String> values = new HashMap<String, String>();
+		for (String variable: template.getVariables()) {
+			values.put(variable, pathValues.containsKey(variable) ? pathValues.get(variable) : "1");
+		}
+		return template.substitute(values, Collections.<String>emptySet(), false);
+	}
+
+	private static String join(String first, String second) {
+		String joined = first.endsWith("/") ? first.substring(0, first.length() - 1) : first;
+		if (second.length() > 0 && !"/".equals(second)) {
+			joined += second.startsWith("/") ? second : "/" + second;
+		}
+		return joined.length() == 0 ? "/" : joined;
+	}
+
+	private static String firstConcrete(List<MediaType> mediaTypes, String otherwise) {
+		for (MediaType mediaType: mediaTypes) {
+			if (!mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+				return mediaType.getType() + "/" + mediaType.getSubtype();
+			}
+		}
+		return otherwise;
+	}
+
+}
@@ -0,0 +1,18 @@
+package org.apache.cxf.cfgproto.spring.warmup;
+
+import java.util.List;
+
+/**
+ * Implemented by services that supply the requests by which they are warmed
+ * up, in place of those generated from their resource methods.
+ *
+ * @author pwilson
+ */
+public interface WarmUpSamples {
+
+	/**
+	 * @return the requests to send, relative to the address of the server
+	 */
+	List<WarmUpRequest> getWarmUpRequests();
+
+}
@@ -0,0 +1,153 @@
+package com.test.app.testsupport;
+
+import java.util.Arrays;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurationFactoryBean;
+import org.apache.cxf.endpoint.EndpointImpl;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.Feature;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * A server started in an application context of its own, for tests calling
+ * it over the local transport. The server is either declared here, as a
+ * {@link JaxRsServerConfigurationFactoryBean} listening on the local
+ * transport, or by {@link #configuredBy configuration classes}.
+ * <p>
+ * Clients are created on the bus of the server, because local destinations
+ * are held per bus, and use the direct dispatch message mode to prevent
+ * them from timing out in the absence of an acknowledgement.
+ * 
+ * @author pwilson
+ */
+public class LocalJaxRsServer {
+
+	private final String serverName;
+	private final String address;
+	private final GenericBeanDefinition definition;
+	private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+	/**
+	 * Declares a server with the given name and local address, to be
+	 * configured before it is {@link #start() started}.
+	 */
+	public LocalJaxRsServer(String serverName, String address) {
+		this.serverName = serverName;
+		this.address = address;
+		this.definition = new GenericBeanDefinition();
+		definition.setBeanClass(JaxRsServerConfigurationFactoryBean.class);
+		definition.getPropertyValues().add("address", address)
+									  .add("transport", LocalEndpointRegistry.LOCAL_TRANSPORT_ID);
+	}
+
+	private LocalJaxRsServer(String serverName, String address, Class<?>... configurationClasses) {
+		this.serverName = serverName;
+		this.address = address;
+		this.definition = null;
+		context.register(configurationClasses);
+	}
+
+	/**
+	 * Prepares a server declared by configuration classes, to be
+	 * {@link #start() started}.
+	 *
+	 * @param serverName the name of the server declared by the classes
+	 * @param address the local address the server listens on
+	 * @param configurationClasses the configuration classes
+	 */
+	public static LocalJaxRsServer configuredBy(String serverName, String address, Class<?>... configurationClasses) {
+		return new LocalJaxRsServer(serverName, address, configurationClasses);
+	}
+
+	/**
+	 * Sets a property of the server's factory bean.
+	 */
+	public LocalJaxRsServer property(String name, Object value) {
+		if (definition == null) {
+			throw new IllegalStateException("Server [" + serverName + "] is declared by configuration classes");
+		}
+		definition.getPropertyValues().add(name, value);
+		return this;
+	}
+
+	public LocalJaxRsServer services(Object... services) {
+		return property("serviceBeans", Arrays.asList(services));
+	}
+
+	public LocalJaxRsServer providers(Object... providers) {
+		return property("providers", Arrays.asList(providers));
+	}
+
+	public LocalJaxRsServer features(Feature... features) {
+		return property("features", Arrays.asList(features));
+	}
+
+	/**
+	 * Adds a bean to the context of the server, such as a configurer.
+	 */
+	public LocalJaxRsServer bean(String name, Object bean) {
+		context.getBeanFactory().registerSingleton(name, bean);
+		return this;
+	}
+
+	public LocalJaxRsServer start() {
+		if (definition != null) {
+			context.registerBeanDefinition(serverName, definition);
+		}
+		context.refresh();
+		return this;
+	}
+
+	/**
+	 * Closes the context of the server, if it was started and is still
+	 * open.
+	 */
+	public void stop() {
+		if (context.isActive()) {
+			context.close();
+		}
+	}
+
+	/**
+	 * Creates a client of the server for the given path.
+	 */
+	public WebClient client(String path) {
+		return client(getBus(), address, path);
+	}
+
+	/**
+	 * Creates a client for the given path under a local address, calling
+	 * the servers of the given bus.
+	 */
+	public static WebClient client(Bus bus, String address, String path) {
+		JAXRSClientFactoryBean factoryBean = new JAXRSClientFactoryBean();
+		factoryBean.setAddress(address);
+		factoryBean.setBus(bus);
+		WebClient client = factoryBean.createWebClient().path(path);
+		WebClient.getConfig(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+		return client;
+	}
+
+	public Server getServer() {
+		return context.getBean(serverName, Server.class);
+	}
+
+	public JaxRsServerConfigurationFactoryBean getFactoryBean() {
+		return context.getBean("&" + serverName, JaxRsServerConfigurationFactoryBean.class);
+	}
+
+	public Bus getBus() {
+		return ((EndpointImpl) getServer().getEndpoint()).getBus();
+	}
+
+	public AnnotationConfigApplicationContext getContext() {
+		return context;
+	}
+
+}
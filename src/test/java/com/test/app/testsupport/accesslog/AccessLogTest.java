@@ -0,0 +1,186 @@
+package com.test.app.testsupport.accesslog;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.cfgproto.spring.accesslog.AccessLog;
+import org.apache.cxf.cfgproto.spring.accesslog.AccessLogPolicy;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests writing access logs.
+ */
+public class AccessLogTest {
+
+	private static final String ADDRESS = "local://access-log";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final AccessLogPolicy policy = new AccessLogPolicy();
+	private final LocalJaxRsServer server = new LocalJaxRsServer("accessLogServer", ADDRESS);
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldWriteRequestsOnceServerStops() throws IOException {
+		File file = new File(folder.getRoot(), "logs/access.log");
+		policy.setFile(file.getPath());
+		policy.setHeaders(new String[] {"X-Request-Id", "Referer"});
+		startServer();
+
+		client("/items/1").header("X-Request-Id", "abc").get(String.class);
+		client("/items/22").query("page", 2).get(String.class);
+		assertThat(client("/nowhere").get().getStatus(), is(404));
+		assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(
+				JaxRsManagementUtils.serverObjectName("AccessLog", "accessLogServer")), is(true));
+		server.stop();
+
+		List<String> lines = Files.readLines(file, Charsets.UTF_8);
+		assertThat(lines, hasSize(3));
+		assertThat(lines.get(0), startsWith("- - - ["));
+		assertThat(lines.get(0), containsString("] \"GET /items/1\" 200 6 "));
+		assertThat(lines.get(0), endsWith(" \"abc\" -"));
+		assertThat(lines.get(1), containsString("\"GET /items/22?page=2\" 200 7 "));
+		assertThat(lines.get(1), endsWith(" - -"));
+		assertThat(lines.get(2), containsString("\"GET /nowhere\" 404 "));
+	}
+
+	@Test
+	public void shouldWriteRequestsAfterServerRestarts() throws IOException {
+		File file = new File(folder.getRoot(), "access.log");
+		policy.setFile(file.getPath());
+		startServer();
+		Server endpoint = server.getServer();
+
+		client("/items/1").get(String.class);
+		endpoint.stop();
+		endpoint.start();
+		client("/items/2").get(String.class);
+		server.stop();
+
+		List<String> lines = Files.readLines(file, Charsets.UTF_8);
+		assertThat(lines, hasSize(2));
+		assertThat(lines.get(1), containsString("\"GET /items/2\" 200 "));
+	}
+
+	@Test
+	public void shouldStartAgainAfterStopping() throws IOException {
+		File file = new File(folder.getRoot(), "access.log");
+		policy.setFile(file.getPath());
+		AccessLog accessLog = policy.createAccessLog("test");
+
+		accessLog.start();
+		accessLog.append(request("/a"), 200, 1, 1000);
+		accessLog.stop();
+		accessLog.start();
+		accessLog.append(request("/b"), 200, 1, 1000);
+		accessLog.stop();
+
+		assertThat(accessLog.getWrittenCount(), is(2L));
+		assertThat(Files.readLines(file, Charsets.UTF_8), hasSize(2));
+	}
+
+	@Test
+	public void shouldDropRequestsWhenRingIsFull() throws IOException {
+		File file = folder.newFile("access.log");
+		policy.setFile(file.getPath());
+		policy.setCapacity(2);
+		AccessLog accessLog = policy.createAccessLog("test");
+
+		assertThat(accessLog.append(request("/a"), 200, 1, 1000), is(true));
+		assertThat(accessLog.append(request("/b"), 200, 1, 1000), is(true));
+		assertThat(accessLog.append(request("/c"), 200, 1, 1000), is(false));
+		assertThat(accessLog.getPending(), is(2));
+		assertThat(accessLog.getDroppedCount(), is(1L));
+		accessLog.start();
+		accessLog.stop();
+
+		assertThat(accessLog.getWrittenCount(), is(2L));
+		assertThat(accessLog.getPending(), is(0));
+		assertThat(Files.readLines(file, Charsets.UTF_8), hasSize(2));
+	}
+
+	@Test
+	public void shouldRotateFilesReachingMaximumSize() throws IOException {
+		File file = new File(folder.getRoot(), "access.log");
+		policy.setFile(file.getPath());
+		policy.setMaxFileSize(1);
+		policy.setMaxFiles(2);
+		AccessLog accessLog = policy.createAccessLog("test");
+		accessLog.start();
+		for (String uri: Arrays.asList("/a", "/b", "/c", "/d")) {
+			accessLog.append(request(uri), 200, -1, 1000);
+			while (accessLog.getPending() > 0) {
+				Thread.yield();
+			}
+		}
+		accessLog.stop();
+
+		assertThat(Files.toString(file, Charsets.UTF_8), containsString("/d\" 200 - 1"));
+		assertThat(Files.toString(new File(file.getPath() + ".1"), Charsets.UTF_8), containsString("/c\""));
+		assertThat(Files.toString(new File(file.getPath() + ".2"), Charsets.UTF_8), containsString("/b\""));
+		assertThat(new File(file.getPath() + ".3").exists(), is(false));
+	}
+
+	private static Message request(String uri) {
+		Message request = new MessageImpl();
+		request.put(Message.HTTP_REQUEST_METHOD, "GET");
+		request.put(Message.REQUEST_URI, uri);
+		return request;
+	}
+
+	private void startServer() {
+		server.property("accessLog", policy)
+			  .services(new ItemService())
+			  .start();
+	}
+
+	private WebClient client(String path) {
+		return server.client(path).accept(MediaType.TEXT_PLAIN);
+	}
+
+	@Path("/items")
+	public static class ItemService {
+
+		@GET
+		@Path("/{id}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String item(@PathParam("id") String id) {
+			return "item " + id;
+		}
+
+	}
+
+}
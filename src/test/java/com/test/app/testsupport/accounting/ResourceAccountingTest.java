@@ -0,0 +1,156 @@
+package com.test.app.testsupport.accounting;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.cfgproto.spring.accounting.EndpointUsage;
+import org.apache.cxf.cfgproto.spring.accounting.Histogram;
+import org.apache.cxf.cfgproto.spring.accounting.ResourceAccounting;
+import org.apache.cxf.cfgproto.spring.accounting.ResourceAccountingPolicy;
+import org.apache.cxf.cfgproto.spring.priority.PrioritySchedulingPolicy;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests attributing the CPU time and allocations of requests to resource methods.
+ */
+public class ResourceAccountingTest {
+
+	private static final String ADDRESS = "local://resource-accounting";
+	private static final String SERVER_NAME = "accountedServer";
+	private static final int ALLOCATION = 4 * 1024 * 1024;
+
+	private final CapturingPolicy policy = new CapturingPolicy();
+	private final LocalJaxRsServer server = new LocalJaxRsServer(SERVER_NAME, ADDRESS);
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldAttributeAllocationsToResourceMethods() throws Exception {
+		startServer(null);
+
+		for (int i = 0; i < 5; i++) {
+			client("/usage/expensive").get(String.class);
+			client("/usage/cheap").get(String.class);
+		}
+		client("/usage/missing").get();
+
+		ResourceAccounting accounting = accounting();
+		EndpointUsage expensive = accounting.getUsage("GET UsageService.expensive");
+		EndpointUsage cheap = accounting.getUsage("GET UsageService.cheap");
+		assertThat(expensive.getCalls(), is(5L));
+		assertThat(expensive.getAllocatedBytes().getPercentile(50), is(greaterThan((long) ALLOCATION)));
+		assertThat(cheap.getAllocatedBytes().getMean(), is(lessThan((double) ALLOCATION)));
+		assertThat(accounting.getUsage(ResourceAccounting.UNMATCHED).getCalls(), is(1L));
+		assertThat(endpointsOf(accounting.getTopByAllocatedBytes(1)), contains("GET UsageService.expensive"));
+		String[] top = (String[]) ManagementFactory.getPlatformMBeanServer().getAttribute(
+				JaxRsManagementUtils.serverObjectName("ResourceAccounting", SERVER_NAME), "TopEndpointsByAllocatedBytes");
+		assertThat(top[0], startsWith("GET UsageService.expensive: 5 calls"));
+	}
+
+	@Test
+	public void shouldMeterResourceMethodsOnExecutorThreads() throws Exception {
+		startServer(new PrioritySchedulingPolicy(2, 10));
+
+		for (int i = 0; i < 3; i++) {
+			client("/usage/expensive").get(String.class);
+		}
+
+		EndpointUsage expensive = accounting().getUsage("GET UsageService.expensive");
+		assertThat(expensive.getCalls(), is(3L));
+		assertThat(expensive.getAllocatedBytes().getPercentile(50), is(greaterThan((long) ALLOCATION)));
+	}
+
+	@Test
+	public void shouldBucketValuesByPowersOfTwo() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i);
+		}
+
+		assertThat(histogram.getCount(), is(100L));
+		assertThat(histogram.getMean(), is(50.5));
+		assertThat(histogram.getPercentile(50), is(63L));
+		assertThat(histogram.getPercentile(100), is(100L));
+	}
+
+	private void startServer(PrioritySchedulingPolicy priorityScheduling) {
+		server.property("resourceAccounting", policy)
+			  .services(new UsageService());
+		if (priorityScheduling != null) {
+			server.property("priorityScheduling", priorityScheduling);
+		}
+		server.start();
+	}
+
+	private ResourceAccounting accounting() {
+		return policy.accounting;
+	}
+
+	private WebClient client(String path) {
+		return server.client(path).accept(MediaType.TEXT_PLAIN);
+	}
+
+	private static List<String> endpointsOf(List<EndpointUsage> usages) {
+		return Lists.transform(usages, new Function<EndpointUsage, String>() {
+			@Override
+			public String apply(EndpointUsage usage) {
+				return usage.getEndpoint();
+			}
+		});
+	}
+
+	private static class CapturingPolicy extends ResourceAccountingPolicy {
+
+		ResourceAccounting accounting;
+
+		@Override
+		public ResourceAccounting createAccounting() {
+			accounting = super.createAccounting();
+			return accounting;
+		}
+
+	}
+
+	@Path("/usage")
+	public static class UsageService {
+
+		@GET
+		@Path("/expensive")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String expensive() {
+			byte[] allocated = new byte[ALLOCATION];
+			return String.valueOf(allocated.length);
+		}
+
+		@GET
+		@Path("/cheap")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String cheap() {
+			return "cheap";
+		}
+
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.test.app.testsupport.adaptive;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.bus.managers.ServerLifeCycleManagerImpl;
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimitFeature;
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimitPolicy;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerLifeCycleListener;
+import org.apache.cxf.endpoint.ServerLifeCycleManager;
+import org.apache.cxf.feature.Feature;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the limiter MBean follows the life of its server.
+ */
+public class AdaptiveConcurrencyLimitFeatureTest {
+
+	private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+	private final ObjectName objectName = JaxRsManagementUtils.serverObjectName("AdaptiveConcurrencyLimiter", "adaptiveServer");
+	private final RecordingServerLifeCycleManager lifeCycleManager = new RecordingServerLifeCycleManager();
+
+	private Bus bus;
+
+	@Before
+	public void createBus() {
+		bus = BusFactory.newInstance().createBus();
+		bus.setExtension(lifeCycleManager, ServerLifeCycleManager.class);
+	}
+
+	@After
+	public void shutdownBus() {
+		bus.shutdown(true);
+	}
+
+	@Test
+	public void shouldRegisterMBeanAgainWhenServerRestarts() {
+		Server server = createServer("local://adaptive");
+		assertThat(mbeanServer.isRegistered(objectName), is(true));
+
+		server.stop();
+		assertThat(mbeanServer.isRegistered(objectName), is(false));
+
+		server.start();
+		assertThat(mbeanServer.isRegistered(objectName), is(true));
+		server.destroy();
+	}
+
+	@Test
+	public void shouldUnregisterListenersOfDestroyedServers() {
+		Server first = createServer("local://adaptive");
+		int listenersPerServer = lifeCycleManager.listeners.size();
+
+		createServer("local://destroyed").destroy();
+		Server second = createServer("local://other");
+
+		assertThat(lifeCycleManager.listeners, hasSize(2 * listenersPerServer));
+		first.destroy();
+		second.destroy();
+	}
+
+	private Server createServer(String address) {
+		AdaptiveConcurrencyLimitPolicy policy = new AdaptiveConcurrencyLimitPolicy();
+		JAXRSServerFactoryBean factoryBean = new JAXRSServerFactoryBean();
+		factoryBean.setBus(bus);
+		factoryBean.setAddress(address);
+		factoryBean.setServiceBean(new PingService());
+		factoryBean.setFeatures(Collections.<Feature>singletonList(
+				new AdaptiveConcurrencyLimitFeature(policy, "adaptiveServer")));
+		return factoryBean.create();
+	}
+
+	private static class RecordingServerLifeCycleManager extends ServerLifeCycleManagerImpl {
+		final List<ServerLifeCycleListener> listeners = new CopyOnWriteArrayList<ServerLifeCycleListener>();
+
+		@Override
+		public synchronized void registerListener(ServerLifeCycleListener listener) {
+			super.registerListener(listener);
+			listeners.add(listener);
+		}
+
+		@Override
+		public synchronized void unRegisterListener(ServerLifeCycleListener listener) {
+			super.unRegisterListener(listener);
+			listeners.remove(listener);
+		}
+	}
+
+	@Path("/ping")
+	public static class PingService {
+		@GET
+		public String ping() {
+			return "pong";
+		}
+	}
+
+}
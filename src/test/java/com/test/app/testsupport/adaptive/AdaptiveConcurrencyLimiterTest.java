@@ -0,0 +1,84 @@
+package com.test.app.testsupport.adaptive;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimitPolicy;
+import org.apache.cxf.cfgproto.spring.adaptive.AdaptiveConcurrencyLimiter;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Tests that the adaptive limit follows observed latency.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+	private final ManualTicker ticker = new ManualTicker();
+
+	@Test
+	public void shouldShedRequestsBeyondTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = limiter(2);
+		assertThat(limiter.tryAcquire(), is(true));
+		assertThat(limiter.tryAcquire(), is(true));
+		assertThat(limiter.tryAcquire(), is(false));
+		assertThat(limiter.getShedCount(), is(1L));
+	}
+
+	@Test
+	public void shouldGrowTheLimitWhileLatencyHoldsSteady() {
+		AdaptiveConcurrencyLimiter limiter = limiter(20);
+		for (int window = 0; window < 10; window++) {
+			runWindowAtFullLoad(limiter, 10);
+		}
+		assertThat(limiter.getLimit(), greaterThan(20));
+	}
+
+	@Test
+	public void shouldShrinkTheLimitWhenLatencyRises() {
+		AdaptiveConcurrencyLimiter limiter = limiter(20);
+		for (int window = 0; window < 5; window++) {
+			runWindowAtFullLoad(limiter, 10);
+		}
+		int steadyLimit = limiter.getLimit();
+		for (int window = 0; window < 5; window++) {
+			runWindowAtFullLoad(limiter, 100);
+		}
+		assertThat(limiter.getLimit(), lessThan(steadyLimit));
+	}
+
+	private void runWindowAtFullLoad(AdaptiveConcurrencyLimiter limiter, long rttMillis) {
+		int admitted = 0;
+		while (limiter.tryAcquire()) {
+			admitted++;
+		}
+		ticker.advance(1000);
+		for (int i = 0; i < admitted; i++) {
+			limiter.release(MILLISECONDS.toNanos(rttMillis));
+		}
+	}
+
+	private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+		AdaptiveConcurrencyLimitPolicy policy = new AdaptiveConcurrencyLimitPolicy();
+		policy.setInitialLimit(initialLimit);
+		policy.setMinWindowSamples(1);
+		return new AdaptiveConcurrencyLimiter(policy, ticker);
+	}
+
+	private static class ManualTicker extends Ticker {
+		private long nanos = 1L;
+
+		@Override
+		public long read() {
+			return nanos;
+		}
+
+		void advance(long millis) {
+			nanos += MILLISECONDS.toNanos(millis);
+		}
+	}
+
+}
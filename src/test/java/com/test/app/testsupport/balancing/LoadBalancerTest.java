@@ -0,0 +1,148 @@
+package com.test.app.testsupport.balancing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cxf.cfgproto.spring.client.balancing.AddressSupplier;
+import org.apache.cxf.cfgproto.spring.client.balancing.BalancedAddress;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancer;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancerPolicy;
+import org.apache.cxf.cfgproto.spring.client.balancing.LoadBalancingStrategy;
+import org.apache.cxf.cfgproto.spring.client.balancing.StaticAddressSupplier;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Tests address selection and outlier ejection.
+ */
+public class LoadBalancerTest {
+
+	private static final String A = "http://a:8080/api";
+	private static final String B = "http://b:8080/api";
+	private static final String C = "http://c:8080/api";
+
+	private final ManualTicker ticker = new ManualTicker();
+
+	@Test
+	public void shouldRotateAddressesInRoundRobin() {
+		LoadBalancer loadBalancer = loadBalancer(LoadBalancingStrategy.ROUND_ROBIN);
+		List<String> chosen = new ArrayList<String>();
+		for (int i = 0; i < 6; i++) {
+			BalancedAddress address = loadBalancer.choose();
+			chosen.add(address.getAddress());
+			loadBalancer.onSuccess(address);
+		}
+		assertThat(chosen, contains(A, B, C, A, B, C));
+	}
+
+	@Test
+	public void shouldChooseTheAddressWithFewestOutstandingCalls() {
+		LoadBalancer loadBalancer = loadBalancer(LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS);
+		BalancedAddress first = loadBalancer.choose();
+		BalancedAddress second = loadBalancer.choose();
+		BalancedAddress third = loadBalancer.choose();
+		loadBalancer.onSuccess(second);
+		assertThat(first, not(second));
+		assertThat(third, not(first));
+		assertThat(loadBalancer.choose(), is(second));
+	}
+
+	@Test
+	public void shouldEjectAnAddressFailingRepeatedlyUntilTheEjectionEnds() {
+		LoadBalancer loadBalancer = loadBalancer(LoadBalancingStrategy.ROUND_ROBIN);
+		BalancedAddress failing = failRepeatedly(loadBalancer, A);
+		for (int i = 0; i < 10; i++) {
+			BalancedAddress address = loadBalancer.choose();
+			assertThat(address, not(failing));
+			loadBalancer.onSuccess(address);
+		}
+		ticker.advance(1000);
+		boolean chosenAgain = false;
+		for (int i = 0; i < 3; i++) {
+			BalancedAddress address = loadBalancer.choose();
+			chosenAgain |= address == failing;
+			loadBalancer.onSuccess(address);
+		}
+		assertThat(chosenAgain, is(true));
+	}
+
+	@Test
+	public void shouldNotEjectMoreThanTheMaximumShareOfAddresses() {
+		LoadBalancer loadBalancer = loadBalancer(LoadBalancingStrategy.ROUND_ROBIN);
+		failRepeatedly(loadBalancer, A);
+		BalancedAddress stillAvailable = failRepeatedly(loadBalancer, B);
+		boolean chosen = false;
+		for (int i = 0; i < 4; i++) {
+			BalancedAddress address = loadBalancer.choose();
+			chosen |= address == stillAvailable;
+			loadBalancer.onSuccess(address);
+		}
+		assertThat(chosen, is(true));
+	}
+
+	@Test
+	public void shouldRefuseToChooseWhenNoAddressesAreSupplied() {
+		for (LoadBalancingStrategy strategy: LoadBalancingStrategy.values()) {
+			LoadBalancer loadBalancer = new LoadBalancer(new LoadBalancerPolicy(new EmptyAddressSupplier(), strategy), ticker);
+			try {
+				loadBalancer.choose();
+				fail("Chose an address with none supplied, using " + strategy);
+			} catch (IllegalStateException expected) {
+			}
+		}
+	}
+
+	private BalancedAddress failRepeatedly(LoadBalancer loadBalancer, String target) {
+		BalancedAddress failed = null;
+		int failures = 0;
+		while (failures < 3) {
+			BalancedAddress address = loadBalancer.choose();
+			if (address.getAddress().equals(target)) {
+				loadBalancer.onFailure(address);
+				failed = address;
+				failures++;
+			} else {
+				loadBalancer.onSuccess(address);
+			}
+		}
+		return failed;
+	}
+
+	private LoadBalancer loadBalancer(LoadBalancingStrategy strategy) {
+		LoadBalancerPolicy policy = new LoadBalancerPolicy(new StaticAddressSupplier(A, B, C + "/"), strategy);
+		policy.setConsecutiveFailures(3);
+		policy.setEjectionMillis(1000);
+		policy.setMaxEjectionPercent(34);
+		return new LoadBalancer(policy, ticker);
+	}
+
+	private static class EmptyAddressSupplier implements AddressSupplier {
+		@Override
+		public List<String> getAddresses() {
+			return Collections.emptyList();
+		}
+	}
+
+	private static class ManualTicker extends Ticker {
+		private long nanos = 1L;
+
+		@Override
+		public long read() {
+			return nanos;
+		}
+
+		void advance(long millis) {
+			nanos += MILLISECONDS.toNanos(millis);
+		}
+	}
+
+}
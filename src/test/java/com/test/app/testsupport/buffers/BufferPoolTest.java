@@ -0,0 +1,188 @@
+package com.test.app.testsupport.buffers;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPool;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.buffers.PooledBuffer;
+import org.apache.cxf.cfgproto.spring.buffers.PooledOutputStream;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests pooling buffers and writing responses through them.
+ */
+public class BufferPoolTest {
+
+	private static final String ADDRESS = "local://pooled-buffers";
+
+	private final BufferPoolPolicy policy = new BufferPoolPolicy();
+
+	@Test
+	public void shouldReuseReleasedBuffers() {
+		BufferPool pool = policy.createBufferPool();
+
+		PooledBuffer first = pool.acquire(1000);
+		byte[] array = first.array();
+		first.release();
+		first.release();
+		PooledBuffer second = pool.acquire(700);
+
+		assertThat(array.length, is(1024));
+		assertThat(second.array(), is(sameInstance(array)));
+		assertThat(pool.getAllocationCount(), is(1L));
+		assertThat(pool.getOutstandingCount(), is(1L));
+	}
+
+	@Test
+	public void shouldNotPoolBuffersBeyondLargestSizeClass() {
+		policy.setMaxPooledSize(4096);
+		BufferPool pool = policy.createBufferPool();
+
+		PooledBuffer first = pool.acquire(5000);
+		byte[] array = first.array();
+		first.release();
+
+		assertThat(array.length, is(5000));
+		assertThat(pool.acquire(5000).array(), is(not(sameInstance(array))));
+		assertThat(pool.getAllocatedBytes(), is(10000L));
+	}
+
+	@Test
+	public void shouldCollectBytesInPooledBuffers() throws Exception {
+		policy.setBufferSize(512);
+		BufferPool pool = policy.createBufferPool();
+		String content = Strings.repeat("0123456789", 200);
+
+		PooledOutputStream out = new PooledOutputStream(pool);
+		out.write(content.getBytes("US-ASCII"));
+		out.write('!');
+		ByteArrayOutputStream copy = new ByteArrayOutputStream();
+		out.writeTo(copy);
+		out.close();
+
+		assertThat(out.size(), is(2001L));
+		assertThat(copy.toString("US-ASCII"), is(content + "!"));
+		assertThat(pool.getAcquireCount(), is(4L));
+		assertThat(pool.getOutstandingCount(), is(0L));
+	}
+
+	@Test
+	public void shouldReportBuffersNeverReleased() throws Exception {
+		policy.setLeakDetection(true);
+		BufferPool pool = policy.createBufferPool();
+
+		pool.acquire(100);
+		for (int i = 0; i < 50 && pool.getLeakCount() == 0; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+
+		assertThat(pool.getLeakCount(), is(1L));
+	}
+
+	@Test
+	public void shouldWriteResponsesThroughPooledBuffers() throws Exception {
+		LocalJaxRsServer server = new LocalJaxRsServer("pooledServer", ADDRESS);
+		server.property("pooledBuffers", policy)
+			  .services(new TextService())
+			  .start();
+		try {
+			WebClient client = server.client("/text").accept(MediaType.TEXT_PLAIN);
+
+			for (int i = 0; i < 20; i++) {
+				assertThat(client.get(String.class), is(TextService.TEXT));
+			}
+
+			ObjectName name = JaxRsManagementUtils.serverObjectName("BufferPool", "pooledServer");
+			long acquired = (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "AcquireCount");
+			long allocations = (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "AllocationCount");
+			long outstanding = (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "OutstandingCount");
+			assertThat(acquired, is(greaterThan(19L)));
+			assertThat(allocations, is(lessThan(acquired)));
+			assertThat(outstanding, is(0L));
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void shouldReleaseBuffersOfResponsesThatFault() throws Exception {
+		LocalJaxRsServer server = new LocalJaxRsServer("faultingServer", ADDRESS);
+		server.property("pooledBuffers", policy)
+			  .features(new FaultingFeature())
+			  .services(new TextService())
+			  .start();
+		try {
+			WebClient client = server.client("/text").accept(MediaType.TEXT_PLAIN);
+
+			for (int i = 0; i < 5; i++) {
+				assertThat(client.get().getStatus(), is(500));
+			}
+
+			ObjectName name = JaxRsManagementUtils.serverObjectName("BufferPool", "faultingServer");
+			long acquired = (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "AcquireCount");
+			long outstanding = (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "OutstandingCount");
+			assertThat(acquired, is(greaterThan(4L)));
+			assertThat(outstanding, is(0L));
+		} finally {
+			server.stop();
+		}
+	}
+
+	/*
+	 * Faults responses once they have been written to the pooled buffer.
+	 */
+	private static class FaultingFeature extends AbstractFeature {
+
+		@Override
+		protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+			provider.getOutInterceptors().add(new AbstractPhaseInterceptor<Message>(Phase.POST_STREAM) {
+				@Override
+				public void handleMessage(Message message) {
+					throw new Fault(new IllegalStateException("Failed after writing"));
+				}
+			});
+		}
+
+	}
+
+	@Path("/text")
+	public static class TextService {
+
+		static final String TEXT = Strings.repeat("pooled ", 3000);
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String get() {
+			return TEXT;
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.test.app.testsupport.buffers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPool;
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.buffers.PooledBufferInterceptor;
+import org.apache.cxf.cfgproto.spring.buffers.PooledOutputStream;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.local.LocalConduit;
+
+import com.google.common.base.Strings;
+
+/**
+ * Measures the bytes allocated per call, and the calls per second, of a
+ * response whose writer must know its length before writing it: once
+ * buffering into a <code>ByteArrayOutputStream</code>, and once into pooled
+ * buffers with the response stream itself pooled. Calls are dispatched
+ * directly over the local transport, so client and server allocate on the
+ * measuring thread. Not run as part of the build; run the main method,
+ * optionally passing the number of measured calls.
+ */
+public class PooledBufferBenchmark {
+
+	private static final String ADDRESS = "local://buffer-benchmark";
+	private static final String DOCUMENT = Strings.repeat("The quick brown fox jumps over the lazy dog. ", 1500);
+
+	public static void main(String[] args) {
+		int calls = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		run("unpooled", null, calls);
+		run("pooled", new BufferPoolPolicy().createBufferPool(), calls);
+	}
+
+	private static void run(String name, BufferPool pool, int calls) {
+		Bus bus = BusFactory.newInstance().createBus();
+		JAXRSServerFactoryBean factoryBean = new JAXRSServerFactoryBean();
+		factoryBean.setBus(bus);
+		factoryBean.setAddress(ADDRESS);
+		factoryBean.setTransportId(LocalEndpointRegistry.LOCAL_TRANSPORT_ID);
+		factoryBean.setServiceBean(new DocumentService());
+		factoryBean.setProvider(new LengthPrefixingWriter(pool != null));
+		if (pool != null) {
+			factoryBean.getOutInterceptors().add(new PooledBufferInterceptor(pool));
+		}
+		Server server = factoryBean.create();
+		try {
+			JAXRSClientFactoryBean clientFactoryBean = new JAXRSClientFactoryBean();
+			clientFactoryBean.setBus(bus);
+			clientFactoryBean.setAddress(ADDRESS);
+			WebClient client = clientFactoryBean.createWebClient().path("/document").accept(MediaType.TEXT_PLAIN);
+			WebClient.getConfig(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+			for (int i = 0; i < calls / 5; i++) {
+				client.get(String.class);
+			}
+			long allocatedBefore = allocatedBytes();
+			long start = System.nanoTime();
+			for (int i = 0; i < calls; i++) {
+				client.get(String.class);
+			}
+			long elapsed = System.nanoTime() - start;
+			long allocated = allocatedBytes() - allocatedBefore;
+			System.out.printf("%-10s %10.0f bytes/call %10.1f MB/s allocated %10.0f calls/s%n", name + ":",
+							  (double) allocated / calls, allocated * 1e3 / elapsed, calls * 1e9 / elapsed);
+			if (pool != null) {
+				System.out.printf("%-10s %10.3f hit ratio %10d outstanding%n", "", pool.getHitRatio(), pool.getOutstandingCount());
+			}
+		} finally {
+			server.destroy();
+			bus.shutdown(true);
+		}
+	}
+
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	@Path("/document")
+	public static class DocumentService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public StringBuilder get() {
+			return new StringBuilder(DOCUMENT);
+		}
+
+	}
+
+	/*
+	 * Buffers the entity to set its length before writing it, as writers of
+	 * formats without a streaming length do.
+	 */
+	@Produces(MediaType.TEXT_PLAIN)
+	public static class LengthPrefixingWriter implements MessageBodyWriter<StringBuilder> {
+
+		private final boolean pooled;
+
+		LengthPrefixingWriter(boolean pooled) {
+			this.pooled = pooled;
+		}
+
+		@Override
+		public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+			return type == StringBuilder.class;
+		}
+
+		@Override
+		public long getSize(StringBuilder entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+			return -1;
+		}
+
+		@Override
+		public void writeTo(StringBuilder entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+				MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+			if (!pooled) {
+				ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+				write(entity, buffered);
+				httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, buffered.size());
+				buffered.writeTo(entityStream);
+				return;
+			}
+			PooledOutputStream buffered = new PooledOutputStream(BufferPool.current());
+			try {
+				write(entity, buffered);
+				httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, buffered.size());
+				buffered.writeTo(entityStream);
+			} finally {
+				buffered.close();
+			}
+		}
+
+		private static void write(StringBuilder entity, OutputStream out) throws IOException {
+			for (int i = 0; i < entity.length(); i++) {
+				out.write(entity.charAt(i));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.test.app.testsupport.buffers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import org.apache.cxf.cfgproto.spring.buffers.BufferPoolPolicy;
+import org.apache.cxf.cfgproto.spring.buffers.PooledBufferInterceptor;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+/**
+ * Measures the pooled buffer that {@link PooledBufferInterceptor} places in
+ * front of the stream of a message, on its own: the time and bytes
+ * allocated per message of writing a response, in writes of several sizes,
+ * to a stream that buffers as the streams of transports do. Messages are
+ * written once to that stream directly and once through the pooled buffer,
+ * which copies writes smaller than itself a second time. Not run as part of
+ * the build; run the main method, optionally passing the number of measured
+ * messages.
+ */
+public class PooledStreamBenchmark {
+
+	private static final int MESSAGE_SIZE = 64 * 1024;
+	private static final int[] WRITE_SIZES = {1, 64, 1024, 16384};
+
+	public static void main(String[] args) throws IOException {
+		int messages = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		PooledBufferInterceptor interceptor = new PooledBufferInterceptor(new BufferPoolPolicy().createBufferPool());
+		for (int writeSize: WRITE_SIZES) {
+			run("direct", null, writeSize, messages);
+			run("pooled", interceptor, writeSize, messages);
+		}
+	}
+
+	private static void run(String name, PooledBufferInterceptor interceptor, int writeSize, int messages) throws IOException {
+		byte[] chunk = new byte[writeSize];
+		TransportStream transport = new TransportStream();
+		for (int i = 0; i < messages / 5; i++) {
+			write(interceptor, transport, chunk);
+		}
+		long sentBefore = transport.sent;
+		long allocatedBefore = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < messages; i++) {
+			write(interceptor, transport, chunk);
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = allocatedBytes() - allocatedBefore;
+		System.out.printf("%-7s %6d-byte writes %10.0f ns/message %10.0f bytes/message %10.0f MB/s%n", name + ":", writeSize,
+						  (double) elapsed / messages, (double) allocated / messages, (transport.sent - sentBefore) * 1e3 / elapsed);
+	}
+
+	/*
+	 * Writes a message as a provider would, with the stream the interceptor
+	 * leaves on the message.
+	 */
+	private static void write(PooledBufferInterceptor interceptor, OutputStream transport, byte[] chunk) throws IOException {
+		Message message = new MessageImpl();
+		message.setExchange(new ExchangeImpl());
+		message.setContent(OutputStream.class, transport);
+		if (interceptor != null) {
+			interceptor.handleMessage(message);
+		}
+		OutputStream out = message.getContent(OutputStream.class);
+		for (int written = 0; written < MESSAGE_SIZE; written += chunk.length) {
+			if (chunk.length == 1) {
+				out.write(chunk[0]);
+			} else {
+				out.write(chunk, 0, chunk.length);
+			}
+		}
+		out.close();
+	}
+
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/*
+	 * Stands in for the stream of a transport, which buffers writes before
+	 * sending them; here they are counted and discarded.
+	 */
+	private static class TransportStream extends OutputStream {
+
+		private final byte[] buffer = new byte[8192];
+		private int count;
+		long sent;
+
+		@Override
+		public void write(int b) {
+			if (count == buffer.length) {
+				send();
+			}
+			buffer[count++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			while (len > 0) {
+				if (count == buffer.length) {
+					send();
+				}
+				int copied = Math.min(len, buffer.length - count);
+				System.arraycopy(b, off, buffer, count, copied);
+				count += copied;
+				off += copied;
+				len -= copied;
+			}
+		}
+
+		@Override
+		public void flush() {
+			send();
+		}
+
+		@Override
+		public void close() {
+			send();
+		}
+
+		private void send() {
+			sent += count;
+			count = 0;
+		}
+
+	}
+
+}
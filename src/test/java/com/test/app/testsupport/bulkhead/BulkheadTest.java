@@ -0,0 +1,254 @@
+package com.test.app.testsupport.bulkhead;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.JaxRsService;
+import org.apache.cxf.cfgproto.spring.JaxRsServiceRegistry;
+import org.apache.cxf.cfgproto.spring.bulkhead.Bulkhead;
+import org.apache.cxf.cfgproto.spring.bulkhead.BulkheadPolicy;
+import org.apache.cxf.cfgproto.spring.bulkhead.JaxRsBulkhead;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurer;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurerAdapter;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests the limits of a bulkhead, and bulkheads configured per service.
+ */
+public class BulkheadTest {
+
+	private static final String ADDRESS = "local://bulkheads";
+
+	private static CountDownLatch entered;
+	private static CountDownLatch release;
+
+	private final ExecutorService callers = Executors.newCachedThreadPool();
+	private final LocalJaxRsServer server = LocalJaxRsServer.configuredBy(
+			"bulkheadServer", ADDRESS, BulkheadServerConfiguration.class);
+
+	@Configuration
+	@JaxRsServer(serverName = "bulkheadServer", address = ADDRESS, transport = LocalTransportFactory.TRANSPORT_ID)
+	static class BulkheadServerConfiguration {
+		@JaxRsService
+		@JaxRsBulkhead(maxConcurrentCalls = 1, retryAfterSeconds = 7)
+		public Object reportService() {
+			return new ReportService();
+		}
+		@JaxRsService
+		public Object statusService() {
+			return new StatusService();
+		}
+		@Bean
+		public JaxRsServerConfigurer exportServiceWithBulkhead() {
+			return new JaxRsServerConfigurerAdapter() {
+				@Override
+				public void addServices(JaxRsServiceRegistry serviceRegistry) {
+					serviceRegistry.addService(new ExportService(), new BulkheadPolicy(1, 0, 0));
+				}
+			};
+		}
+	}
+
+	@Before
+	public void resetLatches() {
+		entered = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+	}
+
+	@After
+	public void stopServer() {
+		release.countDown();
+		callers.shutdownNow();
+		server.stop();
+	}
+
+	@Test
+	public void shouldLimitConcurrentCalls() {
+		Bulkhead bulkhead = new Bulkhead(2, 0, 0);
+
+		assertThat(bulkhead.tryEnter(), is(true));
+		assertThat(bulkhead.tryEnter(), is(true));
+		assertThat(bulkhead.tryEnter(), is(false));
+		bulkhead.exit();
+		assertThat(bulkhead.tryEnter(), is(true));
+		assertThat(bulkhead.getActiveCalls(), is(2));
+		assertThat(bulkhead.getRejectedCalls(), is(1L));
+	}
+
+	@Test
+	public void shouldLetAWaitingCallInWhenACallExits() throws Exception {
+		final Bulkhead bulkhead = new Bulkhead(1, 1, 5000);
+		bulkhead.tryEnter();
+
+		Future<Boolean> waiter = callers.submit(enter(bulkhead));
+		awaitWaiting(bulkhead, 1);
+		bulkhead.exit();
+
+		assertThat(waiter.get(5, SECONDS), is(true));
+		assertThat(bulkhead.getRejectedCalls(), is(0L));
+	}
+
+	@Test
+	public void shouldRefuseCallsBeyondTheWaitQueueAtOnce() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(1, 1, 5000);
+		bulkhead.tryEnter();
+
+		Future<Boolean> waiter = callers.submit(enter(bulkhead));
+		awaitWaiting(bulkhead, 1);
+
+		assertThat(bulkhead.tryEnter(), is(false));
+		assertThat(bulkhead.getRejectedCalls(), is(1L));
+		bulkhead.exit();
+		assertThat(waiter.get(5, SECONDS), is(true));
+	}
+
+	@Test
+	public void shouldGiveUpWaitingAfterTheMaximumWait() {
+		Bulkhead bulkhead = new Bulkhead(1, 1, 20);
+		bulkhead.tryEnter();
+
+		assertThat(bulkhead.tryEnter(), is(false));
+		assertThat(bulkhead.getWaitingCalls(), is(0));
+		assertThat(bulkhead.getRejectedCalls(), is(1L));
+	}
+
+	@Test
+	public void shouldRefuseCallsToAFullServiceWith503AndRetryAfter() throws Exception {
+		server.start();
+		Future<Response> first = callers.submit(get("/reports"));
+		assertThat(entered.await(5, SECONDS), is(true));
+
+		Response refused = client("/reports").get();
+
+		assertThat(refused.getStatus(), is(503));
+		assertThat(refused.getHeaderString(HttpHeaders.RETRY_AFTER), is("7"));
+		release.countDown();
+		assertThat(first.get(5, SECONDS).getStatus(), is(200));
+	}
+
+	@Test
+	public void shouldKeepOtherServicesAvailableWhileAServiceIsFull() throws Exception {
+		server.start();
+		callers.submit(get("/reports"));
+		assertThat(entered.await(5, SECONDS), is(true));
+
+		assertThat(client("/status").get().getStatus(), is(200));
+		assertThat(client("/exports").get().getStatus(), is(200));
+	}
+
+	@Test
+	public void shouldApplyBulkheadsOfServicesAddedToTheRegistry() throws Exception {
+		server.start();
+		Future<Response> first = callers.submit(get("/exports/blocking"));
+		assertThat(entered.await(5, SECONDS), is(true));
+
+		assertThat(client("/exports").get().getStatus(), is(503));
+		assertThat(client("/reports").get().getStatus(), is(200));
+		release.countDown();
+		assertThat(first.get(5, SECONDS).getStatus(), is(200));
+	}
+
+
+	private Callable<Response> get(final String path) {
+		return new Callable<Response>() {
+			@Override
+			public Response call() {
+				return client(path).get();
+			}
+		};
+	}
+
+	private WebClient client(String path) {
+		return server.client(path).accept(MediaType.TEXT_PLAIN);
+	}
+
+	private static Callable<Boolean> enter(final Bulkhead bulkhead) {
+		return new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				return bulkhead.tryEnter();
+			}
+		};
+	}
+
+	private static void awaitWaiting(Bulkhead bulkhead, int waiting) throws InterruptedException {
+		for (int i = 0; i < 500 && bulkhead.getWaitingCalls() < waiting; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(bulkhead.getWaitingCalls(), is(waiting));
+	}
+
+	private static String block() {
+		entered.countDown();
+		try {
+			release.await(5, SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "done";
+	}
+
+	@Path("/reports")
+	public static class ReportService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String report() {
+			return block();
+		}
+
+	}
+
+	@Path("/exports")
+	public static class ExportService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String export() {
+			return "export";
+		}
+
+		@GET
+		@Path("/blocking")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String blockingExport() {
+			return block();
+		}
+
+	}
+
+	@Path("/status")
+	public static class StatusService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String status() {
+			return "up";
+		}
+
+	}
+
+}
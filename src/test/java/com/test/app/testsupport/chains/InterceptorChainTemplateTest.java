@@ -0,0 +1,83 @@
+package com.test.app.testsupport.chains;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.cxf.bus.managers.PhaseManagerImpl;
+import org.apache.cxf.cfgproto.spring.InterceptorChainTemplate;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.junit.Test;
+
+/**
+ * Tests sorting interceptor chains once and cloning them per message.
+ */
+public class InterceptorChainTemplateTest {
+
+	private final PhaseManagerImpl phaseManager = new PhaseManagerImpl();
+	private final List<String> calls = new ArrayList<String>();
+
+	@Test
+	public void shouldCloneSortedChainForEachMessage() {
+		Recording first = new Recording("first", Phase.SETUP);
+		Recording second = new Recording("second", Phase.SETUP);
+		second.addBefore(first.getId());
+		List<Interceptor<? extends Message>> interceptors = new ArrayList<Interceptor<? extends Message>>();
+		interceptors.add(new Recording("last", Phase.POST_LOGICAL));
+		interceptors.add(first);
+		interceptors.add(second);
+		InterceptorChainTemplate template = new InterceptorChainTemplate(phaseManager.getOutPhases(), interceptors);
+
+		PhaseInterceptorChain chain = template.newChain();
+		chain.doIntercept(new MessageImpl());
+		template.newChain().doIntercept(new MessageImpl());
+
+		assertThat(calls, contains("second", "first", "last", "second", "first", "last"));
+		assertThat(chain.getState(), is(PhaseInterceptorChain.State.COMPLETE));
+	}
+
+	@Test
+	public void shouldRebuildTemplateOnlyForOtherInterceptors() {
+		AtomicReference<InterceptorChainTemplate> holder = new AtomicReference<InterceptorChainTemplate>();
+		List<Interceptor<? extends Message>> interceptors = new ArrayList<Interceptor<? extends Message>>();
+		interceptors.add(new Recording("only", Phase.SETUP));
+
+		InterceptorChainTemplate template = InterceptorChainTemplate.get(holder, phaseManager.getOutPhases(), interceptors);
+		InterceptorChainTemplate reused = InterceptorChainTemplate.get(holder, phaseManager.getOutPhases(), interceptors);
+		InterceptorChainTemplate rebuilt = InterceptorChainTemplate.get(holder, phaseManager.getOutPhases(), 
+				new ArrayList<Interceptor<? extends Message>>(interceptors));
+
+		assertThat(reused, is(sameInstance(template)));
+		assertThat(rebuilt, is(not(sameInstance(template))));
+		assertThat(holder.get(), is(sameInstance(rebuilt)));
+	}
+
+	private class Recording extends AbstractPhaseInterceptor<Message> {
+
+		private final String name;
+
+		Recording(String name, String phase) {
+			super(name, phase);
+			this.name = name;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			calls.add(name);
+		}
+
+	}
+
+}
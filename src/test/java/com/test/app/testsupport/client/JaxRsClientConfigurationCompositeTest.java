@@ -0,0 +1,96 @@
+package com.test.app.testsupport.client;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import javax.ws.rs.core.Feature;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientConfigurationAdapter;
+import org.apache.cxf.cfgproto.spring.client.JaxRsClientConfigurer;
+import org.apache.cxf.cfgproto.spring.client.enable.JaxRsClientConfigurationComposite;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResiliencePolicy;
+import org.apache.cxf.jaxrs.client.ClientConfiguration;
+import org.junit.Test;
+
+/**
+ * Tests composing configurers that provide the optional client policies
+ * with those that do not.
+ */
+public class JaxRsClientConfigurationCompositeTest {
+
+	private final JaxRsClientConfigurationComposite composite = new JaxRsClientConfigurationComposite();
+
+	@Test
+	public void shouldComposeConfigurersWithoutPolicies() {
+		composite.setJaxRsClientConfigurers(asList((JaxRsClientConfigurer) new AddressConfigurer()));
+
+		assertThat(composite.address(), is("local://orders"));
+		assertThat(composite.resiliencePolicy(), is(nullValue()));
+		assertThat(composite.loadBalancerPolicy(), is(nullValue()));
+	}
+
+	@Test
+	public void shouldTakePoliciesFromPolicyConfigurers() {
+		final ClientResiliencePolicy resiliencePolicy = new ClientResiliencePolicy();
+		JaxRsClientConfigurer policyConfigurer = new JaxRsClientConfigurationAdapter() {
+			@Override
+			public ClientResiliencePolicy resiliencePolicy() {
+				return resiliencePolicy;
+			}
+		};
+		composite.setJaxRsClientConfigurers(asList(new AddressConfigurer(), policyConfigurer));
+
+		assertThat(composite.address(), is("local://orders"));
+		assertThat(composite.resiliencePolicy(), is(sameInstance(resiliencePolicy)));
+	}
+
+	/*
+	 * Implements the configurer interface alone, as configurers written
+	 * before the optional policies did.
+	 */
+	private static class AddressConfigurer implements JaxRsClientConfigurer {
+
+		@Override
+		public Class<?> serviceType() {
+			return null;
+		}
+
+		@Override
+		public String address() {
+			return "local://orders";
+		}
+
+		@Override
+		public String transportFactory() {
+			return null;
+		}
+
+		@Override
+		public void addOutInterceptors(InterceptorRegistry interceptorRegistry) {
+		}
+
+		@Override
+		public void addInInterceptors(InterceptorRegistry interceptorRegistry) {
+		}
+
+		@Override
+		public void addProviders(List<Object> providers) {
+		}
+
+		@Override
+		public void addFeatures(List<Feature> features) {
+		}
+
+		@Override
+		public void configureClient(ClientConfiguration clientConfiguration) {
+		}
+
+	}
+
+}
@@ -0,0 +1,177 @@
+package com.test.app.testsupport.dynamic;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.ProviderFeature;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurationFactoryBean;
+import org.apache.cxf.endpoint.ServerRegistry;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests adding and removing services on a running server.
+ */
+public class DynamicServiceRegistrationTest {
+
+	private static final String ADDRESS = "local://dynamic-registration";
+
+	private final GreetingService greetings = new GreetingService();
+	private final LocalJaxRsServer server = new LocalJaxRsServer("dynamicServer", ADDRESS);
+	private JaxRsServerConfigurationFactoryBean serverFactory;
+
+	@Before
+	public void startServer() {
+		server.features(new HeaderFeature("X-Feature"))
+			  .services(greetings)
+			  .start();
+		serverFactory = server.getFactoryBean();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldServeAddedServiceWithoutRestart() {
+		assertThat(status("/farewell"), is(404));
+
+		serverFactory.registerServices(new FarewellService());
+
+		assertThat(get("/farewell"), is("goodbye"));
+		assertThat(get("/greeting"), is("hello"));
+	}
+
+	@Test
+	public void shouldStopServingRemovedService() {
+		FarewellService farewells = new FarewellService();
+		serverFactory.registerServices(farewells);
+
+		serverFactory.unregisterServices(greetings);
+
+		assertThat(status("/greeting"), is(404));
+		assertThat(get("/farewell"), is("goodbye"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldRefuseToRemoveLastService() {
+		serverFactory.unregisterServices(greetings);
+	}
+
+	@Test
+	public void shouldKeepProvidersOfFeaturesAcrossUpdates() {
+		serverFactory.registerServices(new FarewellService());
+
+		assertThat(client("/greeting").get().getHeaderString("X-Feature"), is("added"));
+		assertThat(client("/farewell").get().getHeaderString("X-Feature"), is("added"));
+	}
+
+	@Test
+	public void shouldAddAndRemoveProviders() {
+		HeaderFilter filter = new HeaderFilter("X-Provider");
+
+		serverFactory.registerProviders(filter);
+		Response withFilter = client("/greeting").get();
+		serverFactory.unregisterProviders(filter);
+		Response withoutFilter = client("/greeting").get();
+
+		assertThat(withFilter.getHeaderString("X-Provider"), is("added"));
+		assertThat(withoutFilter.getHeaderString("X-Provider"), is(nullValue()));
+		assertThat(withoutFilter.getHeaderString("X-Feature"), is("added"));
+	}
+
+	@Test
+	public void shouldNotCreateServersOnUpdate() {
+		ServerRegistry servers = server.getBus().getExtension(ServerRegistry.class);
+		int created = servers.getServers().size();
+
+		serverFactory.registerServices(new FarewellService());
+		serverFactory.registerProviders(new HeaderFilter("X-Provider"));
+
+		assertThat(servers.getServers().size(), is(created));
+	}
+
+	private String get(String path) {
+		return client(path).get(String.class);
+	}
+
+	private int status(String path) {
+		return client(path).get().getStatus();
+	}
+
+	private WebClient client(String path) {
+		return server.client(path).accept(MediaType.TEXT_PLAIN);
+	}
+
+	private static class HeaderFilter implements ContainerResponseFilter {
+
+		private final String header;
+
+		HeaderFilter(String header) {
+			this.header = header;
+		}
+
+		@Override
+		public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+			responseContext.getHeaders().putSingle(header, "added");
+		}
+
+	}
+
+	private static class HeaderFeature extends AbstractFeature implements ProviderFeature {
+
+		private final String header;
+
+		HeaderFeature(String header) {
+			this.header = header;
+		}
+
+		@Override
+		public List<?> getProviders() {
+			return Collections.singletonList(new HeaderFilter(header));
+		}
+
+	}
+
+	@Path("/greeting")
+	public static class GreetingService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String greet() {
+			return "hello";
+		}
+
+	}
+
+	@Path("/farewell")
+	public static class FarewellService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String farewell() {
+			return "goodbye";
+		}
+
+	}
+
+}
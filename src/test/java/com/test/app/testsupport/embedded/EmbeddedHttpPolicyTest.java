@@ -0,0 +1,47 @@
+package com.test.app.testsupport.embedded;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.apache.cxf.cfgproto.spring.embedded.EmbeddedHttpPolicy;
+import org.junit.Test;
+
+/**
+ * Tests resolving the addresses and threads of an embedded HTTP server.
+ */
+public class EmbeddedHttpPolicyTest {
+
+	private final EmbeddedHttpPolicy policy = new EmbeddedHttpPolicy();
+
+	@Test
+	public void shouldResolveServerAddressAsPathOfEmbeddedServer() {
+		assertThat(policy.resolveAddress("/orders"), is("http://0.0.0.0:8080/orders"));
+		assertThat(policy.resolveAddress(""), is("http://0.0.0.0:8080/"));
+
+		policy.setHost("localhost");
+		policy.setPort(9090);
+
+		assertThat(policy.resolveAddress("orders"), is("http://localhost:9090/orders"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectAbsoluteServerAddress() {
+		policy.resolveAddress("http://localhost:8080/orders");
+	}
+
+	@Test
+	public void shouldDefaultThreadsUnlessSet() {
+		assertThat(policy.getEffectiveAcceptors(), is(1));
+		assertThat(policy.getEffectiveSelectors(), is(allOf(greaterThanOrEqualTo(1), lessThanOrEqualTo(4))));
+
+		policy.setAcceptors(2);
+		policy.setSelectors(16);
+
+		assertThat(policy.getEffectiveAcceptors(), is(2));
+		assertThat(policy.getEffectiveSelectors(), is(16));
+	}
+
+}
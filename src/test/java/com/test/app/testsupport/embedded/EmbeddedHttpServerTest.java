@@ -0,0 +1,130 @@
+package com.test.app.testsupport.embedded;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.JaxRsService;
+import org.apache.cxf.cfgproto.spring.embedded.JaxRsEmbeddedHttp;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.http_jetty.JettyHTTPServerEngineFactory;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tests serving a server from the embedded HTTP server, over the network.
+ * Needs <code>cxf-rt-transports-http-jetty</code>, an optional dependency.
+ */
+public class EmbeddedHttpServerTest {
+
+	private static final String SERVER_NAME = "embeddedServer";
+
+	private int port;
+	private AnnotationConfigApplicationContext context;
+
+	@Configuration
+	@JaxRsServer(serverName = SERVER_NAME, address = "/api")
+	@JaxRsEmbeddedHttp(host = "localhost", acceptors = 1, selectors = 2, minWorkerThreads = 2, maxWorkerThreads = 4, 
+					   maxHeaderSize = 4096)
+	static class EmbeddedServerConfiguration {
+		@JaxRsService
+		public Object threadNameService() {
+			return new ThreadNameService();
+		}
+	}
+
+	/*
+	 * Listens on a free port rather than the one of the annotation, which
+	 * cannot be known when compiling.
+	 */
+	private static class FreePortPostProcessor implements BeanFactoryPostProcessor {
+
+		private final int port;
+
+		FreePortPostProcessor(int port) {
+			this.port = port;
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+			BeanDefinition server = beanFactory.getBeanDefinition(SERVER_NAME);
+			BeanDefinition embeddedHttp = (BeanDefinition) server.getPropertyValues().getPropertyValue("embeddedHttp").getValue();
+			embeddedHttp.getPropertyValues().add("port", port);
+		}
+
+	}
+
+	@Before
+	public void startServer() throws IOException {
+		ServerSocket socket = new ServerSocket(0);
+		port = socket.getLocalPort();
+		socket.close();
+		context = new AnnotationConfigApplicationContext();
+		context.register(EmbeddedServerConfiguration.class);
+		context.addBeanFactoryPostProcessor(new FreePortPostProcessor(port));
+		context.refresh();
+	}
+
+	@After
+	public void stopServer() {
+		context.close();
+	}
+
+	@Test
+	public void shouldServeRequestsOnWorkerThreadsOfEmbeddedServer() {
+		String threadName = WebClient.create("http://localhost:" + port + "/api")
+									 .path("/thread").accept(MediaType.TEXT_PLAIN).get(String.class);
+
+		assertThat(threadName, startsWith("jaxrs-http-" + port));
+	}
+
+	@Test
+	public void shouldListenWithConfiguredConnectorAndThreadPool() {
+		JettyHTTPServerEngineFactory engineFactory = context.getBean(Bus.class).getExtension(JettyHTTPServerEngineFactory.class);
+		Connector connector = engineFactory.retrieveJettyHTTPServerEngine(port).getConnector();
+
+		assertThat(connector, is(instanceOf(SelectChannelConnector.class)));
+		SelectChannelConnector selectChannelConnector = (SelectChannelConnector) connector;
+		assertThat(selectChannelConnector.getHost(), is("localhost"));
+		assertThat(selectChannelConnector.getPort(), is(port));
+		assertThat(selectChannelConnector.getAcceptors(), is(2));
+		assertThat(selectChannelConnector.getRequestHeaderSize(), is(4096));
+		QueuedThreadPool workers = (QueuedThreadPool) selectChannelConnector.getThreadPool();
+		assertThat(workers.getName(), is("jaxrs-http-" + port));
+		assertThat(workers.getMinThreads(), is(2));
+		assertThat(workers.getMaxThreads(), is(4));
+	}
+
+	@Path("/thread")
+	public static class ThreadNameService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String threadName() {
+			return Thread.currentThread().getName();
+		}
+
+	}
+
+}
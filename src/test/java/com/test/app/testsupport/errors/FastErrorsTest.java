@@ -0,0 +1,154 @@
+package com.test.app.testsupport.errors;
+
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.errors.FastErrorPolicy;
+import org.apache.cxf.cfgproto.spring.errors.FastErrors;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurerAdapter;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.junit.After;
+import org.junit.Test;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests the fast path of error responses and the registration of fault
+ * interceptors.
+ */
+public class FastErrorsTest {
+
+	private static final String ADDRESS = "local://fast-errors";
+
+	private final FastErrorPolicy policy = new FastErrorPolicy();
+	private final CountingInterceptor faults = new CountingInterceptor();
+	private final LocalJaxRsServer server = new LocalJaxRsServer("fastErrorServer", ADDRESS);
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldCreateExceptionsWithoutStackTraces() {
+		assertThat(FastErrors.notFound().getStackTrace(), is(emptyArray()));
+		assertThat(FastErrors.tooManyRequests(1).getStackTrace(), is(emptyArray()));
+		assertThat(FastErrors.notAuthorized("Basic").getResponse().getStatus(), is(401));
+	}
+
+	@Test
+	public void shouldRefuseUnmatchedRequestsWithPreSerializedBody() {
+		policy.setBodies(Collections.singletonMap(404, "{\"error\":\"not found\"}"));
+		policy.setMediaType(MediaType.APPLICATION_JSON);
+		startServer(policy);
+
+		Response response = client("/nowhere").get();
+
+		assertThat(response.getStatus(), is(404));
+		assertThat(response.getMediaType().toString(), is(MediaType.APPLICATION_JSON));
+		assertThat(response.readEntity(String.class), is("{\"error\":\"not found\"}"));
+	}
+
+	@Test
+	public void shouldMapFastErrorsOfServicesWithoutFaultChain() {
+		startServer(policy);
+
+		Response notFound = client("/items/missing").get();
+		Response tooMany = client("/items/busy").get();
+
+		assertThat(notFound.getStatus(), is(404));
+		assertThat(notFound.readEntity(String.class), is("Not Found"));
+		assertThat(tooMany.getStatus(), is(429));
+		assertThat(tooMany.getHeaderString(HttpHeaders.RETRY_AFTER), is("3"));
+		assertThat(tooMany.readEntity(String.class), is("Too Many Requests"));
+		assertThat(faults.count.get(), is(0));
+	}
+
+	@Test
+	public void shouldRunConfiguredFaultOutInterceptors() {
+		startServer(null);
+
+		try {
+			client("/items/broken").get();
+		} catch (ProcessingException e) {
+			// unmapped exceptions are propagated to the local transport
+		}
+
+		assertThat(faults.count.get(), is(1));
+	}
+
+	private void startServer(FastErrorPolicy fastErrors) {
+		server.bean("faultConfigurer", new JaxRsServerConfigurerAdapter() {
+			@Override
+			public void addFaultOutInterceptors(InterceptorRegistry faultOutInterceptorRegistry) {
+				faultOutInterceptorRegistry.addInterceptors(faults);
+			}
+		});
+		server.property("fastErrors", fastErrors)
+			  .services(new ItemService())
+			  .start();
+	}
+
+	private WebClient client(String path) {
+		return server.client(path).accept(MediaType.WILDCARD);
+	}
+
+	@Path("/items")
+	public static class ItemService {
+
+		@GET
+		@Path("/missing")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String missing() {
+			throw FastErrors.notFound();
+		}
+
+		@GET
+		@Path("/busy")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String busy() {
+			throw FastErrors.tooManyRequests(3);
+		}
+
+		@GET
+		@Path("/broken")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String broken() {
+			throw new IllegalStateException("broken");
+		}
+
+	}
+
+	private static class CountingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		CountingInterceptor() {
+			super(Phase.PRE_STREAM);
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			count.incrementAndGet();
+		}
+
+	}
+
+}
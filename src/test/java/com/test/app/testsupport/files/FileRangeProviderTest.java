@@ -0,0 +1,169 @@
+package com.test.app.testsupport.files;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.files.ByteRange;
+import org.apache.cxf.cfgproto.spring.files.FileRangeProvider;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests serving files and byte ranges of them.
+ */
+public class FileRangeProviderTest {
+
+	private static final String ADDRESS = "local://file-ranges";
+	private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static File file;
+
+	private final LocalJaxRsServer server = new LocalJaxRsServer("fileServer", ADDRESS);
+
+	@Before
+	public void startServer() throws IOException {
+		file = folder.newFile();
+		Files.write(CONTENT, file, Charsets.US_ASCII);
+		server.providers(new FileRangeProvider())
+			  .services(new FileService())
+			  .start();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldServeWholeFile() {
+		Response response = client().get();
+
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getHeaderString("Accept-Ranges"), is("bytes"));
+		assertThat(response.readEntity(String.class), is(CONTENT));
+	}
+
+	@Test
+	public void shouldServeSingleRange() {
+		Response response = client().header("Range", "bytes=10-15").get();
+
+		assertThat(response.getStatus(), is(206));
+		assertThat(response.getHeaderString("Content-Range"), is("bytes 10-15/36"));
+		assertThat(response.readEntity(String.class), is("abcdef"));
+	}
+
+	@Test
+	public void shouldServeMultipleRangesAsMultipart() {
+		Response response = client().header("Range", "bytes=0-1,-3").get();
+
+		assertThat(response.getStatus(), is(206));
+		assertThat(response.getMediaType().toString(), startsWith("multipart/byteranges"));
+		String body = response.readEntity(String.class);
+		assertThat(body, containsString("Content-Range: bytes 0-1/36\r\n\r\n01\r\n"));
+		assertThat(body, containsString("Content-Range: bytes 33-35/36\r\n\r\nxyz\r\n"));
+	}
+
+	@Test
+	public void shouldRefuseUnsatisfiableRange() {
+		Response response = client().header("Range", "bytes=100-").get();
+
+		assertThat(response.getStatus(), is(416));
+		assertThat(response.getHeaderString("Content-Range"), is("bytes */36"));
+	}
+
+	@Test
+	public void shouldTransferToStreamsThatAreChannels() throws IOException {
+		ChannelOutputStream out = new ChannelOutputStream();
+
+		new FileRangeProvider().writeTo(file, File.class, File.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE, 
+										new MetadataMap<String, Object>(), out);
+
+		assertThat(new String(out.bytes.toByteArray(), Charsets.US_ASCII), is(CONTENT));
+		assertThat(out.streamed, is(false));
+	}
+
+	@Test
+	public void shouldParseRanges() {
+		List<ByteRange> ranges = ByteRange.parse("bytes=0-9, 30-, -5, 50-60", 36);
+
+		assertThat(ranges, is(Arrays.asList(new ByteRange(0, 9), new ByteRange(30, 35), new ByteRange(31, 35))));
+		assertThat(ByteRange.parse("bytes=9-0", 36), is((List<ByteRange>) null));
+		assertThat(ByteRange.parse("items=0-1", 36), is((List<ByteRange>) null));
+	}
+
+	/*
+	 * A stream of a transport exposing its channel.
+	 */
+	private static class ChannelOutputStream extends OutputStream implements WritableByteChannel {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private boolean streamed;
+
+		@Override
+		public void write(int b) {
+			streamed = true;
+			bytes.write(b);
+		}
+
+		@Override
+		public int write(ByteBuffer source) {
+			int written = source.remaining();
+			while (source.hasRemaining()) {
+				bytes.write(source.get());
+			}
+			return written;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+	}
+
+	private WebClient client() {
+		return server.client("/files").accept(MediaType.WILDCARD);
+	}
+
+	@Path("/files")
+	public static class FileService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public File get() {
+			return file;
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.test.app.testsupport.hedging;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingInvocationHandler;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingPolicy;
+import org.junit.Test;
+
+/**
+ * Tests that slow idempotent calls are hedged, and others are not.
+ */
+public class HedgingInvocationHandlerTest {
+
+	private final SlowOnceService service = new SlowOnceService();
+
+	@Test
+	public void shouldReturnTheHedgeWhenTheOriginalIsSlow() {
+		HedgingInvocationHandler handler = new HedgingInvocationHandler(service, policy());
+		QuoteService client = proxy(handler);
+		warmUp(client);
+		service.slowCalls.set(1);
+		long start = System.nanoTime();
+		assertThat(client.quote(), is("quote"));
+		assertThat((System.nanoTime() - start) / 1000000, lessThan(1000L));
+		assertThat(handler.getHedgeCount(), is(1L));
+	}
+
+	@Test
+	public void shouldNotHedgeNonIdempotentCalls() {
+		HedgingInvocationHandler handler = new HedgingInvocationHandler(service, policy());
+		QuoteService client = proxy(handler);
+		warmUp(client);
+		service.slowCalls.set(1);
+		service.slowMillis = 200;
+		client.order();
+		assertThat(handler.getHedgeCount(), is(0L));
+		assertThat(service.orders.get(), is(1));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldPropagateTheFailureOfTheCall() {
+		QuoteService client = proxy(new HedgingInvocationHandler(service, policy()));
+		service.failing = true;
+		client.quote();
+	}
+
+	private static void warmUp(QuoteService client) {
+		for (int i = 0; i < 20; i++) {
+			client.quote();
+		}
+	}
+
+	private static HedgingPolicy policy() {
+		HedgingPolicy policy = new HedgingPolicy();
+		policy.setMinSamples(10);
+		policy.setDelayPercentile(90);
+		policy.setMinDelayMillis(20);
+		policy.setBudgetPercent(10);
+		return policy;
+	}
+
+	private QuoteService proxy(HedgingInvocationHandler handler) {
+		return (QuoteService) java.lang.reflect.Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {QuoteService.class}, handler);
+	}
+
+	public interface QuoteService {
+		@GET
+		String quote();
+
+		@POST
+		void order();
+	}
+
+	private static class SlowOnceService implements QuoteService {
+		final AtomicInteger slowCalls = new AtomicInteger();
+		final AtomicInteger orders = new AtomicInteger();
+		volatile long slowMillis = 5000;
+		volatile boolean failing;
+
+		@Override
+		public String quote() {
+			if (failing) {
+				throw new IllegalStateException("failed");
+			}
+			pause();
+			return "quote";
+		}
+
+		@Override
+		public void order() {
+			pause();
+			orders.incrementAndGet();
+		}
+
+		private void pause() {
+			try {
+				Thread.sleep(slowCalls.getAndDecrement() > 0 ? slowMillis : 1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
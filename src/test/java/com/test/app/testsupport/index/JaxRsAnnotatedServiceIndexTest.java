@@ -0,0 +1,101 @@
+package com.test.app.testsupport.index;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.List;
+
+import org.apache.cxf.cfgproto.spring.server.JaxRsAnnotatedServiceIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Tests the lookup of beans by marker annotation.
+ */
+public class JaxRsAnnotatedServiceIndexTest {
+
+	private final GenericApplicationContext context = new GenericApplicationContext();
+	private JaxRsAnnotatedServiceIndex index;
+
+	@Before
+	public void createContext() {
+		RootBeanDefinition indexDefinition = new RootBeanDefinition(JaxRsAnnotatedServiceIndex.class);
+		indexDefinition.getPropertyValues().add("markerTypes", new Class<?>[]{Marked.class, OtherMarked.class});
+		context.registerBeanDefinition(JaxRsAnnotatedServiceIndex.BEAN_NAME, indexDefinition);
+		context.registerBeanDefinition("marked", lazy(new RootBeanDefinition(MarkedService.class)));
+		context.registerBeanDefinition("unmarked", lazy(new RootBeanDefinition(UnmarkedService.class)));
+		RootBeanDefinition factoryMethodDefinition = new RootBeanDefinition(ServiceFactory.class);
+		factoryMethodDefinition.setFactoryMethodName("createMarkedService");
+		context.registerBeanDefinition("fromFactoryMethod", lazy(factoryMethodDefinition));
+		context.registerBeanDefinition("otherMarked", lazy(new RootBeanDefinition(OtherMarkedService.class)));
+		UnmarkedService.created = 0;
+		context.refresh();
+		index = context.getBean(JaxRsAnnotatedServiceIndex.class);
+	}
+
+	@Test
+	public void shouldFindBeansDeclaredByClassAndFactoryMethodInDefinitionOrder() {
+		assertThat(index.getBeanNames(Marked.class), contains("marked", "fromFactoryMethod"));
+		assertThat(index.getBeanNames(OtherMarked.class), contains("otherMarked"));
+	}
+
+	@Test
+	public void shouldCreateOnlyMatchedBeans() {
+		List<Object> services = index.getServices(Marked.class);
+
+		assertThat(services.get(0), is(instanceOf(MarkedService.class)));
+		assertThat(services.get(1), is(instanceOf(MarkedService.class)));
+		assertThat(UnmarkedService.created, is(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectMarkerThatIsNotIndexed() {
+		index.getBeanNames(Retention.class);
+	}
+
+	private static RootBeanDefinition lazy(RootBeanDefinition beanDefinition) {
+		beanDefinition.setLazyInit(true);
+		return beanDefinition;
+	}
+
+	@Retention(RUNTIME)
+	@Target(TYPE)
+	public @interface Marked {}
+
+	@Retention(RUNTIME)
+	@Target(TYPE)
+	public @interface OtherMarked {}
+
+	@Marked
+	public static class MarkedService {}
+
+	@OtherMarked
+	public static class OtherMarkedService {}
+
+	public static class UnmarkedService {
+
+		static int created;
+
+		public UnmarkedService() {
+			created++;
+		}
+
+	}
+
+	public static class ServiceFactory {
+
+		public static MarkedService createMarkedService() {
+			return new MarkedService();
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.test.app.testsupport.limits;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsPolicy;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests limiting and buffering request bodies.
+ */
+public class RequestLimitsTest {
+
+	private static final String ADDRESS = "local://request-limits";
+
+	@Rule
+	public TemporaryFolder spillDirectory = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final RequestLimitsPolicy policy = new RequestLimitsPolicy();
+	private final LocalJaxRsServer server = new LocalJaxRsServer("limitedServer", ADDRESS);
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldRefuseBodyOverLimitWhileReading() {
+		policy.setMaxRequestSize(64);
+		startServer();
+
+		assertThat(post(body(65)).getStatus(), is(413));
+		assertThat(post(body(64)).readEntity(String.class), is("64"));
+	}
+
+	@Test
+	public void shouldRefuseDeclaredLengthOverLimitWithoutReading() {
+		policy.setMaxRequestSize(64);
+		startServer();
+
+		Response response = client().header("Content-Length", "1000000").post("short");
+
+		assertThat(response.getStatus(), is(413));
+	}
+
+	@Test
+	public void shouldSpillEncryptedBodiesBeyondThreshold() {
+		policy.setMaxRequestSize(100000);
+		policy.setBufferThreshold(16);
+		policy.setSpillDirectory(spillDirectory.getRoot().getPath());
+		policy.setSpillCipherTransformation("AES/CTR/NoPadding");
+		startServer();
+
+		assertThat(post(body(5000)).readEntity(String.class), is("5000"));
+		assertThat(post(body(8)).readEntity(String.class), is("8"));
+		assertThat(post(body(100001)).getStatus(), is(413));
+	}
+
+	@Test
+	public void shouldRefuseCipherWithoutBufferThresholdAtRegistration() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("requires a requestBufferThreshold");
+
+		new AnnotationConfigApplicationContext(CipherWithoutThresholdConfiguration.class);
+	}
+
+	private void startServer() {
+		server.property("requestLimits", policy)
+			  .services(new UploadService())
+			  .start();
+	}
+
+	private Response post(String body) {
+		return client().post(body);
+	}
+
+	private WebClient client() {
+		return server.client("/uploads").type(MediaType.TEXT_PLAIN).accept(MediaType.TEXT_PLAIN);
+	}
+
+	private static String body(int length) {
+		char[] body = new char[length];
+		Arrays.fill(body, 'x');
+		return new String(body);
+	}
+
+	@Configuration
+	@JaxRsServer(serverName = "cipherServer", address = "local://cipher", transport = LocalTransportFactory.TRANSPORT_ID,
+			requestSpillCipherTransformation = "AES/CTR/NoPadding")
+	static class CipherWithoutThresholdConfiguration {
+	}
+
+	@Path("/uploads")
+	public static class UploadService {
+
+		@POST
+		@Consumes(MediaType.TEXT_PLAIN)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String upload(String body) {
+			for (int i = 0; i < body.length(); i++) {
+				if (body.charAt(i) != 'x') {
+					throw new IllegalStateException("Corrupted at " + i);
+				}
+			}
+			return String.valueOf(body.length());
+		}
+
+	}
+
+}
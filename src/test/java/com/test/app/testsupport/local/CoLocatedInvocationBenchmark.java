@@ -0,0 +1,170 @@
+package com.test.app.testsupport.local;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.cfgproto.spring.local.CoLocatedInvocationHandler;
+import org.apache.cxf.cfgproto.spring.local.CoLocationPolicy;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpoint;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Compares the cost of a call with a small JSON body made over HTTP on the
+ * loopback interface, over the local transport and directly on a co-located
+ * service. Not run as part of the build; run the main method, optionally
+ * passing the number of measured calls per path. The HTTP path needs the
+ * Jetty transport on the classpath and is skipped without it.
+ */
+public class CoLocatedInvocationBenchmark {
+
+	private static final String HTTP_ADDRESS = "http://localhost:9797/benchmark";
+	private static final String LOCAL_ADDRESS = "local://benchmark";
+
+	public static void main(String[] args) {
+		int calls = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+		Bus bus = BusFactory.newInstance().createBus();
+		List<Server> servers = new ArrayList<Server>();
+		EchoServiceImpl service = new EchoServiceImpl();
+		try {
+			if (ClassUtils.isPresent("org.apache.cxf.transport.http_jetty.JettyHTTPDestination", null)) {
+				servers.add(createServer(bus, service, HTTP_ADDRESS, "http://cxf.apache.org/transports/http"));
+				run("http", createClient(bus, HTTP_ADDRESS, "http://cxf.apache.org/transports/http"), calls);
+			} else {
+				System.out.println("http: skipped, Jetty transport not on the classpath");
+			}
+
+			Server localServer = createServer(bus, service, LOCAL_ADDRESS, LocalEndpointRegistry.LOCAL_TRANSPORT_ID);
+			servers.add(localServer);
+			EchoService localClient = createClient(bus, LOCAL_ADDRESS, LocalEndpointRegistry.LOCAL_TRANSPORT_ID);
+			run("local transport", localClient, calls);
+
+			LocalEndpoint endpoint = new LocalEndpoint(LOCAL_ADDRESS, bus, Collections.singletonList(service), localServer.getEndpoint());
+			LocalEndpointRegistry.register(endpoint, Collections.<Class<?>>singletonList(EchoServiceImpl.class));
+			List<Interceptor<?>> none = Collections.emptyList();
+			run("co-located", (EchoService) CoLocatedInvocationHandler.newProxy(
+					EchoService.class, localClient, new CoLocationPolicy(), none, none), calls);
+
+			CoLocationPolicy copying = new CoLocationPolicy();
+			copying.setCopyArguments(true);
+			copying.setCopyResults(true);
+			run("co-located, copying", (EchoService) CoLocatedInvocationHandler.newProxy(
+					EchoService.class, localClient, copying, none, none), calls);
+			LocalEndpointRegistry.unregister(endpoint);
+		} finally {
+			for (Server server: servers) {
+				server.destroy();
+			}
+			bus.shutdown(true);
+		}
+	}
+
+	private static void run(String path, EchoService client, int calls) {
+		Document document = new Document();
+		document.setId("42");
+		document.setText("The quick brown fox jumps over the lazy dog");
+		document.setTags(new ArrayList<String>(Collections.nCopies(8, "tag")));
+		for (int i = 0; i < calls / 5; i++) {
+			client.echo(document);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < calls; i++) {
+			client.echo(document);
+		}
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("%-22s %10.0f ns/call %12.0f calls/s%n", path + ":", (double) elapsed / calls, calls * 1e9 / elapsed);
+	}
+
+	private static Server createServer(Bus bus, EchoService service, String address, String transportId) {
+		JAXRSServerFactoryBean factoryBean = new JAXRSServerFactoryBean();
+		factoryBean.setBus(bus);
+		factoryBean.setAddress(address);
+		factoryBean.setTransportId(transportId);
+		factoryBean.setServiceBean(service);
+		factoryBean.setProvider(new JacksonJsonProvider());
+		return factoryBean.create();
+	}
+
+	private static EchoService createClient(Bus bus, String address, String transportId) {
+		JAXRSClientFactoryBean factoryBean = new JAXRSClientFactoryBean();
+		factoryBean.setBus(bus);
+		factoryBean.setAddress(address);
+		factoryBean.setTransportId(transportId);
+		factoryBean.setServiceClass(EchoService.class);
+		factoryBean.setProvider(new JacksonJsonProvider());
+		EchoService client = factoryBean.create(EchoService.class);
+		WebClient.getConfig(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+		return client;
+	}
+
+	@Path("/echo")
+	public interface EchoService {
+
+		@POST
+		@Consumes(MediaType.APPLICATION_JSON)
+		@Produces(MediaType.APPLICATION_JSON)
+		Document echo(Document document);
+
+	}
+
+	public static class EchoServiceImpl implements EchoService {
+
+		@Override
+		public Document echo(Document document) {
+			return document;
+		}
+
+	}
+
+	public static class Document implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private String id;
+		private String text;
+		private List<String> tags;
+
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public void setText(String text) {
+			this.text = text;
+		}
+
+		public List<String> getTags() {
+			return tags;
+		}
+
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+
+	}
+
+}
@@ -0,0 +1,195 @@
+package com.test.app.testsupport.local;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.cfgproto.spring.local.CoLocatedInvocationHandler;
+import org.apache.cxf.cfgproto.spring.local.CoLocationPolicy;
+import org.apache.cxf.cfgproto.spring.local.CoLocationSafe;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpoint;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.interceptor.AbstractBasicInterceptorProvider;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests calls made directly on a co-located service.
+ */
+public class CoLocatedInvocationHandlerTest {
+
+	private final List<String> intercepted = new ArrayList<String>();
+	private final DocumentServiceImpl service = new DocumentServiceImpl();
+	private final RecordingDocumentService remote = new RecordingDocumentService();
+	private final CoLocationPolicy policy = new CoLocationPolicy();
+
+	private Bus bus;
+	private LocalEndpoint endpoint;
+
+	@Before
+	public void createBus() {
+		bus = BusFactory.newInstance().createBus();
+	}
+
+	@After
+	public void unregister() {
+		if (endpoint != null) {
+			LocalEndpointRegistry.unregister(endpoint);
+		}
+		bus.shutdown(true);
+	}
+
+	@Test
+	public void shouldCallCoLocatedServiceRunningOnlySafeInterceptors() {
+		InterceptorProvider server = new AbstractBasicInterceptorProvider() {};
+		server.getInInterceptors().add(new RecordingInterceptor("server-in", Phase.PRE_INVOKE));
+		server.getInInterceptors().add(new UnsafeInterceptor());
+		server.getOutInterceptors().add(new RecordingInterceptor("server-out", Phase.MARSHAL));
+		register(server);
+		List<Interceptor<?>> clientOut = new ArrayList<Interceptor<?>>();
+		clientOut.add(new RecordingInterceptor("client-out", Phase.SETUP));
+		clientOut.add(new UnsafeInterceptor());
+		List<Interceptor<?>> clientIn = new ArrayList<Interceptor<?>>();
+		clientIn.add(new RecordingInterceptor("client-in", Phase.UNMARSHAL));
+
+		DocumentService client = client(clientOut, clientIn);
+		Document document = new Document("text");
+		Document stored = client.store(document);
+
+		assertThat(stored, is(sameInstance(document)));
+		assertThat(service.received, contains(document));
+		assertThat(remote.calls, is(0));
+		assertThat(intercepted, contains("client-out", "server-in", "server-out", "client-in"));
+	}
+
+	@Test
+	public void shouldCopyArgumentsAndResultsWhenAsked() {
+		policy.setCopyArguments(true);
+		policy.setCopyResults(true);
+		register(null);
+		Document document = new Document("text");
+
+		Document stored = client(Collections.<Interceptor<?>>emptyList(), Collections.<Interceptor<?>>emptyList()).store(document);
+
+		assertThat(service.received.get(0), is(not(sameInstance(document))));
+		assertThat(service.received.get(0).text, is("text"));
+		assertThat(stored, is(not(sameInstance(service.received.get(0)))));
+	}
+
+	@Test
+	public void shouldCallClientProxyWithoutCoLocatedService() {
+		Document document = new Document("text");
+
+		client(Collections.<Interceptor<?>>emptyList(), Collections.<Interceptor<?>>emptyList()).store(document);
+
+		assertThat(remote.calls, is(1));
+		assertThat(service.received, is(empty()));
+	}
+
+	private void register(InterceptorProvider interceptors) {
+		endpoint = new LocalEndpoint(null, bus, Collections.singletonList(service), interceptors);
+		LocalEndpointRegistry.register(endpoint, Collections.<Class<?>>singletonList(DocumentServiceImpl.class));
+	}
+
+	private DocumentService client(List<Interceptor<?>> outInterceptors, List<Interceptor<?>> inInterceptors) {
+		return (DocumentService) CoLocatedInvocationHandler.newProxy(DocumentService.class, remote, policy, outInterceptors, inInterceptors);
+	}
+
+	@Path("/documents")
+	public interface DocumentService {
+
+		@POST
+		@Consumes("application/json")
+		Document store(Document document);
+
+	}
+
+	public static class DocumentServiceImpl implements DocumentService {
+
+		private final List<Document> received = new ArrayList<Document>();
+
+		@Override
+		public Document store(Document document) {
+			received.add(document);
+			return document;
+		}
+
+	}
+
+	private static class RecordingDocumentService implements DocumentService {
+
+		private int calls;
+
+		@Override
+		public Document store(Document document) {
+			calls++;
+			return document;
+		}
+
+	}
+
+	public static class Document implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String text;
+
+		Document(String text) {
+			this.text = text;
+		}
+
+	}
+
+	@CoLocationSafe
+	private class RecordingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+		private final String name;
+
+		RecordingInterceptor(String name, String phase) {
+			super(phase);
+			this.name = name;
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			assertThat(message.getExchange().get(CoLocatedInvocationHandler.CO_LOCATED), is((Object) Boolean.TRUE));
+			intercepted.add(name);
+		}
+
+	}
+
+	private class UnsafeInterceptor extends AbstractPhaseInterceptor<Message> {
+
+		UnsafeInterceptor() {
+			super(Phase.SETUP);
+		}
+
+		@Override
+		public void handleMessage(Message message) throws Fault {
+			intercepted.add("unsafe");
+		}
+
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.test.app.testsupport.local;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+
+import org.apache.cxf.cfgproto.spring.local.LocalEndpoint;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests lookup of local endpoints by served type.
+ */
+public class LocalEndpointRegistryTest {
+
+	private final LocalEndpoint first = new LocalEndpoint("local://first", null);
+	private final LocalEndpoint second = new LocalEndpoint("local://second", null);
+
+	@After
+	public void unregister() {
+		LocalEndpointRegistry.unregister(first);
+		LocalEndpointRegistry.unregister(second);
+	}
+
+	@Test
+	public void shouldFindEndpointByServiceClassAndInterface() {
+		register(first, FirstServiceImpl.class);
+		assertThat(LocalEndpointRegistry.find(FirstServiceImpl.class), is(sameInstance(first)));
+		assertThat(LocalEndpointRegistry.find(FirstService.class), is(sameInstance(first)));
+	}
+
+	@Test
+	public void shouldNotFindTypeServedByMoreThanOneEndpoint() {
+		register(first, FirstServiceImpl.class);
+		register(second, OtherFirstServiceImpl.class);
+		assertThat(LocalEndpointRegistry.find(FirstService.class), is(nullValue()));
+		assertThat(LocalEndpointRegistry.find(OtherFirstServiceImpl.class), is(sameInstance(second)));
+	}
+
+	@Test
+	public void shouldForgetUnregisteredEndpoint() {
+		register(first, FirstServiceImpl.class);
+		register(second, OtherFirstServiceImpl.class);
+		LocalEndpointRegistry.unregister(second);
+		assertThat(LocalEndpointRegistry.find(FirstService.class), is(sameInstance(first)));
+		assertThat(LocalEndpointRegistry.find(OtherFirstServiceImpl.class), is(nullValue()));
+	}
+
+	private void register(LocalEndpoint endpoint, Class<?> serviceClass) {
+		LocalEndpointRegistry.register(endpoint, Collections.<Class<?>>singletonList(serviceClass));
+	}
+
+	public interface FirstService {}
+
+	public static class FirstServiceImpl implements FirstService {}
+
+	public static class OtherFirstServiceImpl implements FirstService {}
+
+}
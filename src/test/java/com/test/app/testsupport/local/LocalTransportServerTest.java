@@ -0,0 +1,120 @@
+package com.test.app.testsupport.local;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpoint;
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurationFactoryBean;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.feature.Feature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Tests the server published over the local transport alongside a server
+ * of another transport.
+ */
+public class LocalTransportServerTest {
+
+	private final CountingFeature feature = new CountingFeature();
+
+	private AnnotationConfigApplicationContext context;
+
+	@Before
+	public void startServer() {
+		GenericBeanDefinition server = new GenericBeanDefinition();
+		server.setBeanClass(JaxRsServerConfigurationFactoryBean.class);
+		server.getPropertyValues().add("address", "/orders")
+								  .add("serviceBeans", Collections.<Object>singletonList(new OrderService()))
+								  .add("features", Collections.<Feature>singletonList(feature));
+		context = new AnnotationConfigApplicationContext();
+		context.registerBeanDefinition("ordersServer", server);
+		context.refresh();
+	}
+
+	@After
+	public void stopServer() {
+		context.close();
+	}
+
+	@Test
+	public void shouldInitializeFeaturesOnceForBothServers() {
+		assertThat(feature.initialized.get(), is(1));
+	}
+
+	@Test
+	public void shouldInterceptLocalRequestsWithFeaturesOfServer() {
+		LocalEndpoint endpoint = LocalEndpointRegistry.find(OrderService.class);
+
+		assertThat(endpoint.getAddress(), is("local://ordersServer"));
+		assertThat(get(endpoint, "/orders/7"), is("order 7"));
+		assertThat(feature.intercepted.get(), is(1));
+	}
+
+	private static String get(LocalEndpoint endpoint, String path) {
+		JAXRSClientFactoryBean factoryBean = new JAXRSClientFactoryBean();
+		factoryBean.setAddress(endpoint.getAddress());
+		factoryBean.setBus(endpoint.getBus());
+		WebClient client = factoryBean.createWebClient().path(path).accept(MediaType.TEXT_PLAIN);
+		WebClient.getConfig(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+		return client.get(String.class);
+	}
+
+	private static class CountingFeature extends AbstractFeature {
+
+		private final AtomicInteger initialized = new AtomicInteger();
+		private final AtomicInteger intercepted = new AtomicInteger();
+
+		@Override
+		public void initialize(Server server, Bus bus) {
+			initialized.incrementAndGet();
+			super.initialize(server, bus);
+		}
+
+		@Override
+		protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+			provider.getInInterceptors().add(new AbstractPhaseInterceptor<Message>(Phase.RECEIVE) {
+				@Override
+				public void handleMessage(Message message) {
+					intercepted.incrementAndGet();
+				}
+			});
+		}
+
+	}
+
+	@Path("/orders")
+	public static class OrderService {
+
+		@GET
+		@Path("/{id}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String order(@PathParam("id") String id) {
+			return "order " + id;
+		}
+
+	}
+
+}
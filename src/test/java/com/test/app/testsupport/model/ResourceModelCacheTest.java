@@ -0,0 +1,133 @@
+package com.test.app.testsupport.model;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.model.ResourceModelCache;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.utils.ResourceUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests caching the resource model of a server between starts.
+ */
+public class ResourceModelCacheTest {
+
+	private static final String ADDRESS = "local://cached-model";
+
+	@Rule
+	public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+	@Test
+	public void shouldServeFromCachedModelOnRestart() {
+		LocalJaxRsServer first = startServer();
+		try {
+			assertThat(isCreatedFromModel(first), is(false));
+		} finally {
+			first.stop();
+		}
+
+		LocalJaxRsServer second = startServer();
+		try {
+			assertThat(isCreatedFromModel(second), is(true));
+			assertThat(client(second, "/books/7").get(String.class), is("book 7 in en"));
+			assertThat(client(second, "/books/7").query("lang", "fr").get(String.class), is("book 7 in fr"));
+			assertThat(client(second, "/books").type(MediaType.TEXT_PLAIN).post("new", String.class), is("stored new"));
+		} finally {
+			second.stop();
+		}
+	}
+
+	@Test
+	public void shouldMissWhenServiceClassesDiffer() {
+		ResourceModelCache cache = new ResourceModelCache(cacheDirectory.getRoot());
+		cache.store("server", reflect(BookService.class));
+
+		assertThat(cache.load("server", Collections.<Class<?>>singletonList(BookService.class)), is(notNullValue()));
+		assertThat(cache.load("server", Collections.<Class<?>>singletonList(AuthorService.class)), is(nullValue()));
+		assertThat(cache.load("other", Collections.<Class<?>>singletonList(BookService.class)), is(nullValue()));
+	}
+
+	@Test
+	public void shouldIgnoreUnreadableCache() throws Exception {
+		Files.write("not a model".getBytes("UTF-8"), new File(cacheDirectory.getRoot(), "server.jaxrs-model.xml"));
+		ResourceModelCache cache = new ResourceModelCache(cacheDirectory.getRoot());
+
+		assertThat(cache.load("server", Collections.<Class<?>>singletonList(BookService.class)), is(nullValue()));
+	}
+
+	private LocalJaxRsServer startServer() {
+		return new LocalJaxRsServer("cachedServer", ADDRESS)
+				.property("resourceModelCacheDirectory", cacheDirectory.getRoot().getPath())
+				.services(new BookService())
+				.start();
+	}
+
+	private static boolean isCreatedFromModel(LocalJaxRsServer server) {
+		JAXRSServiceImpl service = (JAXRSServiceImpl) server.getServer().getEndpoint().getService();
+		return service.getClassResourceInfos().get(0).isCreatedFromModel();
+	}
+
+	private static List<ClassResourceInfo> reflect(Class<?> serviceClass) {
+		return Collections.singletonList(
+				ResourceUtils.createClassResourceInfo(serviceClass, serviceClass, true, false));
+	}
+
+	private static WebClient client(LocalJaxRsServer server, String path) {
+		return server.client(path).accept(MediaType.TEXT_PLAIN);
+	}
+
+	@Path("/books")
+	public static class BookService {
+
+		@GET
+		@Path("/{id}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String find(@PathParam("id") int id, @QueryParam("lang") @DefaultValue("en") String language) {
+			return "book " + id + " in " + language;
+		}
+
+		@POST
+		@Consumes(MediaType.TEXT_PLAIN)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String store(String book) {
+			return "stored " + book;
+		}
+
+	}
+
+	@Path("/authors")
+	public static class AuthorService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String list() {
+			return "none";
+		}
+
+	}
+
+}
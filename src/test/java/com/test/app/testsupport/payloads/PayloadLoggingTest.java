@@ -0,0 +1,168 @@
+package com.test.app.testsupport.payloads;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLogger;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLoggingFeature;
+import org.apache.cxf.cfgproto.spring.payloads.PayloadLoggingPolicy;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests logging sampled and filtered request and response bodies.
+ */
+public class PayloadLoggingTest {
+
+	private static final String ADDRESS = "local://payload-logging";
+
+	private final PayloadLoggingPolicy serverPolicy = new PayloadLoggingPolicy();
+	private final List<String> logged = new CopyOnWriteArrayList<String>();
+	private final Handler handler = new Handler() {
+		@Override
+		public void publish(LogRecord record) {
+			logged.add(record.getMessage());
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+	private final LocalJaxRsServer server = new LocalJaxRsServer("payloadServer", ADDRESS);
+
+	@Before
+	public void captureLogs() {
+		Logger.getLogger("payloads.server").addHandler(handler);
+		Logger.getLogger("payloads.client").addHandler(handler);
+		serverPolicy.setLoggerName("payloads.server");
+	}
+
+	@After
+	public void stopServer() {
+		Logger.getLogger("payloads.server").removeHandler(handler);
+		Logger.getLogger("payloads.client").removeHandler(handler);
+		server.stop();
+	}
+
+	@Test
+	public void shouldLogOnlyErrorsWhenNothingIsSampled() {
+		serverPolicy.setSampleRate(0);
+		startServer();
+
+		assertThat(client(null, "/echo/200").post("fine", String.class), is("fine"));
+		assertThat(client(null, "/echo/409").post("conflicting").getStatus(), is(409));
+
+		assertThat(logged, hasSize(1));
+		assertThat(logged.get(0), containsString("POST /echo/409 409"));
+		assertThat(logged.get(0), containsString("request body (11 bytes): conflicting"));
+	}
+
+	@Test
+	public void shouldTruncateSampledBodies() {
+		serverPolicy.setSampleRate(1);
+		serverPolicy.setErrors(false);
+		serverPolicy.setMaxBytes(8);
+		startServer();
+
+		client(null, "/echo/200").post(Strings.repeat("x", 100), String.class);
+
+		assertThat(logged, hasSize(1));
+		assertThat(logged.get(0), containsString("POST /echo/200 200 [sampled]"));
+		assertThat(logged.get(0), containsString("request body (truncated, 100 bytes): xxxxxxxx\n"));
+		assertThat(logged.get(0), containsString("response body (truncated, 100 bytes): xxxxxxxx"));
+	}
+
+	@Test
+	public void shouldLogFilteredStatusesOfClientCalls() {
+		serverPolicy.setSampleRate(0);
+		serverPolicy.setErrors(false);
+		startServer();
+		PayloadLoggingPolicy clientPolicy = new PayloadLoggingPolicy();
+		clientPolicy.setLoggerName("payloads.client");
+		clientPolicy.setSampleRate(0);
+		clientPolicy.setErrors(false);
+		clientPolicy.setStatuses(new int[] {202});
+		PayloadLogger clientLogger = clientPolicy.createPayloadLogger();
+
+		client(clientLogger, "/echo/200").post("ignored", String.class);
+		client(clientLogger, "/echo/202").post("accepted", String.class);
+
+		assertThat(logged, hasSize(1));
+		assertThat(logged.get(0), containsString("/echo/202 202"));
+		assertThat(logged.get(0), containsString("request body (8 bytes): accepted"));
+		assertThat(logged.get(0), containsString("response body (8 bytes): accepted"));
+		assertThat(logged.get(0), not(containsString("[sampled]")));
+	}
+
+	private void startServer() {
+		server.features(new PayloadLoggingFeature(serverPolicy))
+			  .services(new EchoService())
+			  .start();
+	}
+
+	private WebClient client(PayloadLogger payloadLogger, String path) {
+		WebClient client = server.client(path).type(MediaType.TEXT_PLAIN).accept(MediaType.TEXT_PLAIN);
+		if (payloadLogger != null) {
+			InterceptorRegistry out = new InterceptorRegistry();
+			InterceptorRegistry in = new InterceptorRegistry();
+			payloadLogger.addClientInterceptors(out, in);
+			addAll(WebClient.getConfig(client).getOutInterceptors(), out);
+			addAll(WebClient.getConfig(client).getInInterceptors(), in);
+		}
+		return client;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void addAll(List<Interceptor<? extends Message>> chain, InterceptorRegistry registry) {
+		for (Interceptor<?> interceptor: registry.getInterceptors()) {
+			chain.add((Interceptor<? extends Message>) interceptor);
+		}
+	}
+
+	@Path("/echo")
+	public static class EchoService {
+
+		@POST
+		@Path("/{status}")
+		@Consumes(MediaType.TEXT_PLAIN)
+		@Produces(MediaType.TEXT_PLAIN)
+		public Response echo(@PathParam("status") int status, String body) {
+			if (status == 409) {
+				throw new WebApplicationException(Response.status(status).entity(body).build());
+			}
+			return Response.status(status).entity(body).build();
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.test.app.testsupport.priority;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.cxf.cfgproto.spring.JaxRsServicePolicies;
+import org.apache.cxf.cfgproto.spring.priority.PriorityClass;
+import org.apache.cxf.cfgproto.spring.priority.PriorityDispatchExecutor;
+import org.apache.cxf.cfgproto.spring.priority.PriorityPolicy;
+import org.apache.cxf.cfgproto.spring.priority.PrioritySchedulingFeature;
+import org.apache.cxf.cfgproto.spring.priority.PrioritySchedulingPolicy;
+import org.apache.cxf.cfgproto.spring.priority.SchedulingMode;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the order in which queued work is dispatched, and which work is shed.
+ */
+public class PriorityDispatchExecutorTest {
+
+	private final List<PriorityClass> dispatched = new CopyOnWriteArrayList<PriorityClass>();
+	private PriorityDispatchExecutor executor;
+
+	@After
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void shouldDispatchHighestClassFirstInStrictMode() throws InterruptedException {
+		PrioritySchedulingPolicy policy = new PrioritySchedulingPolicy(1, 10);
+		policy.setMode(SchedulingMode.STRICT);
+		executor = executor(policy);
+		CountDownLatch release = occupyWorker();
+		submit(PriorityClass.BATCH, PriorityClass.DEFAULT, PriorityClass.CRITICAL);
+		CountDownLatch done = submitMarker(PriorityClass.BATCH);
+		release.countDown();
+		done.await(5, SECONDS);
+		assertThat(dispatched, contains(PriorityClass.CRITICAL, PriorityClass.DEFAULT, PriorityClass.BATCH));
+	}
+
+	@Test
+	public void shouldInterleaveClassesByWeightInWeightedMode() throws InterruptedException {
+		PrioritySchedulingPolicy policy = new PrioritySchedulingPolicy(1, 20);
+		policy.setCriticalWeight(2);
+		policy.setDefaultWeight(1);
+		policy.setBatchWeight(1);
+		executor = executor(policy);
+		CountDownLatch release = occupyWorker();
+		for (int i = 0; i < 4; i++) {
+			submit(PriorityClass.CRITICAL, PriorityClass.DEFAULT, PriorityClass.BATCH);
+		}
+		CountDownLatch done = submitMarker(PriorityClass.BATCH);
+		release.countDown();
+		done.await(5, SECONDS);
+		assertThat(dispatched.subList(0, 4), contains(PriorityClass.CRITICAL, PriorityClass.DEFAULT, PriorityClass.BATCH, PriorityClass.CRITICAL));
+	}
+
+	@Test
+	public void shouldShedLowerClassesFirst() throws InterruptedException {
+		executor = executor(new PrioritySchedulingPolicy(1, 10));
+		CountDownLatch release = occupyWorker();
+		for (int i = 0; i < 5; i++) {
+			submit(PriorityClass.DEFAULT);
+		}
+		assertThat(executor.tryAdmit(PriorityClass.BATCH), is(false));
+		assertThat(executor.tryAdmit(PriorityClass.DEFAULT), is(true));
+		assertThat(executor.tryAdmit(PriorityClass.CRITICAL), is(true));
+		assertThat(executor.getShedCount(PriorityClass.BATCH), is(1L));
+		release.countDown();
+	}
+
+	private PriorityDispatchExecutor executor(PrioritySchedulingPolicy policy) {
+		JaxRsServicePolicies<PriorityPolicy> priorities = new JaxRsServicePolicies<PriorityPolicy>(null, Collections.<Class<?>, PriorityPolicy>emptyMap());
+		PriorityDispatchExecutor executor = new PrioritySchedulingFeature(policy, priorities, "test").getExecutor();
+		executor.start();
+		return executor;
+	}
+
+	private CountDownLatch occupyWorker() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, PriorityClass.DEFAULT);
+		started.await(5, SECONDS);
+		return release;
+	}
+
+	private void submit(PriorityClass... priorityClasses) {
+		for (final PriorityClass priorityClass: priorityClasses) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					dispatched.add(priorityClass);
+				}
+			}, priorityClass);
+		}
+	}
+
+	private CountDownLatch submitMarker(PriorityClass priorityClass) {
+		final CountDownLatch done = new CountDownLatch(1);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		}, priorityClass);
+		return done;
+	}
+
+}
@@ -0,0 +1,206 @@
+package com.test.app.testsupport.priority;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.priority.JaxRsPriority;
+import org.apache.cxf.cfgproto.spring.priority.PriorityClass;
+import org.apache.cxf.cfgproto.spring.priority.PriorityDispatchExecutor;
+import org.apache.cxf.cfgproto.spring.priority.PrioritySchedulingPolicy;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.junit.After;
+import org.junit.Test;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests shedding requests of a server with priority scheduling.
+ */
+public class PrioritySchedulingTest {
+
+	private static final String ADDRESS = "local://priority-scheduling";
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final QueueFillingFeature queueFilling = new QueueFillingFeature();
+	private final ReportService service = new ReportService();
+	private final LocalJaxRsServer server = new LocalJaxRsServer("scheduledServer", ADDRESS);
+	private final ExecutorService callers = Executors.newSingleThreadExecutor();
+
+	@After
+	public void stopServer() {
+		release.countDown();
+		server.stop();
+		callers.shutdownNow();
+	}
+
+	@Test
+	public void shouldServeAdmittedRequests() {
+		startServer(1);
+
+		assertThat(client().get(String.class), is("report"));
+	}
+
+	@Test
+	public void shouldShedWith503WhenQueueFillsAfterAdmission() {
+		startServer(1);
+		queueFilling.enabled = true;
+
+		Response response = client().get();
+
+		assertThat(response.getStatus(), is(503));
+		assertThat(response.getHeaderString(HttpHeaders.RETRY_AFTER), is("1"));
+		assertThat(service.invocations.get(), is(0));
+	}
+
+	@Test
+	public void shouldDispatchAfterServerRestarts() {
+		startServer(1);
+		Server endpoint = server.getServer();
+
+		endpoint.stop();
+		endpoint.start();
+
+		assertThat(client().get(String.class), is("report"));
+	}
+
+	@Test
+	public void shouldAdmitByPriorityOfResourceMethod() throws Exception {
+		startServer(2);
+		PriorityDispatchExecutor executor = (PriorityDispatchExecutor) server.getServer().getEndpoint().getService().getExecutor();
+		fill(executor);
+
+		assertThat(server.client("/exports/full").get().getStatus(), is(503));
+		Future<String> urgent = callers.submit(new Callable<String>() {
+			@Override
+			public String call() {
+				return server.client("/exports/urgent").accept(MediaType.TEXT_PLAIN).get(String.class);
+			}
+		});
+		// released once the request is queued behind the filling tasks, or shed
+		for (int i = 0; i < 500 && executor.getQueued() < 2 && !urgent.isDone(); i++) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+		assertThat(urgent.get(5, SECONDS), is("urgent"));
+	}
+
+	private void startServer(int queueCapacity) {
+		server.property("priorityScheduling", new PrioritySchedulingPolicy(1, queueCapacity))
+			  .features(queueFilling)
+			  .services(service, new ExportService())
+			  .start();
+	}
+
+	private WebClient client() {
+		return server.client("/reports").accept(MediaType.TEXT_PLAIN);
+	}
+
+	/*
+	 * Occupies the only dispatch thread and queues one more task, as
+	 * concurrent requests would.
+	 */
+	private void fill(PriorityDispatchExecutor executor) {
+		final CountDownLatch started = new CountDownLatch(1);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, PriorityClass.DEFAULT);
+		try {
+			started.await(5, SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+			}
+		}, PriorityClass.DEFAULT);
+	}
+
+	/*
+	 * Fills the dispatch queue once the request has been admitted.
+	 */
+	private class QueueFillingFeature extends AbstractFeature {
+
+		private volatile boolean enabled;
+
+		@Override
+		protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+			provider.getInInterceptors().add(new AbstractPhaseInterceptor<Message>(Phase.PRE_INVOKE) {
+				@Override
+				public void handleMessage(Message message) {
+					if (enabled) {
+						fill((PriorityDispatchExecutor) message.getExchange().get(Endpoint.class).getService().getExecutor());
+					}
+				}
+			});
+		}
+
+	}
+
+	@Path("/exports")
+	@JaxRsPriority(PriorityClass.BATCH)
+	public static class ExportService {
+
+		@GET
+		@Path("/full")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String full() {
+			return "export";
+		}
+
+		@GET
+		@Path("/urgent")
+		@Produces(MediaType.TEXT_PLAIN)
+		@JaxRsPriority(PriorityClass.CRITICAL)
+		public String urgent() {
+			return "urgent";
+		}
+
+	}
+
+	@Path("/reports")
+	public static class ReportService {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String report() {
+			invocations.incrementAndGet();
+			return "report";
+		}
+
+	}
+
+}
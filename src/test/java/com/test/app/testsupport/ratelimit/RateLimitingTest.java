@@ -0,0 +1,196 @@
+package com.test.app.testsupport.ratelimit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.JaxRsService;
+import org.apache.cxf.cfgproto.spring.ratelimit.JaxRsRateLimit;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitKey;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServer;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurer;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurerAdapter;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests rate limiting a server, and a service in place of its server,
+ * configured through annotations.
+ */
+public class RateLimitingTest {
+
+	private static final String ADDRESS = "local://rate-limited";
+
+	private static final AtomicInteger bodyReads = new AtomicInteger();
+
+	private final LocalJaxRsServer server = LocalJaxRsServer.configuredBy(
+			"rateLimitedServer", ADDRESS, RateLimitedServerConfiguration.class);
+
+	@Configuration
+	@JaxRsServer(serverName = "rateLimitedServer", address = ADDRESS, transport = LocalTransportFactory.TRANSPORT_ID)
+	@JaxRsRateLimit(permitsPerSecond = 0.01, burst = 1, keyedBy = RateLimitKey.API_KEY)
+	static class RateLimitedServerConfiguration {
+		@JaxRsService
+		public Object quoteService() {
+			return new QuoteService();
+		}
+		@JaxRsService
+		@JaxRsRateLimit(permitsPerSecond = 0.01, burst = 3, keyedBy = RateLimitKey.API_KEY)
+		public Object exportService() {
+			return new ExportService();
+		}
+		@Bean
+		public JaxRsServerConfigurer bodyReadCounting() {
+			return new JaxRsServerConfigurerAdapter() {
+				@Override
+				public void addInInterceptors(InterceptorRegistry inInterceptorRegistry) {
+					inInterceptorRegistry.addInterceptors(new BodyReadCountingInterceptor());
+				}
+			};
+		}
+	}
+
+	@Before
+	public void startServer() {
+		bodyReads.set(0);
+		server.start();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldRefuseRequestsOverLimitWith429AndRetryAfter() {
+		assertThat(client("/quotes", "tenant-a").get().getStatus(), is(200));
+
+		Response refused = client("/quotes", "tenant-a").get();
+
+		assertThat(refused.getStatus(), is(429));
+		assertThat(Integer.parseInt(refused.getHeaderString(HttpHeaders.RETRY_AFTER)) > 0, is(true));
+	}
+
+	@Test
+	public void shouldKeepSeparateLimitsPerApiKey() {
+		assertThat(client("/quotes", "tenant-a").get().getStatus(), is(200));
+		assertThat(client("/quotes", "tenant-b").get().getStatus(), is(200));
+		assertThat(client("/quotes", "tenant-a").get().getStatus(), is(429));
+	}
+
+	@Test
+	public void shouldRefuseBeforeReadingTheBody() {
+		assertThat(client("/quotes", "tenant-a").post("first").getStatus(), is(200));
+		assertThat(bodyReads.get(), is(1));
+
+		assertThat(client("/quotes", "tenant-a").post("second").getStatus(), is(429));
+		assertThat(bodyReads.get(), is(1));
+	}
+
+	@Test
+	public void shouldApplyLimitOfServiceInPlaceOfServer() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(client("/exports", "tenant-a").get().getStatus(), is(200));
+		}
+		assertThat(client("/exports", "tenant-a").get().getStatus(), is(429));
+		assertThat(client("/quotes", "tenant-a").get().getStatus(), is(200));
+	}
+
+	private WebClient client(String path, String apiKey) {
+		return server.client(path).type(MediaType.TEXT_PLAIN).accept(MediaType.TEXT_PLAIN).header("X-API-Key", apiKey);
+	}
+
+	/*
+	 * Counts the requests whose body the server starts reading.
+	 */
+	private static class BodyReadCountingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+		BodyReadCountingInterceptor() {
+			super(Phase.RECEIVE);
+		}
+
+		@Override
+		public void handleMessage(Message message) {
+			InputStream in = message.getContent(InputStream.class);
+			if (in != null) {
+				message.setContent(InputStream.class, new FilterInputStream(in) {
+					private boolean read;
+
+					@Override
+					public int read() throws IOException {
+						counted();
+						return super.read();
+					}
+
+					@Override
+					public int read(byte[] b, int off, int len) throws IOException {
+						counted();
+						return super.read(b, off, len);
+					}
+
+					private void counted() {
+						if (!read) {
+							read = true;
+							bodyReads.incrementAndGet();
+						}
+					}
+				});
+			}
+		}
+
+	}
+
+	@Path("/quotes")
+	public static class QuoteService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String quote() {
+			return "quote";
+		}
+
+		@POST
+		@Consumes(MediaType.TEXT_PLAIN)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String save(String quote) {
+			return quote;
+		}
+
+	}
+
+	@Path("/exports")
+	public static class ExportService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String export() {
+			return "export";
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.test.app.testsupport.ratelimit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.apache.cxf.cfgproto.spring.ratelimit.InMemoryRateLimitStore;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimitPolicy;
+import org.apache.cxf.cfgproto.spring.ratelimit.RateLimiter;
+import org.apache.cxf.cfgproto.spring.ratelimit.StoreBackedRateLimiter;
+import org.apache.cxf.cfgproto.spring.ratelimit.TokenBucketRateLimiter;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Tests the token bucket behaviour shared by the in-process and store-backed
+ * rate limiters.
+ */
+public class TokenBucketRateLimiterTest {
+
+	private final ManualTicker ticker = new ManualTicker();
+	
+	private final RateLimitPolicy tenPerSecondBurstOfThree = new RateLimitPolicy(10, 3);
+
+	@Test
+	public void shouldAdmitABurstThenRefuse() {
+		RateLimiter limiter = inProcessLimiter();
+		assertAdmitsBurstThenRefuses(limiter);
+	}
+
+	@Test
+	public void shouldRefillAtTheSteadyRate() {
+		RateLimiter limiter = inProcessLimiter();
+		assertAdmitsBurstThenRefuses(limiter);
+		ticker.advance(100);
+		assertThat(limiter.tryAcquire("tenant"), is(0L));
+		assertThat(limiter.tryAcquire("tenant"), greaterThan(0L));
+	}
+
+	@Test
+	public void shouldKeepSeparateBucketsPerKey() {
+		RateLimiter limiter = inProcessLimiter();
+		assertAdmitsBurstThenRefuses(limiter);
+		assertThat(limiter.tryAcquire("another tenant"), is(0L));
+	}
+
+	@Test
+	public void shouldEvictFullBucketsWhenAStripeIsFull() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(tenPerSecondBurstOfThree, ticker, 1, 2);
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("b");
+		ticker.advance(1000);
+		limiter.tryAcquire("c");
+		assertThat(limiter.size(), is(1));
+	}
+
+	@Test
+	public void shouldBehaveTheSameWhenBackedByAStore() {
+		RateLimiter limiter = new StoreBackedRateLimiter(tenPerSecondBurstOfThree, new InMemoryRateLimitStore(), ticker);
+		assertAdmitsBurstThenRefuses(limiter);
+		ticker.advance(100);
+		assertThat(limiter.tryAcquire("tenant"), is(0L));
+	}
+
+	private void assertAdmitsBurstThenRefuses(RateLimiter limiter) {
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("tenant"), is(0L));
+		}
+		assertThat(limiter.tryAcquire("tenant"), greaterThan(0L));
+	}
+
+	private TokenBucketRateLimiter inProcessLimiter() {
+		return new TokenBucketRateLimiter(tenPerSecondBurstOfThree, ticker, 16, 1024);
+	}
+
+	private static class ManualTicker extends Ticker {
+		private long nanos = 1L;
+		
+		@Override
+		public long read() {
+			return nanos;
+		}
+		
+		void advance(long millis) {
+			nanos += MILLISECONDS.toNanos(millis);
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.test.app.testsupport.resilience;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.apache.cxf.cfgproto.spring.client.resilience.CircuitBreaker;
+import org.apache.cxf.cfgproto.spring.client.resilience.CircuitState;
+import org.apache.cxf.cfgproto.spring.client.resilience.ClientResiliencePolicy;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Tests the transitions of the circuit breaker.
+ */
+public class CircuitBreakerTest {
+
+	private final ManualTicker ticker = new ManualTicker();
+
+	@Test
+	public void shouldOpenOnceTheFailureRateReachesTheThreshold() {
+		CircuitBreaker circuitBreaker = circuitBreaker();
+		for (int i = 0; i < 5; i++) {
+			call(circuitBreaker, true);
+		}
+		for (int i = 0; i < 4; i++) {
+			call(circuitBreaker, false);
+		}
+		assertThat(circuitBreaker.getState(), is(CircuitState.CLOSED));
+		call(circuitBreaker, false);
+		assertThat(circuitBreaker.getState(), is(CircuitState.OPEN));
+		assertThat(circuitBreaker.tryAcquire(), is(false));
+	}
+
+	@Test
+	public void shouldForgetOutcomesThatLeaveTheWindow() {
+		CircuitBreaker circuitBreaker = circuitBreaker();
+		for (int i = 0; i < 4; i++) {
+			call(circuitBreaker, false);
+		}
+		for (int i = 0; i < 20; i++) {
+			call(circuitBreaker, true);
+		}
+		assertThat(circuitBreaker.getFailureRate(), is(0));
+	}
+
+	@Test
+	public void shouldCloseAfterSuccessfulTrialCalls() {
+		CircuitBreaker circuitBreaker = openCircuitBreaker();
+		ticker.advance(1000);
+		for (int i = 0; i < 3; i++) {
+			assertThat(circuitBreaker.tryAcquire(), is(true));
+		}
+		assertThat(circuitBreaker.getState(), is(CircuitState.HALF_OPEN));
+		assertThat(circuitBreaker.tryAcquire(), is(false));
+		for (int i = 0; i < 3; i++) {
+			circuitBreaker.onSuccess();
+		}
+		assertThat(circuitBreaker.getState(), is(CircuitState.CLOSED));
+	}
+
+	@Test
+	public void shouldReopenWhenATrialCallFails() {
+		CircuitBreaker circuitBreaker = openCircuitBreaker();
+		ticker.advance(1000);
+		call(circuitBreaker, false);
+		assertThat(circuitBreaker.getState(), is(CircuitState.OPEN));
+		assertThat(circuitBreaker.tryAcquire(), is(false));
+	}
+
+	private CircuitBreaker openCircuitBreaker() {
+		CircuitBreaker circuitBreaker = circuitBreaker();
+		for (int i = 0; i < 10; i++) {
+			call(circuitBreaker, false);
+		}
+		assertThat(circuitBreaker.getState(), is(CircuitState.OPEN));
+		return circuitBreaker;
+	}
+
+	private CircuitBreaker circuitBreaker() {
+		ClientResiliencePolicy policy = new ClientResiliencePolicy();
+		policy.setSlidingWindowSize(20);
+		policy.setMinimumCalls(10);
+		policy.setFailureRateThreshold(50);
+		policy.setOpenMillis(1000);
+		policy.setHalfOpenCalls(3);
+		return new CircuitBreaker(policy, ticker);
+	}
+
+	private static void call(CircuitBreaker circuitBreaker, boolean success) {
+		assertThat(circuitBreaker.tryAcquire(), is(true));
+		if (success) {
+			circuitBreaker.onSuccess();
+		} else {
+			circuitBreaker.onFailure();
+		}
+	}
+
+	private static class ManualTicker extends Ticker {
+		private long nanos = 1L;
+
+		@Override
+		public long read() {
+			return nanos;
+		}
+
+		void advance(long millis) {
+			nanos += MILLISECONDS.toNanos(millis);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.test.app.testsupport.routing;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.apache.cxf.cfgproto.spring.routing.PathPrefixTrie;
+import org.junit.Test;
+
+/**
+ * Tests matching paths by their longest prefix.
+ */
+public class PathPrefixTrieTest {
+
+	private final PathPrefixTrie<String> trie = new PathPrefixTrie<String>();
+
+	@Test
+	public void shouldMatchLongestPrefixBySegment() {
+		trie.put("/orders", "orders");
+		trie.put("/orders/archive/", "archive");
+
+		assertThat(trie.match("/orders"), is("orders"));
+		assertThat(trie.match("/orders/1"), is("orders"));
+		assertThat(trie.match("//orders/archive/2014"), is("archive"));
+		assertThat(trie.match("/ordersArchive"), is(nullValue()));
+		assertThat(trie.match("/"), is(nullValue()));
+	}
+
+	@Test
+	public void shouldFallBackToRootPrefixAndShorterPrefixesOnceRemoved() {
+		trie.put("/", "root");
+		trie.put("/orders", "orders");
+		trie.put("/orders/archive", "archive");
+
+		assertThat(trie.remove("/orders/archive"), is("archive"));
+
+		assertThat(trie.match("/orders/archive/2014"), is("orders"));
+		assertThat(trie.match("/customers/1"), is("root"));
+		assertThat(trie.get("/orders/archive"), is(nullValue()));
+		assertThat(trie.remove("/unknown"), is(nullValue()));
+	}
+
+}
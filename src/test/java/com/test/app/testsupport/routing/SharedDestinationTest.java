@@ -0,0 +1,135 @@
+package com.test.app.testsupport.routing;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.cxf.cfgproto.spring.local.LocalEndpointRegistry;
+import org.apache.cxf.cfgproto.spring.routing.SharedDestination;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurationFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests servers sharing a destination, each under its own prefix.
+ */
+public class SharedDestinationTest {
+
+	private static final String SHARED_ADDRESS = "local://shared";
+
+	private AnnotationConfigApplicationContext context;
+
+	@Before
+	public void startServers() {
+		context = new AnnotationConfigApplicationContext();
+		context.registerBeanDefinition("ordersServer", server("/orders", new ItemService("order")));
+		context.registerBeanDefinition("archivedOrdersServer", server("/orders/archive", new ItemService("archived order")));
+		context.registerBeanDefinition("customersServer", server("/customers", new ItemService("customer")));
+		context.refresh();
+	}
+
+	@After
+	public void stopServers() {
+		if (context != null) {
+			context.close();
+		}
+	}
+
+	@Test
+	public void shouldDispatchToServerOfLongestPrefix() {
+		assertThat(get("/orders/items/1"), is("order 1"));
+		assertThat(get("/orders/archive/items/2"), is("archived order 2"));
+		assertThat(get("/customers/items/3"), is("customer 3"));
+	}
+
+	@Test
+	public void shouldResolveUrisAgainstPrefixOfServer() {
+		assertThat(get("/customers/items/base"), is("customer local://shared/customers"));
+	}
+
+	@Test
+	public void shouldAnswerUnroutedRequestsWithNotFound() {
+		assertThat(client("/suppliers/items/1").get().getStatus(), is(404));
+		assertThat(client("/orders/nothing").get().getStatus(), is(404));
+	}
+
+	@Test
+	public void shouldServeClientsInJvmOverLocalBindingOfRoutedServer() {
+		WebClient client = LocalJaxRsServer.client(SharedDestination.findBus(SHARED_ADDRESS), "local://customersServer", "/items/4")
+				.accept(MediaType.TEXT_PLAIN);
+
+		assertThat(client.get(String.class), is("customer 4"));
+	}
+
+	@Test
+	public void shouldShutDownDestinationWithLastServer() {
+		assertThat(SharedDestination.findBus(SHARED_ADDRESS), is(notNullValue()));
+
+		context.close();
+		context = null;
+
+		assertThat(SharedDestination.findBus(SHARED_ADDRESS), is(nullValue()));
+	}
+
+	private static GenericBeanDefinition server(String address, Object service) {
+		GenericBeanDefinition server = new GenericBeanDefinition();
+		server.setBeanClass(JaxRsServerConfigurationFactoryBean.class);
+		server.getPropertyValues().add("address", address)
+								  .add("sharedDestinationAddress", SHARED_ADDRESS)
+								  .add("transport", LocalEndpointRegistry.LOCAL_TRANSPORT_ID)
+								  .add("serviceBeans", Collections.<Object>singletonList(service));
+		return server;
+	}
+
+	private String get(String path) {
+		return client(path).get(String.class);
+	}
+
+	private WebClient client(String path) {
+		return LocalJaxRsServer.client(SharedDestination.findBus(SHARED_ADDRESS), SHARED_ADDRESS, path)
+				.accept(MediaType.TEXT_PLAIN);
+	}
+
+	@Path("/items")
+	public static class ItemService {
+
+		private final String kind;
+
+		public ItemService(String kind) {
+			this.kind = kind;
+		}
+
+		@GET
+		@Path("/base")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String base(@Context UriInfo uriInfo) {
+			return kind + " " + uriInfo.getBaseUri();
+		}
+
+		@GET
+		@Path("/{id}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String item(@PathParam("id") String id) {
+			return kind + " " + id;
+		}
+
+	}
+
+}
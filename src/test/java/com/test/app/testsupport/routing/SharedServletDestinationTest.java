@@ -0,0 +1,196 @@
+package com.test.app.testsupport.routing;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.routing.SharedDestination;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurationFactoryBean;
+import org.apache.cxf.transport.servlet.CXFNonSpringServlet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.test.app.testsupport.routing.SharedDestinationTest.ItemService;
+
+/**
+ * Tests servers sharing a servlet destination, whose requests carry their
+ * endpoint address as a request attribute.
+ */
+public class SharedServletDestinationTest {
+
+	private static final String SHARED_ADDRESS = "/shared";
+
+	private AnnotationConfigApplicationContext context;
+	private CXFNonSpringServlet servlet;
+
+	@Before
+	public void startServers() throws Exception {
+		context = new AnnotationConfigApplicationContext();
+		context.registerBeanDefinition("ordersServer", server("/orders", new ItemService("order")));
+		context.registerBeanDefinition("customersServer", server("/customers", new ItemService("customer")));
+		context.refresh();
+		servlet = new CXFNonSpringServlet();
+		servlet.setBus(SharedDestination.findBus(SHARED_ADDRESS));
+		servlet.init(fake(ServletConfig.class, new HashMap<String, Object>()));
+	}
+
+	@After
+	public void stopServers() {
+		context.close();
+	}
+
+	@Test
+	public void shouldDispatchServletRequestsToServerOfPrefix() throws Exception {
+		assertThat(get("/shared/orders/items/1").body(), is("order 1"));
+		assertThat(get("/shared/customers/items/2").body(), is("customer 2"));
+	}
+
+	@Test
+	public void shouldRebaseEndpointAddressOfServletRequests() throws Exception {
+		assertThat(get("/shared/customers/items/base").body(), 
+				   is("customer http://localhost/app/services/shared/customers"));
+	}
+
+	@Test
+	public void shouldAnswerUnroutedServletRequestsWithNotFound() throws Exception {
+		assertThat(get("/shared/suppliers/items/1").status, is(404));
+	}
+
+	private ServletResponse get(String pathInfo) throws Exception {
+		Map<String, Object> request = new HashMap<String, Object>();
+		request.put("getMethod", "GET");
+		request.put("getScheme", "http");
+		request.put("getServerName", "localhost");
+		request.put("getServerPort", 80);
+		request.put("getContextPath", "/app");
+		request.put("getServletPath", "/services");
+		request.put("getPathInfo", pathInfo);
+		request.put("getRequestURI", "/app/services" + pathInfo);
+		request.put("getRequestURL", new StringBuffer("http://localhost/app/services" + pathInfo));
+		request.put("getHeader:Accept", MediaType.TEXT_PLAIN);
+		request.put("getInputStream", new ServletInputStream() {
+			@Override
+			public int read() {
+				return -1;
+			}
+		});
+		ServletResponse response = new ServletResponse();
+		servlet.service(fake(HttpServletRequest.class, request), response.asHttpServletResponse());
+		return response;
+	}
+
+	/*
+	 * The servlet API on the classpath predates the mocks of Spring, so
+	 * requests and responses are faked: methods return the value recorded
+	 * under their name, or under their name and first argument, attributes
+	 * are held as set, and anything else returns nothing.
+	 */
+	private static <T> T fake(Class<T> type, final Map<String, Object> values) {
+		final Map<Object, Object> attributes = new HashMap<Object, Object>();
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if (name.equals("setAttribute")) {
+					return attributes.put(args[0], args[1]);
+				} else if (name.equals("getAttribute")) {
+					return attributes.get(args[0]);
+				} else if (name.equals("removeAttribute")) {
+					return attributes.remove(args[0]);
+				} else if (name.equals("getAttributeNames")) {
+					return Collections.enumeration(attributes.keySet());
+				} else if (name.equals("getHeaders")) {
+					Object header = values.get("getHeader:" + args[0]);
+					return header == null ? Collections.enumeration(Collections.emptyList()) : Collections.enumeration(Collections.singleton(header));
+				} else if (name.equals("getHeaderNames")) {
+					return Collections.enumeration(Collections.singleton("Accept"));
+				} else if (name.equals("getServletContext")) {
+					return fake(ServletContext.class, new HashMap<String, Object>());
+				}
+				if (args != null && args.length > 0 && values.containsKey(name + ":" + args[0])) {
+					return values.get(name + ":" + args[0]);
+				}
+				if (values.containsKey(name)) {
+					return values.get(name);
+				}
+				return defaultValue(method.getReturnType());
+			}
+		}));
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		} else if (type == int.class) {
+			return 0;
+		} else if (type == long.class) {
+			return 0L;
+		} else if (type == Enumeration.class) {
+			return Collections.enumeration(Collections.emptyList());
+		}
+		return null;
+	}
+
+	private static class ServletResponse {
+
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		private int status = 200;
+
+		String body() throws Exception {
+			return body.toString("UTF-8");
+		}
+
+		HttpServletResponse asHttpServletResponse() {
+			final ServletOutputStream out = new ServletOutputStream() {
+				@Override
+				public void write(int b) {
+					body.write(b);
+				}
+			};
+			return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(), 
+					new Class<?>[] {HttpServletResponse.class}, new InvocationHandler() {
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if (name.equals("getOutputStream")) {
+						return out;
+					} else if (name.equals("setStatus") || name.equals("sendError")) {
+						status = (Integer) args[0];
+					}
+					return defaultValue(method.getReturnType());
+				}
+			});
+		}
+
+	}
+
+	private static GenericBeanDefinition server(String address, Object service) {
+		GenericBeanDefinition server = new GenericBeanDefinition();
+		server.setBeanClass(JaxRsServerConfigurationFactoryBean.class);
+		server.getPropertyValues().add("address", address)
+								  .add("sharedDestinationAddress", SHARED_ADDRESS)
+								  .add("localBinding", false)
+								  .add("serviceBeans", Collections.<Object>singletonList(service));
+		return server;
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.test.app.testsupport.server;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.cfgproto.spring.FeatureRegistry;
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.JaxRsServiceRegistry;
+import org.apache.cxf.cfgproto.spring.ProviderRegistry;
+import org.apache.cxf.cfgproto.spring.limits.RequestLimitsPolicy;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurationComposite;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurer;
+import org.apache.cxf.cfgproto.spring.server.JaxRsServerConfigurerAdapter;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.junit.Test;
+
+/**
+ * Tests composing configurers that provide the optional server policies
+ * with those that do not.
+ */
+public class JaxRsServerConfigurationCompositeTest {
+
+	private final JaxRsServerConfigurationComposite composite = new JaxRsServerConfigurationComposite();
+
+	@Test
+	public void shouldComposeConfigurersWithoutPolicies() {
+		composite.addJaxRsServerConfigurers(asList((JaxRsServerConfigurer) new AddressConfigurer()));
+
+		assertThat(composite.getAddress(), is("/orders"));
+		assertThat(composite.getRequestLimits(), is(nullValue()));
+	}
+
+	@Test
+	public void shouldTakePoliciesFromPolicyConfigurers() {
+		final RequestLimitsPolicy requestLimits = new RequestLimitsPolicy();
+		JaxRsServerConfigurer policyConfigurer = new JaxRsServerConfigurerAdapter() {
+			@Override
+			public RequestLimitsPolicy serverRequestLimits() {
+				return requestLimits;
+			}
+		};
+		composite.addJaxRsServerConfigurers(asList(new AddressConfigurer(), policyConfigurer));
+
+		assertThat(composite.getAddress(), is("/orders"));
+		assertThat(composite.getRequestLimits(), is(sameInstance(requestLimits)));
+	}
+
+	/*
+	 * Implements the configurer interface alone, as configurers written
+	 * before the optional policies did.
+	 */
+	private static class AddressConfigurer implements JaxRsServerConfigurer {
+
+		@Override
+		public String serverAddress() {
+			return "/orders";
+		}
+
+		@Override
+		public String serverTransport() {
+			return null;
+		}
+
+		@Override
+		public Bus serverBus() {
+			return null;
+		}
+
+		@Override
+		public void addServices(JaxRsServiceRegistry serviceRegistry) {
+		}
+
+		@Override
+		public void addOutInterceptors(InterceptorRegistry outInterceptorRegistry) {
+		}
+
+		@Override
+		public void addInInterceptors(InterceptorRegistry inInterceptorRegistry) {
+		}
+
+		@Override
+		public void addFaultInInterceptors(InterceptorRegistry faultInInterceptorRegistry) {
+		}
+
+		@Override
+		public void addFaultOutInterceptors(InterceptorRegistry faultOutInterceptorRegistry) {
+		}
+
+		@Override
+		public void addProviders(ProviderRegistry providerRegistry) {
+		}
+
+		@Override
+		public void addFeatures(FeatureRegistry featureRegistry) {
+		}
+
+		@Override
+		public void configureFactoryBean(JAXRSServerFactoryBean factoryBean) {
+		}
+
+	}
+
+}
@@ -0,0 +1,138 @@
+package com.test.app.testsupport.slowrequests;
+
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.JaxRsManagementUtils;
+import org.apache.cxf.cfgproto.spring.slowrequests.SlowRequest;
+import org.apache.cxf.cfgproto.spring.slowrequests.SlowRequestPolicy;
+import org.apache.cxf.cfgproto.spring.slowrequests.SlowRequestRecorder;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.junit.After;
+import org.junit.Test;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests recording the timelines of slow requests.
+ */
+public class SlowRequestTest {
+
+	private static final String ADDRESS = "local://slow-requests";
+
+	private final CapturingPolicy policy = new CapturingPolicy();
+	private final LocalJaxRsServer server = new LocalJaxRsServer("slowServer", ADDRESS);
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldRecordOnlySlowRequestsWithTheSlowStep() {
+		policy.setThresholdMillis(50);
+		startServer();
+
+		get("/delays/0");
+		get("/delays/80");
+
+		List<SlowRequest> slow = policy.recorder.getSlowRequests();
+		assertThat(slow, hasSize(1));
+		SlowRequest request = slow.get(0);
+		assertThat(request.getHttpMethod(), is("GET"));
+		assertThat(request.getUri(), containsString("/delays/80"));
+		assertThat(request.getStatus(), is(200));
+		assertThat(request.getStepNanos("invoked"), is(greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(80))));
+		assertThat(request.getStepNanos("headersParsed"), is(greaterThanOrEqualTo(0L)));
+		assertThat(request.getStepNanos("bodyRead"), is(greaterThanOrEqualTo(0L)));
+		assertThat(request.getStepNanos("written"), is(greaterThanOrEqualTo(0L)));
+		assertThat(request.getStepNanos("flushed"), is(greaterThanOrEqualTo(0L)));
+		assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(
+				JaxRsManagementUtils.serverObjectName("SlowRequests", "slowServer")), is(true));
+	}
+
+	@Test
+	public void shouldKeepMostRecentSlowRequestsInRing() {
+		policy.setThresholdMillis(0);
+		policy.setCapacity(2);
+		startServer();
+
+		get("/delays/1");
+		get("/delays/2");
+		get("/delays/3");
+
+		String[] dump = policy.recorder.dump();
+		assertThat(dump, is(arrayWithSize(2)));
+		assertThat(dump[0], containsString("GET /delays/3 200"));
+		assertThat(dump[0], containsString("invoked="));
+		assertThat(dump[1], containsString("GET /delays/2 200"));
+		assertThat(policy.recorder.getSlowRequestCount(), is(3L));
+	}
+
+	@Test
+	public void shouldRecordRequestsMatchingNoResource() {
+		policy.setThresholdMillis(0);
+		startServer();
+
+		WebClient client = client("/nowhere");
+		assertThat(client.get().getStatus(), is(404));
+
+		SlowRequest request = policy.recorder.getSlowRequests().get(0);
+		assertThat(request.getStatus(), is(404));
+		assertThat(request.getStepNanos("bodyRead"), is(-1L));
+	}
+
+	private void startServer() {
+		server.property("slowRequests", policy)
+			  .services(new DelayService())
+			  .start();
+	}
+
+	private String get(String path) {
+		return client(path).get(String.class);
+	}
+
+	private WebClient client(String path) {
+		return server.client(path).accept(MediaType.TEXT_PLAIN);
+	}
+
+	@Path("/delays")
+	public static class DelayService {
+
+		@GET
+		@Path("/{millis}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String delay(@PathParam("millis") long millis) throws InterruptedException {
+			Thread.sleep(millis);
+			return "slept " + millis;
+		}
+
+	}
+
+	private static class CapturingPolicy extends SlowRequestPolicy {
+
+		private SlowRequestRecorder recorder;
+
+		@Override
+		public SlowRequestRecorder createRecorder() {
+			recorder = super.createRecorder();
+			return recorder;
+		}
+
+	}
+
+}
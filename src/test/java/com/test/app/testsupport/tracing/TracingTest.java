@@ -0,0 +1,273 @@
+package com.test.app.testsupport.tracing;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.InterceptorRegistry;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingInvocationHandler;
+import org.apache.cxf.cfgproto.spring.client.hedging.HedgingPolicy;
+import org.apache.cxf.cfgproto.spring.tracing.FileSpanExporter;
+import org.apache.cxf.cfgproto.spring.tracing.InMemorySpanExporter;
+import org.apache.cxf.cfgproto.spring.tracing.Sampler;
+import org.apache.cxf.cfgproto.spring.tracing.Span;
+import org.apache.cxf.cfgproto.spring.tracing.TraceContext;
+import org.apache.cxf.cfgproto.spring.tracing.Tracer;
+import org.apache.cxf.cfgproto.spring.tracing.TracingPolicy;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Ticker;
+import com.google.common.io.Files;
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests propagating traces and recording the spans of sampled ones.
+ */
+public class TracingTest {
+
+	private static final String ADDRESS = "local://tracing";
+	private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+	private static final String PARENT_ID = "00f067aa0ba902b7";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final InMemorySpanExporter exporter = new InMemorySpanExporter(100);
+	private final TracingPolicy policy = new TracingPolicy();
+	private final LocalJaxRsServer server = new LocalJaxRsServer("tracedServer", ADDRESS);
+
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+
+	@Test
+	public void shouldParseOnlyWellFormedTraceparents() {
+		TraceContext parsed = TraceContext.parse("00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+
+		assertThat(parsed.getTraceId(), is(TRACE_ID));
+		assertThat(parsed.getSpanId(), is(PARENT_ID));
+		assertThat(parsed.isSampled(), is(true));
+		assertThat(parsed.toTraceparent(), is("00-" + TRACE_ID + "-" + PARENT_ID + "-01"));
+		assertThat(TraceContext.parse("00-" + TRACE_ID + "-" + PARENT_ID + "-01-extra"), is(nullValue()));
+		assertThat(TraceContext.parse("00-" + TRACE_ID.toUpperCase() + "-" + PARENT_ID + "-01"), is(nullValue()));
+		assertThat(TraceContext.parse("00-00000000000000000000000000000000-" + PARENT_ID + "-01"), is(nullValue()));
+		assertThat(TraceContext.parse("01-" + TRACE_ID + "-" + PARENT_ID + "-00-extra").isSampled(), is(false));
+	}
+
+	@Test
+	public void shouldRecordClientServerAndResourceSpansOfOneTrace() {
+		policy.setSampleRate(1);
+		policy.setMaxTracesPerSecond(0);
+		Tracer tracer = startServer();
+
+		String seen = client(tracer).get(String.class);
+
+		Span clientSpan = spanOf(Span.Kind.CLIENT);
+		Span serverSpan = spanOf(Span.Kind.SERVER);
+		Span resourceSpan = spanOf(Span.Kind.INTERNAL);
+		assertThat(clientSpan.getParentSpanId(), is(nullValue()));
+		assertThat(serverSpan.getParentSpanId(), is(clientSpan.getSpanId()));
+		assertThat(serverSpan.getTraceId(), is(clientSpan.getTraceId()));
+		assertThat(serverSpan.getAttributes().get("http.status_code"), is("200"));
+		assertThat(resourceSpan.getParentSpanId(), is(serverSpan.getSpanId()));
+		assertThat(resourceSpan.getName(), is("TracedService.current"));
+		assertThat(seen, is(resourceSpan.getContext().toTraceparent()));
+	}
+
+	@Test
+	public void shouldContinueTraceOfCallerInHedgedCalls() {
+		policy.setSampleRate(1);
+		policy.setMaxTracesPerSecond(0);
+		Tracer tracer = startServer();
+		Traced client = (Traced) HedgingInvocationHandler.newProxy(proxyClient(tracer), new HedgingPolicy());
+
+		TraceContext previous = Tracer.setCurrentContext(TraceContext.parse("00-" + TRACE_ID + "-" + PARENT_ID + "-01"));
+		String seen;
+		try {
+			seen = client.current();
+		} finally {
+			Tracer.setCurrentContext(previous);
+		}
+
+		assertThat(spanOf(Span.Kind.CLIENT).getParentSpanId(), is(PARENT_ID));
+		assertThat(spanOf(Span.Kind.CLIENT).getTraceId(), is(TRACE_ID));
+		assertThat(TraceContext.parse(seen).getTraceId(), is(TRACE_ID));
+	}
+
+	@Test
+	public void shouldPassUnsampledTraceOnWithoutSpans() {
+		policy.setSampleRate(1);
+		startServer();
+		String traceparent = "00-" + TRACE_ID + "-" + PARENT_ID + "-00";
+
+		String seen = client(null).header(Tracer.TRACEPARENT, traceparent).get(String.class);
+
+		assertThat(seen, is(traceparent));
+		assertThat(exporter.getSpans(), is(empty()));
+	}
+
+	@Test
+	public void shouldPassUnsampledContextOfNewTraceOn() {
+		policy.setSampleRate(0);
+		startServer();
+
+		TraceContext seen = TraceContext.parse(client(null).get(String.class));
+
+		assertThat(seen.isSampled(), is(false));
+		assertThat(exporter.getSpans(), is(empty()));
+	}
+
+	@Test
+	public void shouldHonorSampledParent() {
+		policy.setSampleRate(0);
+		startServer();
+
+		client(null).header(Tracer.TRACEPARENT, "00-" + TRACE_ID + "-" + PARENT_ID + "-01").get(String.class);
+
+		assertThat(exporter.getSpans(), hasSize(2));
+		assertThat(spanOf(Span.Kind.SERVER).getParentSpanId(), is(PARENT_ID));
+		assertThat(spanOf(Span.Kind.SERVER).getTraceId(), is(TRACE_ID));
+	}
+
+	@Test
+	public void shouldLimitSampledTracesPerSecond() {
+		FakeTicker ticker = new FakeTicker();
+		Sampler sampler = new Sampler(1, 2, ticker);
+
+		assertThat(sampler.isSampled(), is(true));
+		assertThat(sampler.isSampled(), is(true));
+		assertThat(sampler.isSampled(), is(false));
+		ticker.advance(500);
+		assertThat(sampler.isSampled(), is(true));
+		assertThat(sampler.isSampled(), is(false));
+	}
+
+	@Test
+	public void shouldWriteSpansAsJsonLines() throws Exception {
+		File file = folder.newFile("spans.json");
+		FileSpanExporter fileExporter = new FileSpanExporter(file);
+		policy.setSampleRate(1);
+		policy.setExporter(fileExporter);
+		Tracer tracer = policy.createTracer();
+
+		tracer.startSpan("GET \"quoted\"", Span.Kind.CLIENT, null).setAttribute("http.status_code", "200").end();
+		tracer.close();
+
+		List<String> lines = Files.readLines(file, Charsets.UTF_8);
+		assertThat(lines, hasSize(1));
+		assertThat(lines.get(0), containsString("\"name\":\"GET \\\"quoted\\\"\""));
+		assertThat(lines.get(0), containsString("\"attributes\":{\"http.status_code\":\"200\"}}"));
+	}
+
+	private Span spanOf(Span.Kind kind) {
+		for (Span span: exporter.getSpans()) {
+			if (span.getKind() == kind) {
+				return span;
+			}
+		}
+		throw new AssertionError("No " + kind + " span in " + exporter.getSpans());
+	}
+
+	private Tracer startServer() {
+		policy.setExporter(exporter);
+		Tracer tracer = policy.createTracer();
+		server.bean("tracer", tracer)
+			  .services(new TracedService())
+			  .start();
+		return tracer;
+	}
+
+	private WebClient client(Tracer tracer) {
+		WebClient client = server.client("/traced").accept(MediaType.TEXT_PLAIN);
+		configure(client, tracer);
+		return client;
+	}
+
+	private Traced proxyClient(Tracer tracer) {
+		JAXRSClientFactoryBean factoryBean = new JAXRSClientFactoryBean();
+		factoryBean.setAddress(ADDRESS);
+		factoryBean.setBus(server.getBus());
+		factoryBean.setServiceClass(Traced.class);
+		Traced client = factoryBean.create(Traced.class);
+		configure(client, tracer);
+		return client;
+	}
+
+	private static void configure(Object client, Tracer tracer) {
+		WebClient.getConfig(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+		if (tracer != null) {
+			InterceptorRegistry out = new InterceptorRegistry();
+			InterceptorRegistry in = new InterceptorRegistry();
+			tracer.addClientInterceptors(out, in);
+			addAll(WebClient.getConfig(client).getOutInterceptors(), out);
+			addAll(WebClient.getConfig(client).getInInterceptors(), in);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void addAll(List<Interceptor<? extends Message>> chain, InterceptorRegistry registry) {
+		for (Interceptor<?> interceptor: registry.getInterceptors()) {
+			chain.add((Interceptor<? extends Message>) interceptor);
+		}
+	}
+
+	@Path("/traced")
+	public interface Traced {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		String current();
+
+	}
+
+	@Path("/traced")
+	public static class TracedService {
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String current() {
+			TraceContext current = Tracer.currentContext();
+			return current == null ? "none" : current.toTraceparent();
+		}
+
+	}
+
+	private static class FakeTicker extends Ticker {
+
+		private final AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+		void advance(long millis) {
+			nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+		}
+
+		@Override
+		public long read() {
+			return nanos.get();
+		}
+
+	}
+
+}
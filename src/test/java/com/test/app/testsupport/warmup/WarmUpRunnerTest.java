@@ -0,0 +1,152 @@
+package com.test.app.testsupport.warmup;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpPolicy;
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpRequest;
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpRunner;
+import org.apache.cxf.cfgproto.spring.warmup.WarmUpSamples;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.utils.ResourceUtils;
+import org.junit.Test;
+
+import com.test.app.testsupport.LocalJaxRsServer;
+
+/**
+ * Tests warming up a server before it starts.
+ */
+public class WarmUpRunnerTest {
+
+	private final WarmUpPolicy policy = new WarmUpPolicy();
+
+	@Test
+	public void shouldGenerateRequestsForSafeMethodsOnly() {
+		List<WarmUpRequest> requests = new WarmUpRunner(policy).createRequests(resources(OrderService.class), 
+																			  Collections.singletonList(new OrderService()));
+
+		assertThat(describe(requests), contains("GET /orders/1 text/plain"));
+	}
+
+	@Test
+	public void shouldGenerateRequestsForUnsafeMethodsWhenAllowed() {
+		policy.setUnsafeMethods(true);
+
+		List<WarmUpRequest> requests = new WarmUpRunner(policy).createRequests(resources(OrderService.class), 
+																			  Collections.singletonList(new OrderService()));
+
+		assertThat(describe(requests), containsInAnyOrder("GET /orders/1 text/plain", "POST /orders text/plain", 
+														  "DELETE /orders/1 */*"));
+	}
+
+	@Test
+	public void shouldUseRequestsSuppliedByService() {
+		List<WarmUpRequest> requests = new WarmUpRunner(policy).createRequests(resources(SampledService.class), 
+																			  Collections.singletonList(new SampledService()));
+
+		assertThat(describe(requests), contains("GET /sampled/42 text/plain"));
+	}
+
+	@Test
+	public void shouldWarmUpServerBeforeStarting() {
+		CountingService service = new CountingService();
+		policy.setIterations(25);
+		LocalJaxRsServer server = new LocalJaxRsServer("warmServer", "local://warm-up");
+		try {
+			server.property("warmUp", policy)
+				  .services(service)
+				  .start();
+
+			assertThat(service.warmUps.get(), is(25));
+		} finally {
+			server.stop();
+		}
+	}
+
+	private static List<ClassResourceInfo> resources(Class<?> serviceClass) {
+		return Collections.singletonList(ResourceUtils.createClassResourceInfo(serviceClass, serviceClass, true, false));
+	}
+
+	private static List<String> describe(List<WarmUpRequest> requests) {
+		List<String> descriptions = new ArrayList<String>();
+		for (WarmUpRequest request: requests) {
+			descriptions.add(request + " " + request.getAccept());
+		}
+		return descriptions;
+	}
+
+	@Path("/orders")
+	public static class OrderService {
+
+		@GET
+		@Path("/{id}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String find(@PathParam("id") long id) {
+			return "order " + id;
+		}
+
+		@POST
+		@Consumes(MediaType.TEXT_PLAIN)
+		@Produces(MediaType.TEXT_PLAIN)
+		public String place(String order) {
+			return order;
+		}
+
+		@DELETE
+		@Path("/{id}")
+		public void cancel(@PathParam("id") long id) {}
+
+	}
+
+	@Path("/sampled")
+	public static class SampledService implements WarmUpSamples {
+
+		@GET
+		@Path("/{id}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String find(@PathParam("id") long id) {
+			return "sample " + id;
+		}
+
+		@Override
+		public List<WarmUpRequest> getWarmUpRequests() {
+			return Arrays.asList(WarmUpRequest.get("/sampled/42", MediaType.TEXT_PLAIN));
+		}
+
+	}
+
+	@Path("/counting")
+	public static class CountingService {
+
+		private final AtomicInteger warmUps = new AtomicInteger();
+
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String count(@HeaderParam(WarmUpRunner.WARM_UP_HEADER) boolean warmUp) {
+			if (warmUp) {
+				warmUps.incrementAndGet();
+			}
+			return "counted";
+		}
+
+	}
+
+}